@@ -2,12 +2,17 @@ module org.example.dndfactionsimulator {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql;
+    requires java.management;
+    requires jdk.jfr;
+    requires jdk.management;
+    requires java.desktop;
 
     opens org.example.dndfactionsimulator to javafx.fxml;
     opens org.example.dndfactionsimulator.model to javafx.base;
     opens org.example.dndfactionsimulator.ui to javafx.fxml;
 
     exports org.example.dndfactionsimulator;
+    exports org.example.dndfactionsimulator.metrics;
     exports org.example.dndfactionsimulator.model;
     exports org.example.dndfactionsimulator.ui;
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package org.example.dndfactionsimulator;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.export.ChartImageExporter;
+import org.example.dndfactionsimulator.export.NetworkImageExporter;
+import org.example.dndfactionsimulator.metrics.*;
+import org.example.dndfactionsimulator.simulation.*;
+import org.example.dndfactionsimulator.store.OffHeapFactionStore;
+import org.example.dndfactionsimulator.util.CollectionBenchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Runs the simulation without the JavaFX UI.
+ *
+ * Usage: HeadlessRunner [--turns N] [--jfr recording.jfr] [--factions N [--seed S]] [--off-heap]
+ *        HeadlessRunner --collections-bench [--factions N]
+ *        HeadlessRunner --golden [--turns N] [--factions N] [--seed S] [--golden-save file | --golden-check file]
+ *        HeadlessRunner --export dir [--turns N] [--factions N] [--seed S] [--export-size WxH] [--tile-size N]
+ *
+ * Runs and exports use the saved world unless --factions is given, in which case a
+ * synthetic world of that size is generated first. Exports render the relationship
+ * network and analytics charts to PNG files in dir.
+ *
+ * With --off-heap the turns run on an off-heap copy of the factions (the factions each
+ * turn changes are still saved with its relationships and events), and the heap and
+ * direct memory in use are reported at the end.
+ */
+public class HeadlessRunner {
+
+    public static void main(String[] args) {
+        int turns = 10;
+        int factions = 500;
+        long seed = 42L;
+        boolean collectionsBenchmark = false;
+        boolean offHeap = false;
+        boolean golden = false;
+        Path goldenSave = null;
+        Path goldenCheck = null;
+        Path jfrFile = null;
+        Path exportDir = null;
+        boolean syntheticWorld = false;
+        int exportWidth = 4096;
+        int exportHeight = 4096;
+        int tileSize = NetworkImageExporter.DEFAULT_TILE_SIZE;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--turns" -> turns = Integer.parseInt(args[++i]);
+                case "--jfr" -> jfrFile = Path.of(args[++i]);
+                case "--factions" -> {
+                    factions = Integer.parseInt(args[++i]);
+                    syntheticWorld = true;
+                }
+                case "--collections-bench" -> collectionsBenchmark = true;
+                case "--off-heap" -> offHeap = true;
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--golden" -> golden = true;
+                case "--golden-save" -> goldenSave = Path.of(args[++i]);
+                case "--golden-check" -> goldenCheck = Path.of(args[++i]);
+                case "--export" -> exportDir = Path.of(args[++i]);
+                case "--export-size" -> {
+                    String[] size = args[++i].split("x");
+                    exportWidth = Integer.parseInt(size[0]);
+                    exportHeight = Integer.parseInt(size[size.length - 1]);
+                }
+                case "--tile-size" -> tileSize = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: HeadlessRunner [--turns N] [--jfr recording.jfr] [--factions N [--seed S]] [--off-heap]");
+                    System.err.println("       HeadlessRunner --collections-bench [--factions N]");
+                    System.err.println("       HeadlessRunner --golden [--turns N] [--factions N] [--seed S] " +
+                            "[--golden-save file | --golden-check file]");
+                    System.err.println("       HeadlessRunner --export dir [--turns N] [--factions N] [--seed S] " +
+                            "[--export-size WxH] [--tile-size N]");
+                    System.exit(1);
+                }
+            }
+        }
+
+        if (collectionsBenchmark) {
+            new CollectionBenchmark(factions).run();
+            return;
+        }
+
+        if (golden) {
+            System.exit(runGolden(factions, turns, seed, goldenSave, goldenCheck) ? 0 : 1);
+        }
+
+        if (exportDir != null) {
+            // Java2D must not look for a display
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        DatabaseManager db = syntheticWorld
+                ? SyntheticWorld.create(factions, 10, seed)
+                : DatabaseManager.getInstance();
+        SimulationEngine engine = new SimulationEngine(db);
+        OffHeapFactionStore store = offHeap ? OffHeapFactionStore.load(db.getAllFactions()) : null;
+        engine.setFactionStore(store);
+
+        Recording recording = jfrFile != null ? startRecording() : null;
+
+        for (int i = 0; i < turns; i++) {
+            if (store != null ? !store.hasActiveFactions() : db.getActiveFactions().isEmpty()) {
+                System.out.println("⚠️ No active factions left, stopping after " + i + " turns");
+                break;
+            }
+            engine.runTurn();
+        }
+
+        if (recording != null) {
+            stopRecording(recording, jfrFile);
+        }
+
+        System.out.println(engine.getMetrics().snapshot());
+        if (store != null) {
+            reportMemory(store);
+        }
+
+        boolean exported = exportDir == null || export(db, exportDir, exportWidth, exportHeight, tileSize);
+        db.close();
+        if (!exported) {
+            System.exit(1);
+        }
+    }
+
+    private static void reportMemory(OffHeapFactionStore store) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("📦 Off-heap store: %d factions, %d names, %.1f MB direct; heap in use %.1f MB%n",
+                store.size(), store.getNameCount(), store.getOffHeapBytes() / 1048576.0,
+                (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0);
+    }
+
+    private static boolean export(DatabaseManager db, Path directory, int width, int height, int tileSize) {
+        try {
+            Files.createDirectories(directory);
+            new NetworkImageExporter(width, height, tileSize)
+                    .export(db.getActiveFactions(), db.getAllRelationships(), directory.resolve("network.png"));
+            new ChartImageExporter(db, 1600, 900).export(directory);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("❌ Export failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean runGolden(int factions, int turns, long seed, Path saveFile, Path checkFile) {
+        GoldenRunHarness harness = new GoldenRunHarness(factions, turns, seed);
+        harness.addRegisteredModes();
+
+        try {
+            if (saveFile != null) {
+                harness.record(GoldenRunHarness.REFERENCE, GoldenRunHarness.referenceMode()).write(saveFile);
+                System.out.println("✅ Golden trace written to " + saveFile.toAbsolutePath());
+                return true;
+            }
+            if (checkFile != null) {
+                return harness.check(GoldenTrace.read(checkFile));
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Golden trace I/O failed: " + e.getMessage());
+            return false;
+        }
+        return harness.run();
+    }
+
+    private static Recording startRecording() {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+        } catch (IOException | ParseException e) {
+            System.err.println("⚠️ Could not load JFR profile settings, using defaults: " + e.getMessage());
+            recording = new Recording();
+        }
+
+        recording.setName("DnDFactionSimulator");
+        recording.enable(TurnBeginEvent.class);
+        recording.enable(TurnEndEvent.class);
+        recording.enable(FactionActionEvent.class);
+        recording.enable(DbStatementEvent.class);
+        recording.start();
+        System.out.println("✅ Flight recording started");
+        return recording;
+    }
+
+    private static void stopRecording(Recording recording, Path file) {
+        try {
+            recording.stop();
+            recording.dump(file);
+            System.out.println("✅ Flight recording written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("❌ Could not write flight recording: " + e.getMessage());
+        } finally {
+            recording.close();
+        }
+    }
+}
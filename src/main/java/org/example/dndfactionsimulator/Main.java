@@ -5,11 +5,17 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import org.example.dndfactionsimulator.analytics.WorldRollup;
 import org.example.dndfactionsimulator.database.*;
+import org.example.dndfactionsimulator.graph.AllianceBlocs;
+import org.example.dndfactionsimulator.graph.FactionInfluence;
 import org.example.dndfactionsimulator.ui.*;
 import org.example.dndfactionsimulator.simulation.*;
 import org.example.dndfactionsimulator.model.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Main extends Application {
     private DatabaseManager db;
@@ -19,6 +25,8 @@ public class Main extends Application {
     private PlayerInfluencePanel playerInfluencePanel;
     private AnalyticsPanel analyticsPanel;
     private RelationshipNetworkPanel relationshipNetworkPanel;
+    private RelationshipMatrixPanel relationshipMatrixPanel;
+    private PerformancePanel performancePanel;
     private Label turnLabel;
 
     @Override
@@ -80,6 +88,13 @@ public class Main extends Application {
         relationshipNetworkPanel = new RelationshipNetworkPanel(db);
         networkTab.setContent(relationshipNetworkPanel);
 
+        // Relationship Matrix Tab
+        Tab matrixTab = new Tab("🟩 Matrix");
+        relationshipMatrixPanel = new RelationshipMatrixPanel(db);
+        matrixTab.setContent(relationshipMatrixPanel);
+        matrixTab.selectedProperty().addListener((obs, wasSelected, isSelected) ->
+                relationshipMatrixPanel.setActive(isSelected));
+
         // Player Influence Tab
         Tab playerInfluenceTab = new Tab("🧙 Player Influence");
         playerInfluencePanel = new PlayerInfluencePanel(db);
@@ -89,8 +104,15 @@ public class Main extends Application {
         Tab testingTab = new Tab("🧪 Testing");
         testingTab.setContent(createTestingPanel());
 
+        // Performance Tab
+        Tab performanceTab = new Tab("⚡ Performance");
+        performancePanel = new PerformancePanel(db, simulationEngine.getMetrics());
+        performanceTab.setContent(performancePanel);
+        performanceTab.selectedProperty().addListener((obs, wasSelected, isSelected) ->
+                performancePanel.setActive(isSelected));
+
         tabPane.getTabs().addAll(dashboardTab, factionsTab, eventsTab, analyticsTab,
-                networkTab, playerInfluenceTab, testingTab);
+                networkTab, matrixTab, playerInfluenceTab, testingTab, performanceTab);
 
         root.setCenter(tabPane);
 
@@ -139,21 +161,17 @@ public class Main extends Application {
 
             statsArea.appendText(String.format("Current Turn: %d\n\n", db.getCurrentTurn()));
 
-            var factions = db.getAllFactions();
+            WorldRollup rollup = db.getRollup();
             var activeFactions = db.getActiveFactions();
-            var relationships = db.getAllRelationships();
-            var events = db.getAllEvents();
 
-            statsArea.appendText(String.format("Total Factions: %d\n", factions.size()));
+            statsArea.appendText(String.format("Total Factions: %d\n", rollup.getTotalFactions()));
             statsArea.appendText(String.format("Active Factions: %d\n", activeFactions.size()));
-            statsArea.appendText(String.format("Total Relationships: %d\n", relationships.size()));
-            statsArea.appendText(String.format("Total Events Logged: %d\n\n", events.size()));
+            statsArea.appendText(String.format("Total Relationships: %d\n", rollup.getTotalRelationships()));
+            statsArea.appendText(String.format("Total Events Logged: %d\n\n", db.countAllEvents()));
 
             if (!activeFactions.isEmpty()) {
                 statsArea.appendText("=== FACTION STRENGTH RANKINGS ===\n\n");
-                var sortedFactions = activeFactions.stream()
-                        .sorted((f1, f2) -> Integer.compare(f2.getStrength(), f1.getStrength()))
-                        .toList();
+                var sortedFactions = db.getLeaderboard().inRankOrder(activeFactions, WorldRollup.Measure.STRENGTH);
 
                 for (int i = 0; i < sortedFactions.size(); i++) {
                     Faction f = sortedFactions.get(i);
@@ -161,13 +179,53 @@ public class Main extends Application {
                 }
             }
 
+            Map<Integer, Faction> factionsById = new HashMap<>();
+            for (Faction f : activeFactions) {
+                factionsById.put(f.getId(), f);
+            }
+
+            FactionInfluence influence = db.getFactionInfluence();
+            int[] influential = influence.getTopFactions(10);
+            if (influential.length > 0) {
+                statsArea.appendText(String.format("\n=== MOST INFLUENTIAL FACTIONS (ranked in %d iterations) ===\n\n",
+                        influence.getLastIterations()));
+                for (int i = 0; i < influential.length; i++) {
+                    Faction f = factionsById.get(influential[i]);
+                    if (f == null) continue;
+                    statsArea.appendText(String.format("%d. %s - Influence: %.2fx average, Strength: %d\n",
+                            i + 1, f.getName(), influence.getInfluence(f.getId()), f.getStrength()));
+                }
+            }
+
             statsArea.appendText("\n=== RELATIONSHIP BREAKDOWN ===\n\n");
             for (var type : RelationshipType.values()) {
-                long count = relationships.stream()
-                        .filter(r -> r.getType() == type)
-                        .count();
+                int count = rollup.getRelationshipCount(type);
                 statsArea.appendText(String.format("%s: %d\n", type.getDisplayName(), count));
             }
+
+            List<AllianceBlocs.Bloc> blocs = db.getAllianceBlocs().getBlocs(2);
+            statsArea.appendText(String.format("\n=== ALLIANCE BLOCS (%d) ===\n\n", blocs.size()));
+            for (int i = 0; i < Math.min(10, blocs.size()); i++) {
+                AllianceBlocs.Bloc bloc = blocs.get(i);
+                List<Faction> members = new ArrayList<>();
+                for (int id : db.getAllianceBlocs().getBlocMembers(bloc.id())) {
+                    Faction member = factionsById.get(id);
+                    if (member != null) {
+                        members.add(member);
+                    }
+                }
+                members.sort((f1, f2) -> Integer.compare(f2.getStrength(), f1.getStrength()));
+
+                StringBuilder names = new StringBuilder();
+                for (int m = 0; m < Math.min(8, members.size()); m++) {
+                    names.append(m == 0 ? "" : ", ").append(members.get(m).getName());
+                }
+                if (members.size() > 8) {
+                    names.append(String.format(" +%d more", members.size() - 8));
+                }
+                statsArea.appendText(String.format("%d. %d factions - Combined Strength: %,d\n   %s\n",
+                        i + 1, bloc.size(), bloc.strength(), names));
+            }
         });
 
         // Auto-refresh on load
@@ -238,6 +296,9 @@ public class Main extends Application {
             if (db.addRelationship(rel)) {
                 outputArea.appendText(String.format("✅ %s <-> %s: %s\n\n",
                         f1.getName(), f2.getName(), rel.getType()));
+            } else {
+                outputArea.appendText(String.format("❌ %s and %s already have a relationship\n\n",
+                        f1.getName(), f2.getName()));
             }
         });
 
@@ -296,7 +357,9 @@ public class Main extends Application {
         int newTurn = db.getCurrentTurn();
         turnLabel.setText("Turn: " + newTurn);
         eventLogPanel.refreshEvents();
-        factionPanel.refreshFactions();
+        factionPanel.applyFactionChanges(simulationEngine.getLastTurnFactions());
+        relationshipNetworkPanel.refreshNetwork();
+        relationshipMatrixPanel.refreshMatrix();
 
         // Show results
         Alert results = new Alert(Alert.AlertType.INFORMATION);
@@ -0,0 +1,333 @@
+package org.example.dndfactionsimulator.analytics;
+
+import org.example.dndfactionsimulator.database.WorldChangeListener;
+import org.example.dndfactionsimulator.model.Faction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Active factions ranked by strength and by each resource, kept up to date from
+ * database change notifications instead of sorting the faction list on every refresh.
+ *
+ * Each {@link WorldRollup.Measure} has its own order-statistic treap (a randomised
+ * balanced search tree whose nodes also count their subtree) ordered by value, highest
+ * first, ties broken by faction id. Faction ids are the node indexes, so the trees
+ * live in plain int arrays. A faction whose value changes is unlinked and re-inserted
+ * in O(log n); top-k costs O(log n + k), and rank, percentile and select O(log n).
+ */
+public class Leaderboard implements WorldChangeListener {
+
+    private static final int NIL = -1;
+    private static final WorldRollup.Measure[] MEASURES = WorldRollup.Measure.values();
+
+    private final int[] roots = new int[MEASURES.length];
+    // Per measure, indexed by faction id
+    private int[][] left = new int[MEASURES.length][0];
+    private int[][] right = new int[MEASURES.length][0];
+    private int[][] subtreeSize = new int[MEASURES.length][0];
+    private int[][] values = new int[MEASURES.length][0];
+    // Indexed by faction id, shared by every tree
+    private int[] priority = new int[0];
+    private boolean[] ranked = new boolean[0];
+    private int count;
+
+    // Results of split(): the nodes ahead of the key, and the rest
+    private int splitLeft;
+    private int splitRight;
+
+    public Leaderboard(Collection<Faction> factions) {
+        Arrays.fill(roots, NIL);
+        factionsChanged(factions);
+    }
+
+    private static int valueOf(Faction faction, WorldRollup.Measure measure) {
+        return switch (measure) {
+            case GOLD -> faction.getGold();
+            case TROOPS -> faction.getTroops();
+            case MAGIC -> faction.getMagic();
+            case INFLUENCE -> faction.getInfluence();
+            case STRENGTH -> faction.getStrength();
+        };
+    }
+
+    // ============== UPDATES ==============
+
+    @Override
+    public synchronized void factionsChanged(Collection<Faction> factions) {
+        for (Faction faction : factions) {
+            int id = faction.getId();
+            ensureCapacity(id);
+
+            if (!faction.isActive()) {
+                remove(id);
+                continue;
+            }
+            for (int m = 0; m < MEASURES.length; m++) {
+                int value = valueOf(faction, MEASURES[m]);
+                if (ranked[id] && values[m][id] == value) continue;
+
+                if (ranked[id]) {
+                    roots[m] = erase(m, roots[m], id);
+                }
+                values[m][id] = value;
+                left[m][id] = NIL;
+                right[m][id] = NIL;
+                subtreeSize[m][id] = 1;
+                roots[m] = insert(m, roots[m], id);
+            }
+            if (!ranked[id]) {
+                ranked[id] = true;
+                count++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void factionDeleted(int factionId) {
+        if (factionId >= 0 && factionId < ranked.length) {
+            remove(factionId);
+        }
+    }
+
+    private void remove(int id) {
+        if (!ranked[id]) return;
+        for (int m = 0; m < MEASURES.length; m++) {
+            roots[m] = erase(m, roots[m], id);
+        }
+        ranked[id] = false;
+        count--;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < priority.length) return;
+        int oldLength = priority.length;
+        int capacity = Math.max(id + 1, oldLength * 2);
+        for (int m = 0; m < MEASURES.length; m++) {
+            left[m] = Arrays.copyOf(left[m], capacity);
+            right[m] = Arrays.copyOf(right[m], capacity);
+            subtreeSize[m] = Arrays.copyOf(subtreeSize[m], capacity);
+            values[m] = Arrays.copyOf(values[m], capacity);
+        }
+        priority = Arrays.copyOf(priority, capacity);
+        ranked = Arrays.copyOf(ranked, capacity);
+        for (int i = oldLength; i < capacity; i++) {
+            priority[i] = mix(i);
+        }
+    }
+
+    /**
+     * Fixed pseudo-random priority per faction, so the trees are the same on every run
+     */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    // ============== TREAP ==============
+
+    /**
+     * Whether faction a ranks ahead of faction b: higher value first, then lower id
+     */
+    private boolean ahead(int m, int a, int b) {
+        int valueA = values[m][a];
+        int valueB = values[m][b];
+        return valueA != valueB ? valueA > valueB : a < b;
+    }
+
+    private int size(int m, int node) {
+        return node == NIL ? 0 : subtreeSize[m][node];
+    }
+
+    private void resize(int m, int node) {
+        subtreeSize[m][node] = 1 + size(m, left[m][node]) + size(m, right[m][node]);
+    }
+
+    private int insert(int m, int tree, int node) {
+        if (tree == NIL) {
+            return node;
+        }
+        if (priority[node] > priority[tree]) {
+            // The new node becomes this subtree's root
+            split(m, tree, node);
+            left[m][node] = splitLeft;
+            right[m][node] = splitRight;
+            resize(m, node);
+            return node;
+        }
+        if (ahead(m, node, tree)) {
+            left[m][tree] = insert(m, left[m][tree], node);
+        } else {
+            right[m][tree] = insert(m, right[m][tree], node);
+        }
+        resize(m, tree);
+        return tree;
+    }
+
+    private int erase(int m, int tree, int node) {
+        if (tree == NIL) {
+            return NIL;
+        }
+        if (tree == node) {
+            return merge(m, left[m][tree], right[m][tree]);
+        }
+        if (ahead(m, node, tree)) {
+            left[m][tree] = erase(m, left[m][tree], node);
+        } else {
+            right[m][tree] = erase(m, right[m][tree], node);
+        }
+        resize(m, tree);
+        return tree;
+    }
+
+    private void split(int m, int tree, int key) {
+        if (tree == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+        } else if (ahead(m, tree, key)) {
+            split(m, right[m][tree], key);
+            right[m][tree] = splitLeft;
+            resize(m, tree);
+            splitLeft = tree;
+        } else {
+            split(m, left[m][tree], key);
+            left[m][tree] = splitRight;
+            resize(m, tree);
+            splitRight = tree;
+        }
+    }
+
+    private int merge(int m, int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (priority[a] > priority[b]) {
+            right[m][a] = merge(m, right[m][a], b);
+            resize(m, a);
+            return a;
+        }
+        left[m][b] = merge(m, a, left[m][b]);
+        resize(m, b);
+        return b;
+    }
+
+    // ============== QUERIES ==============
+
+    /**
+     * Number of ranked (active) factions
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Ids of the k highest-ranked factions for the measure, best first
+     */
+    public synchronized int[] getTop(WorldRollup.Measure measure, int k) {
+        int m = measure.ordinal();
+        int[] top = new int[Math.max(0, Math.min(k, count))];
+        // In-order walk with an explicit stack, stopping after k nodes
+        int[] stack = new int[64];
+        int depth = 0;
+        int node = roots[m];
+        int found = 0;
+        while (found < top.length && (node != NIL || depth > 0)) {
+            while (node != NIL) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = node;
+                node = left[m][node];
+            }
+            node = stack[--depth];
+            top[found++] = node;
+            node = right[m][node];
+        }
+        return top;
+    }
+
+    /**
+     * The given factions in ranking order for the measure, without sorting them.
+     * Factions the leaderboard doesn't rank (inactive or unknown) are left out.
+     */
+    public synchronized List<Faction> inRankOrder(Collection<Faction> factions, WorldRollup.Measure measure) {
+        Faction[] byId = new Faction[priority.length];
+        for (Faction faction : factions) {
+            int id = faction.getId();
+            if (id >= 0 && id < byId.length) {
+                byId[id] = faction;
+            }
+        }
+        List<Faction> ordered = new ArrayList<>(factions.size());
+        for (int id : getTop(measure, count)) {
+            if (byId[id] != null) {
+                ordered.add(byId[id]);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 1-based rank of the faction for the measure, or -1 if it isn't active
+     */
+    public synchronized int getRank(WorldRollup.Measure measure, int factionId) {
+        if (factionId < 0 || factionId >= ranked.length || !ranked[factionId]) {
+            return -1;
+        }
+        int m = measure.ordinal();
+        int rank = 0;
+        int node = roots[m];
+        while (node != NIL) {
+            if (node == factionId) {
+                return rank + size(m, left[m][node]) + 1;
+            }
+            if (ahead(m, factionId, node)) {
+                node = left[m][node];
+            } else {
+                rank += size(m, left[m][node]) + 1;
+                node = right[m][node];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Share of the other active factions this one outranks, 0 to 100, or -1 if it isn't active
+     */
+    public synchronized double getPercentile(WorldRollup.Measure measure, int factionId) {
+        int rank = getRank(measure, factionId);
+        if (rank < 0) {
+            return -1;
+        }
+        return count == 1 ? 100 : 100.0 * (count - rank) / (count - 1);
+    }
+
+    /**
+     * Id of the faction at the given 1-based rank for the measure, or -1 if out of range
+     */
+    public synchronized int getFactionAtRank(WorldRollup.Measure measure, int rank) {
+        if (rank < 1 || rank > count) {
+            return -1;
+        }
+        int m = measure.ordinal();
+        int node = roots[m];
+        int index = rank - 1;
+        while (node != NIL) {
+            int leftSize = size(m, left[m][node]);
+            if (index == leftSize) {
+                return node;
+            }
+            if (index < leftSize) {
+                node = left[m][node];
+            } else {
+                index -= leftSize + 1;
+                node = right[m][node];
+            }
+        }
+        return -1;
+    }
+}
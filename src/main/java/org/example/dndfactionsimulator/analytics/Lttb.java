@@ -0,0 +1,72 @@
+package org.example.dndfactionsimulator.analytics;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling.
+ *
+ * Keeps the first and last sample and, for every bucket in between, the sample
+ * forming the largest triangle with the previously kept sample and the average
+ * of the next bucket. Peaks and troughs survive, flat stretches collapse.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    public static TimeSeries downsample(TimeSeries series, int threshold) {
+        int size = series.size();
+        if (threshold >= size || threshold < 3) {
+            return series;
+        }
+
+        int[] turns = new int[threshold];
+        int[] values = new int[threshold];
+
+        // Buckets between the fixed first and last samples
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int kept = 0;
+        int a = 0;
+        turns[kept] = series.getTurn(0);
+        values[kept] = series.getValue(0);
+        kept++;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (the last sample for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double avgTurn = 0;
+            double avgValue = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgTurn += series.getTurn(i);
+                avgValue += series.getValue(i);
+            }
+            int nextCount = nextEnd - nextStart;
+            avgTurn /= nextCount;
+            avgValue /= nextCount;
+
+            double aTurn = series.getTurn(a);
+            double aValue = series.getValue(a);
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((aTurn - avgTurn) * (series.getValue(i) - aValue)
+                        - (aTurn - series.getTurn(i)) * (avgValue - aValue));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            turns[kept] = series.getTurn(chosen);
+            values[kept] = series.getValue(chosen);
+            kept++;
+            a = chosen;
+        }
+
+        turns[kept] = series.getTurn(size - 1);
+        values[kept] = series.getValue(size - 1);
+        return new TimeSeries(turns, values, threshold);
+    }
+}
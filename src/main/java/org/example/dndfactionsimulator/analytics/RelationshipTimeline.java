@@ -0,0 +1,22 @@
+package org.example.dndfactionsimulator.analytics;
+
+import org.example.dndfactionsimulator.model.RelationshipType;
+
+/**
+ * Strength samples of one relationship, with the type recorded alongside each one.
+ * Types are stored as written, not re-derived from strength, since the DM can set a
+ * type the strength alone wouldn't give.
+ */
+public class RelationshipTimeline extends TimeSeries {
+
+    private final RelationshipType[] types;
+
+    public RelationshipTimeline(int[] turns, int[] strengths, RelationshipType[] types, int size) {
+        super(turns, strengths, size);
+        this.types = types;
+    }
+
+    public RelationshipType getType(int index) {
+        return types[index];
+    }
+}
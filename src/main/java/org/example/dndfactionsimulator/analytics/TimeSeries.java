@@ -0,0 +1,29 @@
+package org.example.dndfactionsimulator.analytics;
+
+/**
+ * Turn-ordered integer samples backed by two parallel arrays.
+ */
+public class TimeSeries {
+
+    private final int[] turns;
+    private final int[] values;
+    private final int size;
+
+    public TimeSeries(int[] turns, int[] values, int size) {
+        this.turns = turns;
+        this.values = values;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getTurn(int index) {
+        return turns[index];
+    }
+
+    public int getValue(int index) {
+        return values[index];
+    }
+}
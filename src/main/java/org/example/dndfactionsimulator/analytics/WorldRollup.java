@@ -0,0 +1,214 @@
+package org.example.dndfactionsimulator.analytics;
+
+import org.example.dndfactionsimulator.database.WorldChangeListener;
+import org.example.dndfactionsimulator.model.*;
+import org.example.dndfactionsimulator.util.IntIntMap;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running totals of the world, kept up to date from database change notifications.
+ *
+ * Factions are rolled up into a small cube keyed by type, alignment and active flag
+ * (count plus resource sums per cell) and relationships into a count per type,
+ * so every breakdown is a constant-time read regardless of world size.
+ */
+public class WorldRollup implements WorldChangeListener {
+
+    public enum Measure {
+        GOLD("Gold"),
+        TROOPS("Troops"),
+        MAGIC("Magic"),
+        INFLUENCE("Influence"),
+        STRENGTH("Strength");
+
+        private final String displayName;
+
+        Measure(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private static final int TYPES = FactionType.values().length;
+    private static final int ALIGNMENTS = Alignment.values().length;
+    private static final int MEASURES = Measure.values().length;
+
+    private final int[] counts = new int[TYPES * ALIGNMENTS * 2];
+    private final long[] sums = new long[TYPES * ALIGNMENTS * 2 * MEASURES];
+    private final int[] relationshipCounts = new int[RelationshipType.values().length];
+
+    // What each faction and relationship (by type ordinal) currently contributes, so an update can be undone
+    private final Map<Integer, Contribution> factions = new HashMap<>();
+    private final IntIntMap relationships = new IntIntMap(64);
+
+    private record Contribution(int cell, int gold, int troops, int magic, int influence, int strength) {
+    }
+
+    public WorldRollup(Collection<Faction> factions, Collection<Relationship> relationships) {
+        factionsChanged(factions);
+        relationshipsChanged(relationships);
+    }
+
+    // ============== UPDATES ==============
+
+    @Override
+    public synchronized void factionsChanged(Collection<Faction> changed) {
+        for (Faction faction : changed) {
+            Contribution next = new Contribution(
+                    cell(faction.getType(), faction.getAlignment(), faction.isActive()),
+                    faction.getGold(), faction.getTroops(), faction.getMagic(),
+                    faction.getInfluence(), faction.getStrength());
+            Contribution previous = factions.put(faction.getId(), next);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            apply(next, 1);
+        }
+    }
+
+    @Override
+    public synchronized void factionDeleted(int factionId) {
+        Contribution previous = factions.remove(factionId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    @Override
+    public synchronized void relationshipsChanged(Collection<Relationship> changed) {
+        for (Relationship relationship : changed) {
+            int previous = relationships.get(relationship.getId(), -1);
+            if (previous >= 0) {
+                relationshipCounts[previous]--;
+            }
+            relationships.put(relationship.getId(), relationship.getType().ordinal());
+            relationshipCounts[relationship.getType().ordinal()]++;
+        }
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        counts[contribution.cell()] += sign;
+        int base = contribution.cell() * MEASURES;
+        sums[base + Measure.GOLD.ordinal()] += sign * contribution.gold();
+        sums[base + Measure.TROOPS.ordinal()] += sign * contribution.troops();
+        sums[base + Measure.MAGIC.ordinal()] += sign * contribution.magic();
+        sums[base + Measure.INFLUENCE.ordinal()] += sign * contribution.influence();
+        sums[base + Measure.STRENGTH.ordinal()] += sign * contribution.strength();
+    }
+
+    private static int cell(FactionType type, Alignment alignment, boolean active) {
+        return (type.ordinal() * ALIGNMENTS + alignment.ordinal()) * 2 + (active ? 1 : 0);
+    }
+
+    // ============== FACTION BREAKDOWNS ==============
+
+    public synchronized int getCount(FactionType type, Alignment alignment, boolean active) {
+        return counts[cell(type, alignment, active)];
+    }
+
+    public synchronized int getCount(FactionType type, boolean active) {
+        int total = 0;
+        for (Alignment alignment : Alignment.values()) {
+            total += counts[cell(type, alignment, active)];
+        }
+        return total;
+    }
+
+    public synchronized int getCount(Alignment alignment, boolean active) {
+        int total = 0;
+        for (FactionType type : FactionType.values()) {
+            total += counts[cell(type, alignment, active)];
+        }
+        return total;
+    }
+
+    public synchronized int getCount(boolean active) {
+        int total = 0;
+        for (int cell = active ? 1 : 0; cell < counts.length; cell += 2) {
+            total += counts[cell];
+        }
+        return total;
+    }
+
+    /**
+     * Non-zero faction counts per type, in declaration order
+     */
+    public synchronized Map<FactionType, Integer> getTypeCounts(boolean active) {
+        Map<FactionType, Integer> result = new EnumMap<>(FactionType.class);
+        for (FactionType type : FactionType.values()) {
+            int count = getCount(type, active);
+            if (count > 0) {
+                result.put(type, count);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Non-zero faction counts per alignment, in declaration order
+     */
+    public synchronized Map<Alignment, Integer> getAlignmentCounts(boolean active) {
+        Map<Alignment, Integer> result = new EnumMap<>(Alignment.class);
+        for (Alignment alignment : Alignment.values()) {
+            int count = getCount(alignment, active);
+            if (count > 0) {
+                result.put(alignment, count);
+            }
+        }
+        return result;
+    }
+
+    public synchronized int getTotalFactions() {
+        return factions.size();
+    }
+
+    public synchronized long getSum(FactionType type, Alignment alignment, boolean active, Measure measure) {
+        return sums[cell(type, alignment, active) * MEASURES + measure.ordinal()];
+    }
+
+    public synchronized long getSum(FactionType type, boolean active, Measure measure) {
+        long total = 0;
+        for (Alignment alignment : Alignment.values()) {
+            total += sums[cell(type, alignment, active) * MEASURES + measure.ordinal()];
+        }
+        return total;
+    }
+
+    public synchronized long getSum(Alignment alignment, boolean active, Measure measure) {
+        long total = 0;
+        for (FactionType type : FactionType.values()) {
+            total += sums[cell(type, alignment, active) * MEASURES + measure.ordinal()];
+        }
+        return total;
+    }
+
+    public synchronized long getSum(boolean active, Measure measure) {
+        long total = 0;
+        for (int cell = active ? 1 : 0; cell < counts.length; cell += 2) {
+            total += sums[cell * MEASURES + measure.ordinal()];
+        }
+        return total;
+    }
+
+    // ============== RELATIONSHIP BREAKDOWNS ==============
+
+    public synchronized int getRelationshipCount(RelationshipType type) {
+        return relationshipCounts[type.ordinal()];
+    }
+
+    public synchronized int getTotalRelationships() {
+        return relationships.size();
+    }
+}
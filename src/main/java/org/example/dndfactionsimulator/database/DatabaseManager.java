@@ -1,21 +1,55 @@
 package org.example.dndfactionsimulator.database;
 
+import org.example.dndfactionsimulator.analytics.Leaderboard;
+import org.example.dndfactionsimulator.analytics.Lttb;
+import org.example.dndfactionsimulator.analytics.RelationshipTimeline;
+import org.example.dndfactionsimulator.analytics.TimeSeries;
+import org.example.dndfactionsimulator.analytics.WorldRollup;
+import org.example.dndfactionsimulator.graph.AllianceBlocs;
+import org.example.dndfactionsimulator.graph.DiplomaticDistance;
+import org.example.dndfactionsimulator.graph.FactionInfluence;
+import org.example.dndfactionsimulator.graph.RelationshipGraph;
+import org.example.dndfactionsimulator.metrics.DbStatementEvent;
 import org.example.dndfactionsimulator.model.*;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DatabaseManager {
     private static final String DATABASE_URL = "jdbc:sqlite:factions.db";
+    private static final String IN_MEMORY_URL = "jdbc:sqlite::memory:";
     private Connection connection;
 
     private static DatabaseManager instance;
 
-    private DatabaseManager() {
+    // Number of SQL statements executed, used for per-turn metrics
+    private long statementCount;
+    // Duration of the last turn transaction commit
+    private long lastCommitNanos;
+
+    // In-memory indexes notified after every faction/relationship write
+    private final List<WorldChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private WorldRollup rollup;
+    private Leaderboard leaderboard;
+    private RelationshipGraph relationshipGraph;
+    private AllianceBlocs allianceBlocs;
+    private FactionInfluence factionInfluence;
+    private DiplomaticDistance diplomaticDistance;
+    // Last recorded relationship state, the baseline for the next relationship_history row
+    private RelationshipHistory relationshipHistory;
+
+    private DatabaseManager(String url) {
         try {
-            connection = DriverManager.getConnection(DATABASE_URL);
+            connection = DriverManager.getConnection(url);
             createTables();
-            System.out.println("✅ Database connected: factions.db");
+            // Loaded before any write so the first change is measured against the stored state
+            getRelationshipHistory();
+            System.out.println("✅ Database connected: " + url);
         } catch (SQLException e) {
             System.err.println("❌ Database connection failed: " + e.getMessage());
         }
@@ -23,11 +57,18 @@ public class DatabaseManager {
 
     public static DatabaseManager getInstance() {
         if (instance == null) {
-            instance = new DatabaseManager();
+            instance = new DatabaseManager(DATABASE_URL);
         }
         return instance;
     }
 
+    /**
+     * Creates a private, throwaway database (used by harnesses and synthetic worlds).
+     */
+    public static DatabaseManager createInMemory() {
+        return new DatabaseManager(IN_MEMORY_URL);
+    }
+
     private void createTables() {
         // Factions table
         String createFactionsTable =
@@ -69,6 +110,28 @@ public class DatabaseManager {
                         "FOREIGN KEY(target_faction_id) REFERENCES factions(id)" +
                         ")";
 
+        // Per-turn faction resources, clustered by faction so one faction's history is a range scan
+        String createStatsHistoryTable =
+                "CREATE TABLE IF NOT EXISTS faction_stats_history (" +
+                        "faction_id INTEGER NOT NULL," +
+                        "turn_number INTEGER NOT NULL," +
+                        "gold INTEGER NOT NULL," +
+                        "troops INTEGER NOT NULL," +
+                        "magic INTEGER NOT NULL," +
+                        "influence INTEGER NOT NULL," +
+                        "strength INTEGER NOT NULL," +
+                        "PRIMARY KEY(faction_id, turn_number)" +
+                        ") WITHOUT ROWID";
+
+        // Varint-encoded relationship changes, one row per write; keyframe rows restate every relationship
+        String createRelationshipHistoryTable =
+                "CREATE TABLE IF NOT EXISTS relationship_history (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "turn_number INTEGER NOT NULL," +
+                        "keyframe INTEGER NOT NULL DEFAULT 0," +
+                        "changes BLOB NOT NULL" +
+                        ")";
+
         // Game state table (tracks current turn)
         String createGameStateTable =
                 "CREATE TABLE IF NOT EXISTS game_state (" +
@@ -81,9 +144,15 @@ public class DatabaseManager {
             stmt.execute(createRelationshipsTable);
             stmt.execute(createEventsTable);
             stmt.execute(createGameStateTable);
+            stmt.execute(createStatsHistoryTable);
+            stmt.execute(createRelationshipHistoryTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_relationship_history_keyframe " +
+                    "ON relationship_history(keyframe, turn_number)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_world_events_turn ON world_events(turn_number)");
+            createRelationshipPairIndex(stmt);
 
             // Initialize game state if empty
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM game_state");
+            ResultSet rs = executeQuery("createTables", stmt, "SELECT COUNT(*) FROM game_state");
             if (rs.next() && rs.getInt(1) == 0) {
                 stmt.execute("INSERT INTO game_state (id, current_turn) VALUES (1, 0)");
             }
@@ -111,16 +180,18 @@ public class DatabaseManager {
             pstmt.setInt(7, faction.getInfluence());
             pstmt.setInt(8, faction.isActive() ? 1 : 0);
 
-            int affectedRows = pstmt.executeUpdate();
+            int affectedRows = executeUpdate("addFaction", pstmt);
 
             if (affectedRows > 0) {
                 // Get the last inserted ID using SQLite's last_insert_rowid()
                 Statement stmt = connection.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()");
+                ResultSet rs = executeQuery("addFaction", stmt, "SELECT last_insert_rowid()");
                 if (rs.next()) {
                     faction.setId(rs.getInt(1));
                 }
+                faction.markSaved();
                 System.out.println("✅ Faction added: " + faction.getName());
+                fireFactionsChanged(List.of(faction));
                 return true;
             }
         } catch (SQLException e) {
@@ -135,7 +206,7 @@ public class DatabaseManager {
         String sql = "SELECT * FROM factions";
 
         try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = executeQuery("getAllFactions", stmt, sql)) {
 
             while (rs.next()) {
                 Faction faction = new Faction();
@@ -148,6 +219,7 @@ public class DatabaseManager {
                 faction.setMagic(rs.getInt("magic"));
                 faction.setInfluence(rs.getInt("influence"));
                 faction.setActive(rs.getInt("is_active") == 1);
+                faction.markSaved();
 
                 factions.add(faction);
             }
@@ -164,7 +236,7 @@ public class DatabaseManager {
         String sql = "SELECT * FROM factions WHERE is_active = 1";
 
         try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = executeQuery("getActiveFactions", stmt, sql)) {
 
             while (rs.next()) {
                 Faction faction = new Faction();
@@ -177,6 +249,7 @@ public class DatabaseManager {
                 faction.setMagic(rs.getInt("magic"));
                 faction.setInfluence(rs.getInt("influence"));
                 faction.setActive(rs.getInt("is_active") == 1);
+                faction.markSaved();
 
                 factions.add(faction);
             }
@@ -203,7 +276,11 @@ public class DatabaseManager {
             pstmt.setInt(8, faction.isActive() ? 1 : 0);
             pstmt.setInt(9, faction.getId());
 
-            return pstmt.executeUpdate() > 0;
+            if (executeUpdate("updateFaction", pstmt) > 0) {
+                faction.markSaved();
+                fireFactionsChanged(List.of(faction));
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("❌ Error updating faction: " + e.getMessage());
             e.printStackTrace();
@@ -216,10 +293,13 @@ public class DatabaseManager {
 
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, factionId);
-            int affectedRows = pstmt.executeUpdate();
+            int affectedRows = executeUpdate("deleteFaction", pstmt);
 
             if (affectedRows > 0) {
                 System.out.println("✅ Faction permanently deleted: ID " + factionId);
+                for (WorldChangeListener listener : listeners) {
+                    listener.factionDeleted(factionId);
+                }
                 return true;
             }
         } catch (SQLException e) {
@@ -232,6 +312,9 @@ public class DatabaseManager {
     // ============== RELATIONSHIP METHODS ==============
 
     public boolean addRelationship(Relationship relationship) {
+        if (!isNewPair(relationship)) {
+            return false;
+        }
         String sql = "INSERT INTO relationships (faction1_id, faction2_id, type, strength) VALUES (?, ?, ?, ?)";
 
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -240,15 +323,17 @@ public class DatabaseManager {
             pstmt.setString(3, relationship.getType().name());
             pstmt.setInt(4, relationship.getStrength());
 
-            int affectedRows = pstmt.executeUpdate();
+            int affectedRows = executeUpdate("addRelationship", pstmt);
 
             if (affectedRows > 0) {
                 Statement stmt = connection.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()");
+                ResultSet rs = executeQuery("addRelationship", stmt, "SELECT last_insert_rowid()");
                 if (rs.next()) {
                     relationship.setId(rs.getInt(1));
                 }
+                recordRelationshipHistory(getCurrentTurn(), List.of(relationship));
                 System.out.println("✅ Relationship added");
+                fireRelationshipsChanged(List.of(relationship));
                 return true;
             }
         } catch (SQLException e) {
@@ -258,12 +343,29 @@ public class DatabaseManager {
         return false;
     }
 
+    /**
+     * Rejects a relationship of a faction with itself or a second relationship for the same pair
+     */
+    private boolean isNewPair(Relationship relationship) {
+        int factionA = relationship.getFaction1Id();
+        int factionB = relationship.getFaction2Id();
+        if (factionA == factionB) {
+            System.err.println("❌ A faction can't have a relationship with itself: ID " + factionA);
+            return false;
+        }
+        if (getRelationshipGraph().hasRelationship(factionA, factionB)) {
+            System.err.println("❌ Relationship already exists between factions " + factionA + " and " + factionB);
+            return false;
+        }
+        return true;
+    }
+
     public List<Relationship> getAllRelationships() {
         List<Relationship> relationships = new ArrayList<>();
         String sql = "SELECT * FROM relationships";
 
         try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = executeQuery("getAllRelationships", stmt, sql)) {
 
             while (rs.next()) {
                 Relationship relationship = new Relationship();
@@ -290,7 +392,11 @@ public class DatabaseManager {
             pstmt.setInt(2, relationship.getStrength());
             pstmt.setInt(3, relationship.getId());
 
-            return pstmt.executeUpdate() > 0;
+            if (executeUpdate("updateRelationship", pstmt) > 0) {
+                recordRelationshipHistory(getCurrentTurn(), List.of(relationship));
+                fireRelationshipsChanged(List.of(relationship));
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("❌ Error updating relationship: " + e.getMessage());
             e.printStackTrace();
@@ -317,11 +423,11 @@ public class DatabaseManager {
                 pstmt.setNull(6, java.sql.Types.INTEGER);
             }
 
-            int affectedRows = pstmt.executeUpdate();
+            int affectedRows = executeUpdate("addWorldEvent", pstmt);
 
             if (affectedRows > 0) {
                 Statement stmt = connection.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()");
+                ResultSet rs = executeQuery("addWorldEvent", stmt, "SELECT last_insert_rowid()");
                 if (rs.next()) {
                     event.setId(rs.getInt(1));
                 }
@@ -340,7 +446,7 @@ public class DatabaseManager {
         String sql = "SELECT * FROM world_events ORDER BY turn_number DESC, timestamp DESC";
 
         try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = executeQuery("getAllEvents", stmt, sql)) {
 
             while (rs.next()) {
                 WorldEvent event = new WorldEvent();
@@ -372,7 +478,7 @@ public class DatabaseManager {
 
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, turnNumber);
-            ResultSet rs = pstmt.executeQuery();
+            ResultSet rs = executeQuery("getEventsByTurn", pstmt);
 
             while (rs.next()) {
                 WorldEvent event = new WorldEvent();
@@ -398,13 +504,129 @@ public class DatabaseManager {
         return events;
     }
 
+    // ============== EVENT PAGING ==============
+    // Events are paged newest first (id DESC) within a turn range. maxId anchors a
+    // listing so offsets stay stable while new events are being written.
+
+    public int getMaxEventId() {
+        String sql = "SELECT MAX(id) FROM world_events";
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = executeQuery("getMaxEventId", stmt, sql)) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error getting max event id: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    public int countAllEvents() {
+        String sql = "SELECT COUNT(*) FROM world_events";
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = executeQuery("countAllEvents", stmt, sql)) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error counting events: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    public int countEvents(int minTurn, int maxTurn, int minId, int maxId) {
+        String sql = "SELECT COUNT(*) FROM world_events WHERE turn_number BETWEEN ? AND ? AND id BETWEEN ? AND ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, minTurn);
+            pstmt.setInt(2, maxTurn);
+            pstmt.setInt(3, minId);
+            pstmt.setInt(4, maxId);
+            ResultSet rs = executeQuery("countEvents", pstmt);
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error counting events: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Page by position (used when jumping to an arbitrary scroll position)
+     */
+    public List<WorldEvent> getEventsPage(int minTurn, int maxTurn, int maxId, int offset, int limit) {
+        String sql = "SELECT * FROM world_events WHERE turn_number BETWEEN ? AND ? AND id <= ? " +
+                "ORDER BY id DESC LIMIT ? OFFSET ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, minTurn);
+            pstmt.setInt(2, maxTurn);
+            pstmt.setInt(3, maxId);
+            pstmt.setInt(4, limit);
+            pstmt.setInt(5, offset);
+            return readEvents(executeQuery("getEventsPage", pstmt), limit);
+        } catch (SQLException e) {
+            System.err.println("❌ Error fetching event page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Page following a known event (used when scrolling sequentially, no OFFSET scan)
+     */
+    public List<WorldEvent> getEventsBefore(int minTurn, int maxTurn, int beforeId, int limit) {
+        String sql = "SELECT * FROM world_events WHERE turn_number BETWEEN ? AND ? AND id < ? " +
+                "ORDER BY id DESC LIMIT ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, minTurn);
+            pstmt.setInt(2, maxTurn);
+            pstmt.setInt(3, beforeId);
+            pstmt.setInt(4, limit);
+            return readEvents(executeQuery("getEventsBefore", pstmt), limit);
+        } catch (SQLException e) {
+            System.err.println("❌ Error fetching event page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
+    private List<WorldEvent> readEvents(ResultSet rs, int expected) throws SQLException {
+        List<WorldEvent> events = new ArrayList<>(expected);
+        while (rs.next()) {
+            WorldEvent event = new WorldEvent();
+            event.setId(rs.getInt("id"));
+            event.setTurnNumber(rs.getInt("turn_number"));
+            event.setFactionId(rs.getInt("faction_id"));
+            event.setAction(FactionAction.valueOf(rs.getString("action")));
+            event.setDescription(rs.getString("description"));
+            event.setTimestamp(java.time.LocalDateTime.parse(rs.getString("timestamp")));
+
+            int targetId = rs.getInt("target_faction_id");
+            if (!rs.wasNull()) {
+                event.setTargetFactionId(targetId);
+            }
+
+            events.add(event);
+        }
+        rs.close();
+        return events;
+    }
+
     // ============== GAME STATE METHODS ==============
 
     public int getCurrentTurn() {
         String sql = "SELECT current_turn FROM game_state WHERE id = 1";
 
         try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = executeQuery("getCurrentTurn", stmt, sql)) {
 
             if (rs.next()) {
                 return rs.getInt("current_turn");
@@ -421,7 +643,7 @@ public class DatabaseManager {
         String sql = "UPDATE game_state SET current_turn = current_turn + 1 WHERE id = 1";
 
         try (Statement stmt = connection.createStatement()) {
-            int affected = stmt.executeUpdate(sql);
+            int affected = executeUpdate("advanceTurn", stmt, sql);
             if (affected > 0) {
                 int newTurn = getCurrentTurn();
                 System.out.println("✅ Turn advanced to: " + newTurn);
@@ -435,6 +657,723 @@ public class DatabaseManager {
         return false;
     }
 
+    // ============== BULK LOADING ==============
+
+    /**
+     * Insert many factions in one transaction (used to generate large worlds).
+     */
+    public boolean addFactions(List<Faction> factions) {
+        String sql = "INSERT INTO factions (name, type, alignment, gold, troops, magic, influence, is_active) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                for (Faction faction : factions) {
+                    pstmt.setString(1, faction.getName());
+                    pstmt.setString(2, faction.getType().name());
+                    pstmt.setString(3, faction.getAlignment().name());
+                    pstmt.setInt(4, faction.getGold());
+                    pstmt.setInt(5, faction.getTroops());
+                    pstmt.setInt(6, faction.getMagic());
+                    pstmt.setInt(7, faction.getInfluence());
+                    pstmt.setInt(8, faction.isActive() ? 1 : 0);
+                    pstmt.addBatch();
+                }
+                executeBatch("addFactions", pstmt, factions.size());
+            }
+
+            int id = firstBatchId("addFactions", factions.size());
+            for (Faction faction : factions) {
+                faction.setId(id++);
+            }
+
+            connection.commit();
+            for (Faction faction : factions) {
+                faction.markSaved();
+            }
+            System.out.println("✅ Factions added: " + factions.size());
+            fireFactionsChanged(factions);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("❌ Error adding factions: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+
+    /**
+     * Insert many relationships in one transaction (used to generate large worlds).
+     */
+    public boolean addRelationships(List<Relationship> relationships) {
+        String sql = "INSERT INTO relationships (faction1_id, faction2_id, type, strength) VALUES (?, ?, ?, ?)";
+
+        // Drop pairs that already exist or repeat within the batch
+        RelationshipGraph graph = getRelationshipGraph();
+        Set<Long> batchPairs = new HashSet<>();
+        List<Relationship> accepted = new ArrayList<>(relationships.size());
+        for (Relationship relationship : relationships) {
+            int factionA = relationship.getFaction1Id();
+            int factionB = relationship.getFaction2Id();
+            if (factionA != factionB && !graph.hasRelationship(factionA, factionB)
+                    && batchPairs.add(RelationshipGraph.pairKey(factionA, factionB))) {
+                accepted.add(relationship);
+            }
+        }
+        if (accepted.size() < relationships.size()) {
+            System.err.println("⚠️ Skipped " + (relationships.size() - accepted.size()) +
+                    " duplicate or self relationships");
+            relationships = accepted;
+        }
+        if (relationships.isEmpty()) {
+            return true;
+        }
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                for (Relationship relationship : relationships) {
+                    pstmt.setInt(1, relationship.getFaction1Id());
+                    pstmt.setInt(2, relationship.getFaction2Id());
+                    pstmt.setString(3, relationship.getType().name());
+                    pstmt.setInt(4, relationship.getStrength());
+                    pstmt.addBatch();
+                }
+                executeBatch("addRelationships", pstmt, relationships.size());
+            }
+
+            int id = firstBatchId("addRelationships", relationships.size());
+            for (Relationship relationship : relationships) {
+                relationship.setId(id++);
+            }
+            recordRelationshipHistory(getCurrentTurn(), relationships);
+
+            connection.commit();
+            System.out.println("✅ Relationships added: " + relationships.size());
+            fireRelationshipsChanged(relationships);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("❌ Error adding relationships: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+            reloadRelationshipHistory();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+
+    /**
+     * Id of the first row of a batch insert. AUTOINCREMENT ids are assigned
+     * sequentially within a transaction, so the batch ends at last_insert_rowid().
+     */
+    private int firstBatchId(String operation, int batchSize) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = executeQuery(operation, stmt, "SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getInt(1) - batchSize + 1 : 0;
+        }
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("❌ Error rolling back: " + e.getMessage());
+        }
+    }
+
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("❌ Error restoring auto-commit: " + e.getMessage());
+        }
+    }
+
+    // ============== TURN PERSISTENCE ==============
+
+    /**
+     * Persist the outcome of a simulated turn in a single transaction:
+     * batched resource updates for the factions that changed, a stats history row
+     * for every faction,
+     * the relationships the turn changed or created (and their history row),
+     * plus a batched insert of the turn's events.
+     */
+    public boolean saveTurn(int turnNumber, List<Faction> factions, List<WorldEvent> events,
+                            Collection<Relationship> relationships) {
+        String factionSql = "UPDATE factions SET gold = ?, troops = ?, magic = ?, influence = ?, is_active = ? WHERE id = ?";
+        String historySql = "INSERT OR REPLACE INTO faction_stats_history " +
+                "(faction_id, turn_number, gold, troops, magic, influence, strength) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String eventSql = "INSERT INTO world_events (turn_number, faction_id, action, description, timestamp, target_faction_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        // Factions the turn left untouched need no update and no change notification
+        List<Faction> changed = new ArrayList<>(factions.size());
+        for (Faction faction : factions) {
+            if (faction.hasUnsavedChanges()) {
+                changed.add(faction);
+            }
+        }
+
+        try {
+            connection.setAutoCommit(false);
+
+            saveRelationships(relationships);
+            recordRelationshipHistory(turnNumber, relationships);
+
+            try (PreparedStatement pstmt = connection.prepareStatement(factionSql)) {
+                for (Faction faction : changed) {
+                    pstmt.setInt(1, faction.getGold());
+                    pstmt.setInt(2, faction.getTroops());
+                    pstmt.setInt(3, faction.getMagic());
+                    pstmt.setInt(4, faction.getInfluence());
+                    pstmt.setInt(5, faction.isActive() ? 1 : 0);
+                    pstmt.setInt(6, faction.getId());
+                    pstmt.addBatch();
+                }
+                executeBatch("saveTurn", pstmt, changed.size());
+            }
+
+            try (PreparedStatement pstmt = connection.prepareStatement(historySql)) {
+                for (Faction faction : factions) {
+                    pstmt.setInt(1, faction.getId());
+                    pstmt.setInt(2, turnNumber);
+                    pstmt.setInt(3, faction.getGold());
+                    pstmt.setInt(4, faction.getTroops());
+                    pstmt.setInt(5, faction.getMagic());
+                    pstmt.setInt(6, faction.getInfluence());
+                    pstmt.setInt(7, faction.getStrength());
+                    pstmt.addBatch();
+                }
+                executeBatch("saveTurn", pstmt, factions.size());
+            }
+
+            if (!events.isEmpty()) {
+                try (PreparedStatement pstmt = connection.prepareStatement(eventSql)) {
+                    for (WorldEvent event : events) {
+                        pstmt.setInt(1, event.getTurnNumber());
+                        pstmt.setInt(2, event.getFactionId());
+                        pstmt.setString(3, event.getAction().name());
+                        pstmt.setString(4, event.getDescription());
+                        pstmt.setString(5, event.getTimestamp().toString());
+                        if (event.getTargetFactionId() != null) {
+                            pstmt.setInt(6, event.getTargetFactionId());
+                        } else {
+                            pstmt.setNull(6, java.sql.Types.INTEGER);
+                        }
+                        pstmt.addBatch();
+                    }
+                    executeBatch("saveTurn", pstmt, events.size());
+                }
+
+                int id = firstBatchId("saveTurn", events.size());
+                for (WorldEvent event : events) {
+                    event.setId(id++);
+                }
+            }
+
+            long commitStart = System.nanoTime();
+            connection.commit();
+            lastCommitNanos = System.nanoTime() - commitStart;
+            for (Faction faction : changed) {
+                faction.markSaved();
+            }
+            if (!changed.isEmpty()) {
+                fireFactionsChanged(changed);
+            }
+            if (!relationships.isEmpty()) {
+                fireRelationshipsChanged(relationships);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("❌ Error saving turn: " + e.getMessage());
+            e.printStackTrace();
+            rollback();
+            reloadRelationshipHistory();
+            discardRelationshipIndexes();
+        } finally {
+            restoreAutoCommit();
+        }
+        return false;
+    }
+
+    /**
+     * Updates changed relationships and inserts new ones (id 0) inside the caller's transaction
+     */
+    private void saveRelationships(Collection<Relationship> relationships) throws SQLException {
+        List<Relationship> created = new ArrayList<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "UPDATE relationships SET type = ?, strength = ? WHERE id = ?")) {
+            int updates = 0;
+            for (Relationship relationship : relationships) {
+                if (relationship.getId() == 0) {
+                    created.add(relationship);
+                    continue;
+                }
+                pstmt.setString(1, relationship.getType().name());
+                pstmt.setInt(2, relationship.getStrength());
+                pstmt.setInt(3, relationship.getId());
+                pstmt.addBatch();
+                updates++;
+            }
+            if (updates > 0) {
+                executeBatch("saveTurn", pstmt, updates);
+            }
+        }
+
+        if (created.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO relationships (faction1_id, faction2_id, type, strength) VALUES (?, ?, ?, ?)")) {
+            for (Relationship relationship : created) {
+                pstmt.setInt(1, relationship.getFaction1Id());
+                pstmt.setInt(2, relationship.getFaction2Id());
+                pstmt.setString(3, relationship.getType().name());
+                pstmt.setInt(4, relationship.getStrength());
+                pstmt.addBatch();
+            }
+            executeBatch("saveTurn", pstmt, created.size());
+        }
+        int id = firstBatchId("saveTurn", created.size());
+        for (Relationship relationship : created) {
+            relationship.setId(id++);
+        }
+    }
+
+    // ============== STATS HISTORY ==============
+
+    /**
+     * One resource of one faction per recorded turn, downsampled to at most
+     * maxPoints (LTTB) so long campaigns stay cheap to chart.
+     */
+    public TimeSeries getStatsHistory(int factionId, WorldRollup.Measure measure,
+                                      int minTurn, int maxTurn, int maxPoints) {
+        // Column names come from the enum, never from user input
+        String sql = "SELECT turn_number, " + measure.name().toLowerCase() + " FROM faction_stats_history " +
+                "WHERE faction_id = ? AND turn_number BETWEEN ? AND ? ORDER BY turn_number";
+
+        int capacity = Math.max(0, Math.min(maxTurn - minTurn + 1, 1 << 16));
+        int[] turns = new int[Math.max(16, capacity)];
+        int[] values = new int[turns.length];
+        int size = 0;
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, factionId);
+            pstmt.setInt(2, minTurn);
+            pstmt.setInt(3, maxTurn);
+            try (ResultSet rs = executeQuery("getStatsHistory", pstmt)) {
+                while (rs.next()) {
+                    if (size == turns.length) {
+                        turns = Arrays.copyOf(turns, size * 2);
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    turns[size] = rs.getInt(1);
+                    values[size] = rs.getInt(2);
+                    size++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error fetching stats history: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return Lttb.downsample(new TimeSeries(turns, values, size), maxPoints);
+    }
+
+    // ============== RELATIONSHIP HISTORY ==============
+
+    private RelationshipHistory getRelationshipHistory() throws SQLException {
+        if (relationshipHistory == null) {
+            int lastKeyframeTurn = -1;
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = executeQuery("getRelationshipHistory", stmt,
+                         "SELECT MAX(turn_number) FROM relationship_history WHERE keyframe = 1")) {
+                if (rs.next() && rs.getObject(1) != null) {
+                    lastKeyframeTurn = rs.getInt(1);
+                }
+            }
+            relationshipHistory = new RelationshipHistory(getAllRelationships(), lastKeyframeTurn);
+
+            // Databases from before history was kept start it with what they hold now
+            if (lastKeyframeTurn < 0) {
+                insertHistoryRow(getCurrentTurn(), true, relationshipHistory.keyframe(getCurrentTurn()));
+            }
+        }
+        return relationshipHistory;
+    }
+
+    /**
+     * After a rollback the recorded state may be ahead of the database
+     */
+    private void reloadRelationshipHistory() {
+        relationshipHistory = null;
+        try {
+            getRelationshipHistory();
+        } catch (SQLException e) {
+            System.err.println("❌ Error reloading relationship history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends the relationships' changes since they were last recorded, plus a keyframe
+     * when the last one is {@link RelationshipHistory#KEYFRAME_INTERVAL} turns old
+     */
+    private void recordRelationshipHistory(int turnNumber, Collection<Relationship> relationships) throws SQLException {
+        RelationshipHistory history = getRelationshipHistory();
+        byte[] changes = history.recordChanges(relationships);
+        if (changes != null) {
+            insertHistoryRow(turnNumber, false, changes);
+        }
+        if (turnNumber - history.getLastKeyframeTurn() >= RelationshipHistory.KEYFRAME_INTERVAL) {
+            insertHistoryRow(turnNumber, true, history.keyframe(turnNumber));
+        }
+    }
+
+    private void insertHistoryRow(int turnNumber, boolean keyframe, byte[] changes) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO relationship_history (turn_number, keyframe, changes) VALUES (?, ?, ?)")) {
+            pstmt.setInt(1, turnNumber);
+            pstmt.setInt(2, keyframe ? 1 : 0);
+            pstmt.setBytes(3, changes);
+            executeUpdate("recordRelationshipHistory", pstmt);
+        }
+    }
+
+    /**
+     * Id of the latest keyframe row at or before the turn, or 0 if there is none
+     */
+    private long findKeyframe(int turnNumber) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT MAX(id) FROM relationship_history WHERE keyframe = 1 AND turn_number <= ?")) {
+            pstmt.setInt(1, turnNumber);
+            try (ResultSet rs = executeQuery("findKeyframe", pstmt)) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Every relationship as it stood at the end of the given turn. Reads the latest
+     * keyframe at or before the turn and replays only the change rows after it.
+     */
+    public List<Relationship> getRelationshipsAtTurn(int turnNumber) {
+        Relationship[] byId = new Relationship[16];
+        int maxId = -1;
+
+        try {
+            long keyframe = findKeyframe(turnNumber);
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "SELECT changes FROM relationship_history WHERE id >= ? AND turn_number <= ? " +
+                            "AND (keyframe = 0 OR id = ?) ORDER BY id")) {
+                pstmt.setLong(1, keyframe);
+                pstmt.setInt(2, turnNumber);
+                pstmt.setLong(3, keyframe);
+                try (ResultSet rs = executeQuery("getRelationshipsAtTurn", pstmt)) {
+                    while (rs.next()) {
+                        RelationshipHistory.Reader reader = new RelationshipHistory.Reader(rs.getBytes(1));
+                        while (reader.next()) {
+                            int id = reader.relationshipId;
+                            if (id >= byId.length) {
+                                byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length * 2));
+                            }
+                            Relationship relationship = byId[id];
+                            if (reader.isNew) {
+                                relationship = byId[id] = new Relationship(reader.faction1Id, reader.faction2Id,
+                                        reader.type, reader.strengthDelta);
+                                relationship.setId(id);
+                                maxId = Math.max(maxId, id);
+                            } else if (relationship != null) {
+                                relationship.setStrength(relationship.getStrength() + reader.strengthDelta);
+                                if (reader.type != null) {
+                                    relationship.setType(reader.type);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error rebuilding relationships: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        List<Relationship> relationships = new ArrayList<>();
+        for (int id = 0; id <= maxId; id++) {
+            if (byId[id] != null) {
+                relationships.add(byId[id]);
+            }
+        }
+        return relationships;
+    }
+
+    /**
+     * Strength and type of one relationship at the start of minTurn (if it existed) and
+     * after every turn up to maxTurn that changed it
+     */
+    public RelationshipTimeline getRelationshipTimeline(int relationshipId, int minTurn, int maxTurn) {
+        int[] turns = new int[16];
+        int[] values = new int[16];
+        RelationshipType[] types = new RelationshipType[16];
+        int size = 0;
+
+        try {
+            long keyframe = findKeyframe(minTurn);
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "SELECT turn_number, changes FROM relationship_history WHERE id >= ? AND turn_number <= ? " +
+                            "AND (keyframe = 0 OR id = ?) ORDER BY id")) {
+                pstmt.setLong(1, keyframe);
+                pstmt.setInt(2, maxTurn);
+                pstmt.setLong(3, keyframe);
+                try (ResultSet rs = executeQuery("getRelationshipTimeline", pstmt)) {
+                    boolean exists = false;
+                    int strength = 0;
+                    RelationshipType type = null;
+                    while (rs.next()) {
+                        int turn = rs.getInt(1);
+                        RelationshipHistory.Reader reader = new RelationshipHistory.Reader(rs.getBytes(2));
+                        // Records are sorted by id, so stop once past the one we want
+                        while (reader.next() && reader.relationshipId <= relationshipId) {
+                            if (reader.relationshipId != relationshipId) continue;
+                            if (reader.isNew) {
+                                exists = true;
+                                strength = reader.strengthDelta;
+                            } else {
+                                strength += reader.strengthDelta;
+                            }
+                            if (reader.type != null) {
+                                type = reader.type;
+                            }
+                            if (!exists) break;
+
+                            // Changes before minTurn fold into a single starting point
+                            int pointTurn = Math.max(turn, minTurn);
+                            if (size > 0 && turns[size - 1] == pointTurn) {
+                                size--;
+                            } else if (size == turns.length) {
+                                turns = Arrays.copyOf(turns, size * 2);
+                                values = Arrays.copyOf(values, size * 2);
+                                types = Arrays.copyOf(types, size * 2);
+                            }
+                            turns[size] = pointTurn;
+                            values[size] = strength;
+                            types[size] = type;
+                            size++;
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error fetching relationship timeline: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return new RelationshipTimeline(turns, values, types, size);
+    }
+
+    // ============== CHANGE NOTIFICATION ==============
+
+    /**
+     * At most one relationship per unordered faction pair. Older databases may already
+     * hold duplicates, in which case the index can't be built and only the in-memory
+     * check in addRelationship guards new writes.
+     */
+    private void createRelationshipPairIndex(Statement stmt) {
+        try {
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_relationships_pair ON relationships(" +
+                    "min(faction1_id, faction2_id), max(faction1_id, faction2_id))");
+        } catch (SQLException e) {
+            System.err.println("⚠️ Duplicate relationships found, pair index not created: " + e.getMessage());
+        }
+    }
+
+    public void addWorldChangeListener(WorldChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeWorldChangeListener(WorldChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Counts and resource sums by faction type, alignment and relationship type.
+     * Built from the tables on first use, then updated incrementally on every write.
+     */
+    public WorldRollup getRollup() {
+        if (rollup == null) {
+            rollup = new WorldRollup(getAllFactions(), getAllRelationships());
+            addWorldChangeListener(rollup);
+        }
+        return rollup;
+    }
+
+    /**
+     * Active factions ranked by strength and by each resource.
+     * Built from the table on first use, then updated incrementally on every write.
+     */
+    public Leaderboard getLeaderboard() {
+        if (leaderboard == null) {
+            leaderboard = new Leaderboard(getAllFactions());
+            addWorldChangeListener(leaderboard);
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Pair and neighbour lookups over all relationships.
+     * Built from the table on first use, then updated incrementally on every write.
+     */
+    public RelationshipGraph getRelationshipGraph() {
+        if (relationshipGraph == null) {
+            relationshipGraph = new RelationshipGraph(getAllRelationships());
+            addWorldChangeListener(relationshipGraph);
+        }
+        return relationshipGraph;
+    }
+
+    /**
+     * Coalitions of factions joined by allied or friendly relationships.
+     * Built on first use, then updated incrementally on every write.
+     */
+    public AllianceBlocs getAllianceBlocs() {
+        if (allianceBlocs == null) {
+            // The graph must be registered first: blocs re-read it when they split
+            RelationshipGraph graph = getRelationshipGraph();
+            allianceBlocs = new AllianceBlocs(graph, getAllFactions(), getAllRelationships());
+            addWorldChangeListener(allianceBlocs);
+        }
+        return allianceBlocs;
+    }
+
+    /**
+     * Influence ranking of the active factions over the relationship graph.
+     * Recomputed on the first query after relationships change.
+     */
+    public FactionInfluence getFactionInfluence() {
+        if (factionInfluence == null) {
+            RelationshipGraph graph = getRelationshipGraph();
+            factionInfluence = new FactionInfluence(graph, getAllFactions());
+            addWorldChangeListener(factionInfluence);
+        }
+        return factionInfluence;
+    }
+
+    /**
+     * Handshake paths and nearby enemies over allied, friendly and hostile relationships.
+     * Answers are cached until a relationship changes between friend and enemy.
+     */
+    public DiplomaticDistance getDiplomaticDistance() {
+        if (diplomaticDistance == null) {
+            diplomaticDistance = new DiplomaticDistance(getAllFactions(), getAllRelationships());
+            addWorldChangeListener(diplomaticDistance);
+        }
+        return diplomaticDistance;
+    }
+
+    /**
+     * The engine changes the graph's relationships in place during a turn, so after a
+     * rollback the graph and the indexes derived from it may hold uncommitted state.
+     * They are dropped and rebuilt from the tables on next use.
+     */
+    private void discardRelationshipIndexes() {
+        for (WorldChangeListener index : new WorldChangeListener[]{
+                relationshipGraph, allianceBlocs, factionInfluence, diplomaticDistance}) {
+            if (index != null) {
+                removeWorldChangeListener(index);
+            }
+        }
+        relationshipGraph = null;
+        allianceBlocs = null;
+        factionInfluence = null;
+        diplomaticDistance = null;
+    }
+
+    private void fireFactionsChanged(Collection<Faction> factions) {
+        for (WorldChangeListener listener : listeners) {
+            listener.factionsChanged(factions);
+        }
+    }
+
+    private void fireRelationshipsChanged(Collection<Relationship> relationships) {
+        for (WorldChangeListener listener : listeners) {
+            listener.relationshipsChanged(relationships);
+        }
+    }
+
+    // ============== STATEMENT EXECUTION ==============
+
+    /**
+     * Total SQL statements executed on this connection (batched rows count individually).
+     */
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * How long the commit of the last saved turn took, in nanoseconds.
+     */
+    public long getLastCommitNanos() {
+        return lastCommitNanos;
+    }
+
+    private int executeUpdate(String operation, PreparedStatement pstmt) throws SQLException {
+        DbStatementEvent event = beginStatement();
+        int rows = pstmt.executeUpdate();
+        commitStatement(event, operation, rows);
+        return rows;
+    }
+
+    private int executeUpdate(String operation, Statement stmt, String sql) throws SQLException {
+        DbStatementEvent event = beginStatement();
+        int rows = stmt.executeUpdate(sql);
+        commitStatement(event, operation, rows);
+        return rows;
+    }
+
+    private ResultSet executeQuery(String operation, PreparedStatement pstmt) throws SQLException {
+        DbStatementEvent event = beginStatement();
+        ResultSet rs = pstmt.executeQuery();
+        commitStatement(event, operation, -1);
+        return rs;
+    }
+
+    private ResultSet executeQuery(String operation, Statement stmt, String sql) throws SQLException {
+        DbStatementEvent event = beginStatement();
+        ResultSet rs = stmt.executeQuery(sql);
+        commitStatement(event, operation, -1);
+        return rs;
+    }
+
+    private int[] executeBatch(String operation, PreparedStatement pstmt, int size) throws SQLException {
+        DbStatementEvent event = beginStatement();
+        int[] results = pstmt.executeBatch();
+        statementCount += size - 1;
+        commitStatement(event, operation, size);
+        return results;
+    }
+
+    private DbStatementEvent beginStatement() {
+        statementCount++;
+        DbStatementEvent event = new DbStatementEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commitStatement(DbStatementEvent event, String operation, int rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
     // ============== CLOSE ==============
 
     public void close() {
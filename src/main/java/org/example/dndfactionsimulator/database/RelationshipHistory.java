@@ -0,0 +1,213 @@
+package org.example.dndfactionsimulator.database;
+
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Encodes relationship changes as compact varint records for the relationship_history
+ * table, and remembers the last recorded state of every relationship so each write
+ * only stores what actually moved.
+ *
+ * A history row is one batch of records sorted by relationship id. Each record is
+ * the id delta from the previous record, then a header holding the zigzag-encoded
+ * strength delta and two flags, then the new type if it changed and both faction
+ * ids if the relationship is new. A turn of drift costs two to three bytes per
+ * changed relationship. Every {@link #KEYFRAME_INTERVAL} turns a keyframe row
+ * re-states every relationship as new, so rebuilding the world at any turn reads
+ * one keyframe plus at most that many change rows.
+ */
+class RelationshipHistory {
+
+    static final int KEYFRAME_INTERVAL = 32;
+
+    private static final int NEW = 1;
+    private static final int TYPE_CHANGED = 2;
+    private static final RelationshipType[] TYPES = RelationshipType.values();
+
+    // Last recorded state, indexed by relationship id (type -1 = never recorded)
+    private byte[] strength = new byte[0];
+    private byte[] type = new byte[0];
+    private int[] faction1 = new int[0];
+    private int[] faction2 = new int[0];
+    private int maxId;
+    private int lastKeyframeTurn;
+
+    // Reused between writes: relationships waiting to be encoded, by id
+    private Relationship[] pending = new Relationship[0];
+    private int[] pendingIds = new int[16];
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    RelationshipHistory(Collection<Relationship> relationships, int lastKeyframeTurn) {
+        this.lastKeyframeTurn = lastKeyframeTurn;
+        for (Relationship relationship : relationships) {
+            store(relationship);
+        }
+    }
+
+    int getLastKeyframeTurn() {
+        return lastKeyframeTurn;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < type.length) return;
+        int oldLength = type.length;
+        int capacity = Math.max(id + 1, oldLength * 2);
+        strength = Arrays.copyOf(strength, capacity);
+        type = Arrays.copyOf(type, capacity);
+        faction1 = Arrays.copyOf(faction1, capacity);
+        faction2 = Arrays.copyOf(faction2, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+        Arrays.fill(type, oldLength, capacity, (byte) -1);
+    }
+
+    private void store(Relationship relationship) {
+        int id = relationship.getId();
+        ensureCapacity(id);
+        strength[id] = (byte) relationship.getStrength();
+        type[id] = (byte) relationship.getType().ordinal();
+        faction1[id] = relationship.getFaction1Id();
+        faction2[id] = relationship.getFaction2Id();
+        maxId = Math.max(maxId, id);
+    }
+
+    // ============== ENCODING ==============
+
+    /**
+     * Records the relationships' current state and returns the changes since the last
+     * recorded state, or null if nothing changed. Relationships may repeat.
+     */
+    byte[] recordChanges(Collection<Relationship> relationships) {
+        int count = 0;
+        for (Relationship relationship : relationships) {
+            int id = relationship.getId();
+            ensureCapacity(id);
+            if (pending[id] == null) {
+                if (count == pendingIds.length) {
+                    pendingIds = Arrays.copyOf(pendingIds, count * 2);
+                }
+                pendingIds[count++] = id;
+            }
+            pending[id] = relationship;
+        }
+        Arrays.sort(pendingIds, 0, count);
+
+        length = 0;
+        int previousId = 0;
+        for (int i = 0; i < count; i++) {
+            int id = pendingIds[i];
+            Relationship relationship = pending[id];
+            pending[id] = null;
+
+            boolean isNew = type[id] < 0;
+            int oldStrength = isNew ? 0 : strength[id];
+            int strengthDelta = relationship.getStrength() - oldStrength;
+            boolean typeChanged = isNew || type[id] != relationship.getType().ordinal();
+            if (strengthDelta == 0 && !typeChanged) continue;
+
+            writeRecord(id - previousId, strengthDelta, typeChanged ? relationship.getType().ordinal() : -1,
+                    isNew, relationship.getFaction1Id(), relationship.getFaction2Id());
+            previousId = id;
+            store(relationship);
+        }
+        return length == 0 ? null : Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Every recorded relationship, each as a new record
+     */
+    byte[] keyframe(int turn) {
+        lastKeyframeTurn = turn;
+        length = 0;
+        int previousId = 0;
+        for (int id = 0; id <= maxId && id < type.length; id++) {
+            if (type[id] < 0) continue;
+            writeRecord(id - previousId, strength[id], type[id], true, faction1[id], faction2[id]);
+            previousId = id;
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void writeRecord(int idDelta, int strengthDelta, int newType, boolean isNew, int factionA, int factionB) {
+        int flags = (isNew ? NEW : 0) | (newType >= 0 ? TYPE_CHANGED : 0);
+        writeVarint(idDelta);
+        writeVarint((zigzag(strengthDelta) << 2) | flags);
+        if (newType >= 0) {
+            writeVarint(newType);
+        }
+        if (isNew) {
+            writeVarint(factionA);
+            writeVarint(factionB);
+        }
+    }
+
+    private void writeVarint(int value) {
+        if (length + 5 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        while ((value & ~0x7F) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    // ============== DECODING ==============
+
+    /**
+     * Walks the records of one history row. After each successful {@link #next()}
+     * the public fields describe the current record.
+     */
+    static class Reader {
+        private final byte[] data;
+        private int position;
+
+        int relationshipId;
+        int strengthDelta;
+        // Null when the type didn't change
+        RelationshipType type;
+        boolean isNew;
+        int faction1Id;
+        int faction2Id;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        boolean next() {
+            if (position >= data.length) {
+                return false;
+            }
+            relationshipId += readVarint();
+            int header = readVarint();
+            int delta = header >>> 2;
+            strengthDelta = (delta >>> 1) ^ -(delta & 1);
+            type = (header & TYPE_CHANGED) != 0 ? TYPES[readVarint()] : null;
+            isNew = (header & NEW) != 0;
+            if (isNew) {
+                faction1Id = readVarint();
+                faction2Id = readVarint();
+            }
+            return true;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
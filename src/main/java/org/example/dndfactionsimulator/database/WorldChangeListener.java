@@ -0,0 +1,28 @@
+package org.example.dndfactionsimulator.database;
+
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+
+import java.util.Collection;
+
+/**
+ * Notified by {@link DatabaseManager} after factions or relationships have been
+ * written, so in-memory indexes can be kept in step with the database.
+ */
+public interface WorldChangeListener {
+
+    /**
+     * Factions that were inserted or updated (ids are already assigned)
+     */
+    default void factionsChanged(Collection<Faction> factions) {
+    }
+
+    default void factionDeleted(int factionId) {
+    }
+
+    /**
+     * Relationships that were inserted or updated (ids are already assigned)
+     */
+    default void relationshipsChanged(Collection<Relationship> relationships) {
+    }
+}
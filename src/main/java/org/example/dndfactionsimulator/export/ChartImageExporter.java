@@ -0,0 +1,324 @@
+package org.example.dndfactionsimulator.export;
+
+import org.example.dndfactionsimulator.analytics.TimeSeries;
+import org.example.dndfactionsimulator.analytics.WorldRollup;
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.model.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Writes the Analytics tab's charts to PNG files without a display: strength
+ * comparison, resource distribution, faction types, alignments and strength history.
+ *
+ * The data comes from the same sources as the Analytics tab (active factions ranked by
+ * strength, the world rollup and the downsampled stats history); only the drawing is
+ * done with Java2D instead of JavaFX charts.
+ */
+public class ChartImageExporter {
+
+    // A bar per faction stops being readable long before a large world runs out of factions
+    private static final int MAX_STRENGTH_BARS = 50;
+    private static final int RESOURCE_FACTIONS = 10;
+    private static final int HISTORY_TOP_FACTIONS = 5;
+    private static final int MARGIN = 70;
+    // Room for rotated faction names under the bars
+    private static final int BOTTOM_MARGIN = 140;
+
+    // The default JavaFX chart palette, so exports look like the Analytics tab
+    private static final Color[] SERIES_COLORS = {
+            new Color(0xF3622D), new Color(0xFBA71B), new Color(0x57B757), new Color(0x41A9C9),
+            new Color(0x4258C9), new Color(0x9A42C8), new Color(0xC84164), new Color(0x888888)
+    };
+    private static final Color GRID = new Color(0xE0E0E0);
+    private static final Color TEXT = new Color(0x333333);
+
+    private final DatabaseManager db;
+    private final int width;
+    private final int height;
+
+    public ChartImageExporter(DatabaseManager db, int width, int height) {
+        this.db = db;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Writes every chart into the directory and returns the files written
+     */
+    public List<Path> export(Path directory) throws IOException {
+        List<Faction> sortedFactions = db.getLeaderboard()
+                .inRankOrder(db.getActiveFactions(), WorldRollup.Measure.STRENGTH);
+        WorldRollup rollup = db.getRollup();
+
+        List<Path> written = new ArrayList<>();
+        written.add(write(directory.resolve("strength.png"), g -> drawStrengthChart(g, sortedFactions)));
+        written.add(write(directory.resolve("resources.png"), g -> drawResourceChart(g, sortedFactions)));
+        written.add(write(directory.resolve("types.png"), g -> drawPie(g, "Faction Types Distribution",
+                rollup.getTypeCounts(true), FactionType::getDisplayName)));
+        written.add(write(directory.resolve("alignments.png"), g -> drawPie(g, "Alignment Distribution",
+                rollup.getAlignmentCounts(true), Alignment::getDisplayName)));
+        written.add(write(directory.resolve("history.png"), g -> drawHistoryChart(g, sortedFactions)));
+
+        System.out.println("✅ " + written.size() + " chart images written to " + directory.toAbsolutePath());
+        return written;
+    }
+
+    private Path write(Path file, Consumer<Graphics2D> chart) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            chart.accept(g);
+        } finally {
+            g.dispose();
+        }
+        if (!ImageIO.write(image, "png", file.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+        return file;
+    }
+
+    // ============== CHARTS ==============
+
+    private void drawStrengthChart(Graphics2D g, List<Faction> sortedFactions) {
+        List<Faction> shown = sortedFactions.subList(0, Math.min(MAX_STRENGTH_BARS, sortedFactions.size()));
+        String title = shown.size() < sortedFactions.size()
+                ? String.format("Faction Strength Comparison (top %d of %,d)", shown.size(), sortedFactions.size())
+                : "Faction Strength Comparison";
+        drawTitle(g, title);
+        if (shown.isEmpty()) {
+            drawEmpty(g);
+            return;
+        }
+
+        List<String> names = shown.stream().map(Faction::getName).toList();
+        int[][] values = {shown.stream().mapToInt(Faction::getStrength).toArray()};
+        drawBars(g, names, values, "Strength");
+    }
+
+    private void drawResourceChart(Graphics2D g, List<Faction> sortedFactions) {
+        List<Faction> top = sortedFactions.subList(0, Math.min(RESOURCE_FACTIONS, sortedFactions.size()));
+        drawTitle(g, "Resource Distribution (Top 10 Factions)");
+        if (top.isEmpty()) {
+            drawEmpty(g);
+            return;
+        }
+
+        List<String> names = top.stream().map(Faction::getName).toList();
+        int[][] values = {
+                top.stream().mapToInt(Faction::getGold).toArray(),
+                top.stream().mapToInt(Faction::getTroops).toArray(),
+                top.stream().mapToInt(Faction::getMagic).toArray(),
+                top.stream().mapToInt(Faction::getInfluence).toArray()
+        };
+        drawBars(g, names, values, "Amount");
+        drawLegend(g, List.of("Gold", "Troops", "Magic", "Influence"));
+    }
+
+    private <E extends Enum<E>> void drawPie(Graphics2D g, String title, Map<E, Integer> counts,
+                                             Function<E, String> displayName) {
+        drawTitle(g, title);
+        if (counts.isEmpty()) {
+            drawEmpty(g);
+            return;
+        }
+
+        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+        int diameter = Math.min(width - 2 * MARGIN - 200, height - 2 * MARGIN);
+        // Centred in the space left of the legend
+        int x = (width - MARGIN - 200 - diameter) / 2;
+        int y = (height - diameter) / 2;
+
+        List<String> labels = new ArrayList<>();
+        double angle = 90;
+        int slice = 0;
+        for (Map.Entry<E, Integer> entry : counts.entrySet()) {
+            double extent = -360.0 * entry.getValue() / total;
+            g.setColor(SERIES_COLORS[slice % SERIES_COLORS.length]);
+            g.fill(new Arc2D.Double(x, y, diameter, diameter, angle, extent, Arc2D.PIE));
+            angle += extent;
+            labels.add(String.format("%s: %,d (%.0f%%)", displayName.apply(entry.getKey()),
+                    entry.getValue(), 100.0 * entry.getValue() / total));
+            slice++;
+        }
+        drawLegend(g, labels);
+    }
+
+    private void drawHistoryChart(Graphics2D g, List<Faction> sortedFactions) {
+        drawTitle(g, "Strength History (Top " + HISTORY_TOP_FACTIONS + " Factions)");
+        List<Faction> plotted = sortedFactions.subList(0, Math.min(HISTORY_TOP_FACTIONS, sortedFactions.size()));
+
+        // The current turn hasn't been simulated yet, so the last one with stats is the one before
+        int maxTurn = Math.max(0, db.getCurrentTurn() - 1);
+        List<TimeSeries> histories = new ArrayList<>();
+        int minValue = 0;
+        int maxValue = 1;
+        for (Faction faction : plotted) {
+            // Roughly one point per horizontal pixel is all a line chart can show
+            TimeSeries history = db.getStatsHistory(faction.getId(), WorldRollup.Measure.STRENGTH,
+                    0, maxTurn, Math.max(100, width - 2 * MARGIN));
+            histories.add(history);
+            for (int p = 0; p < history.size(); p++) {
+                minValue = Math.min(minValue, history.getValue(p));
+                maxValue = Math.max(maxValue, history.getValue(p));
+            }
+        }
+        if (histories.stream().allMatch(h -> h.size() == 0)) {
+            drawEmpty(g);
+            return;
+        }
+
+        double[] ticks = niceTicks(minValue, maxValue);
+        drawValueAxis(g, ticks, WorldRollup.Measure.STRENGTH.getDisplayName());
+        int maxX = Math.max(1, maxTurn);
+        g.setColor(TEXT);
+        g.drawString("Turn 0", MARGIN, height - BOTTOM_MARGIN + 20);
+        g.drawString("Turn " + maxTurn, width - MARGIN - 50, height - BOTTOM_MARGIN + 20);
+
+        g.setStroke(new BasicStroke(2f));
+        for (int i = 0; i < histories.size(); i++) {
+            TimeSeries history = histories.get(i);
+            Path2D.Double line = new Path2D.Double();
+            for (int p = 0; p < history.size(); p++) {
+                double px = MARGIN + (width - 2.0 * MARGIN) * history.getTurn(p) / maxX;
+                double py = valueY(history.getValue(p), ticks);
+                if (p == 0) {
+                    line.moveTo(px, py);
+                } else {
+                    line.lineTo(px, py);
+                }
+            }
+            g.setColor(SERIES_COLORS[i % SERIES_COLORS.length]);
+            g.draw(line);
+        }
+        g.setStroke(new BasicStroke(1f));
+        drawLegend(g, plotted.stream().map(Faction::getName).toList());
+    }
+
+    // ============== DRAWING HELPERS ==============
+
+    /**
+     * Grouped bars: one group per name, one bar per row of values
+     */
+    private void drawBars(Graphics2D g, List<String> names, int[][] values, String axisLabel) {
+        int minValue = 0;
+        int maxValue = 1;
+        for (int[] series : values) {
+            for (int value : series) {
+                minValue = Math.min(minValue, value);
+                maxValue = Math.max(maxValue, value);
+            }
+        }
+        double[] ticks = niceTicks(minValue, maxValue);
+        drawValueAxis(g, ticks, axisLabel);
+
+        double groupWidth = (width - 2.0 * MARGIN) / names.size();
+        double barWidth = groupWidth * 0.8 / values.length;
+        double zeroY = valueY(0, ticks);
+        for (int i = 0; i < names.size(); i++) {
+            double groupX = MARGIN + i * groupWidth + groupWidth * 0.1;
+            for (int s = 0; s < values.length; s++) {
+                double valueY = valueY(values[s][i], ticks);
+                g.setColor(SERIES_COLORS[s % SERIES_COLORS.length]);
+                g.fill(new Rectangle2D.Double(groupX + s * barWidth, Math.min(zeroY, valueY),
+                        Math.max(1, barWidth - 1), Math.abs(zeroY - valueY)));
+            }
+
+            // Category labels, rotated so long faction names fit under narrow bars
+            Graphics2D label = (Graphics2D) g.create();
+            label.setColor(TEXT);
+            label.translate(MARGIN + (i + 0.5) * groupWidth, height - BOTTOM_MARGIN + 8);
+            label.rotate(Math.PI / 4);
+            label.drawString(truncate(names.get(i), 18), 0, 0);
+            label.dispose();
+        }
+    }
+
+    private void drawValueAxis(Graphics2D g, double[] ticks, String label) {
+        for (double tick : ticks) {
+            double y = valueY(tick, ticks);
+            g.setColor(GRID);
+            g.draw(new Line2D.Double(MARGIN, y, width - MARGIN, y));
+            g.setColor(TEXT);
+            String text = String.format("%,.0f", tick);
+            g.drawString(text, MARGIN - 8 - g.getFontMetrics().stringWidth(text), (float) y + 4);
+        }
+        g.setColor(TEXT);
+        g.draw(new Line2D.Double(MARGIN, MARGIN, MARGIN, height - BOTTOM_MARGIN));
+
+        Graphics2D rotated = (Graphics2D) g.create();
+        rotated.translate(16, height / 2.0);
+        rotated.rotate(-Math.PI / 2);
+        rotated.drawString(label, 0, 0);
+        rotated.dispose();
+    }
+
+    private double valueY(double value, double[] ticks) {
+        double min = ticks[0];
+        double max = ticks[ticks.length - 1];
+        return height - BOTTOM_MARGIN - (height - MARGIN - BOTTOM_MARGIN) * (value - min) / (max - min);
+    }
+
+    /**
+     * Round axis ticks (1, 2 or 5 times a power of ten) covering [min, max]
+     */
+    private static double[] niceTicks(double min, double max) {
+        double rough = (max - min) / 8;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rough)));
+        double step = rough / magnitude < 2 ? 2 * magnitude : rough / magnitude < 5 ? 5 * magnitude : 10 * magnitude;
+        double first = Math.floor(min / step) * step;
+        double last = Math.ceil(max / step) * step;
+        int count = (int) Math.round((last - first) / step) + 1;
+        double[] ticks = new double[count];
+        for (int i = 0; i < count; i++) {
+            ticks[i] = first + i * step;
+        }
+        return ticks;
+    }
+
+    private void drawTitle(Graphics2D g, String title) {
+        Font font = g.getFont();
+        g.setFont(font.deriveFont(Font.BOLD, 18f));
+        g.setColor(TEXT);
+        g.drawString(title, (width - g.getFontMetrics().stringWidth(title)) / 2f, 36);
+        g.setFont(font);
+    }
+
+    private void drawLegend(Graphics2D g, List<String> labels) {
+        int x = width - MARGIN - 180;
+        int y = MARGIN;
+        for (int i = 0; i < labels.size(); i++) {
+            g.setColor(SERIES_COLORS[i % SERIES_COLORS.length]);
+            g.fillRect(x, y + i * 20, 12, 12);
+            g.setColor(TEXT);
+            g.drawString(truncate(labels.get(i), 28), x + 18, y + i * 20 + 11);
+        }
+    }
+
+    private void drawEmpty(Graphics2D g) {
+        g.setColor(Color.GRAY);
+        g.drawString("No active factions to display", MARGIN, height / 2f);
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length - 1) + "…";
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.dndfactionsimulator.export;
+
+import org.example.dndfactionsimulator.network.RenderSurface;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * {@link RenderSurface} backed by a Java2D graphics context, for drawing into offscreen
+ * images without a display. The graphics may be translated so that one tile of a larger
+ * picture is drawn in that picture's coordinates.
+ */
+class ImageSurface implements RenderSurface {
+
+    private final Graphics2D g;
+    private final double width;
+    private final double height;
+    private final Deque<Shape> savedClips = new ArrayDeque<>();
+    // Current path as line segments (x1, y1, x2, y2); the renderer only builds polylines
+    private double[] segments = new double[256];
+    private int segmentCount;
+    private double penX, penY;
+    private final Line2D.Double line = new Line2D.Double();
+    private Color fill = Color.BLACK;
+    private Color stroke = Color.BLACK;
+
+    ImageSurface(Graphics2D g, double width, double height) {
+        this.g = g;
+        this.width = width;
+        this.height = height;
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+    }
+
+    @Override
+    public double getWidth() {
+        return width;
+    }
+
+    @Override
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public void setFill(int argb) {
+        fill = new Color(argb, true);
+    }
+
+    @Override
+    public void setStroke(int argb) {
+        stroke = new Color(argb, true);
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        g.setStroke(new BasicStroke((float) width));
+    }
+
+    @Override
+    public void fillRect(double x, double y, double w, double h) {
+        g.setColor(fill);
+        g.fill(new Rectangle2D.Double(x, y, w, h));
+    }
+
+    @Override
+    public void fillOval(double x, double y, double w, double h) {
+        g.setColor(fill);
+        g.fill(new Ellipse2D.Double(x, y, w, h));
+    }
+
+    @Override
+    public void strokeOval(double x, double y, double w, double h) {
+        g.setColor(stroke);
+        g.draw(new Ellipse2D.Double(x, y, w, h));
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        g.setColor(fill);
+        g.drawString(text, (float) x, (float) y);
+    }
+
+    @Override
+    public void beginPath() {
+        segmentCount = 0;
+    }
+
+    @Override
+    public void moveTo(double x, double y) {
+        penX = x;
+        penY = y;
+    }
+
+    @Override
+    public void lineTo(double x, double y) {
+        if (segments.length < (segmentCount + 1) * 4) {
+            segments = Arrays.copyOf(segments, segments.length * 2);
+        }
+        int i = segmentCount++ * 4;
+        segments[i] = penX;
+        segments[i + 1] = penY;
+        segments[i + 2] = x;
+        segments[i + 3] = y;
+        penX = x;
+        penY = y;
+    }
+
+    /**
+     * Strokes the segments one by one: Java2D rasterises a single path holding thousands
+     * of long crossing lines far more slowly than the same lines drawn separately
+     */
+    @Override
+    public void stroke() {
+        g.setColor(stroke);
+        for (int s = 0; s < segmentCount; s++) {
+            int i = s * 4;
+            line.setLine(segments[i], segments[i + 1], segments[i + 2], segments[i + 3]);
+            g.draw(line);
+        }
+    }
+
+    @Override
+    public void clip(double x, double y, double w, double h) {
+        savedClips.push(g.getClip());
+        g.clip(new Rectangle2D.Double(x, y, w, h));
+        segmentCount = 0;
+    }
+
+    @Override
+    public void restore() {
+        g.setClip(savedClips.pop());
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.dndfactionsimulator.export;
+
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.network.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Writes the relationship network to a PNG without a display.
+ *
+ * The graph is laid out with the same force simulation as the Network tab and drawn by
+ * the same {@link NetworkRenderer}; the picture is split into tiles that are rendered in
+ * parallel, each into its own image, then copied into the final image and encoded.
+ */
+public class NetworkImageExporter {
+
+    public static final int DEFAULT_TILE_SIZE = 1024;
+    // 16k x 16k ARGB is already 1 GB of pixels
+    private static final int MAX_IMAGE_SIDE = 16384;
+    private static final int MAX_LAYOUT_ITERATIONS = 500;
+    private static final double FIT_MARGIN = 60;
+    private static final int BACKGROUND = 0xFFFFFFFF;
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+
+    public NetworkImageExporter(int width, int height, int tileSize) {
+        if (width < 1 || height < 1 || width > MAX_IMAGE_SIDE || height > MAX_IMAGE_SIDE) {
+            throw new IllegalArgumentException("Image size must be between 1 and " + MAX_IMAGE_SIDE
+                    + " pixels per side, got " + width + "x" + height);
+        }
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be positive, got " + tileSize);
+        }
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+    }
+
+    public void export(List<Faction> factions, Collection<Relationship> relationships, Path file) throws IOException {
+        long start = System.nanoTime();
+        ForceLayout layout = new ForceLayout();
+        layout.setGraph(factions, relationships);
+        while (!layout.isConverged() && layout.getIteration() < MAX_LAYOUT_ITERATIONS) {
+            layout.step();
+        }
+        LayoutSnapshot snapshot = layout.snapshot();
+        NetworkScene scene = NetworkScene.build(factions, relationships, snapshot);
+        System.out.printf("🕸️ Laid out %,d factions and %,d relationships in %d iterations (%.0f ms)%n",
+                scene.getNodeCount(), scene.getEdgeCount(), snapshot.getIteration(), millisSince(start));
+
+        Viewport viewport = new Viewport();
+        viewport.fit(snapshot.getFitMinX(), snapshot.getFitMinY(), snapshot.getFitMaxX(), snapshot.getFitMaxY(),
+                width, height, FIT_MARGIN);
+
+        start = System.nanoTime();
+        BufferedImage image = render(scene, viewport);
+        System.out.printf("🖼️ Rendered %dx%d image in %d tiles (%.0f ms)%n",
+                width, height, tileCount(), millisSince(start));
+
+        start = System.nanoTime();
+        if (!ImageIO.write(image, "png", file.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+        System.out.printf("✅ Network image written to %s (%.0f ms)%n", file.toAbsolutePath(), millisSince(start));
+    }
+
+    /**
+     * Renders all tiles in parallel and stitches them into one image
+     */
+    BufferedImage render(NetworkScene scene, Viewport viewport) {
+        int columns = (width + tileSize - 1) / tileSize;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        // The renderer keeps per-frame scratch buffers, so each worker thread gets its own
+        ThreadLocal<NetworkRenderer> renderers = ThreadLocal.withInitial(() -> {
+            NetworkRenderer renderer = new NetworkRenderer();
+            renderer.setEdgeAggregation(false);
+            return renderer;
+        });
+
+        IntStream.range(0, tileCount()).parallel().forEach(t -> {
+            int tileX = (t % columns) * tileSize;
+            int tileY = (t / columns) * tileSize;
+            int tileW = Math.min(tileSize, width - tileX);
+            int tileH = Math.min(tileSize, height - tileY);
+
+            BufferedImage tile = new BufferedImage(tileW, tileH, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = tile.createGraphics();
+            try {
+                g.translate(-tileX, -tileY);
+                ImageSurface surface = new ImageSurface(g, width, height);
+                surface.setFill(BACKGROUND);
+                surface.fillRect(tileX, tileY, tileW, tileH);
+                renderers.get().render(surface, scene, viewport, tileX, tileY, tileW, tileH);
+            } finally {
+                g.dispose();
+            }
+
+            // Tiles cover disjoint rows of the final image, so copying needs no locking
+            int[] tilePixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+            for (int row = 0; row < tileH; row++) {
+                System.arraycopy(tilePixels, row * tileW, pixels, (tileY + row) * width + tileX, tileW);
+            }
+        });
+        return image;
+    }
+
+    private int tileCount() {
+        return ((width + tileSize - 1) / tileSize) * ((height + tileSize - 1) / tileSize);
+    }
+
+    private static double millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,273 @@
+package org.example.dndfactionsimulator.graph;
+
+import org.example.dndfactionsimulator.database.WorldChangeListener;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+import org.example.dndfactionsimulator.util.IntList;
+import org.example.dndfactionsimulator.util.LongIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Coalitions of active factions joined, directly or through each other, by allied or
+ * friendly relationships, kept up to date from database change notifications.
+ *
+ * A union-find over faction ids merges blocs as soon as a friendly relationship
+ * appears. Union-find can't split, so when a friendly relationship weakens (or a member
+ * is destroyed) only the bloc it belonged to is taken apart and re-joined from its
+ * members' relationships in the {@link RelationshipGraph}. Each bloc keeps its members
+ * in a circular list and a running total of their strength.
+ */
+public class AllianceBlocs implements WorldChangeListener {
+
+    /**
+     * One coalition: its id (the id of one member, stable until the bloc changes),
+     * member count and combined strength
+     */
+    public record Bloc(int id, int size, long strength) {
+    }
+
+    private final RelationshipGraph graph;
+    // Whether each faction pair's relationship currently counts as friendly (1) or not (0)
+    private final LongIntMap friendlyByPair;
+
+    // Indexed by faction id
+    private int[] parent = new int[0];
+    private int[] size = new int[0];
+    private int[] next = new int[0];
+    private int[] strength = new int[0];
+    private boolean[] active = new boolean[0];
+    // Indexed by bloc root: combined strength of the active members
+    private long[] blocStrength = new long[0];
+
+    public AllianceBlocs(RelationshipGraph graph, Collection<Faction> factions,
+                         Collection<Relationship> relationships) {
+        this.graph = graph;
+        this.friendlyByPair = new LongIntMap(relationships.size());
+        for (Faction faction : factions) {
+            ensureCapacity(faction.getId());
+            active[faction.getId()] = faction.isActive();
+            strength[faction.getId()] = faction.isActive() ? faction.getStrength() : 0;
+            blocStrength[faction.getId()] = strength[faction.getId()];
+        }
+        for (Relationship relationship : relationships) {
+            boolean friendly = isFriendly(relationship.getType());
+            friendlyByPair.put(pairKey(relationship), friendly ? 1 : 0);
+            if (friendly) {
+                union(relationship.getFaction1Id(), relationship.getFaction2Id());
+            }
+        }
+    }
+
+    private static boolean isFriendly(RelationshipType type) {
+        return type == RelationshipType.ALLIED || type == RelationshipType.FRIENDLY;
+    }
+
+    private static long pairKey(Relationship relationship) {
+        return RelationshipGraph.pairKey(relationship.getFaction1Id(), relationship.getFaction2Id());
+    }
+
+    // ============== UPDATES ==============
+
+    @Override
+    public synchronized void factionsChanged(Collection<Faction> factions) {
+        IntList broken = new IntList();
+        for (Faction faction : factions) {
+            int id = faction.getId();
+            ensureCapacity(id);
+            boolean wasActive = active[id];
+            int contribution = faction.isActive() ? faction.getStrength() : 0;
+            blocStrength[find(id)] += contribution - strength[id];
+            strength[id] = contribution;
+            active[id] = faction.isActive();
+
+            if (wasActive && !faction.isActive()) {
+                broken.add(find(id));
+            } else if (!wasActive && faction.isActive()) {
+                joinFriendlyNeighbors(id);
+            }
+        }
+        rebuild(broken);
+    }
+
+    @Override
+    public synchronized void factionDeleted(int factionId) {
+        if (factionId < 0 || factionId >= parent.length || !active[factionId]) return;
+        blocStrength[find(factionId)] -= strength[factionId];
+        strength[factionId] = 0;
+        active[factionId] = false;
+        IntList broken = new IntList(1);
+        broken.add(find(factionId));
+        rebuild(broken);
+    }
+
+    /**
+     * Expects the {@link RelationshipGraph} to have seen the change already (it registers first)
+     */
+    @Override
+    public synchronized void relationshipsChanged(Collection<Relationship> relationships) {
+        IntList broken = new IntList();
+        List<Relationship> strengthened = new ArrayList<>();
+        for (Relationship relationship : relationships) {
+            ensureCapacity(Math.max(relationship.getFaction1Id(), relationship.getFaction2Id()));
+            long key = pairKey(relationship);
+            boolean wasFriendly = friendlyByPair.get(key, 0) == 1;
+            boolean friendly = isFriendly(relationship.getType());
+            friendlyByPair.put(key, friendly ? 1 : 0);
+
+            if (wasFriendly && !friendly) {
+                broken.add(find(relationship.getFaction1Id()));
+            } else if (!wasFriendly && friendly) {
+                strengthened.add(relationship);
+            }
+        }
+
+        rebuild(broken);
+        for (Relationship relationship : strengthened) {
+            union(relationship.getFaction1Id(), relationship.getFaction2Id());
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < parent.length) return;
+        int oldLength = parent.length;
+        int capacity = Math.max(id + 1, oldLength * 2);
+        parent = Arrays.copyOf(parent, capacity);
+        size = Arrays.copyOf(size, capacity);
+        next = Arrays.copyOf(next, capacity);
+        strength = Arrays.copyOf(strength, capacity);
+        active = Arrays.copyOf(active, capacity);
+        blocStrength = Arrays.copyOf(blocStrength, capacity);
+        for (int i = oldLength; i < capacity; i++) {
+            parent[i] = i;
+            size[i] = 1;
+            next[i] = i;
+        }
+    }
+
+    private int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Merges the blocs of two active factions (union by size)
+     */
+    private void union(int a, int b) {
+        if (!active[a] || !active[b]) return;
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        blocStrength[rootA] += blocStrength[rootB];
+
+        // Splice the two circular member lists into one
+        int swap = next[rootA];
+        next[rootA] = next[rootB];
+        next[rootB] = swap;
+    }
+
+    private void joinFriendlyNeighbors(int id) {
+        int degree = graph.getDegree(id);
+        for (int i = 0; i < degree; i++) {
+            if (isFriendly(graph.getIncidentRelationship(id, i).getType())) {
+                union(id, graph.getNeighbor(id, i));
+            }
+        }
+    }
+
+    /**
+     * Splits each given bloc into singletons and re-joins them from the current
+     * relationships; costs O(members + their relationships) per bloc
+     */
+    private void rebuild(IntList roots) {
+        for (int i = 0; i < roots.size(); i++) {
+            int root = roots.get(i);
+            // An earlier rebuild in this batch may already have split this bloc
+            if (parent[root] != root) continue;
+
+            int[] members = membersOf(root);
+            for (int member : members) {
+                parent[member] = member;
+                size[member] = 1;
+                next[member] = member;
+                blocStrength[member] = strength[member];
+            }
+            for (int member : members) {
+                joinFriendlyNeighbors(member);
+            }
+        }
+    }
+
+    private int[] membersOf(int root) {
+        int[] members = new int[size[root]];
+        int member = root;
+        for (int i = 0; i < members.length; i++) {
+            members[i] = member;
+            member = next[member];
+        }
+        return members;
+    }
+
+    // ============== QUERIES ==============
+
+    /**
+     * Id of the faction's bloc; a faction outside any coalition is a bloc of one
+     */
+    public synchronized int getBlocId(int factionId) {
+        return factionId >= 0 && factionId < parent.length ? find(factionId) : factionId;
+    }
+
+    public synchronized boolean sameBloc(int factionA, int factionB) {
+        return getBlocId(factionA) == getBlocId(factionB);
+    }
+
+    public synchronized int getBlocSize(int factionId) {
+        return factionId >= 0 && factionId < parent.length ? size[find(factionId)] : 1;
+    }
+
+    /**
+     * Combined strength of the active members of the faction's bloc
+     */
+    public synchronized long getBlocStrength(int factionId) {
+        return factionId >= 0 && factionId < parent.length ? blocStrength[find(factionId)] : 0;
+    }
+
+    /**
+     * Ids of every faction in the same bloc as the given faction, including itself
+     */
+    public synchronized int[] getBlocMembers(int factionId) {
+        if (factionId < 0 || factionId >= parent.length) {
+            return new int[]{factionId};
+        }
+        return membersOf(find(factionId));
+    }
+
+    /**
+     * Blocs with at least minSize members, strongest first
+     */
+    public synchronized List<Bloc> getBlocs(int minSize) {
+        List<Bloc> blocs = new ArrayList<>();
+        for (int id = 0; id < parent.length; id++) {
+            if (parent[id] == id && active[id] && size[id] >= minSize) {
+                blocs.add(new Bloc(id, size[id], blocStrength[id]));
+            }
+        }
+        blocs.sort(Comparator.comparingLong(Bloc::strength).reversed());
+        return blocs;
+    }
+}
@@ -0,0 +1,398 @@
+package org.example.dndfactionsimulator.graph;
+
+import org.example.dndfactionsimulator.database.WorldChangeListener;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+import org.example.dndfactionsimulator.util.LongIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plot-hook queries over the relationships: how many handshakes separate two factions
+ * through allied or friendly relationships, and which enemies are close.
+ *
+ * Each faction keeps compact int lists of its friends and of its enemies, updated only
+ * when a relationship crosses between friendly, hostile and neither, so searches never
+ * touch Relationship objects. Paths come from a bidirectional breadth-first search that
+ * always grows the smaller frontier, so it touches a few hundred factions where a
+ * one-sided search would touch thousands. Search state lives in id-indexed arrays
+ * stamped with a search number, which avoids clearing them between queries. Answers
+ * are kept in a bounded LRU cache that is emptied by the same crossings, or when a
+ * faction is destroyed or restored.
+ */
+public class DiplomaticDistance implements WorldChangeListener {
+
+    private static final int CACHE_SIZE = 4096;
+    private static final int[] NO_PATH = new int[0];
+
+    // Relationship classes, as stored per pair
+    private static final int OTHER = 0;
+    private static final int FRIEND = 1;
+    private static final int ENEMY = 2;
+
+    private static final RelationshipType[] TYPES = RelationshipType.values();
+    private static final int NO_TYPE = -1;
+
+    /**
+     * An enemy near a faction: its own enemy (via is -1), or the enemy of one of its
+     * friends or allies (via is that friend)
+     */
+    public record Threat(int factionId, int via, RelationshipType type) {
+    }
+
+    // Relationship type ordinal of every pair
+    private final LongIntMap typeByPair;
+    private final Map<Long, int[]> pathCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // Indexed by faction id
+    private boolean[] active = new boolean[0];
+    private int[][] friends = new int[0][];
+    private int[] friendCount = new int[0];
+    private int[][] enemies = new int[0][];
+    private int[] enemyCount = new int[0];
+    // Search stamps and parents for the forward (from) and backward (to) sides
+    private int[] seenFrom = new int[0];
+    private int[] seenTo = new int[0];
+    private int[] parentFrom = new int[0];
+    private int[] parentTo = new int[0];
+    private int search;
+
+    private int[] frontierFrom = new int[16];
+    private int[] frontierTo = new int[16];
+    private int[] nextFrontier = new int[16];
+
+    private long cacheHits;
+    private long searches;
+
+    public DiplomaticDistance(Collection<Faction> factions, Collection<Relationship> relationships) {
+        this.typeByPair = new LongIntMap(relationships.size());
+        for (Faction faction : factions) {
+            ensureCapacity(faction.getId());
+            active[faction.getId()] = faction.isActive();
+        }
+        for (Relationship relationship : relationships) {
+            put(relationship);
+        }
+    }
+
+    private static int classOf(RelationshipType type) {
+        if (type == RelationshipType.ALLIED || type == RelationshipType.FRIENDLY) return FRIEND;
+        if (type == RelationshipType.HOSTILE || type == RelationshipType.AT_WAR) return ENEMY;
+        return OTHER;
+    }
+
+    private static int classOf(int typeOrdinal) {
+        return typeOrdinal == NO_TYPE ? OTHER : classOf(TYPES[typeOrdinal]);
+    }
+
+    private static long pairKey(Relationship relationship) {
+        return RelationshipGraph.pairKey(relationship.getFaction1Id(), relationship.getFaction2Id());
+    }
+
+    // ============== UPDATES ==============
+
+    @Override
+    public synchronized void factionsChanged(Collection<Faction> factions) {
+        for (Faction faction : factions) {
+            ensureCapacity(faction.getId());
+            if (active[faction.getId()] != faction.isActive()) {
+                active[faction.getId()] = faction.isActive();
+                pathCache.clear();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void factionDeleted(int factionId) {
+        if (factionId >= 0 && factionId < active.length && active[factionId]) {
+            active[factionId] = false;
+            pathCache.clear();
+        }
+    }
+
+    @Override
+    public synchronized void relationshipsChanged(Collection<Relationship> relationships) {
+        for (Relationship relationship : relationships) {
+            // Strength drift inside a class changes no answer
+            if (put(relationship)) {
+                pathCache.clear();
+            }
+        }
+    }
+
+    /**
+     * Records the relationship's type and moves the pair between the friend and enemy
+     * lists; returns whether its class changed
+     */
+    private boolean put(Relationship relationship) {
+        int factionA = relationship.getFaction1Id();
+        int factionB = relationship.getFaction2Id();
+        ensureCapacity(Math.max(factionA, factionB));
+        long key = pairKey(relationship);
+        int oldClass = classOf(typeByPair.get(key, NO_TYPE));
+        int newClass = classOf(relationship.getType());
+        typeByPair.put(key, relationship.getType().ordinal());
+        if (oldClass == newClass) {
+            return false;
+        }
+
+        if (oldClass == FRIEND) {
+            friendCount[factionA] = remove(friends[factionA], friendCount[factionA], factionB);
+            friendCount[factionB] = remove(friends[factionB], friendCount[factionB], factionA);
+        } else if (oldClass == ENEMY) {
+            enemyCount[factionA] = remove(enemies[factionA], enemyCount[factionA], factionB);
+            enemyCount[factionB] = remove(enemies[factionB], enemyCount[factionB], factionA);
+        }
+        if (newClass == FRIEND) {
+            friends[factionA] = add(friends[factionA], friendCount[factionA]++, factionB);
+            friends[factionB] = add(friends[factionB], friendCount[factionB]++, factionA);
+        } else if (newClass == ENEMY) {
+            enemies[factionA] = add(enemies[factionA], enemyCount[factionA]++, factionB);
+            enemies[factionB] = add(enemies[factionB], enemyCount[factionB]++, factionA);
+        }
+        return true;
+    }
+
+    private static int[] add(int[] list, int count, int id) {
+        if (list == null) {
+            list = new int[4];
+        } else if (count == list.length) {
+            list = Arrays.copyOf(list, count * 2);
+        }
+        list[count] = id;
+        return list;
+    }
+
+    /**
+     * Removes the id by moving the last entry into its place; returns the new count
+     */
+    private static int remove(int[] list, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (list[i] == id) {
+                list[i] = list[count - 1];
+                return count - 1;
+            }
+        }
+        return count;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < active.length) return;
+        int capacity = Math.max(id + 1, active.length * 2);
+        active = Arrays.copyOf(active, capacity);
+        friends = Arrays.copyOf(friends, capacity);
+        friendCount = Arrays.copyOf(friendCount, capacity);
+        enemies = Arrays.copyOf(enemies, capacity);
+        enemyCount = Arrays.copyOf(enemyCount, capacity);
+        seenFrom = Arrays.copyOf(seenFrom, capacity);
+        seenTo = Arrays.copyOf(seenTo, capacity);
+        parentFrom = Arrays.copyOf(parentFrom, capacity);
+        parentTo = Arrays.copyOf(parentTo, capacity);
+    }
+
+    private boolean isActive(int factionId) {
+        return factionId >= 0 && factionId < active.length && active[factionId];
+    }
+
+    // ============== QUERIES ==============
+
+    /**
+     * Shortest chain of allied or friendly relationships between two active factions,
+     * as faction ids from first to last (both included), or an empty array if none exists
+     */
+    public synchronized int[] findFriendlyPath(int fromId, int toId) {
+        if (!isActive(fromId) || !isActive(toId)) {
+            return NO_PATH;
+        }
+        if (fromId == toId) {
+            return new int[]{fromId};
+        }
+
+        // Cached in canonical order, reversed on the way out when asked the other way round
+        long key = RelationshipGraph.pairKey(fromId, toId);
+        int[] path = pathCache.get(key);
+        if (path != null) {
+            cacheHits++;
+        } else {
+            searches++;
+            path = search(Math.min(fromId, toId), Math.max(fromId, toId));
+            pathCache.put(key, path);
+        }
+
+        int[] result = path.clone();
+        if (result.length > 0 && result[0] != fromId) {
+            for (int i = 0, j = result.length - 1; i < j; i++, j--) {
+                int swap = result[i];
+                result[i] = result[j];
+                result[j] = swap;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Handshakes (friendly relationships) separating two factions, or -1 if no friendly
+     * chain joins them
+     */
+    public synchronized int getHandshakes(int fromId, int toId) {
+        return findFriendlyPath(fromId, toId).length - 1;
+    }
+
+    /**
+     * Active factions hostile to or at war with the faction, then the enemies of its
+     * friends and allies that aren't its friends themselves; each enemy appears once
+     */
+    public synchronized List<Threat> getEnemiesWithinTwoHops(int factionId) {
+        List<Threat> threats = new ArrayList<>();
+        if (!isActive(factionId)) {
+            return threats;
+        }
+
+        int stamp = ++search;
+        seenFrom[factionId] = stamp;
+        for (int i = 0; i < enemyCount[factionId]; i++) {
+            int enemy = enemies[factionId][i];
+            if (!isActive(enemy)) continue;
+            seenFrom[enemy] = stamp;
+            threats.add(new Threat(enemy, -1, typeOf(factionId, enemy)));
+        }
+        // Friends are ruled out as second-hop threats
+        for (int i = 0; i < friendCount[factionId]; i++) {
+            seenFrom[friends[factionId][i]] = stamp;
+        }
+
+        for (int i = 0; i < friendCount[factionId]; i++) {
+            int friend = friends[factionId][i];
+            if (!isActive(friend)) continue;
+
+            for (int j = 0; j < enemyCount[friend]; j++) {
+                int other = enemies[friend][j];
+                if (!isActive(other) || seenFrom[other] == stamp) continue;
+                seenFrom[other] = stamp;
+                threats.add(new Threat(other, friend, typeOf(friend, other)));
+            }
+        }
+        return threats;
+    }
+
+    private RelationshipType typeOf(int factionA, int factionB) {
+        return TYPES[typeByPair.get(RelationshipGraph.pairKey(factionA, factionB), NO_TYPE)];
+    }
+
+    /**
+     * Queries answered from the cache / by a fresh search since startup
+     */
+    public synchronized long getCacheHits() {
+        return cacheHits;
+    }
+
+    public synchronized long getSearches() {
+        return searches;
+    }
+
+    // ============== SEARCH ==============
+
+    /**
+     * Bidirectional breadth-first search. Each step expands a whole level of the smaller
+     * frontier and stops at the end of the first level where the two sides meet, taking
+     * the meeting point with the shortest total, so the path found is a shortest one.
+     */
+    private int[] search(int fromId, int toId) {
+        int stamp = ++search;
+        seenFrom[fromId] = stamp;
+        parentFrom[fromId] = -1;
+        seenTo[toId] = stamp;
+        parentTo[toId] = -1;
+        frontierFrom[0] = fromId;
+        frontierTo[0] = toId;
+        int fromSize = 1;
+        int toSize = 1;
+
+        while (fromSize > 0 && toSize > 0) {
+            boolean forward = fromSize <= toSize;
+            int[] frontier = forward ? frontierFrom : frontierTo;
+            int size = forward ? fromSize : toSize;
+            int[] seen = forward ? seenFrom : seenTo;
+            int[] parent = forward ? parentFrom : parentTo;
+            int[] otherSeen = forward ? seenTo : seenFrom;
+
+            int nextSize = 0;
+            int meetFrom = -1;
+            int meetTo = -1;
+            for (int f = 0; f < size && meetFrom < 0; f++) {
+                int current = frontier[f];
+                int[] currentFriends = friends[current];
+                for (int i = 0; i < friendCount[current]; i++) {
+                    int neighbor = currentFriends[i];
+                    if (!isActive(neighbor)) continue;
+
+                    if (otherSeen[neighbor] == stamp) {
+                        // Every meeting found in this level gives the same total length
+                        meetFrom = forward ? current : neighbor;
+                        meetTo = forward ? neighbor : current;
+                        break;
+                    }
+                    if (seen[neighbor] != stamp) {
+                        seen[neighbor] = stamp;
+                        parent[neighbor] = current;
+                        if (nextSize == nextFrontier.length) {
+                            nextFrontier = Arrays.copyOf(nextFrontier, nextSize * 2);
+                        }
+                        nextFrontier[nextSize++] = neighbor;
+                    }
+                }
+            }
+            if (meetFrom >= 0) {
+                return buildPath(meetFrom, meetTo);
+            }
+
+            // The expanded frontier's array becomes the spare for the next level
+            if (forward) {
+                frontierFrom = nextFrontier;
+                nextFrontier = frontier;
+                fromSize = nextSize;
+            } else {
+                frontierTo = nextFrontier;
+                nextFrontier = frontier;
+                toSize = nextSize;
+            }
+        }
+        return NO_PATH;
+    }
+
+    /**
+     * Joins the forward chain ending at meetFrom to the backward chain starting at meetTo
+     */
+    private int[] buildPath(int meetFrom, int meetTo) {
+        int fromLength = 0;
+        for (int id = meetFrom; id >= 0; id = parentFrom[id]) {
+            fromLength++;
+        }
+        int toLength = 0;
+        for (int id = meetTo; id >= 0; id = parentTo[id]) {
+            toLength++;
+        }
+
+        int[] path = new int[fromLength + toLength];
+        int index = fromLength - 1;
+        for (int id = meetFrom; id >= 0; id = parentFrom[id]) {
+            path[index--] = id;
+        }
+        index = fromLength;
+        for (int id = meetTo; id >= 0; id = parentTo[id]) {
+            path[index++] = id;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.dndfactionsimulator.graph;
+
+import org.example.dndfactionsimulator.database.WorldChangeListener;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+/**
+ * Political influence of each active faction: weighted PageRank over the relationship
+ * graph, so a faction matters when factions that matter have strong ties to it.
+ *
+ * Ties are weighted by how far the relationship is from indifference, so bitter wars
+ * count as much as firm alliances. Scores are recomputed lazily on the first query
+ * after a relationship changes, by power iteration over a compressed sparse copy of
+ * the graph (rows in parallel on large worlds), warm-started from the previous scores,
+ * which saves a third or more of the iterations after a turn of diplomacy.
+ */
+public class FactionInfluence implements WorldChangeListener {
+
+    private static final double DAMPING = 0.85;
+    // Stop once the scores move less than this in total (they sum to 1)
+    private static final double TOLERANCE = 1e-6;
+    private static final int MAX_ITERATIONS = 100;
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private final RelationshipGraph graph;
+    private boolean dirty = true;
+
+    // Indexed by faction id
+    private boolean[] active = new boolean[0];
+    private double[] scoreById = new double[0];
+    private int activeCount;
+
+    // Compressed sparse rows of the active subgraph, reused between computations
+    private int[] idByRow = new int[0];
+    private int[] rowByFaction = new int[0];
+    private int[] rowStart = new int[1];
+    private int[] columns = new int[0];
+    private double[] weights = new double[0];
+    private double[] outWeight = new double[0];
+    private double[] rank = new double[0];
+    private double[] nextRank = new double[0];
+    private double[] share = new double[0];
+    private int[] cursor = new int[0];
+
+    private int lastIterations;
+    private int[] ranking;
+
+    public FactionInfluence(RelationshipGraph graph, Collection<Faction> factions) {
+        this.graph = graph;
+        for (Faction faction : factions) {
+            ensureCapacity(faction.getId());
+            if (faction.isActive()) {
+                active[faction.getId()] = true;
+                activeCount++;
+            }
+        }
+    }
+
+    // ============== UPDATES ==============
+
+    @Override
+    public synchronized void factionsChanged(Collection<Faction> factions) {
+        // Strength doesn't enter the score, only who takes part
+        for (Faction faction : factions) {
+            ensureCapacity(faction.getId());
+            if (active[faction.getId()] != faction.isActive()) {
+                active[faction.getId()] = faction.isActive();
+                activeCount += faction.isActive() ? 1 : -1;
+                dirty = true;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void factionDeleted(int factionId) {
+        if (factionId >= 0 && factionId < active.length && active[factionId]) {
+            active[factionId] = false;
+            activeCount--;
+            dirty = true;
+        }
+    }
+
+    @Override
+    public synchronized void relationshipsChanged(Collection<Relationship> relationships) {
+        dirty = true;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < active.length) return;
+        int capacity = Math.max(id + 1, active.length * 2);
+        active = Arrays.copyOf(active, capacity);
+        scoreById = Arrays.copyOf(scoreById, capacity);
+    }
+
+    /**
+     * Weight of a tie: its distance from indifference, never quite zero
+     */
+    private static double tieWeight(Relationship relationship) {
+        return (Math.abs(relationship.getStrength()) + 10) / 110.0;
+    }
+
+    private void update() {
+        if (!dirty) return;
+        dirty = false;
+        ranking = null;
+        buildRows();
+        int n = activeCount;
+        if (n == 0) {
+            lastIterations = 0;
+            return;
+        }
+
+        // Warm start from the previous scores; factions new to the ranking start at average
+        double total = 0;
+        for (int row = 0; row < n; row++) {
+            double previous = scoreById[idByRow[row]];
+            rank[row] = previous > 0 ? previous : 1.0 / n;
+            total += rank[row];
+        }
+        for (int row = 0; row < n; row++) {
+            rank[row] /= total;
+        }
+
+        int iterations = 0;
+        double change = Double.MAX_VALUE;
+        while (change > TOLERANCE && iterations < MAX_ITERATIONS) {
+            change = iterate(n);
+            iterations++;
+        }
+        lastIterations = iterations;
+
+        Arrays.fill(scoreById, 0);
+        for (int row = 0; row < n; row++) {
+            scoreById[idByRow[row]] = rank[row];
+        }
+    }
+
+    /**
+     * Copies the relationships between active factions into the sparse rows
+     */
+    private void buildRows() {
+        int n = activeCount;
+        if (idByRow.length < n) {
+            idByRow = new int[n];
+            rowStart = new int[n + 1];
+            outWeight = new double[n];
+            rank = new double[n];
+            nextRank = new double[n];
+            share = new double[n];
+            cursor = new int[n];
+        }
+        if (rowByFaction.length < active.length) {
+            rowByFaction = new int[active.length];
+        }
+
+        int row = 0;
+        for (int id = 0; id < active.length; id++) {
+            rowByFaction[id] = active[id] ? row : -1;
+            if (active[id]) {
+                idByRow[row++] = id;
+            }
+        }
+
+        // Walk the edge slots once (in memory order) to count, then again to fill, each
+        // relationship adding an entry to both of its factions' rows
+        int edgeCount = graph.getRelationshipCount();
+        Arrays.fill(rowStart, 0, n + 1, 0);
+        for (int slot = 0; slot < edgeCount; slot++) {
+            Relationship relationship = graph.getEdge(slot);
+            int rowA = rowOf(relationship.getFaction1Id());
+            int rowB = rowOf(relationship.getFaction2Id());
+            if (rowA >= 0 && rowB >= 0 && rowA != rowB) {
+                rowStart[rowA + 1]++;
+                rowStart[rowB + 1]++;
+            }
+        }
+        for (row = 0; row < n; row++) {
+            rowStart[row + 1] += rowStart[row];
+            cursor[row] = rowStart[row];
+            outWeight[row] = 0;
+        }
+        if (columns.length < rowStart[n]) {
+            columns = new int[rowStart[n]];
+            weights = new double[rowStart[n]];
+        }
+
+        for (int slot = 0; slot < edgeCount; slot++) {
+            Relationship relationship = graph.getEdge(slot);
+            int rowA = rowOf(relationship.getFaction1Id());
+            int rowB = rowOf(relationship.getFaction2Id());
+            if (rowA < 0 || rowB < 0 || rowA == rowB) continue;
+
+            double weight = tieWeight(relationship);
+            columns[cursor[rowA]] = rowB;
+            weights[cursor[rowA]++] = weight;
+            columns[cursor[rowB]] = rowA;
+            weights[cursor[rowB]++] = weight;
+            outWeight[rowA] += weight;
+            outWeight[rowB] += weight;
+        }
+    }
+
+    private int rowOf(int factionId) {
+        return factionId >= 0 && factionId < active.length ? rowByFaction[factionId] : -1;
+    }
+
+    /**
+     * One power iteration step; returns the total change in the scores.
+     * Ties are symmetric, so each row gathers from its own neighbours and rows
+     * can be computed independently.
+     */
+    private double iterate(int n) {
+        // Each faction passes its score along its ties in proportion to their weight;
+        // factions with no ties spread theirs evenly over everyone
+        double dangling = 0;
+        for (int row = 0; row < n; row++) {
+            if (outWeight[row] == 0) {
+                dangling += rank[row];
+                share[row] = 0;
+            } else {
+                share[row] = rank[row] / outWeight[row];
+            }
+        }
+        double base = (1 - DAMPING) / n + DAMPING * dangling / n;
+
+        IntStream rows = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(row -> {
+            double sum = 0;
+            for (int entry = rowStart[row]; entry < rowStart[row + 1]; entry++) {
+                sum += weights[entry] * share[columns[entry]];
+            }
+            nextRank[row] = base + DAMPING * sum;
+        });
+
+        // Summed in row order so seeded runs converge identically
+        double change = 0;
+        for (int row = 0; row < n; row++) {
+            change += Math.abs(nextRank[row] - rank[row]);
+        }
+        double[] swap = rank;
+        rank = nextRank;
+        nextRank = swap;
+        return change;
+    }
+
+    // ============== QUERIES ==============
+
+    /**
+     * The faction's influence relative to the average active faction (1.0 is average),
+     * or 0 if it isn't active
+     */
+    public synchronized double getInfluence(int factionId) {
+        update();
+        if (factionId < 0 || factionId >= scoreById.length) {
+            return 0;
+        }
+        return scoreById[factionId] * activeCount;
+    }
+
+    /**
+     * Ids of the most influential active factions, most influential first
+     */
+    public synchronized int[] getTopFactions(int count) {
+        update();
+        if (ranking == null) {
+            Integer[] sorted = new Integer[activeCount];
+            for (int row = 0; row < activeCount; row++) {
+                sorted[row] = idByRow[row];
+            }
+            Arrays.sort(sorted, (a, b) -> Double.compare(scoreById[b], scoreById[a]));
+            ranking = new int[activeCount];
+            for (int i = 0; i < activeCount; i++) {
+                ranking[i] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(ranking, Math.min(count, ranking.length));
+    }
+
+    /**
+     * Power iterations the last recomputation needed
+     */
+    public synchronized int getLastIterations() {
+        update();
+        return lastIterations;
+    }
+}
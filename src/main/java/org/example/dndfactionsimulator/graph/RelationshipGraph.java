@@ -0,0 +1,150 @@
+package org.example.dndfactionsimulator.graph;
+
+import org.example.dndfactionsimulator.database.WorldChangeListener;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.util.LongIntMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * In-memory index of the relationships table, kept up to date from database change
+ * notifications.
+ *
+ * Each relationship gets a dense edge slot. A primitive hash map from the canonical
+ * pair key (min id, max id) to the slot gives constant-time pair lookups, and every
+ * faction has a compact int list of its edge slots, so listing neighbours costs
+ * O(degree). Faction ids index the adjacency arrays directly.
+ */
+public class RelationshipGraph implements WorldChangeListener {
+
+    private static final int INITIAL_DEGREE = 4;
+
+    private final LongIntMap slotsByPair;
+    private Relationship[] edges;
+    private int edgeCount;
+
+    // Per faction id: edge slots, the first degree[id] entries of adjacency[id] are used
+    private int[][] adjacency = new int[0][];
+    private int[] degree = new int[0];
+
+    public RelationshipGraph(Collection<Relationship> relationships) {
+        slotsByPair = new LongIntMap(relationships.size());
+        edges = new Relationship[Math.max(16, relationships.size())];
+        for (Relationship relationship : relationships) {
+            put(relationship);
+        }
+    }
+
+    /**
+     * Canonical key for an unordered faction pair
+     */
+    public static long pairKey(int factionA, int factionB) {
+        int low = Math.min(factionA, factionB);
+        int high = Math.max(factionA, factionB);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public synchronized void relationshipsChanged(Collection<Relationship> changed) {
+        for (Relationship relationship : changed) {
+            put(relationship);
+        }
+    }
+
+    private void put(Relationship relationship) {
+        int factionA = relationship.getFaction1Id();
+        int factionB = relationship.getFaction2Id();
+        long key = pairKey(factionA, factionB);
+        int slot = slotsByPair.get(key, -1);
+        if (slot >= 0) {
+            edges[slot] = relationship;
+            return;
+        }
+
+        if (edgeCount == edges.length) {
+            edges = Arrays.copyOf(edges, edges.length * 2);
+        }
+        slot = edgeCount++;
+        edges[slot] = relationship;
+        slotsByPair.put(key, slot);
+        addIncident(factionA, slot);
+        if (factionB != factionA) {
+            addIncident(factionB, slot);
+        }
+    }
+
+    private void addIncident(int factionId, int slot) {
+        if (factionId >= degree.length) {
+            int capacity = Math.max(factionId + 1, degree.length * 2);
+            adjacency = Arrays.copyOf(adjacency, capacity);
+            degree = Arrays.copyOf(degree, capacity);
+        }
+        int[] slots = adjacency[factionId];
+        if (slots == null) {
+            slots = adjacency[factionId] = new int[INITIAL_DEGREE];
+        } else if (degree[factionId] == slots.length) {
+            slots = adjacency[factionId] = Arrays.copyOf(slots, slots.length * 2);
+        }
+        slots[degree[factionId]++] = slot;
+    }
+
+    // ============== QUERIES ==============
+
+    /**
+     * The relationship between two factions in either order, or null if they have none
+     */
+    public synchronized Relationship getRelationship(int factionA, int factionB) {
+        int slot = slotsByPair.get(pairKey(factionA, factionB), -1);
+        return slot < 0 ? null : edges[slot];
+    }
+
+    public synchronized boolean hasRelationship(int factionA, int factionB) {
+        return slotsByPair.get(pairKey(factionA, factionB), -1) >= 0;
+    }
+
+    /**
+     * Number of relationships the faction takes part in
+     */
+    public synchronized int getDegree(int factionId) {
+        return factionId >= 0 && factionId < degree.length ? degree[factionId] : 0;
+    }
+
+    /**
+     * The i-th relationship of the faction, for 0 <= i < getDegree(factionId)
+     */
+    public synchronized Relationship getIncidentRelationship(int factionId, int i) {
+        return edges[adjacency[factionId][i]];
+    }
+
+    /**
+     * The faction on the other end of the i-th relationship of the faction
+     */
+    public synchronized int getNeighbor(int factionId, int i) {
+        Relationship relationship = edges[adjacency[factionId][i]];
+        return relationship.getFaction1Id() == factionId ? relationship.getFaction2Id() : relationship.getFaction1Id();
+    }
+
+    /**
+     * Ids of every faction the faction has a relationship with
+     */
+    public synchronized int[] getNeighbors(int factionId) {
+        int[] neighbors = new int[getDegree(factionId)];
+        for (int i = 0; i < neighbors.length; i++) {
+            neighbors[i] = getNeighbor(factionId, i);
+        }
+        return neighbors;
+    }
+
+    public synchronized int getRelationshipCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Relationship in the given edge slot, for 0 <= slot < getRelationshipCount().
+     * Slots are in insertion order, which is also roughly their order in memory.
+     */
+    synchronized Relationship getEdge(int slot) {
+        return edges[slot];
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.dndfactionsimulator.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Attributes heap bytes allocated by the simulation thread to turn phases,
+ * using HotSpot's per-thread allocation counter. A turn's bytes only count
+ * once the turn is finished, so a turn that stops early can be dropped.
+ */
+public class AllocationTracker {
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final long[] phaseBytes = new long[TurnPhase.values().length];
+    private final long[] turnBytes = new long[TurnPhase.values().length];
+    private long mark;
+
+    public AllocationTracker() {
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("Thread allocation counting is not supported by this JVM");
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Start attributing allocations of a new turn from now on
+     */
+    public void start() {
+        java.util.Arrays.fill(turnBytes, 0);
+        mark = threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Charge everything allocated since the previous mark to the given phase of the current turn
+     */
+    public void endPhase(TurnPhase phase) {
+        long now = threadBean.getCurrentThreadAllocatedBytes();
+        turnBytes[phase.ordinal()] += now - mark;
+        mark = now;
+    }
+
+    /**
+     * Add the current turn's allocations to the totals
+     */
+    public void finish() {
+        for (int i = 0; i < phaseBytes.length; i++) {
+            phaseBytes[i] += turnBytes[i];
+        }
+        java.util.Arrays.fill(turnBytes, 0);
+    }
+
+    /**
+     * Drop the current turn's allocations (the turn didn't run)
+     */
+    public void cancel() {
+        java.util.Arrays.fill(turnBytes, 0);
+    }
+
+    public long getBytes(TurnPhase phase) {
+        return phaseBytes[phase.ordinal()];
+    }
+
+    public long getTotalBytes() {
+        long total = 0;
+        for (long bytes : phaseBytes) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(phaseBytes, 0);
+        java.util.Arrays.fill(turnBytes, 0);
+    }
+}
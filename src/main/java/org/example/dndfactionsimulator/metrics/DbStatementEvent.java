@@ -0,0 +1,24 @@
+package org.example.dndfactionsimulator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Execution of one SQL statement or batch. Only slow statements are recorded by default.
+ */
+@Name("org.example.dndfactionsimulator.DbStatement")
+@Label("Database Statement")
+@Category({"D&D Faction Simulator", "Database"})
+@Description("A SQL statement or batch executed by DatabaseManager")
+@Threshold("1 ms")
+public class DbStatementEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Rows")
+    @Description("Rows affected by an update or batch; -1 for queries")
+    public int rows;
+}
@@ -0,0 +1,28 @@
+package org.example.dndfactionsimulator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One faction choosing and executing its action. Only slow actions are recorded by default.
+ */
+@Name("org.example.dndfactionsimulator.FactionAction")
+@Label("Faction Action")
+@Category({"D&D Faction Simulator", "Simulation"})
+@Description("A faction chose and executed its action for the turn")
+@Threshold("1 ms")
+@StackTrace(false)
+public class FactionActionEvent extends jdk.jfr.Event {
+    @Label("Turn Number")
+    public int turnNumber;
+
+    @Label("Faction Id")
+    public int factionId;
+
+    @Label("Action")
+    public String action;
+}
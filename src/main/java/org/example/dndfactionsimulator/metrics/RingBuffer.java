@@ -0,0 +1,58 @@
+package org.example.dndfactionsimulator.metrics;
+
+/**
+ * Fixed-size ring of samples. Once full, each new sample overwrites the oldest,
+ * so memory stays constant however long the application runs.
+ * Not thread-safe: fill and read it from one thread (the JavaFX thread for the UI).
+ */
+public class RingBuffer {
+    private final double[] values;
+    private int start;
+    private int size;
+
+    public RingBuffer(int capacity) {
+        this.values = new double[capacity];
+    }
+
+    public void add(double value) {
+        if (size < values.length) {
+            values[(start + size) % values.length] = value;
+            size++;
+        } else {
+            values[start] = value;
+            start = (start + 1) % values.length;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Sample by age: index 0 is the oldest, size() - 1 the newest
+     */
+    public double get(int index) {
+        return values[(start + index) % values.length];
+    }
+
+    public double getLatest() {
+        return size == 0 ? 0 : get(size - 1);
+    }
+
+    public double max() {
+        double max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, get(i));
+        }
+        return max;
+    }
+
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.dndfactionsimulator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.example.dndfactionsimulator.TurnBegin")
+@Label("Turn Begin")
+@Category({"D&D Faction Simulator", "Simulation"})
+@Description("A simulation turn started")
+@StackTrace(false)
+public class TurnBeginEvent extends jdk.jfr.Event {
+    @Label("Turn Number")
+    public int turnNumber;
+
+    @Label("Faction Count")
+    public int factionCount;
+
+    @Label("Influence Iterations")
+    @Description("Power iterations the influence ranking needed to catch up with last turn's diplomacy")
+    public int influenceIterations;
+}
@@ -0,0 +1,28 @@
+package org.example.dndfactionsimulator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Spans a whole turn, so its duration is the turn time. Turns are rare enough to record all of them.
+ */
+@Name("org.example.dndfactionsimulator.TurnEnd")
+@Label("Turn End")
+@Category({"D&D Faction Simulator", "Simulation"})
+@Description("A simulation turn completed")
+@Threshold("0 ms")
+@StackTrace(false)
+public class TurnEndEvent extends jdk.jfr.Event {
+    @Label("Turn Number")
+    public int turnNumber;
+
+    @Label("Faction Count")
+    public int factionCount;
+
+    @Label("Event Count")
+    public int eventCount;
+}
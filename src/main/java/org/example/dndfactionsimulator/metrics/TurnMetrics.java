@@ -0,0 +1,233 @@
+package org.example.dndfactionsimulator.metrics;
+
+import org.example.dndfactionsimulator.model.FactionAction;
+import org.example.dndfactionsimulator.model.WorldEvent;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects per-phase turn timings, event counts and DB statement counts.
+ * Memory use is fixed: every distribution is a {@link LatencyHistogram}.
+ */
+public class TurnMetrics implements TurnMetricsMXBean {
+    public static final String OBJECT_NAME = "org.example.dndfactionsimulator:type=TurnMetrics";
+
+    private static TurnMetrics instance;
+
+    private static final TurnPhase[] PHASES = TurnPhase.values();
+    private static final FactionAction[] ACTIONS = FactionAction.values();
+
+    private final LatencyHistogram turnHistogram = new LatencyHistogram();
+    private final LatencyHistogram[] phaseHistograms = new LatencyHistogram[PHASES.length];
+    private final LatencyHistogram dbStatementHistogram = new LatencyHistogram();
+
+    private final long[] lastPhaseNanos = new long[PHASES.length];
+    private final long[] eventsByAction = new long[ACTIONS.length];
+    private final long[] lastTurnEventsByAction = new long[ACTIONS.length];
+
+    private int lastTurnNumber;
+    private long lastTurnNanos;
+    private long lastTurnDbStatements;
+
+    public TurnMetrics() {
+        for (int i = 0; i < phaseHistograms.length; i++) {
+            phaseHistograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Shared instance, registered as a platform MBean on first use.
+     */
+    public static synchronized TurnMetrics getInstance() {
+        if (instance == null) {
+            instance = new TurnMetrics();
+            instance.registerMBean();
+        }
+        return instance;
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.err.println("⚠️ Could not register turn metrics MBean: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record one completed turn.
+     *
+     * @param phaseNanos   time spent per phase, indexed by {@link TurnPhase#ordinal()}
+     * @param dbStatements SQL statements executed during the turn
+     */
+    public synchronized void recordTurn(int turnNumber, long[] phaseNanos, List<WorldEvent> events, long dbStatements) {
+        long total = 0;
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseHistograms[i].record(phaseNanos[i]);
+            lastPhaseNanos[i] = phaseNanos[i];
+            total += phaseNanos[i];
+        }
+        turnHistogram.record(total);
+
+        java.util.Arrays.fill(lastTurnEventsByAction, 0);
+        for (WorldEvent event : events) {
+            int index = event.getAction().ordinal();
+            lastTurnEventsByAction[index]++;
+            eventsByAction[index]++;
+        }
+
+        dbStatementHistogram.record(dbStatements);
+        lastTurnDbStatements = dbStatements;
+        lastTurnNanos = total;
+        lastTurnNumber = turnNumber;
+    }
+
+    public synchronized TurnMetricsSnapshot snapshot() {
+        long[] p50 = new long[PHASES.length];
+        long[] p99 = new long[PHASES.length];
+        long[] max = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            p50[i] = phaseHistograms[i].getPercentile(50);
+            p99[i] = phaseHistograms[i].getPercentile(99);
+            max[i] = phaseHistograms[i].getMax();
+        }
+
+        return new TurnMetricsSnapshot(turnHistogram.getCount(), lastTurnNumber,
+                lastTurnNanos, turnHistogram.getPercentile(50), turnHistogram.getPercentile(99), turnHistogram.getMax(),
+                lastPhaseNanos.clone(), p50, p99, max,
+                eventsByAction.clone(), lastTurnEventsByAction.clone(),
+                lastTurnDbStatements, dbStatementHistogram.getPercentile(50),
+                dbStatementHistogram.getPercentile(99), dbStatementHistogram.getMax());
+    }
+
+    // ============== MXBEAN ATTRIBUTES ==============
+
+    @Override
+    public long getTurnsRecorded() {
+        return turnHistogram.getCount();
+    }
+
+    @Override
+    public synchronized int getLastTurnNumber() {
+        return lastTurnNumber;
+    }
+
+    @Override
+    public synchronized long getLastTurnMicros() {
+        return lastTurnNanos / 1000;
+    }
+
+    @Override
+    public long getTurnP50Micros() {
+        return turnHistogram.getPercentile(50) / 1000;
+    }
+
+    @Override
+    public long getTurnP99Micros() {
+        return turnHistogram.getPercentile(99) / 1000;
+    }
+
+    @Override
+    public long getTurnMaxMicros() {
+        return turnHistogram.getMax() / 1000;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getLastPhaseMicros() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (TurnPhase phase : PHASES) {
+            result.put(phase.name(), lastPhaseNanos[phase.ordinal()] / 1000);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseP50Micros() {
+        return phasePercentileMicros(50);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseP99Micros() {
+        return phasePercentileMicros(99);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseMaxMicros() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (TurnPhase phase : PHASES) {
+            result.put(phase.name(), phaseHistograms[phase.ordinal()].getMax() / 1000);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getEventsByAction() {
+        return actionCounts(eventsByAction);
+    }
+
+    @Override
+    public synchronized Map<String, Long> getLastTurnEventsByAction() {
+        return actionCounts(lastTurnEventsByAction);
+    }
+
+    @Override
+    public synchronized long getLastTurnDbStatements() {
+        return lastTurnDbStatements;
+    }
+
+    @Override
+    public long getDbStatementsP50() {
+        return dbStatementHistogram.getPercentile(50);
+    }
+
+    @Override
+    public long getDbStatementsP99() {
+        return dbStatementHistogram.getPercentile(99);
+    }
+
+    @Override
+    public long getDbStatementsMax() {
+        return dbStatementHistogram.getMax();
+    }
+
+    @Override
+    public synchronized void reset() {
+        turnHistogram.reset();
+        dbStatementHistogram.reset();
+        for (LatencyHistogram histogram : phaseHistograms) {
+            histogram.reset();
+        }
+        java.util.Arrays.fill(lastPhaseNanos, 0);
+        java.util.Arrays.fill(eventsByAction, 0);
+        java.util.Arrays.fill(lastTurnEventsByAction, 0);
+        lastTurnNumber = 0;
+        lastTurnNanos = 0;
+        lastTurnDbStatements = 0;
+    }
+
+    private Map<String, Long> phasePercentileMicros(double percentile) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (TurnPhase phase : PHASES) {
+            result.put(phase.name(), phaseHistograms[phase.ordinal()].getPercentile(percentile) / 1000);
+        }
+        return result;
+    }
+
+    private Map<String, Long> actionCounts(long[] counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (FactionAction action : ACTIONS) {
+            result.put(action.name(), counts[action.ordinal()]);
+        }
+        return result;
+    }
+}
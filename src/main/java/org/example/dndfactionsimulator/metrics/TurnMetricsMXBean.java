@@ -0,0 +1,44 @@
+package org.example.dndfactionsimulator.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface for turn metrics, visible in JConsole/VisualVM under
+ * org.example.dndfactionsimulator:type=TurnMetrics. Phase maps are keyed by
+ * {@link TurnPhase} name, action maps by {@link org.example.dndfactionsimulator.model.FactionAction} name.
+ */
+public interface TurnMetricsMXBean {
+    long getTurnsRecorded();
+
+    int getLastTurnNumber();
+
+    long getLastTurnMicros();
+
+    long getTurnP50Micros();
+
+    long getTurnP99Micros();
+
+    long getTurnMaxMicros();
+
+    Map<String, Long> getLastPhaseMicros();
+
+    Map<String, Long> getPhaseP50Micros();
+
+    Map<String, Long> getPhaseP99Micros();
+
+    Map<String, Long> getPhaseMaxMicros();
+
+    Map<String, Long> getEventsByAction();
+
+    Map<String, Long> getLastTurnEventsByAction();
+
+    long getLastTurnDbStatements();
+
+    long getDbStatementsP50();
+
+    long getDbStatementsP99();
+
+    long getDbStatementsMax();
+
+    void reset();
+}
@@ -0,0 +1,127 @@
+package org.example.dndfactionsimulator.metrics;
+
+import org.example.dndfactionsimulator.model.FactionAction;
+
+/**
+ * Immutable point-in-time copy of {@link TurnMetrics}. All durations are in nanoseconds.
+ */
+public class TurnMetricsSnapshot {
+    private final long turnsRecorded;
+    private final int lastTurnNumber;
+    private final long lastTurnNanos;
+    private final long turnP50Nanos;
+    private final long turnP99Nanos;
+    private final long turnMaxNanos;
+    private final long[] lastPhaseNanos;
+    private final long[] phaseP50Nanos;
+    private final long[] phaseP99Nanos;
+    private final long[] phaseMaxNanos;
+    private final long[] eventsByAction;
+    private final long[] lastTurnEventsByAction;
+    private final long lastTurnDbStatements;
+    private final long dbStatementsP50;
+    private final long dbStatementsP99;
+    private final long dbStatementsMax;
+
+    TurnMetricsSnapshot(long turnsRecorded, int lastTurnNumber,
+                        long lastTurnNanos, long turnP50Nanos, long turnP99Nanos, long turnMaxNanos,
+                        long[] lastPhaseNanos, long[] phaseP50Nanos, long[] phaseP99Nanos, long[] phaseMaxNanos,
+                        long[] eventsByAction, long[] lastTurnEventsByAction,
+                        long lastTurnDbStatements, long dbStatementsP50, long dbStatementsP99, long dbStatementsMax) {
+        this.turnsRecorded = turnsRecorded;
+        this.lastTurnNumber = lastTurnNumber;
+        this.lastTurnNanos = lastTurnNanos;
+        this.turnP50Nanos = turnP50Nanos;
+        this.turnP99Nanos = turnP99Nanos;
+        this.turnMaxNanos = turnMaxNanos;
+        this.lastPhaseNanos = lastPhaseNanos;
+        this.phaseP50Nanos = phaseP50Nanos;
+        this.phaseP99Nanos = phaseP99Nanos;
+        this.phaseMaxNanos = phaseMaxNanos;
+        this.eventsByAction = eventsByAction;
+        this.lastTurnEventsByAction = lastTurnEventsByAction;
+        this.lastTurnDbStatements = lastTurnDbStatements;
+        this.dbStatementsP50 = dbStatementsP50;
+        this.dbStatementsP99 = dbStatementsP99;
+        this.dbStatementsMax = dbStatementsMax;
+    }
+
+    public long getTurnsRecorded() {
+        return turnsRecorded;
+    }
+
+    public int getLastTurnNumber() {
+        return lastTurnNumber;
+    }
+
+    public long getLastTurnNanos() {
+        return lastTurnNanos;
+    }
+
+    public long getTurnP50Nanos() {
+        return turnP50Nanos;
+    }
+
+    public long getTurnP99Nanos() {
+        return turnP99Nanos;
+    }
+
+    public long getTurnMaxNanos() {
+        return turnMaxNanos;
+    }
+
+    public long getLastPhaseNanos(TurnPhase phase) {
+        return lastPhaseNanos[phase.ordinal()];
+    }
+
+    public long getPhaseP50Nanos(TurnPhase phase) {
+        return phaseP50Nanos[phase.ordinal()];
+    }
+
+    public long getPhaseP99Nanos(TurnPhase phase) {
+        return phaseP99Nanos[phase.ordinal()];
+    }
+
+    public long getPhaseMaxNanos(TurnPhase phase) {
+        return phaseMaxNanos[phase.ordinal()];
+    }
+
+    public long getEventCount(FactionAction action) {
+        return eventsByAction[action.ordinal()];
+    }
+
+    public long getLastTurnEventCount(FactionAction action) {
+        return lastTurnEventsByAction[action.ordinal()];
+    }
+
+    public long getLastTurnDbStatements() {
+        return lastTurnDbStatements;
+    }
+
+    public long getDbStatementsP50() {
+        return dbStatementsP50;
+    }
+
+    public long getDbStatementsP99() {
+        return dbStatementsP99;
+    }
+
+    public long getDbStatementsMax() {
+        return dbStatementsMax;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Turns: %d | Last turn: %.2f ms (p50 %.2f, p99 %.2f, max %.2f) | DB statements: %d%n",
+                turnsRecorded, lastTurnNanos / 1e6, turnP50Nanos / 1e6, turnP99Nanos / 1e6,
+                turnMaxNanos / 1e6, lastTurnDbStatements));
+        for (TurnPhase phase : TurnPhase.values()) {
+            sb.append(String.format("  %-16s last %8.3f ms | p50 %8.3f | p99 %8.3f | max %8.3f%n",
+                    phase.getDisplayName(),
+                    getLastPhaseNanos(phase) / 1e6, getPhaseP50Nanos(phase) / 1e6,
+                    getPhaseP99Nanos(phase) / 1e6, getPhaseMaxNanos(phase) / 1e6));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.dndfactionsimulator.metrics;
+
+public enum TurnPhase {
+    LOAD_FACTIONS("Load Factions"),
+    CHOOSE_ACTIONS("Choose Actions"),
+    EXECUTE_ACTIONS("Execute Actions"),
+    RANDOM_EVENTS("Random Events"),
+    PERSIST("Persist Turn"),
+    ADVANCE_TURN("Advance Turn");
+
+    private final String displayName;
+
+    TurnPhase(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
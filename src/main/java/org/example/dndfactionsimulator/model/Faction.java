@@ -1,5 +1,7 @@
 package org.example.dndfactionsimulator.model;
 
+import java.util.Objects;
+
 public class Faction {
     // Database ID
     private int id;
@@ -18,6 +20,11 @@ public class Faction {
     // State
     private boolean isActive;
 
+    // Derived stats, recomputed whenever one of their inputs changes
+    private int strength;
+    // Whether anything changed since the faction was loaded or last saved
+    private boolean unsaved;
+
     // Constructors
     public Faction() {
         this.isActive = true;
@@ -34,33 +41,60 @@ public class Faction {
         this.troops = 50;
         this.magic = 10;
         this.influence = 20;
+        resourcesChanged();
     }
 
-    // Calculated strength
+    // Calculated strength (cached, see resourcesChanged)
     public int getStrength() {
+        return strength;
+    }
+
+    public static int strengthOf(int gold, int troops, int magic, int influence) {
         return troops + (gold / 10) + (magic * 2) + influence;
     }
 
     // Check if faction is alive
     public boolean isAlive() {
-        return isActive && getStrength() > 0;
+        return isActive() && getStrength() > 0;
     }
 
-    // Modify resources safely
+    /**
+     * Refreshes the derived stats after a resource changed
+     */
+    private void resourcesChanged() {
+        strength = strengthOf(gold, troops, magic, influence);
+        unsaved = true;
+    }
+
+    /**
+     * Whether the faction changed since it was loaded from or last written to the database
+     */
+    public boolean hasUnsavedChanges() {
+        return unsaved;
+    }
+
+    /**
+     * Called by the database once the faction's current state is stored
+     */
+    public void markSaved() {
+        unsaved = false;
+    }
+
+    // Modify resources safely (only an actual change refreshes the derived stats)
     public void addGold(int amount) {
-        this.gold = Math.max(0, this.gold + amount);
+        setGold(getGold() + amount);
     }
 
     public void addTroops(int amount) {
-        this.troops = Math.max(0, this.troops + amount);
+        setTroops(getTroops() + amount);
     }
 
     public void addMagic(int amount) {
-        this.magic = Math.max(0, this.magic + amount);
+        setMagic(getMagic() + amount);
     }
 
     public void addInfluence(int amount) {
-        this.influence = Math.max(0, this.influence + amount);
+        setInfluence(getInfluence() + amount);
     }
 
     // Getters and Setters
@@ -77,7 +111,10 @@ public class Faction {
     }
 
     public void setName(String name) {
-        this.name = name;
+        if (!Objects.equals(name, this.name)) {
+            this.name = name;
+            unsaved = true;
+        }
     }
 
     public FactionType getType() {
@@ -85,7 +122,10 @@ public class Faction {
     }
 
     public void setType(FactionType type) {
-        this.type = type;
+        if (type != this.type) {
+            this.type = type;
+            unsaved = true;
+        }
     }
 
     public Alignment getAlignment() {
@@ -93,7 +133,10 @@ public class Faction {
     }
 
     public void setAlignment(Alignment alignment) {
-        this.alignment = alignment;
+        if (alignment != this.alignment) {
+            this.alignment = alignment;
+            unsaved = true;
+        }
     }
 
     public int getGold() {
@@ -101,7 +144,11 @@ public class Faction {
     }
 
     public void setGold(int gold) {
-        this.gold = Math.max(0, gold);
+        int value = Math.max(0, gold);
+        if (value != this.gold) {
+            this.gold = value;
+            resourcesChanged();
+        }
     }
 
     public int getTroops() {
@@ -109,7 +156,11 @@ public class Faction {
     }
 
     public void setTroops(int troops) {
-        this.troops = Math.max(0, troops);
+        int value = Math.max(0, troops);
+        if (value != this.troops) {
+            this.troops = value;
+            resourcesChanged();
+        }
     }
 
     public int getMagic() {
@@ -117,7 +168,11 @@ public class Faction {
     }
 
     public void setMagic(int magic) {
-        this.magic = Math.max(0, magic);
+        int value = Math.max(0, magic);
+        if (value != this.magic) {
+            this.magic = value;
+            resourcesChanged();
+        }
     }
 
     public int getInfluence() {
@@ -125,7 +180,11 @@ public class Faction {
     }
 
     public void setInfluence(int influence) {
-        this.influence = Math.max(0, influence);
+        int value = Math.max(0, influence);
+        if (value != this.influence) {
+            this.influence = value;
+            resourcesChanged();
+        }
     }
 
     public boolean isActive() {
@@ -133,12 +192,15 @@ public class Faction {
     }
 
     public void setActive(boolean active) {
-        isActive = active;
+        if (active != isActive) {
+            isActive = active;
+            unsaved = true;
+        }
     }
 
     @Override
     public String toString() {
         return String.format("%s (%s) - Strength: %d [Gold: %d, Troops: %d, Magic: %d, Influence: %d]",
-                name, type, getStrength(), gold, troops, magic, influence);
+                getName(), getType(), getStrength(), getGold(), getTroops(), getMagic(), getInfluence());
     }
 }
\ No newline at end of file
@@ -13,7 +13,7 @@ public class Relationship {
         this.faction1Id = faction1Id;
         this.faction2Id = faction2Id;
         this.type = type;
-        this.strength = strength;
+        setStrength(strength);
     }
 
     // Getters and Setters
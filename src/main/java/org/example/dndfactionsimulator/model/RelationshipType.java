@@ -14,6 +14,18 @@ public enum RelationshipType {
         this.displayName = displayName;
     }
 
+    /**
+     * The type a relationship of the given strength (-100 to +100) settles into
+     */
+    public static RelationshipType fromStrength(int strength) {
+        if (strength >= 60) return ALLIED;
+        if (strength >= 20) return FRIENDLY;
+        if (strength > -20) return NEUTRAL;
+        if (strength > -60) return UNFRIENDLY;
+        if (strength > -90) return HOSTILE;
+        return AT_WAR;
+    }
+
     public String getDisplayName() {
         return displayName;
     }
@@ -0,0 +1,202 @@
+package org.example.dndfactionsimulator.network;
+
+import java.util.Arrays;
+
+/**
+ * Array-backed quadtree over point masses for Barnes-Hut repulsion.
+ *
+ * Each cell stores its bounds, total mass and mass-weighted centre; a cell that is
+ * far enough away (size / distance below theta) is treated as a single body, which
+ * makes one pass of all-pairs repulsion O(n log n). The arrays are reused between
+ * builds so repeated layout iterations do not allocate.
+ */
+class BarnesHutTree {
+
+    // Cells narrower than this stop splitting; coincident bodies share a leaf
+    private static final double MIN_CELL_SIZE = 1e-3;
+
+    private int capacity;
+    private int cellCount;
+    private double[] minX;
+    private double[] minY;
+    private double[] size;
+    private double[] mass;
+    private double[] massX;
+    private double[] massY;
+    private int[] body;     // body index for a leaf, EMPTY or INTERNAL otherwise
+    private int[] children; // 4 per cell, -1 when absent
+    private int[] stack;
+
+    private static final int EMPTY = -1;
+    private static final int INTERNAL = -2;
+
+    private double[] x;
+    private double[] y;
+
+    BarnesHutTree() {
+        allocate(64);
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        minX = minX == null ? new double[capacity] : Arrays.copyOf(minX, capacity);
+        minY = minY == null ? new double[capacity] : Arrays.copyOf(minY, capacity);
+        size = size == null ? new double[capacity] : Arrays.copyOf(size, capacity);
+        mass = mass == null ? new double[capacity] : Arrays.copyOf(mass, capacity);
+        massX = massX == null ? new double[capacity] : Arrays.copyOf(massX, capacity);
+        massY = massY == null ? new double[capacity] : Arrays.copyOf(massY, capacity);
+        body = body == null ? new int[capacity] : Arrays.copyOf(body, capacity);
+        children = children == null ? new int[capacity * 4] : Arrays.copyOf(children, capacity * 4);
+        stack = stack == null ? new int[capacity] : Arrays.copyOf(stack, capacity);
+    }
+
+    /**
+     * Rebuilds the tree over the first n points of x/y.
+     */
+    void build(double[] x, double[] y, int n) {
+        this.x = x;
+        this.y = y;
+        cellCount = 0;
+        if (n == 0) {
+            return;
+        }
+
+        double lowX = Double.MAX_VALUE, lowY = Double.MAX_VALUE;
+        double highX = -Double.MAX_VALUE, highY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            lowX = Math.min(lowX, x[i]);
+            lowY = Math.min(lowY, y[i]);
+            highX = Math.max(highX, x[i]);
+            highY = Math.max(highY, y[i]);
+        }
+        double side = Math.max(Math.max(highX - lowX, highY - lowY), MIN_CELL_SIZE) * 1.0001;
+
+        newCell(lowX, lowY, side);
+        for (int i = 0; i < n; i++) {
+            insert(i);
+        }
+    }
+
+    private int newCell(double cellX, double cellY, double cellSize) {
+        if (cellCount == capacity) {
+            allocate(capacity * 2);
+        }
+        int cell = cellCount++;
+        minX[cell] = cellX;
+        minY[cell] = cellY;
+        size[cell] = cellSize;
+        mass[cell] = 0;
+        massX[cell] = 0;
+        massY[cell] = 0;
+        body[cell] = EMPTY;
+        Arrays.fill(children, cell * 4, cell * 4 + 4, -1);
+        return cell;
+    }
+
+    private void insert(int i) {
+        int cell = 0;
+        while (true) {
+            if (body[cell] == EMPTY && mass[cell] == 0) {
+                body[cell] = i;
+                addMass(cell, i);
+                return;
+            }
+
+            if (body[cell] >= 0) {
+                if (size[cell] < MIN_CELL_SIZE) {
+                    // Coincident bodies: aggregate instead of splitting forever
+                    addMass(cell, i);
+                    return;
+                }
+                // Push the resident body one level down before descending
+                int resident = body[cell];
+                body[cell] = INTERNAL;
+                int child = childFor(cell, resident);
+                body[child] = resident;
+                mass[child] = mass[cell];
+                massX[child] = massX[cell];
+                massY[child] = massY[cell];
+            }
+
+            addMass(cell, i);
+            cell = childFor(cell, i);
+        }
+    }
+
+    private void addMass(int cell, int i) {
+        mass[cell] += 1;
+        massX[cell] += x[i];
+        massY[cell] += y[i];
+    }
+
+    private int childFor(int cell, int i) {
+        double half = size[cell] / 2;
+        int quadrant = (x[i] >= minX[cell] + half ? 1 : 0) + (y[i] >= minY[cell] + half ? 2 : 0);
+        int slot = cell * 4 + quadrant;
+        if (children[slot] < 0) {
+            double childX = minX[cell] + ((quadrant & 1) != 0 ? half : 0);
+            double childY = minY[cell] + ((quadrant & 2) != 0 ? half : 0);
+            int child = newCell(childX, childY, half);
+            children[slot] = child;
+        }
+        return children[slot];
+    }
+
+    /**
+     * Adds the repulsive displacement on body i (force k² / d, Fruchterman-Reingold)
+     * to dispX/dispY[i].
+     */
+    void repulse(int i, double theta, double k2, double[] dispX, double[] dispY) {
+        if (cellCount == 0) {
+            return;
+        }
+        double thetaSq = theta * theta;
+        double px = x[i];
+        double py = y[i];
+        double fx = 0;
+        double fy = 0;
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int cell = stack[--top];
+            double m = mass[cell];
+            if (m == 0 || (body[cell] == i && m == 1)) {
+                continue;
+            }
+
+            double dx = px - massX[cell] / m;
+            double dy = py - massY[cell] / m;
+            double distSq = dx * dx + dy * dy;
+
+            if (body[cell] != INTERNAL || size[cell] * size[cell] < thetaSq * distSq) {
+                if (body[cell] == i) {
+                    // Leaf shared with coincident bodies: exclude ourselves
+                    m -= 1;
+                }
+                if (distSq < 1e-9) {
+                    // Coincident: nudge deterministically so the pair separates
+                    fx += k2 * m * ((i & 1) == 0 ? 0.01 : -0.01);
+                    fy += k2 * m * ((i & 2) == 0 ? 0.01 : -0.01);
+                } else {
+                    double scale = k2 * m / distSq;
+                    fx += dx * scale;
+                    fy += dy * scale;
+                }
+                continue;
+            }
+
+            for (int c = cell * 4; c < cell * 4 + 4; c++) {
+                if (children[c] >= 0) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = children[c];
+                }
+            }
+        }
+
+        dispX[i] += fx;
+        dispY[i] += fy;
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.dndfactionsimulator.network;
+
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.util.IntIntMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fruchterman-Reingold force-directed layout with Barnes-Hut repulsion.
+ *
+ * Not thread-safe: drive it from one thread (see {@link ForceLayoutWorker}).
+ * Calling {@link #setGraph} again keeps the positions of factions that are
+ * still present, so a layout after each turn only has to settle the changes.
+ */
+public class ForceLayout {
+
+    // Ideal edge length in layout units
+    private static final double K = 40;
+    private static final double THETA = 0.9;
+    // Keeps disconnected components from drifting apart (equilibrium radius ~ K * sqrt(n / GRAVITY))
+    private static final double GRAVITY = 0.5;
+    private static final double COOLING = 0.97;
+    private static final double MIN_TEMPERATURE = K / 20;
+    // A warm start only lets nodes move about one edge length
+    private static final double WARM_START_TEMPERATURE = K;
+
+    private final BarnesHutTree tree = new BarnesHutTree();
+    private final Random random = new Random(7);
+
+    private int nodeCount;
+    private int[] ids = new int[0];
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] dispX = new double[0];
+    private double[] dispY = new double[0];
+
+    private int edgeCount;
+    private int[] edgeFrom = new int[0];
+    private int[] edgeTo = new int[0];
+    private double[] edgeWeight = new double[0];
+
+    private double temperature;
+    private int iteration;
+
+    /**
+     * Replaces the graph being laid out. Factions already placed keep their position;
+     * new ones start next to a placed neighbour, or on a ring if they have none.
+     */
+    public void setGraph(List<Faction> factions, Collection<Relationship> relationships) {
+        IntIntMap previous = new IntIntMap(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            previous.put(ids[i], i);
+        }
+        double[] oldX = x;
+        double[] oldY = y;
+
+        int n = factions.size();
+        int[] newIds = new int[n];
+        double[] newX = new double[n];
+        double[] newY = new double[n];
+        boolean[] placed = new boolean[n];
+        IntIntMap index = new IntIntMap(n);
+        int reused = 0;
+
+        for (int i = 0; i < n; i++) {
+            int id = factions.get(i).getId();
+            newIds[i] = id;
+            index.put(id, i);
+            int old = previous.get(id, -1);
+            if (old >= 0) {
+                newX[i] = oldX[old];
+                newY[i] = oldY[old];
+                placed[i] = true;
+                reused++;
+            }
+        }
+
+        // Edges between laid-out factions, weighted so allies pull harder than enemies
+        int[] from = new int[relationships.size()];
+        int[] to = new int[relationships.size()];
+        double[] weight = new double[relationships.size()];
+        int edges = 0;
+        for (Relationship relationship : relationships) {
+            int a = index.get(relationship.getFaction1Id(), -1);
+            int b = index.get(relationship.getFaction2Id(), -1);
+            if (a < 0 || b < 0 || a == b) {
+                continue;
+            }
+            from[edges] = a;
+            to[edges] = b;
+            weight[edges] = 0.2 + 0.8 * (relationship.getStrength() + 100) / 200.0;
+            edges++;
+        }
+
+        double radius = K * Math.sqrt(Math.max(n, 1));
+        for (int i = 0; i < n; i++) {
+            if (!placed[i]) {
+                double angle = 2 * Math.PI * i / n;
+                newX[i] = radius * Math.cos(angle) + random.nextDouble();
+                newY[i] = radius * Math.sin(angle) + random.nextDouble();
+            }
+        }
+        if (reused > 0) {
+            for (int e = 0; e < edges; e++) {
+                int a = from[e];
+                int b = to[e];
+                if (!placed[a] && placed[b]) {
+                    newX[a] = newX[b] + K * (random.nextDouble() - 0.5);
+                    newY[a] = newY[b] + K * (random.nextDouble() - 0.5);
+                    placed[a] = true;
+                } else if (placed[a] && !placed[b]) {
+                    newX[b] = newX[a] + K * (random.nextDouble() - 0.5);
+                    newY[b] = newY[a] + K * (random.nextDouble() - 0.5);
+                    placed[b] = true;
+                }
+            }
+        }
+
+        nodeCount = n;
+        ids = newIds;
+        x = newX;
+        y = newY;
+        dispX = new double[n];
+        dispY = new double[n];
+        edgeCount = edges;
+        edgeFrom = from;
+        edgeTo = to;
+        edgeWeight = weight;
+
+        double coldTemperature = radius / 4;
+        temperature = reused == 0 ? coldTemperature : Math.min(coldTemperature, WARM_START_TEMPERATURE);
+        iteration = 0;
+    }
+
+    /**
+     * Runs one iteration: Barnes-Hut repulsion, spring attraction along edges and a
+     * weak pull to the origin, with each move capped by the current temperature.
+     */
+    public void step() {
+        if (nodeCount == 0 || isConverged()) {
+            return;
+        }
+
+        Arrays.fill(dispX, 0, nodeCount, 0);
+        Arrays.fill(dispY, 0, nodeCount, 0);
+
+        tree.build(x, y, nodeCount);
+        double k2 = K * K;
+        for (int i = 0; i < nodeCount; i++) {
+            tree.repulse(i, THETA, k2, dispX, dispY);
+        }
+
+        for (int e = 0; e < edgeCount; e++) {
+            int a = edgeFrom[e];
+            int b = edgeTo[e];
+            double dx = x[a] - x[b];
+            double dy = y[a] - y[b];
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            if (dist < 1e-9) {
+                continue;
+            }
+            // Attraction d² / k along the edge
+            double scale = dist / K * edgeWeight[e];
+            dispX[a] -= dx * scale;
+            dispY[a] -= dy * scale;
+            dispX[b] += dx * scale;
+            dispY[b] += dy * scale;
+        }
+
+        for (int i = 0; i < nodeCount; i++) {
+            double dx = dispX[i] - GRAVITY * x[i];
+            double dy = dispY[i] - GRAVITY * y[i];
+            double length = Math.sqrt(dx * dx + dy * dy);
+            if (length > temperature) {
+                dx = dx / length * temperature;
+                dy = dy / length * temperature;
+            }
+            x[i] += dx;
+            y[i] += dy;
+        }
+
+        temperature *= COOLING;
+        iteration++;
+    }
+
+    public boolean isConverged() {
+        return temperature < MIN_TEMPERATURE;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    public LayoutSnapshot snapshot() {
+        return new LayoutSnapshot(
+                Arrays.copyOf(ids, nodeCount),
+                Arrays.copyOf(x, nodeCount),
+                Arrays.copyOf(y, nodeCount),
+                iteration,
+                isConverged());
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.dndfactionsimulator.network;
+
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Runs a {@link ForceLayout} on a background daemon thread.
+ *
+ * New graphs are handed over with {@link #submit}; the worker warm-starts from the
+ * current positions, iterates until the layout converges and publishes a snapshot
+ * at most every {@code publishIntervalMillis} (plus a final one), then sleeps until
+ * the next submit. The listener is called on the worker thread.
+ */
+public class ForceLayoutWorker {
+
+    private final ForceLayout layout = new ForceLayout();
+    private final Consumer<LayoutSnapshot> listener;
+    private final long publishIntervalNanos;
+    private final Thread thread;
+
+    // Guarded by this
+    private List<Faction> pendingFactions;
+    private List<Relationship> pendingRelationships;
+    private boolean running = true;
+
+    public ForceLayoutWorker(Consumer<LayoutSnapshot> listener, long publishIntervalMillis) {
+        this.listener = listener;
+        this.publishIntervalNanos = publishIntervalMillis * 1_000_000L;
+        this.thread = new Thread(this::run, "force-layout");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public synchronized void submit(List<Faction> factions, Collection<Relationship> relationships) {
+        pendingFactions = new ArrayList<>(factions);
+        pendingRelationships = new ArrayList<>(relationships);
+        notifyAll();
+    }
+
+    public synchronized void shutdown() {
+        running = false;
+        notifyAll();
+    }
+
+    private void run() {
+        long lastPublish = 0;
+        while (true) {
+            List<Faction> factions;
+            List<Relationship> relationships;
+            synchronized (this) {
+                while (running && pendingFactions == null && layout.isConverged()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                factions = pendingFactions;
+                relationships = pendingRelationships;
+                pendingFactions = null;
+                pendingRelationships = null;
+            }
+
+            if (factions != null) {
+                layout.setGraph(factions, relationships);
+                listener.accept(layout.snapshot());
+                lastPublish = System.nanoTime();
+            }
+
+            layout.step();
+
+            long now = System.nanoTime();
+            if (layout.isConverged() || now - lastPublish >= publishIntervalNanos) {
+                listener.accept(layout.snapshot());
+                lastPublish = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.dndfactionsimulator.network;
+
+import org.example.dndfactionsimulator.util.IntIntMap;
+
+/**
+ * Immutable copy of node positions published by a {@link ForceLayout}.
+ * Coordinates are in layout space; callers fit the bounds to their viewport.
+ *
+ * Isolated factions are pushed far out by repulsion, so besides the full bounds
+ * the snapshot keeps "fit" bounds that ignore nodes more than three times the
+ * RMS radius from the centroid.
+ */
+public class LayoutSnapshot {
+
+    public static final LayoutSnapshot EMPTY = new LayoutSnapshot(new int[0], new double[0], new double[0], 0, true);
+
+    private final int[] ids;
+    private final double[] x;
+    private final double[] y;
+    private final int iteration;
+    private final boolean converged;
+    private final IntIntMap indexById;
+    private final double minX, minY, maxX, maxY;
+    private final double fitMinX, fitMinY, fitMaxX, fitMaxY;
+
+    LayoutSnapshot(int[] ids, double[] x, double[] y, int iteration, boolean converged) {
+        this.ids = ids;
+        this.x = x;
+        this.y = y;
+        this.iteration = iteration;
+        this.converged = converged;
+        this.indexById = new IntIntMap(ids.length);
+
+        double lowX = 0, lowY = 0, highX = 0, highY = 0;
+        for (int i = 0; i < ids.length; i++) {
+            indexById.put(ids[i], i);
+            if (i == 0) {
+                lowX = highX = x[i];
+                lowY = highY = y[i];
+            } else {
+                lowX = Math.min(lowX, x[i]);
+                lowY = Math.min(lowY, y[i]);
+                highX = Math.max(highX, x[i]);
+                highY = Math.max(highY, y[i]);
+            }
+        }
+        minX = lowX;
+        minY = lowY;
+        maxX = highX;
+        maxY = highY;
+
+        double sumX = 0, sumY = 0;
+        for (int i = 0; i < ids.length; i++) {
+            sumX += x[i];
+            sumY += y[i];
+        }
+        double centreX = ids.length == 0 ? 0 : sumX / ids.length;
+        double centreY = ids.length == 0 ? 0 : sumY / ids.length;
+        double sumSq = 0;
+        for (int i = 0; i < ids.length; i++) {
+            double dx = x[i] - centreX;
+            double dy = y[i] - centreY;
+            sumSq += dx * dx + dy * dy;
+        }
+        double limitSq = ids.length == 0 ? 0 : 9 * sumSq / ids.length;
+
+        double fitLowX = centreX, fitLowY = centreY, fitHighX = centreX, fitHighY = centreY;
+        for (int i = 0; i < ids.length; i++) {
+            double dx = x[i] - centreX;
+            double dy = y[i] - centreY;
+            if (dx * dx + dy * dy > limitSq) continue;
+            fitLowX = Math.min(fitLowX, x[i]);
+            fitLowY = Math.min(fitLowY, y[i]);
+            fitHighX = Math.max(fitHighX, x[i]);
+            fitHighY = Math.max(fitHighY, y[i]);
+        }
+        fitMinX = fitLowX;
+        fitMinY = fitLowY;
+        fitMaxX = fitHighX;
+        fitMaxY = fitHighY;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Index of a faction in this snapshot, or -1 if it is not laid out
+     */
+    public int indexOf(int factionId) {
+        return indexById.get(factionId, -1);
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    public double getFitMinX() {
+        return fitMinX;
+    }
+
+    public double getFitMinY() {
+        return fitMinY;
+    }
+
+    public double getFitMaxX() {
+        return fitMaxX;
+    }
+
+    public double getFitMaxY() {
+        return fitMaxY;
+    }
+}
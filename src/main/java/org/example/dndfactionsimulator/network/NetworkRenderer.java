@@ -0,0 +1,528 @@
+package org.example.dndfactionsimulator.network;
+
+import org.example.dndfactionsimulator.model.Alignment;
+import org.example.dndfactionsimulator.model.RelationshipType;
+
+import java.util.Arrays;
+
+/**
+ * Draws a {@link NetworkScene} through a {@link RenderSurface}.
+ *
+ * Only nodes and edges inside the drawn region are emitted. Level of detail
+ * follows the on-screen node size: dots when zoomed far out, plain circles in
+ * between and full labels up close. When too many edges are visible they are
+ * merged into one line per pair of grid cells, with the grid coarsening as the
+ * view zooms out. Edges are batched into one path per color and width, which
+ * keeps large frames cheap.
+ */
+public class NetworkRenderer {
+
+    public enum Detail { DOTS, NODES, LABELS }
+
+    // Node diameter in layout units (the force layout's ideal edge length is 40)
+    public static final double NODE_SIZE = 16;
+    private static final double MIN_NODE_PIXELS = 2;
+    private static final double MAX_NODE_PIXELS = 40;
+    private static final double LABEL_NODE_PIXELS = 14;
+    private static final double DOT_NODE_PIXELS = 5;
+
+    // Above this many visible edges (without labels) edges are aggregated by screen cell
+    private static final int AGGREGATE_EDGE_THRESHOLD = 4000;
+    private static final int AGGREGATE_CELL_PIXELS = 12;
+    private static final int MAX_AGGREGATE_LINES = 6000;
+    private static final int AGGREGATE_BUCKETS = 3 * 4;
+
+    private static final int WHITE = 0xFFFFFFFF;
+    private static final int BLACK = 0xFF000000;
+    private static final int[] RELATIONSHIP_COLORS = new int[RelationshipType.values().length];
+    private static final int[] FACTION_COLORS = {0xFF3498DB, 0xFFF1C40F, 0xFF9B59B6};
+
+    static {
+        RELATIONSHIP_COLORS[RelationshipType.ALLIED.ordinal()] = 0xFF27AE60;     // Green
+        RELATIONSHIP_COLORS[RelationshipType.FRIENDLY.ordinal()] = 0xFF2ECC71;   // Light green
+        RELATIONSHIP_COLORS[RelationshipType.NEUTRAL.ordinal()] = 0xFF95A5A6;    // Gray
+        RELATIONSHIP_COLORS[RelationshipType.UNFRIENDLY.ordinal()] = 0xFFE67E22; // Orange
+        RELATIONSHIP_COLORS[RelationshipType.HOSTILE.ordinal()] = 0xFFE74C3C;    // Red
+        RELATIONSHIP_COLORS[RelationshipType.AT_WAR.ordinal()] = 0xFFC0392B;     // Dark red
+    }
+
+    // Scratch buffers reused between frames
+    private double[] screenX = new double[0];
+    private double[] screenY = new double[0];
+    private int[] visibleEdges = new int[0];
+    private int[] bucketStarts = new int[0];
+    private int[] bucketed = new int[0];
+    private long[] cellKeys = new long[0];
+    private int[] cellCounts = new int[0];
+    private long[] cellStrengths = new long[0];
+    private int[] nodeCells = new int[0];
+
+    // Aggregated edges for one scene and zoom level, in layout coordinates
+    private NetworkScene aggregateScene;
+    private int aggregateLevel;
+    private final int[] aggregateStarts = new int[AGGREGATE_BUCKETS + 1];
+    private double[] aggregateX1 = new double[0];
+    private double[] aggregateY1 = new double[0];
+    private double[] aggregateX2 = new double[0];
+    private double[] aggregateY2 = new double[0];
+    private int[] aggregateCounts = new int[0];
+    private boolean[] aggregateVisible = new boolean[0];
+
+    // Scene indices to emphasise, -1 for none
+    private int hoveredNode = -1;
+    private int selectedNode = -1;
+    private int hoveredEdge = -1;
+    // Scene indices of the selected faction's alliance bloc, ringed in gold
+    private int[] blocNodes = new int[0];
+
+    // Off for tiled exports, where per-tile thresholds would leave seams
+    private boolean edgeAggregation = true;
+
+    private int nodesDrawn;
+    private int edgesDrawn;
+    private Detail lastDetail = Detail.LABELS;
+
+    public static int relationshipColor(RelationshipType type) {
+        return RELATIONSHIP_COLORS[type.ordinal()];
+    }
+
+    public static int factionColor(Alignment alignment) {
+        // Color based on alignment
+        if (alignment.name().contains("GOOD")) {
+            return FACTION_COLORS[0]; // Blue
+        } else if (alignment.name().contains("EVIL")) {
+            return FACTION_COLORS[2]; // Purple
+        } else {
+            return FACTION_COLORS[1]; // Yellow
+        }
+    }
+
+    public static double nodePixels(Viewport viewport) {
+        return Math.max(MIN_NODE_PIXELS, Math.min(MAX_NODE_PIXELS, NODE_SIZE * viewport.getScale()));
+    }
+
+    public static Detail detailFor(Viewport viewport) {
+        double pixels = NODE_SIZE * viewport.getScale();
+        if (pixels >= LABEL_NODE_PIXELS) {
+            return Detail.LABELS;
+        }
+        return pixels >= DOT_NODE_PIXELS ? Detail.NODES : Detail.DOTS;
+    }
+
+    /**
+     * Renders the part of the scene inside the given screen rectangle, which the
+     * caller has already cleared and clipped to.
+     */
+    public void render(RenderSurface surface, NetworkScene scene, Viewport viewport,
+                       double clipX, double clipY, double clipW, double clipH) {
+        int n = scene.nodeCount;
+        if (screenX.length < n) {
+            screenX = new double[n];
+            screenY = new double[n];
+        }
+        for (int i = 0; i < n; i++) {
+            screenX[i] = viewport.toScreenX(scene.x[i]);
+            screenY[i] = viewport.toScreenY(scene.y[i]);
+        }
+
+        Detail detail = detailFor(viewport);
+        double nodePixels = nodePixels(viewport);
+        lastDetail = detail;
+
+        // Anything whose centre is within this margin of the region can still touch it
+        double margin = nodePixels / 2 + (detail == Detail.LABELS ? 60 : 2);
+        double left = clipX - margin;
+        double top = clipY - margin;
+        double right = clipX + clipW + margin;
+        double bottom = clipY + clipH + margin;
+
+        int visible = collectVisibleEdges(scene, clipX, clipY, clipX + clipW, clipY + clipH);
+        if (edgeAggregation && visible > AGGREGATE_EDGE_THRESHOLD) {
+            edgesDrawn = drawAggregatedEdges(surface, scene, viewport, clipX, clipY, clipX + clipW, clipY + clipH);
+        } else {
+            edgesDrawn = drawEdges(surface, scene, visible, detail == Detail.LABELS);
+        }
+
+        nodesDrawn = drawNodes(surface, scene, detail, nodePixels, left, top, right, bottom);
+        drawHighlights(surface, scene, nodePixels);
+    }
+
+    /**
+     * Whether dense edge sets are drawn as aggregated cell-to-cell lines (the default)
+     * or always edge by edge
+     */
+    public void setEdgeAggregation(boolean edgeAggregation) {
+        this.edgeAggregation = edgeAggregation;
+    }
+
+    public void setHighlights(int hoveredNode, int selectedNode, int hoveredEdge) {
+        this.hoveredNode = hoveredNode;
+        this.selectedNode = selectedNode;
+        this.hoveredEdge = hoveredEdge;
+    }
+
+    public void setBlocHighlights(int[] blocNodes) {
+        this.blocNodes = blocNodes;
+    }
+
+    private void drawHighlights(RenderSurface surface, NetworkScene scene, double size) {
+        if (hoveredEdge >= 0 && hoveredEdge < scene.edgeCount) {
+            surface.setStroke(BLACK);
+            surface.setLineWidth(3);
+            surface.beginPath();
+            surface.moveTo(screenX[scene.edgeFrom[hoveredEdge]], screenY[scene.edgeFrom[hoveredEdge]]);
+            surface.lineTo(screenX[scene.edgeTo[hoveredEdge]], screenY[scene.edgeTo[hoveredEdge]]);
+            surface.stroke();
+        }
+        double ring = Math.max(size, 8) + 6;
+        if (blocNodes.length > 1) {
+            surface.setStroke(0xFFF39C12);
+            surface.setLineWidth(2);
+            for (int node : blocNodes) {
+                if (node >= 0 && node < scene.nodeCount) {
+                    surface.strokeOval(screenX[node] - ring / 2, screenY[node] - ring / 2, ring, ring);
+                }
+            }
+        }
+        if (selectedNode >= 0 && selectedNode < scene.nodeCount) {
+            surface.setStroke(0xFFE74C3C);
+            surface.setLineWidth(3);
+            surface.strokeOval(screenX[selectedNode] - ring / 2, screenY[selectedNode] - ring / 2, ring, ring);
+        }
+        if (hoveredNode >= 0 && hoveredNode < scene.nodeCount) {
+            surface.setStroke(0xFF34495E);
+            surface.setLineWidth(2);
+            surface.strokeOval(screenX[hoveredNode] - ring / 2, screenY[hoveredNode] - ring / 2, ring, ring);
+        }
+    }
+
+    private int collectVisibleEdges(NetworkScene scene, double left, double top, double right, double bottom) {
+        if (visibleEdges.length < scene.edgeCount) {
+            visibleEdges = new int[scene.edgeCount];
+        }
+        int visible = 0;
+        for (int e = 0; e < scene.edgeCount; e++) {
+            double x1 = screenX[scene.edgeFrom[e]];
+            double y1 = screenY[scene.edgeFrom[e]];
+            double x2 = screenX[scene.edgeTo[e]];
+            double y2 = screenY[scene.edgeTo[e]];
+            // Bounding-box test: cheap and never drops a visible edge
+            if (Math.max(x1, x2) < left || Math.min(x1, x2) > right
+                    || Math.max(y1, y2) < top || Math.min(y1, y2) > bottom) {
+                continue;
+            }
+            visibleEdges[visible++] = e;
+        }
+        return visible;
+    }
+
+    /**
+     * Individual edges, one path per relationship type and line width
+     */
+    private int drawEdges(RenderSurface surface, NetworkScene scene, int visible, boolean widthByStrength) {
+        int widths = 5;
+        int buckets = RELATIONSHIP_COLORS.length * widths;
+        if (bucketStarts.length < buckets + 1) {
+            bucketStarts = new int[buckets + 1];
+        }
+        if (bucketed.length < visible) {
+            bucketed = new int[visible];
+        }
+
+        // Counting sort of the visible edges into (type, width) buckets
+        Arrays.fill(bucketStarts, 0);
+        for (int v = 0; v < visible; v++) {
+            bucketStarts[edgeBucket(scene, visibleEdges[v], widthByStrength, widths) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        int[] fill = Arrays.copyOf(bucketStarts, buckets);
+        for (int v = 0; v < visible; v++) {
+            int e = visibleEdges[v];
+            bucketed[fill[edgeBucket(scene, e, widthByStrength, widths)]++] = e;
+        }
+
+        for (int b = 0; b < buckets; b++) {
+            if (bucketStarts[b] == bucketStarts[b + 1]) continue;
+
+            surface.setStroke(RELATIONSHIP_COLORS[b / widths]);
+            surface.setLineWidth(b % widths + 1);
+            surface.beginPath();
+            for (int i = bucketStarts[b]; i < bucketStarts[b + 1]; i++) {
+                int e = bucketed[i];
+                surface.moveTo(screenX[scene.edgeFrom[e]], screenY[scene.edgeFrom[e]]);
+                surface.lineTo(screenX[scene.edgeTo[e]], screenY[scene.edgeTo[e]]);
+            }
+            surface.stroke();
+        }
+        return visible;
+    }
+
+    private static int edgeBucket(NetworkScene scene, int edge, boolean widthByStrength, int widths) {
+        // Line width based on strength, as |strength| / 25 + 1
+        int width = widthByStrength ? Math.min(widths - 1, Math.abs(scene.edgeStrengths[edge]) / 25) : 0;
+        return scene.edgeTypes[edge] * widths + width;
+    }
+
+    /**
+     * Draws the cell-pair bundles of the current zoom level that cross the region.
+     */
+    private int drawAggregatedEdges(RenderSurface surface, NetworkScene scene, Viewport viewport,
+                                    double left, double top, double right, double bottom) {
+        int level = (int) Math.ceil(Math.log(AGGREGATE_CELL_PIXELS / viewport.getScale()) / Math.log(2));
+        if (scene != aggregateScene || level != aggregateLevel) {
+            buildAggregates(scene, level);
+        }
+
+        // Cull once, then keep only the busiest visible bundles if there are too many
+        int total = aggregateStarts[AGGREGATE_BUCKETS];
+        if (aggregateVisible.length < total) {
+            aggregateVisible = new boolean[total];
+        }
+        int[] histogram = new int[65];
+        int visible = 0;
+        for (int i = 0; i < total; i++) {
+            double x1 = viewport.toScreenX(aggregateX1[i]);
+            double y1 = viewport.toScreenY(aggregateY1[i]);
+            double x2 = viewport.toScreenX(aggregateX2[i]);
+            double y2 = viewport.toScreenY(aggregateY2[i]);
+            aggregateVisible[i] = Math.max(x1, x2) >= left && Math.min(x1, x2) <= right
+                    && Math.max(y1, y2) >= top && Math.min(y1, y2) <= bottom;
+            if (aggregateVisible[i]) {
+                histogram[Math.min(64, aggregateCounts[i])]++;
+                visible++;
+            }
+        }
+        int minCount = 1;
+        while (visible - histogram[minCount] >= MAX_AGGREGATE_LINES && minCount < 64) {
+            visible -= histogram[minCount];
+            minCount++;
+        }
+        // Still too many single-edge bundles: draw an even sample of them
+        int stride = Math.max(1, (visible + MAX_AGGREGATE_LINES - 1) / MAX_AGGREGATE_LINES);
+
+        int[] colors = {
+                RELATIONSHIP_COLORS[RelationshipType.FRIENDLY.ordinal()],
+                RELATIONSHIP_COLORS[RelationshipType.NEUTRAL.ordinal()],
+                RELATIONSHIP_COLORS[RelationshipType.HOSTILE.ordinal()]};
+        int drawn = 0;
+        int seen = 0;
+        for (int b = 0; b < AGGREGATE_BUCKETS; b++) {
+            if (aggregateStarts[b] == aggregateStarts[b + 1]) continue;
+
+            // Half transparent so overlapping bundles stay distinguishable
+            surface.setStroke(colors[b / 4] & 0x80FFFFFF);
+            surface.setLineWidth(b % 4 + 1);
+            surface.beginPath();
+            for (int i = aggregateStarts[b]; i < aggregateStarts[b + 1]; i++) {
+                if (!aggregateVisible[i] || aggregateCounts[i] < minCount || seen++ % stride != 0) continue;
+
+                surface.moveTo(viewport.toScreenX(aggregateX1[i]), viewport.toScreenY(aggregateY1[i]));
+                surface.lineTo(viewport.toScreenX(aggregateX2[i]), viewport.toScreenY(aggregateY2[i]));
+                drawn++;
+            }
+            surface.stroke();
+        }
+        return drawn;
+    }
+
+    /**
+     * Merges all edges whose endpoints fall in the same pair of layout cells (2^level
+     * layout units wide) into one line, colored by the pair's mean strength and
+     * thickened by edge count. Cells are anchored in layout space, so the result is
+     * reused while panning and zooming within a level and only rebuilt when the
+     * scene or the level changes.
+     */
+    private void buildAggregates(NetworkScene scene, int level) {
+        aggregateScene = scene;
+        aggregateLevel = level;
+        double cellSize = Math.scalb(1.0, level);
+
+        int n = scene.nodeCount;
+        if (nodeCells.length < n) {
+            nodeCells = new int[n];
+        }
+        for (int i = 0; i < n; i++) {
+            nodeCells[i] = cellOf(scene.x[i] / cellSize, scene.y[i] / cellSize);
+        }
+
+        int tableSize = Integer.highestOneBit(Math.max(16, scene.edgeCount * 2)) << 1;
+        if (cellKeys.length < tableSize) {
+            cellKeys = new long[tableSize];
+            cellCounts = new int[tableSize];
+            cellStrengths = new long[tableSize];
+        }
+        Arrays.fill(cellKeys, 0, tableSize, -1L);
+        int mask = tableSize - 1;
+        int pairs = 0;
+
+        for (int e = 0; e < scene.edgeCount; e++) {
+            int cellA = nodeCells[scene.edgeFrom[e]];
+            int cellB = nodeCells[scene.edgeTo[e]];
+            if (cellA == cellB) continue;
+
+            long key = cellA < cellB
+                    ? ((long) cellA << 32) | (cellB & 0xFFFFFFFFL)
+                    : ((long) cellB << 32) | (cellA & 0xFFFFFFFFL);
+            int slot = (int) (mix(key) & mask);
+            while (cellKeys[slot] != -1L && cellKeys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (cellKeys[slot] == -1L) {
+                cellKeys[slot] = key;
+                cellCounts[slot] = 0;
+                cellStrengths[slot] = 0;
+                pairs++;
+            }
+            cellCounts[slot]++;
+            cellStrengths[slot] += scene.edgeStrengths[e];
+        }
+
+        // Counting sort of the pairs into (color, width) buckets
+        Arrays.fill(aggregateStarts, 0);
+        for (int slot = 0; slot < tableSize; slot++) {
+            if (cellKeys[slot] == -1L) continue;
+            aggregateStarts[pairBucket(cellCounts[slot], cellStrengths[slot]) + 1]++;
+        }
+        for (int b = 0; b < AGGREGATE_BUCKETS; b++) {
+            aggregateStarts[b + 1] += aggregateStarts[b];
+        }
+        if (aggregateX1.length < pairs) {
+            aggregateX1 = new double[pairs];
+            aggregateY1 = new double[pairs];
+            aggregateX2 = new double[pairs];
+            aggregateY2 = new double[pairs];
+            aggregateCounts = new int[pairs];
+        }
+        int[] fill = Arrays.copyOf(aggregateStarts, AGGREGATE_BUCKETS);
+        for (int slot = 0; slot < tableSize; slot++) {
+            long key = cellKeys[slot];
+            if (key == -1L) continue;
+
+            int i = fill[pairBucket(cellCounts[slot], cellStrengths[slot])]++;
+            aggregateCounts[i] = cellCounts[slot];
+            int cellA = (int) (key >>> 32);
+            int cellB = (int) key;
+            aggregateX1[i] = ((cellA >> 16) + 0.5) * cellSize;
+            aggregateY1[i] = ((short) cellA + 0.5) * cellSize;
+            aggregateX2[i] = ((cellB >> 16) + 0.5) * cellSize;
+            aggregateY2[i] = ((short) cellB + 0.5) * cellSize;
+        }
+    }
+
+    /**
+     * Bucket of a cell pair: color (friendly, neutral, hostile mean strength) times width 1-4
+     */
+    private static int pairBucket(int count, long strengthSum) {
+        double mean = (double) strengthSum / count;
+        int color = mean >= 20 ? 0 : mean > -20 ? 1 : 2;
+        int width = Math.min(3, (31 - Integer.numberOfLeadingZeros(count)) / 2);
+        return color * 4 + width;
+    }
+
+    private static int cellOf(double cellX, double cellY) {
+        int cx = (int) Math.max(-32000, Math.min(32000, Math.floor(cellX)));
+        int cy = (int) Math.max(-32000, Math.min(32000, Math.floor(cellY)));
+        return (cx << 16) | (cy & 0xFFFF);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private int drawNodes(RenderSurface surface, NetworkScene scene, Detail detail, double size,
+                          double left, double top, double right, double bottom) {
+        int drawn = 0;
+        if (detail != Detail.LABELS) {
+            // One fill color per pass so the surface state changes only three times
+            for (int color : FACTION_COLORS) {
+                surface.setFill(color);
+                for (int i = 0; i < scene.nodeCount; i++) {
+                    double x = screenX[i];
+                    double y = screenY[i];
+                    if (scene.colors[i] != color || x < left || x > right || y < top || y > bottom) continue;
+
+                    if (detail == Detail.DOTS) {
+                        surface.fillRect(x - size / 2, y - size / 2, size, size);
+                    } else {
+                        surface.fillOval(x - size / 2, y - size / 2, size, size);
+                    }
+                    drawn++;
+                }
+            }
+            return drawn;
+        }
+
+        for (int i = 0; i < scene.nodeCount; i++) {
+            double x = screenX[i];
+            double y = screenY[i];
+            if (x < left || x > right || y < top || y > bottom) continue;
+
+            // Draw node circle
+            surface.setFill(scene.colors[i]);
+            surface.fillOval(x - size / 2, y - size / 2, size, size);
+
+            // Draw border
+            surface.setStroke(BLACK);
+            surface.setLineWidth(2);
+            surface.strokeOval(x - size / 2, y - size / 2, size, size);
+
+            // Draw faction strength inside circle
+            surface.setFill(WHITE);
+            surface.fillText(String.valueOf(scene.strengths[i]), x - 10, y + 5);
+
+            // Draw faction name below
+            surface.setFill(BLACK);
+            String name = scene.names[i];
+            if (name.length() > 15) {
+                name = name.substring(0, 12) + "...";
+            }
+            surface.fillText(name, x - 30, y + size / 2 + 15);
+            drawn++;
+        }
+        return drawn;
+    }
+
+    /**
+     * Screen-space bounds a node occupies at the current detail level, including
+     * its highlight ring, as {x, y, w, h}
+     */
+    public static double[] nodeBounds(NetworkScene scene, int node, Viewport viewport) {
+        double size = nodePixels(viewport);
+        double ring = Math.max(size, 8) + 10;
+        double x = viewport.toScreenX(scene.x[node]);
+        double y = viewport.toScreenY(scene.y[node]);
+        if (detailFor(viewport) == Detail.LABELS) {
+            return new double[]{x - Math.max(ring / 2, 32), y - ring / 2, Math.max(ring, 64) + 40, ring + 24};
+        }
+        return new double[]{x - ring / 2, y - ring / 2, ring, ring};
+    }
+
+    /**
+     * Screen-space bounding box of an edge plus its highlight width, as {x, y, w, h}
+     */
+    public static double[] edgeBounds(NetworkScene scene, int edge, Viewport viewport) {
+        double x1 = viewport.toScreenX(scene.x[scene.edgeFrom[edge]]);
+        double y1 = viewport.toScreenY(scene.y[scene.edgeFrom[edge]]);
+        double x2 = viewport.toScreenX(scene.x[scene.edgeTo[edge]]);
+        double y2 = viewport.toScreenY(scene.y[scene.edgeTo[edge]]);
+        return new double[]{Math.min(x1, x2) - 4, Math.min(y1, y2) - 4,
+                Math.abs(x2 - x1) + 8, Math.abs(y2 - y1) + 8};
+    }
+
+    public int getNodesDrawn() {
+        return nodesDrawn;
+    }
+
+    public int getEdgesDrawn() {
+        return edgesDrawn;
+    }
+
+    public Detail getLastDetail() {
+        return lastDetail;
+    }
+}
@@ -0,0 +1,211 @@
+package org.example.dndfactionsimulator.network;
+
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Flat, render-ready copy of the network: factions that have a layout position
+ * and the relationships between them, as parallel primitive arrays.
+ */
+public class NetworkScene {
+
+    public static final NetworkScene EMPTY = build(List.of(), List.of(), LayoutSnapshot.EMPTY);
+
+    final int nodeCount;
+    final int[] ids;
+    final double[] x;
+    final double[] y;
+    final String[] names;
+    final int[] strengths;
+    final int[] colors;
+    // Position of each node in the faction list the scene was built from
+    final int[] nodeSources;
+
+    final int edgeCount;
+    final int[] edgeFrom;
+    final int[] edgeTo;
+    final int[] edgeTypes;
+    final int[] edgeStrengths;
+    // Position of each edge in the relationship collection the scene was built from
+    final int[] edgeSources;
+
+    // Incident edges per node (CSR), built on first use
+    private int[] adjacencyStarts;
+    private int[] adjacency;
+
+    private NetworkScene(int nodeCount, int[] ids, double[] x, double[] y, String[] names,
+                         int[] strengths, int[] colors, int[] nodeSources, int edgeCount, int[] edgeFrom,
+                         int[] edgeTo, int[] edgeTypes, int[] edgeStrengths, int[] edgeSources) {
+        this.nodeCount = nodeCount;
+        this.ids = ids;
+        this.x = x;
+        this.y = y;
+        this.names = names;
+        this.strengths = strengths;
+        this.colors = colors;
+        this.nodeSources = nodeSources;
+        this.edgeCount = edgeCount;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeTypes = edgeTypes;
+        this.edgeStrengths = edgeStrengths;
+        this.edgeSources = edgeSources;
+    }
+
+    /**
+     * Factions missing from the snapshot (not laid out yet) and relationships
+     * touching them are left out.
+     */
+    public static NetworkScene build(List<Faction> factions, Collection<Relationship> relationships,
+                                     LayoutSnapshot snapshot) {
+        int n = factions.size();
+        int[] ids = new int[n];
+        double[] x = new double[n];
+        double[] y = new double[n];
+        String[] names = new String[n];
+        int[] strengths = new int[n];
+        int[] colors = new int[n];
+        int[] nodeSources = new int[n];
+        // Snapshot index -> scene index
+        int[] sceneIndex = new int[snapshot.size()];
+        Arrays.fill(sceneIndex, -1);
+
+        int nodes = 0;
+        for (int f = 0; f < n; f++) {
+            Faction faction = factions.get(f);
+            int index = snapshot.indexOf(faction.getId());
+            if (index < 0) continue;
+
+            ids[nodes] = faction.getId();
+            x[nodes] = snapshot.getX(index);
+            y[nodes] = snapshot.getY(index);
+            names[nodes] = faction.getName();
+            strengths[nodes] = faction.getStrength();
+            colors[nodes] = NetworkRenderer.factionColor(faction.getAlignment());
+            nodeSources[nodes] = f;
+            sceneIndex[index] = nodes;
+            nodes++;
+        }
+
+        int m = relationships.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] types = new int[m];
+        int[] edgeStrengths = new int[m];
+        int[] edgeSources = new int[m];
+        int edges = 0;
+        int source = -1;
+        for (Relationship relationship : relationships) {
+            source++;
+            int a = snapshot.indexOf(relationship.getFaction1Id());
+            int b = snapshot.indexOf(relationship.getFaction2Id());
+            if (a < 0 || b < 0 || sceneIndex[a] < 0 || sceneIndex[b] < 0) continue;
+
+            from[edges] = sceneIndex[a];
+            to[edges] = sceneIndex[b];
+            types[edges] = relationship.getType().ordinal();
+            edgeStrengths[edges] = relationship.getStrength();
+            edgeSources[edges] = source;
+            edges++;
+        }
+
+        return new NetworkScene(nodes, ids, x, y, names, strengths, colors, nodeSources,
+                edges, from, to, types, edgeStrengths, edgeSources);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getId(int node) {
+        return ids[node];
+    }
+
+    public double getX(int node) {
+        return x[node];
+    }
+
+    public double getY(int node) {
+        return y[node];
+    }
+
+    public String getName(int node) {
+        return names[node];
+    }
+
+    public int getStrength(int node) {
+        return strengths[node];
+    }
+
+    public int getColor(int node) {
+        return colors[node];
+    }
+
+    public int getEdgeFrom(int edge) {
+        return edgeFrom[edge];
+    }
+
+    public int getEdgeTo(int edge) {
+        return edgeTo[edge];
+    }
+
+    /**
+     * Index of the node's faction in the list passed to {@link #build}
+     */
+    public int getNodeSource(int node) {
+        return nodeSources[node];
+    }
+
+    /**
+     * Index of the edge's relationship in the collection passed to {@link #build}
+     */
+    public int getEdgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    /**
+     * Number of edges touching a node
+     */
+    public int getDegree(int node) {
+        buildAdjacency();
+        return adjacencyStarts[node + 1] - adjacencyStarts[node];
+    }
+
+    /**
+     * The i-th edge touching a node, for 0 &lt;= i &lt; {@link #getDegree}
+     */
+    public int getIncidentEdge(int node, int i) {
+        buildAdjacency();
+        return adjacency[adjacencyStarts[node] + i];
+    }
+
+    private void buildAdjacency() {
+        if (adjacencyStarts != null) {
+            return;
+        }
+        int[] starts = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            starts[edgeFrom[e] + 1]++;
+            starts[edgeTo[e] + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            starts[i + 1] += starts[i];
+        }
+        int[] edges = new int[edgeCount * 2];
+        int[] fill = Arrays.copyOf(starts, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            edges[fill[edgeFrom[e]]++] = e;
+            edges[fill[edgeTo[e]]++] = e;
+        }
+        adjacency = edges;
+        adjacencyStarts = starts;
+    }
+}
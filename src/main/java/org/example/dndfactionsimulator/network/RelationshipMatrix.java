@@ -0,0 +1,234 @@
+package org.example.dndfactionsimulator.network;
+
+import org.example.dndfactionsimulator.graph.AllianceBlocs;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.util.IntIntMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Dense faction x faction matrix of relationship strengths, with rows and columns
+ * ordered so factions joined by allied or friendly relationships sit next to each
+ * other (largest {@link AllianceBlocs alliance bloc} first), which turns alliances into
+ * blocks on the diagonal.
+ *
+ * One byte per cell keeps a 5,000-faction world at 25 MB; tiles of the matrix are
+ * rasterised straight into ARGB int buffers for a PixelWriter or BufferedImage.
+ * Worlds past {@link #fits} are refused rather than overflowing the cell array.
+ */
+public class RelationshipMatrix {
+
+    // Cell value for "no relationship"; strengths are -100..100
+    private static final byte NONE = Byte.MIN_VALUE;
+    private static final int EMPTY_COLOR = 0xFFFFFFFF;
+    private static final int[] PALETTE = new int[256];
+    // Longest array the VM will allocate
+    private static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    static {
+        // Red (at war) through light gray (neutral) to green (allied)
+        for (int strength = -100; strength <= 100; strength++) {
+            double t = Math.abs(strength) / 100.0;
+            int r, g, b;
+            if (strength < 0) {
+                r = (int) (220 + (192 - 220) * t);
+                g = (int) (220 + (57 - 220) * t);
+                b = (int) (220 + (43 - 220) * t);
+            } else {
+                r = (int) (220 + (39 - 220) * t);
+                g = (int) (220 + (174 - 220) * t);
+                b = (int) (220 + (96 - 220) * t);
+            }
+            PALETTE[strength & 0xFF] = 0xFF000000 | (r << 16) | (g << 8) | b;
+        }
+        PALETTE[NONE & 0xFF] = EMPTY_COLOR;
+    }
+
+    private final int size;
+    private final byte[] cells;
+    // Row/column -> faction list index
+    private final int[] order;
+    private final Faction[] factions;
+    private final int clusterCount;
+    // Mip levels: level k holds the most extreme strength of each 2^k x 2^k block
+    private final byte[][] levels = new byte[32][];
+
+    private RelationshipMatrix(int size, byte[] cells, int[] order, Faction[] factions, int clusterCount) {
+        this.size = size;
+        this.cells = cells;
+        this.order = order;
+        this.factions = factions;
+        this.clusterCount = clusterCount;
+        this.levels[0] = cells;
+    }
+
+    /**
+     * Bytes the cells of an n-faction matrix take, before the zoomed-out levels (about a third more)
+     */
+    public static long cellBytes(int n) {
+        return (long) n * n;
+    }
+
+    /**
+     * Whether an n-faction matrix can be built: its cells must fit in one array and,
+     * with the zoomed-out levels, in half of the maximum heap
+     */
+    public static boolean fits(int n) {
+        long cells = cellBytes(n);
+        return cells <= MAX_CELLS && cells / 3 * 4 <= Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    public static RelationshipMatrix build(List<Faction> factionList, Collection<Relationship> relationships,
+                                           AllianceBlocs blocs) {
+        int n = factionList.size();
+        if (cellBytes(n) > MAX_CELLS) {
+            throw new IllegalArgumentException("A relationship matrix of " + n + " factions has "
+                    + cellBytes(n) + " cells, more than one array can hold");
+        }
+        IntIntMap indexById = new IntIntMap(n);
+        for (int i = 0; i < n; i++) {
+            indexById.put(factionList.get(i).getId(), i);
+        }
+
+        // Alliance bloc of each faction
+        int[] bloc = new int[n];
+        int[] blocSize = new int[n];
+        for (int i = 0; i < n; i++) {
+            int id = factionList.get(i).getId();
+            bloc[i] = blocs.getBlocId(id);
+            blocSize[i] = blocs.getBlocSize(id);
+        }
+
+        // Largest blocs first; members of a bloc stay together, in list order
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> {
+            if (bloc[a] != bloc[b]) {
+                int bySize = Integer.compare(blocSize[b], blocSize[a]);
+                return bySize != 0 ? bySize : Integer.compare(bloc[a], bloc[b]);
+            }
+            return Integer.compare(a, b);
+        });
+
+        int[] order = new int[n];
+        int[] position = new int[n];
+        int clusters = 0;
+        for (int row = 0; row < n; row++) {
+            order[row] = sorted[row];
+            position[sorted[row]] = row;
+            if (row == 0 || bloc[sorted[row]] != bloc[sorted[row - 1]]) {
+                clusters++;
+            }
+        }
+
+        byte[] cells = new byte[(int) cellBytes(n)];
+        Arrays.fill(cells, NONE);
+        for (Relationship relationship : relationships) {
+            int a = indexById.get(relationship.getFaction1Id(), -1);
+            int b = indexById.get(relationship.getFaction2Id(), -1);
+            if (a < 0 || b < 0) continue;
+            byte strength = (byte) Math.max(-100, Math.min(100, relationship.getStrength()));
+            int rowA = position[a];
+            int rowB = position[b];
+            cells[rowA * n + rowB] = strength;
+            cells[rowB * n + rowA] = strength;
+        }
+
+        return new RelationshipMatrix(n, cells, order, factionList.toArray(new Faction[0]), clusters);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getClusterCount() {
+        return clusterCount;
+    }
+
+    public Faction getFaction(int row) {
+        return factions[order[row]];
+    }
+
+    /**
+     * Strength between the factions at row and column, or null if they have no relationship
+     */
+    public Integer getStrength(int row, int column) {
+        byte value = cells[row * size + column];
+        return value == NONE ? null : (int) value;
+    }
+
+    /**
+     * Rasterises one tile of the matrix image at cellPixels pixels per cell into out
+     * (ARGB, row-major, tileSize x tileSize). Pixels past the matrix edge are left
+     * transparent. When a pixel covers several cells it shows the most extreme
+     * strength among them, so isolated wars and alliances stay visible when zoomed out.
+     * Zoomed-out scales should be powers of two so each pixel maps onto one mip cell.
+     */
+    public void renderTile(int[] out, int tileX, int tileY, int tileSize, double cellPixels) {
+        double imageSize = size * cellPixels;
+        int level = cellPixels >= 1 ? 0 : 31 - Integer.numberOfLeadingZeros((int) Math.round(1 / cellPixels));
+        byte[] grid = getLevel(level);
+        int gridSize = levelSize(level);
+        double gridPixels = cellPixels * (1 << level);
+
+        for (int py = 0; py < tileSize; py++) {
+            int imageY = tileY * tileSize + py;
+            int rowBase = py * tileSize;
+            if (imageY >= imageSize) {
+                Arrays.fill(out, rowBase, rowBase + tileSize, 0);
+                continue;
+            }
+            int row = Math.min(gridSize - 1, (int) (imageY / gridPixels));
+
+            for (int px = 0; px < tileSize; px++) {
+                int imageX = tileX * tileSize + px;
+                if (imageX >= imageSize) {
+                    out[rowBase + px] = 0;
+                    continue;
+                }
+                int column = Math.min(gridSize - 1, (int) (imageX / gridPixels));
+                out[rowBase + px] = PALETTE[grid[row * gridSize + column] & 0xFF];
+            }
+        }
+    }
+
+    private static byte extreme(byte a, byte b) {
+        if (a == NONE) return b;
+        if (b == NONE) return a;
+        return Math.abs(b) > Math.abs(a) ? b : a;
+    }
+
+    private int levelSize(int level) {
+        return (size + (1 << level) - 1) >> level;
+    }
+
+    // Built lazily from the level below; each level is a quarter the size of the last
+    private synchronized byte[] getLevel(int level) {
+        if (levels[level] != null) return levels[level];
+        byte[] below = getLevel(level - 1);
+        int belowSize = levelSize(level - 1);
+        int levelSize = levelSize(level);
+        byte[] grid = new byte[levelSize * levelSize];
+        IntStream.range(0, levelSize).parallel().forEach(row -> {
+            // Odd edges re-read the last cell, which never changes the extreme
+            int top = (row * 2) * belowSize;
+            int bottom = Math.min(belowSize - 1, row * 2 + 1) * belowSize;
+            int out = row * levelSize;
+            for (int column = 0; column < levelSize; column++) {
+                int left = column * 2;
+                int right = Math.min(belowSize - 1, left + 1);
+                grid[out + column] = extreme(
+                        extreme(below[top + left], below[top + right]),
+                        extreme(below[bottom + left], below[bottom + right]));
+            }
+        });
+        levels[level] = grid;
+        return grid;
+    }
+}
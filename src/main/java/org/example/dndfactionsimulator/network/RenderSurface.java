@@ -0,0 +1,41 @@
+package org.example.dndfactionsimulator.network;
+
+/**
+ * The small set of 2D drawing operations the network renderer needs, so the same
+ * drawing code can target a JavaFX canvas or an offscreen image. Colors are ARGB.
+ */
+public interface RenderSurface {
+
+    double getWidth();
+
+    double getHeight();
+
+    void setFill(int argb);
+
+    void setStroke(int argb);
+
+    void setLineWidth(double width);
+
+    void fillRect(double x, double y, double w, double h);
+
+    void fillOval(double x, double y, double w, double h);
+
+    void strokeOval(double x, double y, double w, double h);
+
+    void fillText(String text, double x, double y);
+
+    void beginPath();
+
+    void moveTo(double x, double y);
+
+    void lineTo(double x, double y);
+
+    void stroke();
+
+    /**
+     * Saves the current state and restricts drawing to the given rectangle until {@link #restore()}
+     */
+    void clip(double x, double y, double w, double h);
+
+    void restore();
+}
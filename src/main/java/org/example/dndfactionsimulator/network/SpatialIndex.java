@@ -0,0 +1,343 @@
+package org.example.dndfactionsimulator.network;
+
+import org.example.dndfactionsimulator.util.LongIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform-grid index over node positions and edge segments of a {@link NetworkScene},
+ * in layout coordinates, for picking under the mouse.
+ *
+ * Nodes live in exactly one cell; edges are registered in every cell their segment
+ * crosses. When the layout publishes new positions for the same graph the index is
+ * updated incrementally: only nodes that changed cell move, and only edges with an
+ * endpoint that drifted more than a quarter cell since registration are re-registered
+ * (the affected cells are compacted in one pass each). Edge queries widen their
+ * search by that quarter cell of slack.
+ */
+public class SpatialIndex {
+
+    private static final double NODE_CELL = NetworkRenderer.NODE_SIZE * 2;
+    private static final double EDGE_CELL = NetworkRenderer.NODE_SIZE * 4;
+    // Endpoints may drift this far before their edges are re-registered
+    private static final double EDGE_SLACK = EDGE_CELL / 4;
+
+    private NetworkScene scene = NetworkScene.EMPTY;
+
+    private final CellTable nodeCells = new CellTable();
+    private long[] nodeCellOf = new long[0];
+
+    private final CellTable edgeCells = new CellTable();
+    // Cells each edge is registered in, so it can be removed again
+    private long[][] edgeCellsOf = new long[0][];
+    // Node positions when their edges were last registered
+    private double[] registeredX = new double[0];
+    private double[] registeredY = new double[0];
+
+    private int lastNodeMoves;
+    private int lastEdgeMoves;
+
+    /**
+     * Growable int list; removal swaps the last item into the hole
+     */
+    private static class Bucket {
+        int[] items = new int[4];
+        int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        void remove(int item) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == item) {
+                    items[i] = items[--size];
+                    return;
+                }
+            }
+        }
+
+        // Set while the bucket is queued for compaction
+        boolean affected;
+
+        void removeAll(boolean[] removed) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!removed[items[i]]) {
+                    items[kept++] = items[i];
+                }
+            }
+            size = kept;
+        }
+    }
+
+    /**
+     * Buckets by packed cell key, so lookups don't box the key
+     */
+    private static class CellTable {
+        private final LongIntMap indexByCell = new LongIntMap(256);
+        private final List<Bucket> buckets = new ArrayList<>();
+
+        Bucket get(long cell) {
+            int index = indexByCell.get(cell, -1);
+            return index < 0 ? null : buckets.get(index);
+        }
+
+        Bucket getOrCreate(long cell) {
+            int index = indexByCell.get(cell, -1);
+            if (index >= 0) {
+                return buckets.get(index);
+            }
+            Bucket bucket = new Bucket();
+            indexByCell.put(cell, buckets.size());
+            buckets.add(bucket);
+            return bucket;
+        }
+
+        void clear() {
+            indexByCell.clear();
+            buckets.clear();
+        }
+    }
+
+    /**
+     * Points the index at a new scene. If it has the same nodes and edges as the
+     * current one (a layout update), only what changed cell is re-indexed.
+     *
+     * @return true if the graph was the same and scene indices are unchanged
+     */
+    public boolean update(NetworkScene next) {
+        boolean sameGraph = next.nodeCount == scene.nodeCount && next.edgeCount == scene.edgeCount
+                && Arrays.equals(next.ids, 0, next.nodeCount, scene.ids, 0, scene.nodeCount)
+                && Arrays.equals(next.edgeFrom, 0, next.edgeCount, scene.edgeFrom, 0, scene.edgeCount)
+                && Arrays.equals(next.edgeTo, 0, next.edgeCount, scene.edgeTo, 0, scene.edgeCount);
+        scene = next;
+
+        if (!sameGraph) {
+            rebuild();
+            return false;
+        }
+
+        lastNodeMoves = 0;
+        lastEdgeMoves = 0;
+        boolean[] drifted = new boolean[scene.nodeCount];
+        boolean anyDrift = false;
+        for (int i = 0; i < scene.nodeCount; i++) {
+            long cell = cellKey(scene.x[i], scene.y[i], NODE_CELL);
+            if (cell != nodeCellOf[i]) {
+                nodeCells.get(nodeCellOf[i]).remove(i);
+                nodeCells.getOrCreate(cell).add(i);
+                nodeCellOf[i] = cell;
+                lastNodeMoves++;
+            }
+            if (Math.abs(scene.x[i] - registeredX[i]) > EDGE_SLACK
+                    || Math.abs(scene.y[i] - registeredY[i]) > EDGE_SLACK) {
+                drifted[i] = true;
+                anyDrift = true;
+            }
+        }
+        if (!anyDrift) {
+            return true;
+        }
+
+        // Drop moved edges from every cell they were in, one compaction per cell
+        boolean[] movedEdges = new boolean[scene.edgeCount];
+        List<Bucket> affected = new ArrayList<>();
+        for (int e = 0; e < scene.edgeCount; e++) {
+            if (!drifted[scene.edgeFrom[e]] && !drifted[scene.edgeTo[e]]) continue;
+
+            movedEdges[e] = true;
+            lastEdgeMoves++;
+            for (long key : edgeCellsOf[e]) {
+                Bucket bucket = edgeCells.get(key);
+                if (!bucket.affected) {
+                    bucket.affected = true;
+                    affected.add(bucket);
+                }
+            }
+        }
+        for (Bucket bucket : affected) {
+            bucket.removeAll(movedEdges);
+            bucket.affected = false;
+        }
+
+        for (int i = 0; i < scene.nodeCount; i++) {
+            if (drifted[i]) {
+                registeredX[i] = scene.x[i];
+                registeredY[i] = scene.y[i];
+            }
+        }
+        for (int e = 0; e < scene.edgeCount; e++) {
+            if (movedEdges[e]) {
+                registerEdge(e);
+            }
+        }
+        return true;
+    }
+
+    private void rebuild() {
+        nodeCells.clear();
+        edgeCells.clear();
+        nodeCellOf = new long[scene.nodeCount];
+        registeredX = Arrays.copyOf(scene.x, scene.nodeCount);
+        registeredY = Arrays.copyOf(scene.y, scene.nodeCount);
+        edgeCellsOf = new long[scene.edgeCount][];
+
+        for (int i = 0; i < scene.nodeCount; i++) {
+            long cell = cellKey(scene.x[i], scene.y[i], NODE_CELL);
+            nodeCells.getOrCreate(cell).add(i);
+            nodeCellOf[i] = cell;
+        }
+        for (int e = 0; e < scene.edgeCount; e++) {
+            registerEdge(e);
+        }
+        lastNodeMoves = scene.nodeCount;
+        lastEdgeMoves = scene.edgeCount;
+    }
+
+    /**
+     * Walks the grid cells crossed by the edge's segment (Amanatides-Woo traversal)
+     */
+    private void registerEdge(int e) {
+        double x1 = scene.x[scene.edgeFrom[e]] / EDGE_CELL;
+        double y1 = scene.y[scene.edgeFrom[e]] / EDGE_CELL;
+        double x2 = scene.x[scene.edgeTo[e]] / EDGE_CELL;
+        double y2 = scene.y[scene.edgeTo[e]] / EDGE_CELL;
+
+        int cx = (int) Math.floor(x1);
+        int cy = (int) Math.floor(y1);
+        int endX = (int) Math.floor(x2);
+        int endY = (int) Math.floor(y2);
+        int stepX = Integer.signum(endX - cx);
+        int stepY = Integer.signum(endY - cy);
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double tDeltaX = dx == 0 ? Double.MAX_VALUE : Math.abs(1 / dx);
+        double tDeltaY = dy == 0 ? Double.MAX_VALUE : Math.abs(1 / dy);
+        // An axis whose endpoints share a cell never steps, however far the segment moves along it
+        double tMaxX = stepX == 0 ? Double.MAX_VALUE : (stepX > 0 ? cx + 1 - x1 : x1 - cx) * tDeltaX;
+        double tMaxY = stepY == 0 ? Double.MAX_VALUE : (stepY > 0 ? cy + 1 - y1 : y1 - cy) * tDeltaY;
+
+        int count = Math.abs(endX - cx) + Math.abs(endY - cy) + 1;
+        long[] cells = new long[count];
+        for (int i = 0; i < count; i++) {
+            long key = pack(cx, cy);
+            cells[i] = key;
+            edgeCells.getOrCreate(key).add(e);
+            if (tMaxX < tMaxY) {
+                tMaxX += tDeltaX;
+                cx += stepX;
+            } else {
+                tMaxY += tDeltaY;
+                cy += stepY;
+            }
+        }
+        edgeCellsOf[e] = cells;
+    }
+
+    // ============== QUERIES ==============
+
+    /**
+     * Nearest node whose centre is within radius (layout units) of the point, or -1
+     */
+    public int nodeAt(double x, double y, double radius) {
+        int best = -1;
+        double bestDistSq = radius * radius;
+        int minX = (int) Math.floor((x - radius) / NODE_CELL);
+        int maxX = (int) Math.floor((x + radius) / NODE_CELL);
+        int minY = (int) Math.floor((y - radius) / NODE_CELL);
+        int maxY = (int) Math.floor((y + radius) / NODE_CELL);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                Bucket bucket = nodeCells.get(pack(cx, cy));
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size; i++) {
+                    int node = bucket.items[i];
+                    double dx = scene.x[node] - x;
+                    double dy = scene.y[node] - y;
+                    double distSq = dx * dx + dy * dy;
+                    if (distSq <= bestDistSq) {
+                        bestDistSq = distSq;
+                        best = node;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Nearest edge whose segment passes within tolerance (layout units) of the point, or -1
+     */
+    public int edgeAt(double x, double y, double tolerance) {
+        int best = -1;
+        double bestDistSq = tolerance * tolerance;
+        double reach = tolerance + EDGE_SLACK;
+        int minX = (int) Math.floor((x - reach) / EDGE_CELL);
+        int maxX = (int) Math.floor((x + reach) / EDGE_CELL);
+        int minY = (int) Math.floor((y - reach) / EDGE_CELL);
+        int maxY = (int) Math.floor((y + reach) / EDGE_CELL);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                Bucket bucket = edgeCells.get(pack(cx, cy));
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size; i++) {
+                    int edge = bucket.items[i];
+                    double distSq = segmentDistanceSq(edge, x, y);
+                    if (distSq <= bestDistSq) {
+                        bestDistSq = distSq;
+                        best = edge;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private double segmentDistanceSq(int edge, double px, double py) {
+        double x1 = scene.x[scene.edgeFrom[edge]];
+        double y1 = scene.y[scene.edgeFrom[edge]];
+        double x2 = scene.x[scene.edgeTo[edge]];
+        double y2 = scene.y[scene.edgeTo[edge]];
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, ((px - x1) * dx + (py - y1) * dy) / lengthSq));
+        double nx = x1 + t * dx - px;
+        double ny = y1 + t * dy - py;
+        return nx * nx + ny * ny;
+    }
+
+    public NetworkScene getScene() {
+        return scene;
+    }
+
+    /**
+     * Nodes that changed cell during the last {@link #update}
+     */
+    public int getLastNodeMoves() {
+        return lastNodeMoves;
+    }
+
+    /**
+     * Edges re-registered during the last {@link #update}
+     */
+    public int getLastEdgeMoves() {
+        return lastEdgeMoves;
+    }
+
+    private static long cellKey(double x, double y, double cellSize) {
+        return pack((int) Math.floor(x / cellSize), (int) Math.floor(y / cellSize));
+    }
+
+    private static long pack(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.dndfactionsimulator.network;
+
+/**
+ * Maps layout coordinates to screen pixels: screen = (layout - origin) * scale.
+ */
+public class Viewport {
+
+    private static final double MIN_SCALE = 1e-4;
+    private static final double MAX_SCALE = 20;
+
+    private double scale = 1;
+    private double originX;
+    private double originY;
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double toScreenX(double layoutX) {
+        return (layoutX - originX) * scale;
+    }
+
+    public double toScreenY(double layoutY) {
+        return (layoutY - originY) * scale;
+    }
+
+    public double toLayoutX(double screenX) {
+        return screenX / scale + originX;
+    }
+
+    public double toLayoutY(double screenY) {
+        return screenY / scale + originY;
+    }
+
+    /**
+     * Centres the layout bounds in a width x height screen with the given pixel margin
+     */
+    public void fit(double minX, double minY, double maxX, double maxY,
+                    double width, double height, double margin) {
+        double spanX = Math.max(maxX - minX, 1);
+        double spanY = Math.max(maxY - minY, 1);
+        scale = clampScale(Math.min((width - 2 * margin) / spanX, (height - 2 * margin) / spanY));
+        originX = (minX + maxX) / 2 - width / 2 / scale;
+        originY = (minY + maxY) / 2 - height / 2 / scale;
+    }
+
+    /**
+     * Zooms by factor while keeping the layout point under (screenX, screenY) fixed
+     */
+    public void zoomAt(double factor, double screenX, double screenY) {
+        double layoutX = toLayoutX(screenX);
+        double layoutY = toLayoutY(screenY);
+        scale = clampScale(scale * factor);
+        originX = layoutX - screenX / scale;
+        originY = layoutY - screenY / scale;
+    }
+
+    public void pan(double screenDx, double screenDy) {
+        originX -= screenDx / scale;
+        originY -= screenDy / scale;
+    }
+
+    private static double clampScale(double value) {
+        return Math.max(MIN_SCALE, Math.min(MAX_SCALE, value));
+    }
+}
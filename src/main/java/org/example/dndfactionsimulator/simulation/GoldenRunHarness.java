@@ -0,0 +1,268 @@
+package org.example.dndfactionsimulator.simulation;
+
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.metrics.TurnMetrics;
+import org.example.dndfactionsimulator.model.*;
+import org.example.dndfactionsimulator.store.OffHeapFactionStore;
+import java.util.*;
+
+/**
+ * Runs the same seeded synthetic world through the reference engine and every
+ * registered engine mode, then reports the first turn and faction where a mode
+ * stops producing the reference results.
+ */
+public class GoldenRunHarness {
+
+    /**
+     * A way of running turns (reference engine, or an optimized path) on a world
+     */
+    public interface EngineMode {
+        Session start(DatabaseManager world, long seed);
+    }
+
+    /**
+     * One run of a mode over one world
+     */
+    public interface Session {
+        List<WorldEvent> runTurn();
+
+        /** Current state of every faction, in any order */
+        List<Faction> getFactions();
+    }
+
+    /**
+     * Where two traces first disagree
+     */
+    public static class Divergence {
+        private final int turn;
+        private final int factionId;
+        private final String reason;
+
+        Divergence(int turn, int factionId, String reason) {
+            this.turn = turn;
+            this.factionId = factionId;
+            this.reason = reason;
+        }
+
+        public int getTurn() {
+            return turn;
+        }
+
+        public int getFactionId() {
+            return factionId;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return factionId >= 0
+                    ? String.format("turn %d, faction %d: %s", turn, factionId, reason)
+                    : String.format("turn %d: %s", turn, reason);
+        }
+    }
+
+    public static final String REFERENCE = "reference";
+
+    private final int factionCount;
+    private final int turns;
+    private final long seed;
+    private final Map<String, EngineMode> modes = new LinkedHashMap<>();
+
+    public GoldenRunHarness(int factionCount, int turns, long seed) {
+        this.factionCount = factionCount;
+        this.turns = turns;
+        this.seed = seed;
+    }
+
+    /**
+     * The plain SimulationEngine, which every other mode must match
+     */
+    public static EngineMode referenceMode() {
+        return (world, seed) -> {
+            SimulationEngine engine = new SimulationEngine(world, new TurnMetrics(), seed);
+            return new Session() {
+                @Override
+                public List<WorldEvent> runTurn() {
+                    return engine.runTurn();
+                }
+
+                @Override
+                public List<Faction> getFactions() {
+                    return world.getAllFactions();
+                }
+            };
+        };
+    }
+
+    /**
+     * The engine running on an off-heap copy of the world's factions
+     */
+    public static EngineMode offHeapStoreMode() {
+        return (world, seed) -> {
+            OffHeapFactionStore store = OffHeapFactionStore.load(world.getAllFactions());
+            SimulationEngine engine = new SimulationEngine(world, new TurnMetrics(), seed);
+            engine.setFactionStore(store);
+            return new Session() {
+                @Override
+                public List<WorldEvent> runTurn() {
+                    return engine.runTurn();
+                }
+
+                @Override
+                public List<Faction> getFactions() {
+                    return store.getAllFactions();
+                }
+            };
+        };
+    }
+
+    public void addMode(String name, EngineMode mode) {
+        modes.put(name, mode);
+    }
+
+    /**
+     * Registers every alternative engine path that must reproduce the reference results
+     */
+    public void addRegisteredModes() {
+        // A second reference run proves the seeded engine itself is deterministic
+        addMode("reference replay", referenceMode());
+        addMode("off-heap faction store", offHeapStoreMode());
+    }
+
+    public Map<String, EngineMode> getModes() {
+        return Collections.unmodifiableMap(modes);
+    }
+
+    /**
+     * Records the reference run and compares every registered mode with it.
+     * Returns true when all modes match.
+     */
+    public boolean run() {
+        GoldenTrace reference = record(REFERENCE, referenceMode());
+        return compareModes(reference);
+    }
+
+    /**
+     * Compares the reference engine and every registered mode against a trace recorded earlier
+     */
+    public boolean check(GoldenTrace golden) {
+        GoldenTrace reference = record(REFERENCE, referenceMode());
+        boolean ok = report(REFERENCE, compare(golden, reference));
+        return compareModes(golden) && ok;
+    }
+
+    public GoldenTrace record(String name, EngineMode mode) {
+        DatabaseManager world = SyntheticWorld.create(factionCount, 4, seed);
+        Session session = mode.start(world, seed);
+
+        int[] factionIds = sortedIds(session.getFactions());
+        long[] turnHashes = new long[turns];
+        long[][] factionHashes = new long[turns][];
+
+        for (int t = 0; t < turns; t++) {
+            List<WorldEvent> events = session.runTurn();
+            factionHashes[t] = hashFactions(factionIds, session.getFactions(), events);
+
+            long turnHash = t;
+            for (long hash : factionHashes[t]) {
+                turnHash = mix(turnHash, hash);
+            }
+            turnHashes[t] = mix(turnHash, events.size());
+        }
+
+        world.close();
+        return new GoldenTrace(name, factionIds, turnHashes, factionHashes);
+    }
+
+    /**
+     * Returns the first divergence of actual from expected, or null if they match
+     */
+    public static Divergence compare(GoldenTrace expected, GoldenTrace actual) {
+        if (!Arrays.equals(expected.getFactionIds(), actual.getFactionIds())) {
+            return new Divergence(0, -1, "different faction sets");
+        }
+
+        int turnCount = Math.min(expected.getTurnCount(), actual.getTurnCount());
+        for (int t = 0; t < turnCount; t++) {
+            if (expected.getTurnHash(t) == actual.getTurnHash(t)) {
+                continue;
+            }
+            int[] ids = expected.getFactionIds();
+            for (int i = 0; i < ids.length; i++) {
+                if (expected.getFactionHash(t, i) != actual.getFactionHash(t, i)) {
+                    return new Divergence(t + 1, ids[i], "resources or events differ");
+                }
+            }
+            return new Divergence(t + 1, -1, "event count differs");
+        }
+
+        if (expected.getTurnCount() != actual.getTurnCount()) {
+            return new Divergence(turnCount + 1, -1, "different number of turns recorded");
+        }
+        return null;
+    }
+
+    private boolean compareModes(GoldenTrace reference) {
+        boolean allMatch = true;
+        for (Map.Entry<String, EngineMode> entry : modes.entrySet()) {
+            GoldenTrace trace = record(entry.getKey(), entry.getValue());
+            allMatch &= report(entry.getKey(), compare(reference, trace));
+        }
+        return allMatch;
+    }
+
+    private boolean report(String mode, Divergence divergence) {
+        if (divergence == null) {
+            System.out.printf("✅ %s matches over %d turns (%d factions, seed %d)%n", mode, turns, factionCount, seed);
+            return true;
+        }
+        System.out.printf("❌ %s diverges at %s%n", mode, divergence);
+        return false;
+    }
+
+    private static int[] sortedIds(List<Faction> factions) {
+        int[] ids = new int[factions.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = factions.get(i).getId();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static long[] hashFactions(int[] factionIds, List<Faction> factions, List<WorldEvent> events) {
+        long[] hashes = new long[factionIds.length];
+
+        for (Faction faction : factions) {
+            int index = Arrays.binarySearch(factionIds, faction.getId());
+            if (index < 0) {
+                continue;
+            }
+            long hash = mix(faction.getId(), faction.getGold());
+            hash = mix(hash, faction.getTroops());
+            hash = mix(hash, faction.getMagic());
+            hash = mix(hash, faction.getInfluence());
+            hashes[index] = mix(hash, faction.isActive() ? 1 : 0);
+        }
+
+        // Timestamps are wall-clock time, so they are left out
+        for (WorldEvent event : events) {
+            int index = Arrays.binarySearch(factionIds, event.getFactionId());
+            if (index < 0) {
+                continue;
+            }
+            long hash = mix(hashes[index], event.getAction().ordinal());
+            hash = mix(hash, event.getTargetFactionId() != null ? event.getTargetFactionId() : -1);
+            hashes[index] = mix(hash, event.getDescription().hashCode());
+        }
+
+        return hashes;
+    }
+
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
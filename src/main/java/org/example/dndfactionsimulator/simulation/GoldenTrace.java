@@ -0,0 +1,89 @@
+package org.example.dndfactionsimulator.simulation;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compact fingerprint of a seeded run: for every turn, one hash per faction
+ * (resources, active flag and that faction's events) plus a combined turn hash.
+ */
+public class GoldenTrace {
+    private static final int FILE_MAGIC = 0x474F4C44; // "GOLD"
+
+    private final String mode;
+    private final int[] factionIds;
+    private final long[] turnHashes;
+    private final long[][] factionHashes;
+
+    public GoldenTrace(String mode, int[] factionIds, long[] turnHashes, long[][] factionHashes) {
+        this.mode = mode;
+        this.factionIds = factionIds;
+        this.turnHashes = turnHashes;
+        this.factionHashes = factionHashes;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public int getTurnCount() {
+        return turnHashes.length;
+    }
+
+    public int[] getFactionIds() {
+        return factionIds;
+    }
+
+    public long getTurnHash(int turnIndex) {
+        return turnHashes[turnIndex];
+    }
+
+    public long getFactionHash(int turnIndex, int factionIndex) {
+        return factionHashes[turnIndex][factionIndex];
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeUTF(mode);
+            out.writeInt(factionIds.length);
+            out.writeInt(turnHashes.length);
+            for (int id : factionIds) {
+                out.writeInt(id);
+            }
+            for (int t = 0; t < turnHashes.length; t++) {
+                out.writeLong(turnHashes[t]);
+                for (long hash : factionHashes[t]) {
+                    out.writeLong(hash);
+                }
+            }
+        }
+    }
+
+    public static GoldenTrace read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a golden trace file: " + file);
+            }
+            String mode = in.readUTF();
+            int factionCount = in.readInt();
+            int turnCount = in.readInt();
+
+            int[] factionIds = new int[factionCount];
+            for (int i = 0; i < factionCount; i++) {
+                factionIds[i] = in.readInt();
+            }
+
+            long[] turnHashes = new long[turnCount];
+            long[][] factionHashes = new long[turnCount][factionCount];
+            for (int t = 0; t < turnCount; t++) {
+                turnHashes[t] = in.readLong();
+                for (int i = 0; i < factionCount; i++) {
+                    factionHashes[t][i] = in.readLong();
+                }
+            }
+            return new GoldenTrace(mode, factionIds, turnHashes, factionHashes);
+        }
+    }
+}
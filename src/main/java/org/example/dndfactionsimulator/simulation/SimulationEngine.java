@@ -1,18 +1,58 @@
 package org.example.dndfactionsimulator.simulation;
 
 import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.graph.FactionInfluence;
+import org.example.dndfactionsimulator.graph.RelationshipGraph;
+import org.example.dndfactionsimulator.metrics.*;
 import org.example.dndfactionsimulator.model.*;
+import org.example.dndfactionsimulator.store.OffHeapFactionStore;
+import org.example.dndfactionsimulator.util.IntSet;
+import org.example.dndfactionsimulator.util.LongIntMap;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class SimulationEngine {
 
+    // Influence (relative to the average faction) above which a faction acts as a power broker
+    private static final double INFLUENTIAL = 1.5;
+
     private DatabaseManager db;
     private Random random;
+    private TurnMetrics metrics;
+    private AllocationTracker allocationTracker;
+    private OffHeapFactionStore factionStore;
+    private List<Faction> lastTurnFactions = List.of();
+
+    // Per-turn diplomacy state: active factions by id, existing relationships the turn
+    // changed (in first-change order, once each, with their ids) and relationships it
+    // created, in creation order with their list index by pair
+    private RelationshipGraph graph;
+    private FactionInfluence influence;
+    private Faction[] activeById = new Faction[0];
+    private final List<Relationship> changedRelationships = new ArrayList<>();
+    private final IntSet changedRelationshipIds = new IntSet(64);
+    private final List<Relationship> newRelationships = new ArrayList<>();
+    private final LongIntMap newRelationshipIndex = new LongIntMap(64);
 
     public SimulationEngine(DatabaseManager db) {
+        this(db, TurnMetrics.getInstance());
+    }
+
+    public SimulationEngine(DatabaseManager db, TurnMetrics metrics) {
+        this(db, metrics, new Random());
+    }
+
+    /**
+     * Seeded engine: the same world and seed always produce the same turns
+     */
+    public SimulationEngine(DatabaseManager db, TurnMetrics metrics, long seed) {
+        this(db, metrics, new Random(seed));
+    }
+
+    private SimulationEngine(DatabaseManager db, TurnMetrics metrics, Random random) {
         this.db = db;
-        this.random = new Random();
+        this.random = random;
+        this.metrics = metrics;
     }
 
     /**
@@ -21,41 +61,119 @@ public class SimulationEngine {
      */
     public List<WorldEvent> runTurn() {
         List<WorldEvent> turnEvents = new ArrayList<>();
+        lastTurnFactions = List.of();
+        long[] phaseNanos = new long[TurnPhase.values().length];
+        long statementsBefore = db.getStatementCount();
+        TurnEndEvent turnEndEvent = new TurnEndEvent();
+        turnEndEvent.begin();
+        if (allocationTracker != null) {
+            allocationTracker.start();
+        }
 
         // Get current turn and all active factions
+        long phaseStart = System.nanoTime();
         int currentTurn = db.getCurrentTurn();
-        List<Faction> activeFactions = db.getActiveFactions();
+        List<Faction> activeFactions = factionStore != null ? factionStore.getActiveFactions() : db.getActiveFactions();
+        graph = db.getRelationshipGraph();
+        indexById(activeFactions);
+        influence = db.getFactionInfluence();
+        int influenceIterations = influence.getLastIterations();
+        changedRelationships.clear();
+        changedRelationshipIds.clear();
+        newRelationships.clear();
+        newRelationshipIndex.clear();
+        phaseStart = endPhase(phaseNanos, TurnPhase.LOAD_FACTIONS, phaseStart);
 
         if (activeFactions.isEmpty()) {
             System.out.println("⚠️ No active factions to simulate");
+            // Nothing ran, so the turn is neither timed nor charged, but its JFR span is closed
+            if (allocationTracker != null) {
+                allocationTracker.cancel();
+            }
+            turnEndEvent.end();
+            if (turnEndEvent.shouldCommit()) {
+                turnEndEvent.turnNumber = currentTurn;
+                turnEndEvent.commit();
+            }
             return turnEvents;
         }
 
+        TurnBeginEvent turnBeginEvent = new TurnBeginEvent();
+        if (turnBeginEvent.isEnabled()) {
+            turnBeginEvent.turnNumber = currentTurn;
+            turnBeginEvent.factionCount = activeFactions.size();
+            turnBeginEvent.influenceIterations = influenceIterations;
+            turnBeginEvent.commit();
+        }
+
         System.out.println("\n🎲 === SIMULATING TURN " + currentTurn + " ===");
         System.out.println("Active factions: " + activeFactions.size());
 
-        // Each faction takes one action
+        // Each faction takes one action (choice and execution are timed separately)
+        int averageStrength = (int) activeFactions.stream()
+                .mapToInt(Faction::getStrength)
+                .average()
+                .orElse(100);
         for (Faction faction : activeFactions) {
-            WorldEvent event = processFactionTurn(faction, activeFactions, currentTurn);
+            FactionActionEvent actionEvent = new FactionActionEvent();
+            actionEvent.begin();
+
+            FactionAction action = chooseAction(faction, averageStrength);
+            phaseStart = endPhase(phaseNanos, TurnPhase.CHOOSE_ACTIONS, phaseStart);
+
+            WorldEvent event = executeAction(faction, action, activeFactions, currentTurn);
             if (event != null) {
-                db.addWorldEvent(event);
                 turnEvents.add(event);
             }
+            phaseStart = endPhase(phaseNanos, TurnPhase.EXECUTE_ACTIONS, phaseStart);
+
+            actionEvent.end();
+            if (actionEvent.shouldCommit()) {
+                actionEvent.turnNumber = currentTurn;
+                actionEvent.factionId = faction.getId();
+                actionEvent.action = action.name();
+                actionEvent.commit();
+            }
         }
 
+        // Relationships drift toward what the factions' alignments make natural
+        driftRelationships(activeFactions);
+
         // Apply decay/random events (10% chance per faction)
         for (Faction faction : activeFactions) {
             if (random.nextDouble() < 0.1) {
                 WorldEvent decayEvent = applyRandomEvent(faction, currentTurn);
                 if (decayEvent != null) {
-                    db.addWorldEvent(decayEvent);
                     turnEvents.add(decayEvent);
                 }
             }
         }
+        phaseStart = endPhase(phaseNanos, TurnPhase.RANDOM_EVENTS, phaseStart);
+
+        // Write all faction changes and events in one transaction
+        changedRelationships.addAll(newRelationships);
+        db.saveTurn(currentTurn, activeFactions, turnEvents, changedRelationships);
+        // Views of the store aren't kept past the turn; the store itself has the new state
+        lastTurnFactions = factionStore != null ? List.of() : activeFactions;
+        Arrays.fill(activeById, null);
+        phaseStart = endPhase(phaseNanos, TurnPhase.PERSIST, phaseStart);
 
         // Advance the turn counter
         db.advanceTurn();
+        endPhase(phaseNanos, TurnPhase.ADVANCE_TURN, phaseStart);
+        if (allocationTracker != null) {
+            allocationTracker.finish();
+        }
+
+        metrics.recordTurn(currentTurn, phaseNanos, turnEvents, db.getStatementCount() - statementsBefore);
+
+        turnEndEvent.end();
+        if (turnEndEvent.shouldCommit()) {
+            turnEndEvent.turnNumber = currentTurn;
+            turnEndEvent.factionCount = activeFactions.size();
+            turnEndEvent.eventCount = turnEvents.size();
+            turnEndEvent.commit();
+        }
 
         System.out.println("✅ Turn " + currentTurn + " complete. " + turnEvents.size() + " events occurred.\n");
 
@@ -63,32 +181,57 @@ public class SimulationEngine {
     }
 
     /**
-     * Process a single faction's turn
+     * Factions (with their new state) written by the last completed turn. Empty when
+     * running on an off-heap store, whose views aren't kept between turns.
+     */
+    public List<Faction> getLastTurnFactions() {
+        return Collections.unmodifiableList(lastTurnFactions);
+    }
+
+    public TurnMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Run turns on the factions in an off-heap store (null to go back to the database's
+     * faction table). Factions a turn changes are still written to the database with the
+     * turn's relationships and events, so the two stay in step.
+     */
+    public void setFactionStore(OffHeapFactionStore factionStore) {
+        this.factionStore = factionStore;
+    }
+
+    /**
+     * Attribute allocations of each turn phase to the given tracker (null to stop tracking)
      */
-    private WorldEvent processFactionTurn(Faction faction, List<Faction> allFactions, int turn) {
-        // Choose an action based on faction state
-        FactionAction action = chooseAction(faction, allFactions);
+    public void setAllocationTracker(AllocationTracker allocationTracker) {
+        this.allocationTracker = allocationTracker;
+    }
 
-        // Execute the action and create event
-        return executeAction(faction, action, allFactions, turn);
+    /**
+     * Adds the time since phaseStart to the phase's total and returns the new phase start
+     */
+    private long endPhase(long[] phaseNanos, TurnPhase phase, long phaseStart) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - phaseStart;
+        if (allocationTracker != null) {
+            allocationTracker.endPhase(phase);
+        }
+        return now;
     }
 
     /**
      * AI logic to choose what action a faction should take
      */
-    private FactionAction chooseAction(Faction faction, List<Faction> allFactions) {
+    private FactionAction chooseAction(Faction faction, int averageStrength) {
         int strength = faction.getStrength();
-        int averageStrength = (int) allFactions.stream()
-                .mapToInt(Faction::getStrength)
-                .average()
-                .orElse(100);
 
         boolean isStrong = strength > averageStrength * 1.2;
         boolean isWeak = strength < averageStrength * 0.7;
         boolean lowResources = faction.getGold() < 50;
 
-        // Build weighted action choices
-        Map<FactionAction, Integer> weights = new HashMap<>();
+        // Build weighted action choices (EnumMap keeps iteration order stable for seeded runs)
+        Map<FactionAction, Integer> weights = new EnumMap<>(FactionAction.class);
 
         if (lowResources) {
             weights.put(FactionAction.GATHER_RESOURCES, 40);
@@ -116,6 +259,17 @@ public class SimulationEngine {
             weights.put(FactionAction.RAID, weights.getOrDefault(FactionAction.RAID, 0) + 10);
         }
 
+        // Open wars invite more fighting
+        if (hasActiveEnemy(faction)) {
+            weights.put(FactionAction.ATTACK, weights.getOrDefault(FactionAction.ATTACK, 0) + 15);
+        }
+
+        // Power brokers work to widen their web of ties
+        if (influence.getInfluence(faction.getId()) > INFLUENTIAL) {
+            weights.put(FactionAction.FORM_ALLIANCE, weights.getOrDefault(FactionAction.FORM_ALLIANCE, 0) + 10);
+            weights.put(FactionAction.EXPAND_INFLUENCE, weights.getOrDefault(FactionAction.EXPAND_INFLUENCE, 0) + 10);
+        }
+
         // Lawful factions more likely to trade/ally
         if (faction.getAlignment().name().contains("LAWFUL")) {
             weights.put(FactionAction.TRADE, weights.getOrDefault(FactionAction.TRADE, 0) + 10);
@@ -174,28 +328,31 @@ public class SimulationEngine {
                 break;
 
             case ATTACK:
-                Faction target = findWeakestEnemy(faction, allFactions);
+                Faction target = findWeakestEnemy(faction);
                 if (target != null) {
                     int damage = faction.getStrength() / 5 + random.nextInt(20);
                     target.addTroops(-damage);
                     faction.addTroops(-damage / 3); // Attacker takes casualties too
+                    Relationship relationship = adjustRelationship(faction, target, -(random.nextInt(11) + 10));
                     description += "attacked " + target.getName() + ", dealing " + damage + " casualties!";
+                    if (relationship.getType() == RelationshipType.AT_WAR) {
+                        description += " They are now at war.";
+                    }
                     event.setTargetFactionId(target.getId());
-                    db.updateFaction(target);
                 } else {
                     description += "prepared for battle but found no worthy opponents.";
                 }
                 break;
 
             case RAID:
-                Faction raidTarget = findWeakestFaction(faction, allFactions);
+                Faction raidTarget = findWeakestFaction(faction);
                 if (raidTarget != null) {
                     int stolenGold = Math.min(raidTarget.getGold() / 2, 40);
                     raidTarget.addGold(-stolenGold);
                     faction.addGold(stolenGold);
+                    adjustRelationship(faction, raidTarget, -(random.nextInt(6) + 5));
                     description += "raided " + raidTarget.getName() + ", stealing " + stolenGold + " gold!";
                     event.setTargetFactionId(raidTarget.getId());
-                    db.updateFaction(raidTarget);
                 } else {
                     description += "scouted for raids but found nothing of value.";
                 }
@@ -222,16 +379,25 @@ public class SimulationEngine {
                 break;
 
             case FORM_ALLIANCE:
-                description += "sent diplomatic envoys seeking allies.";
+                Faction partner = findAlliancePartner(faction, allFactions);
+                if (partner != null) {
+                    Relationship relationship = adjustRelationship(faction, partner, random.nextInt(16) + 10);
+                    event.setTargetFactionId(partner.getId());
+                    if (relationship.getType() == RelationshipType.ALLIED) {
+                        description += "formed an alliance with " + partner.getName() + ".";
+                    } else {
+                        description += "improved relations with " + partner.getName() +
+                                " (now " + relationship.getType() + ").";
+                    }
+                } else {
+                    description += "sent diplomatic envoys seeking allies.";
+                }
                 break;
 
             default:
                 description += "contemplated their next move.";
         }
 
-        // Update faction in database
-        db.updateFaction(faction);
-
         event.setDescription(description);
         return event;
     }
@@ -254,8 +420,6 @@ public class SimulationEngine {
         faction.addGold(-random.nextInt(20) + 10);
         faction.addTroops(-random.nextInt(10) + 5);
 
-        db.updateFaction(faction);
-
         WorldEvent event = new WorldEvent(
                 turn,
                 faction.getId(),
@@ -266,27 +430,197 @@ public class SimulationEngine {
         return event;
     }
 
+    // ============== DIPLOMACY ==============
+
     /**
-     * Find the weakest enemy faction
+     * Indexes the active factions by id, so relationship neighbours resolve without a
+     * search. The array is reused from turn to turn and only grows; it's cleared once
+     * the turn is saved.
      */
-    private Faction findWeakestEnemy(Faction attacker, List<Faction> allFactions) {
-        return allFactions.stream()
-                .filter(f -> f.getId() != attacker.getId())
-                .filter(Faction::isActive)
-                .min(Comparator.comparingInt(Faction::getStrength))
-                .orElse(null);
+    private void indexById(List<Faction> factions) {
+        int maxId = 0;
+        for (Faction faction : factions) {
+            maxId = Math.max(maxId, faction.getId());
+        }
+        if (maxId >= activeById.length) {
+            activeById = new Faction[maxId + 1];
+        } else {
+            Arrays.fill(activeById, null);
+        }
+        for (Faction faction : factions) {
+            activeById[faction.getId()] = faction;
+        }
+    }
+
+    /**
+     * The neighbour across the i-th relationship of the faction, or null if it isn't active
+     */
+    private Faction activeNeighbor(Faction faction, int i) {
+        int neighborId = graph.getNeighbor(faction.getId(), i);
+        return neighborId >= 0 && neighborId < activeById.length ? activeById[neighborId] : null;
+    }
+
+    private boolean hasActiveEnemy(Faction faction) {
+        int degree = graph.getDegree(faction.getId());
+        for (int i = 0; i < degree; i++) {
+            if (isEnemy(graph.getIncidentRelationship(faction.getId(), i).getType())
+                    && activeNeighbor(faction, i) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFriendly(RelationshipType type) {
+        return type == RelationshipType.ALLIED || type == RelationshipType.FRIENDLY;
+    }
+
+    private static boolean isEnemy(RelationshipType type) {
+        return type == RelationshipType.HOSTILE || type == RelationshipType.AT_WAR;
+    }
+
+    /**
+     * Changes the relationship between two factions by the given amount, creating it
+     * if they had none, and re-derives its type from the new strength
+     */
+    private Relationship adjustRelationship(Faction faction, Faction other, int change) {
+        Relationship relationship = graph.getRelationship(faction.getId(), other.getId());
+        if (relationship == null) {
+            long key = RelationshipGraph.pairKey(faction.getId(), other.getId());
+            int index = newRelationshipIndex.get(key, -1);
+            if (index >= 0) {
+                relationship = newRelationships.get(index);
+            } else {
+                relationship = new Relationship(faction.getId(), other.getId(), RelationshipType.NEUTRAL, 0);
+                newRelationshipIndex.put(key, newRelationships.size());
+                newRelationships.add(relationship);
+            }
+        }
+        relationship.adjustStrength(change);
+        relationship.setType(RelationshipType.fromStrength(relationship.getStrength()));
+        if (relationship.getId() != 0 && changedRelationshipIds.add(relationship.getId())) {
+            changedRelationships.add(relationship);
+        }
+        return relationship;
+    }
+
+    /**
+     * The weakest active neighbour the attacker is hostile to or at war with, otherwise
+     * the weakest neighbour that isn't a friend or ally. Never attacks allies.
+     */
+    private Faction findWeakestEnemy(Faction attacker) {
+        Faction weakestEnemy = null;
+        Faction weakestOther = null;
+        int degree = graph.getDegree(attacker.getId());
+        for (int i = 0; i < degree; i++) {
+            Faction neighbor = activeNeighbor(attacker, i);
+            RelationshipType type = graph.getIncidentRelationship(attacker.getId(), i).getType();
+            if (neighbor == null || isFriendly(type)) continue;
+
+            if (isEnemy(type)) {
+                if (weakestEnemy == null || neighbor.getStrength() < weakestEnemy.getStrength()) {
+                    weakestEnemy = neighbor;
+                }
+            } else if (weakestOther == null || neighbor.getStrength() < weakestOther.getStrength()) {
+                weakestOther = neighbor;
+            }
+        }
+        return weakestEnemy != null ? weakestEnemy : weakestOther;
     }
 
     /**
-     * Find the weakest faction overall
+     * The weakest active neighbour with gold that isn't a friend or ally
      */
-    private Faction findWeakestFaction(Faction raider, List<Faction> allFactions) {
-        return allFactions.stream()
-                .filter(f -> f.getId() != raider.getId())
-                .filter(Faction::isActive)
-                .filter(f -> f.getGold() > 0)
-                .min(Comparator.comparingInt(Faction::getStrength))
-                .orElse(null);
+    private Faction findWeakestFaction(Faction raider) {
+        Faction weakest = null;
+        int degree = graph.getDegree(raider.getId());
+        for (int i = 0; i < degree; i++) {
+            Faction neighbor = activeNeighbor(raider, i);
+            RelationshipType type = graph.getIncidentRelationship(raider.getId(), i).getType();
+            if (neighbor == null || isFriendly(type) || neighbor.getGold() <= 0) continue;
+
+            if (weakest == null || neighbor.getStrength() < weakest.getStrength()) {
+                weakest = neighbor;
+            }
+        }
+        return weakest;
+    }
+
+    /**
+     * The warmest active neighbour that isn't already a firm ally or an enemy. Factions
+     * with nobody to court reach out to a random faction they have no relationship with.
+     */
+    private Faction findAlliancePartner(Faction faction, List<Faction> allFactions) {
+        Faction best = null;
+        int bestStrength = Integer.MIN_VALUE;
+        int degree = graph.getDegree(faction.getId());
+        for (int i = 0; i < degree; i++) {
+            Faction neighbor = activeNeighbor(faction, i);
+            Relationship relationship = graph.getIncidentRelationship(faction.getId(), i);
+            if (neighbor == null || isEnemy(relationship.getType()) || relationship.getStrength() >= 100) continue;
+
+            if (relationship.getStrength() > bestStrength) {
+                best = neighbor;
+                bestStrength = relationship.getStrength();
+            }
+        }
+        if (best != null || allFactions.size() < 2) {
+            return best;
+        }
+
+        // A few random picks keep this O(1) however large the world is
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Faction candidate = allFactions.get(random.nextInt(allFactions.size()));
+            if (candidate.getId() != faction.getId() && !graph.hasRelationship(faction.getId(), candidate.getId())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves every relationship between two active factions one point toward the strength
+     * their alignments make natural. Each relationship is visited once, from its lower id.
+     */
+    private void driftRelationships(List<Faction> activeFactions) {
+        for (Faction faction : activeFactions) {
+            int degree = graph.getDegree(faction.getId());
+            for (int i = 0; i < degree; i++) {
+                Faction neighbor = activeNeighbor(faction, i);
+                if (neighbor == null || neighbor.getId() < faction.getId()) continue;
+
+                Relationship relationship = graph.getIncidentRelationship(faction.getId(), i);
+                int target = naturalStrength(faction.getAlignment(), neighbor.getAlignment());
+                int strength = relationship.getStrength();
+                if (strength != target) {
+                    adjustRelationship(faction, neighbor, strength < target ? 1 : -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Where a relationship settles when nothing happens: shared ideals pull factions
+     * together, good against evil and law against chaos push them apart
+     */
+    private static int naturalStrength(Alignment a, Alignment b) {
+        int strength = 0;
+        String nameA = a.name();
+        String nameB = b.name();
+
+        if ((nameA.contains("GOOD") && nameB.contains("EVIL")) || (nameA.contains("EVIL") && nameB.contains("GOOD"))) {
+            strength -= 30;
+        } else if ((nameA.contains("GOOD") && nameB.contains("GOOD")) || (nameA.contains("EVIL") && nameB.contains("EVIL"))) {
+            strength += 15;
+        }
+
+        if ((nameA.contains("LAWFUL") && nameB.contains("CHAOTIC")) || (nameA.contains("CHAOTIC") && nameB.contains("LAWFUL"))) {
+            strength -= 15;
+        } else if ((nameA.contains("LAWFUL") && nameB.contains("LAWFUL"))
+                || (nameA.contains("CHAOTIC") && nameB.contains("CHAOTIC"))) {
+            strength += 10;
+        }
+        return strength;
     }
 
     /**
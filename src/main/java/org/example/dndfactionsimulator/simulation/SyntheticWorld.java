@@ -0,0 +1,64 @@
+package org.example.dndfactionsimulator.simulation;
+
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.model.*;
+import java.util.*;
+
+/**
+ * Generates reproducible random worlds in a private in-memory database,
+ * for harnesses, benchmarks and headless runs.
+ */
+public class SyntheticWorld {
+
+    private SyntheticWorld() {}
+
+    /**
+     * Creates an in-memory world with the given number of factions and,
+     * on average, relationshipsPerFaction relationships per faction.
+     * The same seed always produces the same world.
+     */
+    public static DatabaseManager create(int factionCount, int relationshipsPerFaction, long seed) {
+        Random random = new Random(seed);
+        DatabaseManager db = DatabaseManager.createInMemory();
+
+        FactionType[] types = FactionType.values();
+        Alignment[] alignments = Alignment.values();
+
+        List<Faction> factions = new ArrayList<>(factionCount);
+        for (int i = 0; i < factionCount; i++) {
+            Faction faction = new Faction(
+                    "Synthetic Faction " + (i + 1),
+                    types[random.nextInt(types.length)],
+                    alignments[random.nextInt(alignments.length)]
+            );
+            faction.setGold(50 + random.nextInt(200));
+            faction.setTroops(20 + random.nextInt(100));
+            faction.setMagic(random.nextInt(30));
+            faction.setInfluence(10 + random.nextInt(40));
+            factions.add(faction);
+        }
+        db.addFactions(factions);
+
+        if (factionCount >= 2 && relationshipsPerFaction > 0) {
+            RelationshipType[] relationshipTypes = RelationshipType.values();
+            long target = Math.min((long) factionCount * relationshipsPerFaction / 2,
+                    (long) factionCount * (factionCount - 1) / 2);
+
+            Set<Long> pairs = new HashSet<>();
+            List<Relationship> relationships = new ArrayList<>();
+            while (relationships.size() < target) {
+                int a = factions.get(random.nextInt(factionCount)).getId();
+                int b = factions.get(random.nextInt(factionCount)).getId();
+                if (a == b || !pairs.add(((long) Math.min(a, b) << 32) | Math.max(a, b))) {
+                    continue;
+                }
+                relationships.add(new Relationship(a, b,
+                        relationshipTypes[random.nextInt(relationshipTypes.length)],
+                        random.nextInt(201) - 100));
+            }
+            db.addRelationships(relationships);
+        }
+
+        return db;
+    }
+}
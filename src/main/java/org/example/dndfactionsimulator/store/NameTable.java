@@ -0,0 +1,157 @@
+package org.example.dndfactionsimulator.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Interned strings kept off the Java heap: each distinct name is stored once as
+ * UTF-8 and referred to by its index, so factions sharing a name share the bytes.
+ *
+ * The text, the start offset of every entry and the hash index used to find an
+ * existing entry all live in direct buffers that grow by doubling. Not thread-safe.
+ */
+class NameTable {
+
+    private static final int EMPTY = -1;
+
+    // Length-prefixed UTF-8 entries, back to back
+    private ByteBuffer text = ByteBuffer.allocateDirect(4096);
+    // Start of each entry in text, by name index
+    private ByteBuffer offsets = ByteBuffer.allocateDirect(256 * Integer.BYTES);
+    // Open-addressing hash index: slot -> name index, or EMPTY
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+
+    NameTable() {
+        slots = newSlots(512);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Index of the name, adding it if it isn't in the table yet
+     */
+    int intern(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int slot = hash(bytes) & mask;
+        while (true) {
+            int index = slots.getInt(slot * Integer.BYTES);
+            if (index == EMPTY) break;
+            if (matches(index, bytes)) return index;
+            slot = (slot + 1) & mask;
+        }
+
+        int index = append(bytes);
+        slots.putInt(slot * Integer.BYTES, index);
+        if (size * 2 > mask + 1) {
+            rehash((mask + 1) * 2);
+        }
+        return index;
+    }
+
+    String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No name " + index);
+        }
+        int start = offsets.getInt(index * Integer.BYTES);
+        byte[] bytes = new byte[text.getInt(start)];
+        text.get(start + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Direct memory held by the table, in bytes
+     */
+    long getOffHeapBytes() {
+        return (long) text.capacity() + offsets.capacity() + slots.capacity();
+    }
+
+    private int append(byte[] bytes) {
+        int start = text.position();
+        int needed = start + Integer.BYTES + bytes.length;
+        if (needed > text.capacity()) {
+            text = grow(text, needed);
+        }
+        text.putInt(bytes.length).put(bytes);
+
+        if ((size + 1) * Integer.BYTES > offsets.capacity()) {
+            offsets = grow(offsets, (size + 1) * Integer.BYTES);
+        }
+        offsets.putInt(size * Integer.BYTES, start);
+        return size++;
+    }
+
+    private boolean matches(int index, byte[] bytes) {
+        int start = offsets.getInt(index * Integer.BYTES);
+        if (text.getInt(start) != bytes.length) return false;
+        for (int i = 0; i < bytes.length; i++) {
+            if (text.get(start + Integer.BYTES + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    private int hashAt(int index) {
+        int start = offsets.getInt(index * Integer.BYTES);
+        int length = text.getInt(start);
+        int h = 1;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + text.get(start + Integer.BYTES + i);
+        }
+        return spread(h);
+    }
+
+    private static int hash(byte[] bytes) {
+        int h = 1;
+        for (byte b : bytes) {
+            h = 31 * h + b;
+        }
+        return spread(h);
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+
+    private void rehash(int capacity) {
+        slots = newSlots(capacity);
+        for (int index = 0; index < size; index++) {
+            int slot = hashAt(index) & mask;
+            while (slots.getInt(slot * Integer.BYTES) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots.putInt(slot * Integer.BYTES, index);
+        }
+    }
+
+    private ByteBuffer newSlots(int capacity) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        for (int i = 0; i < capacity; i++) {
+            buffer.putInt(i * Integer.BYTES, EMPTY);
+        }
+        mask = capacity - 1;
+        return buffer;
+    }
+
+    /**
+     * Copy of the buffer with at least the needed capacity, keeping its position
+     */
+    static ByteBuffer grow(ByteBuffer buffer, long needed) {
+        long capacity = Math.max(needed, buffer.capacity() * 2L);
+        if (capacity > Integer.MAX_VALUE) {
+            if (needed > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Off-heap buffer would exceed 2 GB");
+            }
+            capacity = Integer.MAX_VALUE;
+        }
+        ByteBuffer bigger = ByteBuffer.allocateDirect((int) capacity);
+        int position = buffer.position();
+        bigger.put(buffer.duplicate().clear().limit(buffer.capacity()));
+        bigger.position(position);
+        return bigger;
+    }
+}
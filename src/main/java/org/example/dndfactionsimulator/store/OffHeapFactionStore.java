@@ -0,0 +1,361 @@
+package org.example.dndfactionsimulator.store;
+
+import org.example.dndfactionsimulator.model.Alignment;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.FactionType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Faction state kept in direct memory instead of as {@link Faction} objects, for
+ * worlds with millions of factions.
+ *
+ * Every faction is a fixed-width record at (id * RECORD_BYTES): name index, the four
+ * resources, the cached strength, type, alignment and flags. Names go through an
+ * interned {@link NameTable}. The factions handed out are views that read and write
+ * the record, so the engine runs turns on the store directly. Views are made on each
+ * request and the store keeps none of them, so the heap it retains doesn't grow with
+ * the number of factions; a turn's views are garbage once the turn drops them. Two
+ * views of the same faction are equal. A record is marked dirty when a view changes
+ * it, so saving a turn only writes the factions that changed, as it does for plain
+ * factions. Not thread-safe.
+ */
+public class OffHeapFactionStore {
+
+    private static final int NAME = 0;
+    private static final int GOLD = 4;
+    private static final int TROOPS = 8;
+    private static final int MAGIC = 12;
+    private static final int INFLUENCE = 16;
+    private static final int STRENGTH = 20;
+    private static final int TYPE = 24;
+    private static final int ALIGNMENT = 25;
+    private static final int FLAGS = 26;
+    static final int RECORD_BYTES = 28;
+
+    private static final byte PRESENT = 1;
+    private static final byte ACTIVE = 2;
+    // Changed since loaded or last saved
+    private static final byte DIRTY = 4;
+
+    private static final FactionType[] TYPES = FactionType.values();
+    private static final Alignment[] ALIGNMENTS = Alignment.values();
+
+    private final NameTable names = new NameTable();
+    private ByteBuffer records = ByteBuffer.allocateDirect(1024 * RECORD_BYTES);
+    private int maxId;
+    private int count;
+
+    /**
+     * A store holding a copy of the given factions (ids must already be assigned)
+     */
+    public static OffHeapFactionStore load(Collection<Faction> factions) {
+        OffHeapFactionStore store = new OffHeapFactionStore();
+        for (Faction faction : factions) {
+            store.put(faction);
+        }
+        return store;
+    }
+
+    /**
+     * Adds the faction, or overwrites the stored one with the same id
+     */
+    public void put(Faction faction) {
+        int id = faction.getId();
+        if (id < 0) {
+            throw new IllegalArgumentException("Faction id must not be negative: " + id);
+        }
+        ensureCapacity(id);
+
+        int base = offset(id);
+        if ((records.get(base + FLAGS) & PRESENT) == 0) {
+            count++;
+        }
+        records.putInt(base + NAME, names.intern(faction.getName()));
+        records.putInt(base + GOLD, faction.getGold());
+        records.putInt(base + TROOPS, faction.getTroops());
+        records.putInt(base + MAGIC, faction.getMagic());
+        records.putInt(base + INFLUENCE, faction.getInfluence());
+        records.putInt(base + STRENGTH, faction.getStrength());
+        records.put(base + TYPE, (byte) faction.getType().ordinal());
+        records.put(base + ALIGNMENT, (byte) faction.getAlignment().ordinal());
+        records.put(base + FLAGS, (byte) (PRESENT | (faction.isActive() ? ACTIVE : 0)));
+        maxId = Math.max(maxId, id);
+    }
+
+    private void ensureCapacity(int id) {
+        long needed = ((long) id + 1) * RECORD_BYTES;
+        if (needed > records.capacity()) {
+            records = NameTable.grow(records, needed);
+        }
+    }
+
+    /**
+     * Start of the faction's record. Records are only read or written once
+     * ensureCapacity() has made room, and the buffer never exceeds 2 GB.
+     */
+    private static int offset(int id) {
+        return Math.toIntExact((long) id * RECORD_BYTES);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean hasActiveFactions() {
+        for (int id = 0; id <= maxId; id++) {
+            if ((flags(id) & ACTIVE) != 0) return true;
+        }
+        return false;
+    }
+
+    public boolean contains(int factionId) {
+        return factionId >= 0 && factionId <= maxId && (flags(factionId) & PRESENT) != 0;
+    }
+
+    /**
+     * Direct memory held by the records and the name table, in bytes
+     */
+    public long getOffHeapBytes() {
+        return records.capacity() + names.getOffHeapBytes();
+    }
+
+    /**
+     * Distinct names stored
+     */
+    public int getNameCount() {
+        return names.size();
+    }
+
+    // ============== VIEWS ==============
+
+    /**
+     * Views of every active faction, in id order (the database's row order)
+     */
+    public List<Faction> getActiveFactions() {
+        List<Faction> factions = new ArrayList<>(count);
+        for (int id = 0; id <= maxId; id++) {
+            if ((flags(id) & (PRESENT | ACTIVE)) == (PRESENT | ACTIVE)) {
+                factions.add(new View(id));
+            }
+        }
+        return factions;
+    }
+
+    /**
+     * Views of every stored faction, in id order
+     */
+    public List<Faction> getAllFactions() {
+        List<Faction> factions = new ArrayList<>(count);
+        for (int id = 0; id <= maxId; id++) {
+            if ((flags(id) & PRESENT) != 0) {
+                factions.add(new View(id));
+            }
+        }
+        return factions;
+    }
+
+    /**
+     * View of one faction, or null if it isn't stored
+     */
+    public Faction getFaction(int factionId) {
+        return contains(factionId) ? new View(factionId) : null;
+    }
+
+    private byte flags(int id) {
+        return records.get(offset(id) + FLAGS);
+    }
+
+    private void setFlag(int id, byte flag, boolean set) {
+        int at = offset(id) + FLAGS;
+        byte flags = records.get(at);
+        records.put(at, (byte) (set ? flags | flag : flags & ~flag));
+    }
+
+    private int getInt(int id, int field) {
+        return records.getInt(offset(id) + field);
+    }
+
+    /**
+     * Writes a byte field and marks the record dirty, if the value changed
+     */
+    private void setByte(int id, int field, byte value) {
+        int at = offset(id) + field;
+        if (records.get(at) != value) {
+            records.put(at, value);
+            setFlag(id, DIRTY, true);
+        }
+    }
+
+    /**
+     * Writes a resource (clamped at zero, as Faction does) and, if it changed, refreshes
+     * the cached strength and marks the record dirty
+     */
+    private void setResource(int id, int field, int value) {
+        int base = offset(id);
+        int clamped = Math.max(0, value);
+        if (records.getInt(base + field) == clamped) {
+            return;
+        }
+        records.putInt(base + field, clamped);
+        records.putInt(base + STRENGTH, Faction.strengthOf(records.getInt(base + GOLD),
+                records.getInt(base + TROOPS), records.getInt(base + MAGIC), records.getInt(base + INFLUENCE)));
+        setFlag(id, DIRTY, true);
+    }
+
+    /**
+     * Moves a stored faction's record to another id
+     */
+    private void move(int from, int to) {
+        if (to < 0) {
+            throw new IllegalArgumentException("Faction id must not be negative: " + to);
+        }
+        if (contains(to)) {
+            throw new IllegalArgumentException("Faction id already stored: " + to);
+        }
+        ensureCapacity(to);
+        records.put(offset(to), records, offset(from), RECORD_BYTES);
+        records.put(offset(from) + FLAGS, (byte) 0);
+        maxId = Math.max(maxId, to);
+    }
+
+    /**
+     * A faction whose state lives in the store's record. Of Faction's own fields only
+     * the id is used; the rest stay at their defaults. Changing the id moves the record,
+     * which leaves other views of the old id pointing at nothing.
+     */
+    private final class View extends Faction {
+
+        View(int id) {
+            super.setId(id);
+        }
+
+        @Override
+        public void setId(int id) {
+            if (id != getId()) {
+                move(getId(), id);
+                super.setId(id);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return names.get(getInt(getId(), NAME));
+        }
+
+        @Override
+        public void setName(String name) {
+            int index = names.intern(name);
+            int at = offset(getId()) + NAME;
+            if (records.getInt(at) != index) {
+                records.putInt(at, index);
+                setFlag(getId(), DIRTY, true);
+            }
+        }
+
+        @Override
+        public FactionType getType() {
+            return TYPES[records.get(offset(getId()) + TYPE)];
+        }
+
+        @Override
+        public void setType(FactionType type) {
+            setByte(getId(), TYPE, (byte) type.ordinal());
+        }
+
+        @Override
+        public Alignment getAlignment() {
+            return ALIGNMENTS[records.get(offset(getId()) + ALIGNMENT)];
+        }
+
+        @Override
+        public void setAlignment(Alignment alignment) {
+            setByte(getId(), ALIGNMENT, (byte) alignment.ordinal());
+        }
+
+        @Override
+        public int getGold() {
+            return getInt(getId(), GOLD);
+        }
+
+        @Override
+        public void setGold(int gold) {
+            setResource(getId(), GOLD, gold);
+        }
+
+        @Override
+        public int getTroops() {
+            return getInt(getId(), TROOPS);
+        }
+
+        @Override
+        public void setTroops(int troops) {
+            setResource(getId(), TROOPS, troops);
+        }
+
+        @Override
+        public int getMagic() {
+            return getInt(getId(), MAGIC);
+        }
+
+        @Override
+        public void setMagic(int magic) {
+            setResource(getId(), MAGIC, magic);
+        }
+
+        @Override
+        public int getInfluence() {
+            return getInt(getId(), INFLUENCE);
+        }
+
+        @Override
+        public void setInfluence(int influence) {
+            setResource(getId(), INFLUENCE, influence);
+        }
+
+        @Override
+        public int getStrength() {
+            return getInt(getId(), STRENGTH);
+        }
+
+        @Override
+        public boolean isActive() {
+            return (flags(getId()) & ACTIVE) != 0;
+        }
+
+        @Override
+        public void setActive(boolean active) {
+            if (active != isActive()) {
+                setFlag(getId(), ACTIVE, active);
+                setFlag(getId(), DIRTY, true);
+            }
+        }
+
+        @Override
+        public boolean hasUnsavedChanges() {
+            return (flags(getId()) & DIRTY) != 0;
+        }
+
+        @Override
+        public void markSaved() {
+            setFlag(getId(), DIRTY, false);
+        }
+
+        private OffHeapFactionStore store() {
+            return OffHeapFactionStore.this;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof View view && view.store() == store() && view.getId() == getId();
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(getId());
+        }
+    }
+}
@@ -4,17 +4,71 @@ import javafx.geometry.Insets;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.util.StringConverter;
+import org.example.dndfactionsimulator.analytics.TimeSeries;
+import org.example.dndfactionsimulator.analytics.WorldRollup;
 import org.example.dndfactionsimulator.database.DatabaseManager;
 import org.example.dndfactionsimulator.model.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 public class AnalyticsPanel extends VBox {
 
+    // Animating hundreds of bars or slices costs more than it shows
+    private static final int ANIMATION_LIMIT = 50;
+    // Factions plotted on the history chart when none is selected
+    private static final int HISTORY_TOP_FACTIONS = 5;
+
     private DatabaseManager db;
+    private TabPane chartTabs;
+
+    // Bar charts list their categories in rank order and keep one bar per faction id
+    private BarChart<String, Number> strengthChart;
+    private CategoryAxis strengthAxis;
+    private XYChart.Series<String, Number> strengthSeries;
+    private Map<Integer, XYChart.Data<String, Number>> strengthBars;
+
+    private BarChart<String, Number> resourceChart;
+    private CategoryAxis resourceAxis;
+    private XYChart.Series<String, Number> goldSeries;
+    private XYChart.Series<String, Number> troopsSeries;
+    private XYChart.Series<String, Number> magicSeries;
+    private XYChart.Series<String, Number> influenceSeries;
+    private Map<Integer, XYChart.Data<String, Number>> goldBars;
+    private Map<Integer, XYChart.Data<String, Number>> troopsBars;
+    private Map<Integer, XYChart.Data<String, Number>> magicBars;
+    private Map<Integer, XYChart.Data<String, Number>> influenceBars;
+
+    private PieChart typeChart;
+    private VBox typeContainer;
+    private Map<FactionType, PieChart.Data> typeSlices;
+
+    private PieChart alignmentChart;
+    private VBox alignmentContainer;
+    private Map<Alignment, PieChart.Data> alignmentSlices;
+
+    private LineChart<Number, Number> historyChart;
+    private ComboBox<WorldRollup.Measure> historyMeasure;
+    private ComboBox<Faction> historyFaction;
+    // Set while the picker is repopulated so its own change events are ignored
+    private boolean updatingHistory;
+
+    // Data shared by every chart for one refresh, loaded once and sorted by strength
+    private List<Faction> sortedFactions;
+    private Set<Tab> staleTabs;
 
     public AnalyticsPanel(DatabaseManager db) {
         this.db = db;
+        this.sortedFactions = List.of();
+        this.staleTabs = new HashSet<>();
+        this.typeSlices = new EnumMap<>(FactionType.class);
+        this.alignmentSlices = new EnumMap<>(Alignment.class);
+        this.strengthBars = new HashMap<>();
+        this.goldBars = new HashMap<>();
+        this.troopsBars = new HashMap<>();
+        this.magicBars = new HashMap<>();
+        this.influenceBars = new HashMap<>();
 
         setPadding(new Insets(20));
         setSpacing(20);
@@ -29,7 +83,7 @@ public class AnalyticsPanel extends VBox {
         refreshBtn.setOnAction(e -> refreshCharts());
 
         // Charts in tabs
-        TabPane chartTabs = new TabPane();
+        chartTabs = new TabPane();
         chartTabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
 
         Tab strengthComparisonTab = new Tab("💪 Strength Comparison");
@@ -44,8 +98,18 @@ public class AnalyticsPanel extends VBox {
         Tab alignmentTab = new Tab("⚖️ Alignment Distribution");
         alignmentTab.setContent(createAlignmentPieChart());
 
+        Tab historyTab = new Tab("📈 History");
+        historyTab.setContent(createHistoryChart());
+
         chartTabs.getTabs().addAll(strengthComparisonTab, resourceDistributionTab,
-                factionTypesTab, alignmentTab);
+                factionTypesTab, alignmentTab, historyTab);
+
+        // Hidden tabs are only brought up to date when they are shown
+        chartTabs.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> {
+            if (newTab != null && staleTabs.remove(newTab)) {
+                updateTab(newTab);
+            }
+        });
 
         getChildren().addAll(header, refreshBtn, chartTabs);
 
@@ -57,29 +121,22 @@ public class AnalyticsPanel extends VBox {
         VBox container = new VBox(10);
         container.setPadding(new Insets(10));
 
-        CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel("Factions");
+        strengthAxis = new CategoryAxis();
+        strengthAxis.setLabel("Factions");
+        strengthAxis.setAutoRanging(false);
 
         NumberAxis yAxis = new NumberAxis();
         yAxis.setLabel("Strength");
 
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle("Faction Strength Comparison");
-        barChart.setLegendVisible(false);
+        strengthChart = new BarChart<>(strengthAxis, yAxis);
+        strengthChart.setTitle("Faction Strength Comparison");
+        strengthChart.setLegendVisible(false);
 
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.setName("Strength");
+        strengthSeries = new XYChart.Series<>();
+        strengthSeries.setName("Strength");
+        strengthChart.getData().add(strengthSeries);
 
-        List<Faction> activeFactions = db.getActiveFactions();
-        activeFactions.sort((f1, f2) -> Integer.compare(f2.getStrength(), f1.getStrength()));
-
-        for (Faction faction : activeFactions) {
-            series.getData().add(new XYChart.Data<>(faction.getName(), faction.getStrength()));
-        }
-
-        barChart.getData().add(series);
-
-        container.getChildren().add(barChart);
+        container.getChildren().add(strengthChart);
         return container;
     }
 
@@ -87,134 +144,301 @@ public class AnalyticsPanel extends VBox {
         VBox container = new VBox(10);
         container.setPadding(new Insets(10));
 
-        CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel("Factions");
+        resourceAxis = new CategoryAxis();
+        resourceAxis.setLabel("Factions");
+        resourceAxis.setAutoRanging(false);
 
         NumberAxis yAxis = new NumberAxis();
         yAxis.setLabel("Amount");
 
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle("Resource Distribution Across Factions");
+        resourceChart = new BarChart<>(resourceAxis, yAxis);
+        resourceChart.setTitle("Resource Distribution Across Factions");
 
-        XYChart.Series<String, Number> goldSeries = new XYChart.Series<>();
+        goldSeries = new XYChart.Series<>();
         goldSeries.setName("Gold");
 
-        XYChart.Series<String, Number> troopsSeries = new XYChart.Series<>();
+        troopsSeries = new XYChart.Series<>();
         troopsSeries.setName("Troops");
 
-        XYChart.Series<String, Number> magicSeries = new XYChart.Series<>();
+        magicSeries = new XYChart.Series<>();
         magicSeries.setName("Magic");
 
-        XYChart.Series<String, Number> influenceSeries = new XYChart.Series<>();
+        influenceSeries = new XYChart.Series<>();
         influenceSeries.setName("Influence");
 
-        List<Faction> activeFactions = db.getActiveFactions();
-        activeFactions.sort((f1, f2) -> Integer.compare(f2.getStrength(), f1.getStrength()));
-
-        for (Faction faction : activeFactions.stream().limit(10).toList()) {
-            goldSeries.getData().add(new XYChart.Data<>(faction.getName(), faction.getGold()));
-            troopsSeries.getData().add(new XYChart.Data<>(faction.getName(), faction.getTroops()));
-            magicSeries.getData().add(new XYChart.Data<>(faction.getName(), faction.getMagic()));
-            influenceSeries.getData().add(new XYChart.Data<>(faction.getName(), faction.getInfluence()));
-        }
+        resourceChart.getData().setAll(List.of(goldSeries, troopsSeries, magicSeries, influenceSeries));
 
-        barChart.getData().addAll(goldSeries, troopsSeries, magicSeries, influenceSeries);
-
-        container.getChildren().add(barChart);
+        container.getChildren().add(resourceChart);
         return container;
     }
 
     private VBox createFactionTypesPieChart() {
-        VBox container = new VBox(10);
-        container.setPadding(new Insets(10));
-
-        PieChart pieChart = new PieChart();
-        pieChart.setTitle("Active Factions by Type");
+        typeContainer = new VBox(10);
+        typeContainer.setPadding(new Insets(10));
 
-        List<Faction> activeFactions = db.getActiveFactions();
+        typeChart = new PieChart();
+        typeChart.setTitle("Active Factions by Type");
 
-        Map<FactionType, Long> typeCounts = activeFactions.stream()
-                .collect(Collectors.groupingBy(Faction::getType, Collectors.counting()));
+        return typeContainer;
+    }
 
-        for (Map.Entry<FactionType, Long> entry : typeCounts.entrySet()) {
-            PieChart.Data slice = new PieChart.Data(
-                    entry.getKey().getDisplayName() + " (" + entry.getValue() + ")",
-                    entry.getValue()
-            );
-            pieChart.getData().add(slice);
-        }
+    private VBox createAlignmentPieChart() {
+        alignmentContainer = new VBox(10);
+        alignmentContainer.setPadding(new Insets(10));
 
-        if (pieChart.getData().isEmpty()) {
-            Label noDataLabel = new Label("No active factions to display");
-            noDataLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: gray;");
-            container.getChildren().add(noDataLabel);
-        } else {
-            container.getChildren().add(pieChart);
-        }
+        alignmentChart = new PieChart();
+        alignmentChart.setTitle("Active Factions by Alignment");
 
-        return container;
+        return alignmentContainer;
     }
 
-    private VBox createAlignmentPieChart() {
+    private VBox createHistoryChart() {
         VBox container = new VBox(10);
         container.setPadding(new Insets(10));
 
-        PieChart pieChart = new PieChart();
-        pieChart.setTitle("Active Factions by Alignment");
+        historyMeasure = new ComboBox<>();
+        historyMeasure.getItems().addAll(WorldRollup.Measure.values());
+        historyMeasure.setValue(WorldRollup.Measure.STRENGTH);
+        historyMeasure.setOnAction(e -> updateHistoryChart());
+
+        historyFaction = new ComboBox<>();
+        historyFaction.setPromptText("Top " + HISTORY_TOP_FACTIONS + " factions");
+        historyFaction.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Faction faction) {
+                return faction == null ? "Top " + HISTORY_TOP_FACTIONS + " factions" : faction.getName();
+            }
+
+            @Override
+            public Faction fromString(String name) {
+                return null;
+            }
+        });
+        historyFaction.setOnAction(e -> updateHistoryChart());
+
+        Button topBtn = new Button("Show Top " + HISTORY_TOP_FACTIONS);
+        topBtn.setOnAction(e -> historyFaction.setValue(null));
+
+        HBox controls = new HBox(10, new Label("Resource:"), historyMeasure,
+                new Label("Faction:"), historyFaction, topBtn);
+        controls.setStyle("-fx-alignment: center-left;");
+
+        NumberAxis xAxis = new NumberAxis();
+        xAxis.setLabel("Turn");
+        xAxis.setForceZeroInRange(false);
+
+        NumberAxis yAxis = new NumberAxis();
+        yAxis.setLabel("Amount");
 
-        List<Faction> activeFactions = db.getActiveFactions();
+        historyChart = new LineChart<>(xAxis, yAxis);
+        historyChart.setTitle("Faction History");
+        historyChart.setCreateSymbols(false);
+        historyChart.setAnimated(false);
+        VBox.setVgrow(historyChart, Priority.ALWAYS);
 
-        Map<Alignment, Long> alignmentCounts = activeFactions.stream()
-                .collect(Collectors.groupingBy(Faction::getAlignment, Collectors.counting()));
+        container.getChildren().addAll(controls, historyChart);
+        return container;
+    }
+
+    /**
+     * Loads one snapshot of the active factions, updates the visible chart in
+     * place and marks the others to be updated when their tab is selected.
+     */
+    private void refreshCharts() {
+        sortedFactions = db.getLeaderboard()
+                .inRankOrder(db.getActiveFactions(), WorldRollup.Measure.STRENGTH);
 
-        for (Map.Entry<Alignment, Long> entry : alignmentCounts.entrySet()) {
-            PieChart.Data slice = new PieChart.Data(
-                    entry.getKey().getDisplayName() + " (" + entry.getValue() + ")",
-                    entry.getValue()
-            );
-            pieChart.getData().add(slice);
+        staleTabs.addAll(chartTabs.getTabs());
+        Tab selected = chartTabs.getSelectionModel().getSelectedItem();
+        if (selected != null && staleTabs.remove(selected)) {
+            updateTab(selected);
         }
+    }
 
-        if (pieChart.getData().isEmpty()) {
-            Label noDataLabel = new Label("No active factions to display");
-            noDataLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: gray;");
-            container.getChildren().add(noDataLabel);
-        } else {
-            container.getChildren().add(pieChart);
+    private void updateTab(Tab tab) {
+        switch (chartTabs.getTabs().indexOf(tab)) {
+            case 0 -> updateStrengthChart();
+            case 1 -> updateResourceChart();
+            case 2 -> updateTypeChart();
+            case 3 -> updateAlignmentChart();
+            case 4 -> updateHistoryChart();
+            default -> { }
         }
+    }
 
-        return container;
+    private void updateStrengthChart() {
+        strengthChart.setAnimated(sortedFactions.size() <= ANIMATION_LIMIT);
+
+        List<String> categories = categoryLabels(sortedFactions);
+        strengthAxis.getCategories().setAll(categories);
+        updateBars(strengthSeries, strengthBars, sortedFactions, categories, Faction::getStrength);
     }
 
-    private void refreshCharts() {
-        // Rebuild the charts
-        getChildren().clear();
+    private void updateResourceChart() {
+        List<Faction> top = sortedFactions.subList(0, Math.min(10, sortedFactions.size()));
 
-        Label header = new Label("📊 Analytics & Insights");
-        header.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
+        List<String> categories = categoryLabels(top);
+        resourceAxis.getCategories().setAll(categories);
+        updateBars(goldSeries, goldBars, top, categories, Faction::getGold);
+        updateBars(troopsSeries, troopsBars, top, categories, Faction::getTroops);
+        updateBars(magicSeries, magicBars, top, categories, Faction::getMagic);
+        updateBars(influenceSeries, influenceBars, top, categories, Faction::getInfluence);
+    }
 
-        Button refreshBtn = new Button("🔄 Refresh All Charts");
-        refreshBtn.setStyle("-fx-font-size: 14px;");
-        refreshBtn.setOnAction(e -> refreshCharts());
+    private void updateTypeChart() {
+        updatePie(typeChart, typeContainer, typeSlices,
+                db.getRollup().getTypeCounts(true), FactionType::getDisplayName);
+    }
 
-        TabPane chartTabs = new TabPane();
-        chartTabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+    private void updateAlignmentChart() {
+        updatePie(alignmentChart, alignmentContainer, alignmentSlices,
+                db.getRollup().getAlignmentCounts(true), Alignment::getDisplayName);
+    }
 
-        Tab strengthComparisonTab = new Tab("💪 Strength Comparison");
-        strengthComparisonTab.setContent(createStrengthComparisonChart());
+    private void updateHistoryChart() {
+        if (updatingHistory) {
+            return;
+        }
 
-        Tab resourceDistributionTab = new Tab("💰 Resource Distribution");
-        resourceDistributionTab.setContent(createResourceDistributionChart());
+        // Keep the faction picker in step with the snapshot, preserving the selection by id
+        Faction selected = historyFaction.getValue();
+        if (!historyFaction.getItems().equals(sortedFactions)) {
+            updatingHistory = true;
+            historyFaction.getItems().setAll(sortedFactions);
+            historyFaction.setValue(selected == null ? null : sortedFactions.stream()
+                    .filter(f -> f.getId() == selected.getId())
+                    .findFirst()
+                    .orElse(null));
+            updatingHistory = false;
+        }
 
-        Tab factionTypesTab = new Tab("🏛️ Faction Types");
-        factionTypesTab.setContent(createFactionTypesPieChart());
+        List<Faction> plotted = historyFaction.getValue() != null
+                ? List.of(historyFaction.getValue())
+                : sortedFactions.subList(0, Math.min(HISTORY_TOP_FACTIONS, sortedFactions.size()));
+
+        WorldRollup.Measure measure = historyMeasure.getValue();
+        // The current turn hasn't been simulated yet, so the last one with stats is the one before
+        int maxTurn = Math.max(0, db.getCurrentTurn() - 1);
+        // Roughly one point per horizontal pixel is all a line chart can show
+        int maxPoints = Math.max(100, (int) historyChart.getWidth());
+
+        List<XYChart.Series<Number, Number>> seriesList = historyChart.getData();
+        for (int i = 0; i < plotted.size(); i++) {
+            Faction faction = plotted.get(i);
+            TimeSeries history = db.getStatsHistory(faction.getId(), measure, 0, maxTurn, maxPoints);
+
+            List<XYChart.Data<Number, Number>> points = new ArrayList<>(history.size());
+            for (int p = 0; p < history.size(); p++) {
+                points.add(new XYChart.Data<>(history.getTurn(p), history.getValue(p)));
+            }
+
+            XYChart.Series<Number, Number> series;
+            if (i < seriesList.size()) {
+                series = seriesList.get(i);
+            } else {
+                series = new XYChart.Series<>();
+                seriesList.add(series);
+            }
+            series.setName(faction.getName());
+            series.getData().setAll(points);
+        }
+        if (seriesList.size() > plotted.size()) {
+            seriesList.subList(plotted.size(), seriesList.size()).clear();
+        }
 
-        Tab alignmentTab = new Tab("⚖️ Alignment Distribution");
-        alignmentTab.setContent(createAlignmentPieChart());
+        historyChart.getYAxis().setLabel(measure.getDisplayName());
+    }
 
-        chartTabs.getTabs().addAll(strengthComparisonTab, resourceDistributionTab,
-                factionTypesTab, alignmentTab);
+    /**
+     * Axis category of each faction, in order. Names shared by several factions get
+     * the faction id appended so their bars don't collapse into one category.
+     */
+    private static List<String> categoryLabels(List<Faction> factions) {
+        Map<String, Integer> nameCounts = new HashMap<>();
+        for (Faction faction : factions) {
+            nameCounts.merge(faction.getName(), 1, Integer::sum);
+        }
+        List<String> labels = new ArrayList<>(factions.size());
+        for (Faction faction : factions) {
+            String name = faction.getName();
+            labels.add(nameCounts.get(name) > 1 ? name + " #" + faction.getId() : name);
+        }
+        return labels;
+    }
 
-        getChildren().addAll(header, refreshBtn, chartTabs);
+    /**
+     * Reuses the bar of each faction still shown, adds bars for new ones and removes
+     * the rest. Bars are keyed by faction id, so a bar follows its faction across ranks.
+     */
+    private void updateBars(XYChart.Series<String, Number> series, Map<Integer, XYChart.Data<String, Number>> bars,
+                            List<Faction> factions, List<String> categories, ToIntFunction<Faction> valueOf) {
+        Map<Integer, XYChart.Data<String, Number>> shown = new HashMap<>();
+        List<XYChart.Data<String, Number>> added = new ArrayList<>();
+        for (int i = 0; i < factions.size(); i++) {
+            Faction faction = factions.get(i);
+            String category = categories.get(i);
+            int value = valueOf.applyAsInt(faction);
+
+            XYChart.Data<String, Number> bar = bars.remove(faction.getId());
+            if (bar == null) {
+                bar = new XYChart.Data<>(category, value);
+                added.add(bar);
+            } else {
+                if (!category.equals(bar.getXValue())) {
+                    bar.setXValue(category);
+                }
+                if (bar.getYValue().intValue() != value) {
+                    bar.setYValue(value);
+                }
+            }
+            shown.put(faction.getId(), bar);
+        }
+
+        // Whatever is left belongs to factions no longer shown
+        series.getData().removeAll(bars.values());
+        series.getData().addAll(added);
+        bars.clear();
+        bars.putAll(shown);
+    }
+
+    /**
+     * Updates, adds or removes only the slices whose counts changed
+     */
+    private <E extends Enum<E>> void updatePie(PieChart chart, VBox container,
+                                               Map<E, PieChart.Data> slices, Map<E, Integer> counts,
+                                               Function<E, String> displayName) {
+        chart.setAnimated(counts.size() <= ANIMATION_LIMIT);
+
+        Iterator<Map.Entry<E, PieChart.Data>> existing = slices.entrySet().iterator();
+        while (existing.hasNext()) {
+            Map.Entry<E, PieChart.Data> entry = existing.next();
+            if (!counts.containsKey(entry.getKey())) {
+                chart.getData().remove(entry.getValue());
+                existing.remove();
+            }
+        }
+
+        for (Map.Entry<E, Integer> entry : counts.entrySet()) {
+            String label = displayName.apply(entry.getKey()) + " (" + entry.getValue() + ")";
+            PieChart.Data slice = slices.get(entry.getKey());
+            if (slice == null) {
+                slice = new PieChart.Data(label, entry.getValue());
+                slices.put(entry.getKey(), slice);
+                chart.getData().add(slice);
+            } else if (slice.getPieValue() != entry.getValue()) {
+                slice.setPieValue(entry.getValue());
+                slice.setName(label);
+            }
+        }
+
+        if (chart.getData().isEmpty()) {
+            if (container.getChildren().isEmpty() || container.getChildren().get(0) == chart) {
+                Label noDataLabel = new Label("No active factions to display");
+                noDataLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: gray;");
+                container.getChildren().setAll(noDataLabel);
+            }
+        } else if (container.getChildren().isEmpty() || container.getChildren().get(0) != chart) {
+            container.getChildren().setAll(chart);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package org.example.dndfactionsimulator.ui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import org.example.dndfactionsimulator.network.RenderSurface;
+
+/**
+ * {@link RenderSurface} backed by a JavaFX canvas.
+ */
+class CanvasSurface implements RenderSurface {
+
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+
+    CanvasSurface(Canvas canvas) {
+        this.canvas = canvas;
+        this.gc = canvas.getGraphicsContext2D();
+    }
+
+    private static Color color(int argb) {
+        return Color.rgb((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, ((argb >>> 24) & 0xFF) / 255.0);
+    }
+
+    @Override
+    public double getWidth() {
+        return canvas.getWidth();
+    }
+
+    @Override
+    public double getHeight() {
+        return canvas.getHeight();
+    }
+
+    @Override
+    public void setFill(int argb) {
+        gc.setFill(color(argb));
+    }
+
+    @Override
+    public void setStroke(int argb) {
+        gc.setStroke(color(argb));
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        gc.setLineWidth(width);
+    }
+
+    @Override
+    public void fillRect(double x, double y, double w, double h) {
+        gc.fillRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(double x, double y, double w, double h) {
+        gc.fillOval(x, y, w, h);
+    }
+
+    @Override
+    public void strokeOval(double x, double y, double w, double h) {
+        gc.strokeOval(x, y, w, h);
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        gc.fillText(text, x, y);
+    }
+
+    @Override
+    public void beginPath() {
+        gc.beginPath();
+    }
+
+    @Override
+    public void moveTo(double x, double y) {
+        gc.moveTo(x, y);
+    }
+
+    @Override
+    public void lineTo(double x, double y) {
+        gc.lineTo(x, y);
+    }
+
+    @Override
+    public void stroke() {
+        gc.stroke();
+    }
+
+    @Override
+    public void clip(double x, double y, double w, double h) {
+        gc.save();
+        gc.beginPath();
+        gc.rect(x, y, w, h);
+        gc.clip();
+        gc.beginPath();
+    }
+
+    @Override
+    public void restore() {
+        gc.restore();
+    }
+}
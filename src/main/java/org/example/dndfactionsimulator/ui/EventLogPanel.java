@@ -5,14 +5,15 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import org.example.dndfactionsimulator.database.DatabaseManager;
 import org.example.dndfactionsimulator.model.*;
-import java.util.List;
 
 public class EventLogPanel extends VBox {
 
     private DatabaseManager db;
-    private ListView<String> eventListView;
+    private ListView<WorldEvent> eventListView;
     private ComboBox<String> filterCombo;
     private Label statsLabel;
+    private Label placeholderLabel;
+    private PagedEventList events;
 
     public EventLogPanel(DatabaseManager db) {
         this.db = db;
@@ -39,9 +40,14 @@ public class EventLogPanel extends VBox {
 
         filterBox.getChildren().addAll(filterLabel, filterCombo, refreshBtn);
 
-        // Event list
+        // Event list: rows are loaded page by page and only visible cells are formatted
         eventListView = new ListView<>();
         eventListView.setPrefHeight(400);
+        eventListView.setFixedCellSize(24);
+        eventListView.setCellFactory(list -> new EventCell());
+
+        placeholderLabel = new Label();
+        eventListView.setPlaceholder(placeholderLabel);
 
         // Stats label
         statsLabel = new Label("Total Events: 0");
@@ -54,48 +60,50 @@ public class EventLogPanel extends VBox {
     }
 
     public void refreshEvents() {
-        eventListView.getItems().clear();
-
-        List<WorldEvent> events = db.getAllEvents();
-
-        // Apply filter
         String filter = filterCombo.getValue();
         int currentTurn = db.getCurrentTurn();
 
+        // Turn range for the filter
+        int minTurn = 0;
+        int maxTurn = Integer.MAX_VALUE;
         if (filter.equals("Last Turn")) {
             // Show events from the most recently completed turn
-            int lastTurn = Math.max(0, currentTurn - 1);
-            events = events.stream()
-                    .filter(e -> e.getTurnNumber() == lastTurn)
-                    .toList();
-
-            if (events.isEmpty() && lastTurn == 0) {
-                eventListView.getItems().add("ℹ️ No events yet. Run a simulation first!");
-            }
+            minTurn = Math.max(0, currentTurn - 1);
+            maxTurn = minTurn;
         } else if (filter.equals("Last 5 Turns")) {
-            events = events.stream()
-                    .filter(e -> e.getTurnNumber() >= Math.max(0, currentTurn - 5))
-                    .toList();
+            minTurn = Math.max(0, currentTurn - 5);
         }
 
-        // Display events (only if not already showing info message)
-        if (!events.isEmpty()) {
-            for (WorldEvent event : events) {
-                String emoji = getActionEmoji(event.getAction());
-                String eventText = String.format("%s [Turn %d] %s - %s",
-                        emoji,
-                        event.getTurnNumber(),
-                        event.getAction().getDisplayName(),
-                        event.getDescription());
-                eventListView.getItems().add(eventText);
-            }
+        if (events != null && events.hasRange(minTurn, maxTurn)) {
+            // Same window: only new events are added at the top
+            events.appendNewEvents();
+        } else {
+            events = new PagedEventList(db, minTurn, maxTurn);
+            eventListView.setItems(events);
         }
 
+        placeholderLabel.setText(currentTurn <= 1
+                ? "ℹ️ No events yet. Run a simulation first!"
+                : "ℹ️ No events match this filter.");
+
         statsLabel.setText(String.format("Showing %d events | Current Turn: %d",
                 events.size(), currentTurn));
     }
 
-    private String getActionEmoji(FactionAction action) {
+    private static class EventCell extends ListCell<WorldEvent> {
+        @Override
+        protected void updateItem(WorldEvent event, boolean empty) {
+            super.updateItem(event, empty);
+            if (empty || event == null) {
+                setText(null);
+                return;
+            }
+            setText(getActionEmoji(event.getAction()) + " [Turn " + event.getTurnNumber() + "] " +
+                    event.getAction().getDisplayName() + " - " + event.getDescription());
+        }
+    }
+
+    private static String getActionEmoji(FactionAction action) {
         return switch (action) {
             case ATTACK -> "⚔️";
             case RAID -> "🗡️";
@@ -1,19 +1,27 @@
 package org.example.dndfactionsimulator.ui;
 
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import org.example.dndfactionsimulator.database.DatabaseManager;
 import org.example.dndfactionsimulator.model.*;
-import java.util.List;
+import org.example.dndfactionsimulator.util.IntSet;
+import java.util.*;
 
 public class FactionOverviewPanel extends VBox {
 
     private DatabaseManager db;
-    private TableView<Faction> factionTable;
+    private TableView<FactionRow> factionTable;
     private Label statsLabel;
 
+    // Rows by faction id plus running totals, kept in step with every row update
+    private final ObservableList<FactionRow> rows = FXCollections.observableArrayList();
+    private final Map<Integer, FactionRow> rowsById = new HashMap<>();
+    private int activeCount;
+    private long activeStrength;
+
     public FactionOverviewPanel(DatabaseManager db) {
         this.db = db;
 
@@ -60,55 +68,52 @@ public class FactionOverviewPanel extends VBox {
 
         buttonBox2.getChildren().addAll(dangerLabel, inactiveBtn, reactivateBtn, deleteBtn);
 
-        // Table
-        factionTable = new TableView<>();
+        // Table: rows are kept and updated in place, so selection and scroll position survive refreshes
+        factionTable = new TableView<>(rows);
         factionTable.setPrefHeight(400);
 
-        TableColumn<Faction, Integer> idCol = new TableColumn<>("ID");
-        idCol.setCellValueFactory(new PropertyValueFactory<>("id"));
+        TableColumn<FactionRow, Integer> idCol = new TableColumn<>("ID");
+        idCol.setCellValueFactory(cellData -> cellData.getValue().idProperty());
         idCol.setPrefWidth(50);
 
-        TableColumn<Faction, String> nameCol = new TableColumn<>("Name");
-        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        TableColumn<FactionRow, String> nameCol = new TableColumn<>("Name");
+        nameCol.setCellValueFactory(cellData -> cellData.getValue().nameProperty());
         nameCol.setPrefWidth(150);
 
-        TableColumn<Faction, FactionType> typeCol = new TableColumn<>("Type");
-        typeCol.setCellValueFactory(new PropertyValueFactory<>("type"));
+        TableColumn<FactionRow, FactionType> typeCol = new TableColumn<>("Type");
+        typeCol.setCellValueFactory(cellData -> cellData.getValue().typeProperty());
         typeCol.setPrefWidth(120);
 
-        TableColumn<Faction, Alignment> alignmentCol = new TableColumn<>("Alignment");
-        alignmentCol.setCellValueFactory(new PropertyValueFactory<>("alignment"));
+        TableColumn<FactionRow, Alignment> alignmentCol = new TableColumn<>("Alignment");
+        alignmentCol.setCellValueFactory(cellData -> cellData.getValue().alignmentProperty());
         alignmentCol.setPrefWidth(120);
 
-        TableColumn<Faction, Integer> goldCol = new TableColumn<>("Gold");
-        goldCol.setCellValueFactory(new PropertyValueFactory<>("gold"));
+        TableColumn<FactionRow, Integer> goldCol = new TableColumn<>("Gold");
+        goldCol.setCellValueFactory(cellData -> cellData.getValue().goldProperty());
         goldCol.setPrefWidth(70);
 
-        TableColumn<Faction, Integer> troopsCol = new TableColumn<>("Troops");
-        troopsCol.setCellValueFactory(new PropertyValueFactory<>("troops"));
+        TableColumn<FactionRow, Integer> troopsCol = new TableColumn<>("Troops");
+        troopsCol.setCellValueFactory(cellData -> cellData.getValue().troopsProperty());
         troopsCol.setPrefWidth(70);
 
-        TableColumn<Faction, Integer> magicCol = new TableColumn<>("Magic");
-        magicCol.setCellValueFactory(new PropertyValueFactory<>("magic"));
+        TableColumn<FactionRow, Integer> magicCol = new TableColumn<>("Magic");
+        magicCol.setCellValueFactory(cellData -> cellData.getValue().magicProperty());
         magicCol.setPrefWidth(70);
 
-        TableColumn<Faction, Integer> influenceCol = new TableColumn<>("Influence");
-        influenceCol.setCellValueFactory(new PropertyValueFactory<>("influence"));
+        TableColumn<FactionRow, Integer> influenceCol = new TableColumn<>("Influence");
+        influenceCol.setCellValueFactory(cellData -> cellData.getValue().influenceProperty());
         influenceCol.setPrefWidth(80);
 
-        TableColumn<Faction, Integer> strengthCol = new TableColumn<>("Strength");
-        strengthCol.setCellValueFactory(cellData ->
-                new javafx.beans.property.SimpleIntegerProperty(cellData.getValue().getStrength()).asObject());
+        TableColumn<FactionRow, Integer> strengthCol = new TableColumn<>("Strength");
+        strengthCol.setCellValueFactory(cellData -> cellData.getValue().strengthProperty());
         strengthCol.setPrefWidth(80);
 
-        TableColumn<Faction, String> statusCol = new TableColumn<>("Status");
-        statusCol.setCellValueFactory(cellData ->
-                new javafx.beans.property.SimpleStringProperty(
-                        cellData.getValue().isActive() ? "✅ Active" : "⏸️ Inactive"));
+        TableColumn<FactionRow, String> statusCol = new TableColumn<>("Status");
+        statusCol.setCellValueFactory(cellData -> cellData.getValue().statusProperty());
         statusCol.setPrefWidth(80);
 
-        factionTable.getColumns().addAll(idCol, nameCol, typeCol, alignmentCol,
-                goldCol, troopsCol, magicCol, influenceCol, strengthCol, statusCol);
+        factionTable.getColumns().setAll(List.of(idCol, nameCol, typeCol, alignmentCol,
+                goldCol, troopsCol, magicCol, influenceCol, strengthCol, statusCol));
 
         // Stats
         statsLabel = new Label();
@@ -120,18 +125,79 @@ public class FactionOverviewPanel extends VBox {
         refreshFactions();
     }
 
+    /**
+     * Reloads all factions and diffs them against the existing rows:
+     * changed rows are updated in place, new ones added, deleted ones removed.
+     */
     public void refreshFactions() {
-        factionTable.getItems().clear();
         List<Faction> factions = db.getAllFactions();
-        factionTable.getItems().addAll(factions);
 
-        int active = (int) factions.stream().filter(Faction::isActive).count();
-        int inactive = (int) factions.stream().filter(f -> !f.isActive()).count();
-        int totalStrength = factions.stream().filter(Faction::isActive)
-                .mapToInt(Faction::getStrength).sum();
+        IntSet seen = new IntSet(factions.size());
+        for (Faction faction : factions) {
+            seen.add(faction.getId());
+            applyFaction(faction);
+        }
+
+        if (rowsById.size() > seen.size()) {
+            rows.removeIf(row -> {
+                int id = row.getFaction().getId();
+                if (seen.contains(id)) {
+                    return false;
+                }
+                removeFromTotals(row);
+                rowsById.remove(id);
+                return true;
+            });
+        }
+
+        updateStatsLabel();
+    }
+
+    /**
+     * Applies only the given factions (e.g. the ones a turn changed) without reloading the rest
+     */
+    public void applyFactionChanges(Collection<Faction> changed) {
+        for (Faction faction : changed) {
+            applyFaction(faction);
+        }
+        updateStatsLabel();
+    }
+
+    private void applyFaction(Faction faction) {
+        FactionRow row = rowsById.get(faction.getId());
+        if (row == null) {
+            row = new FactionRow(faction);
+            rowsById.put(faction.getId(), row);
+            rows.add(row);
+        } else {
+            removeFromTotals(row);
+            row.update(faction);
+        }
+        addToTotals(row);
+    }
+
+    private void addToTotals(FactionRow row) {
+        if (row.isActive()) {
+            activeCount++;
+            activeStrength += row.getStrength();
+        }
+    }
 
+    private void removeFromTotals(FactionRow row) {
+        if (row.isActive()) {
+            activeCount--;
+            activeStrength -= row.getStrength();
+        }
+    }
+
+    private void updateStatsLabel() {
         statsLabel.setText(String.format("Total: %d | Active: %d | Inactive: %d | Combined Strength: %d",
-                factions.size(), active, inactive, totalStrength));
+                rows.size(), activeCount, rows.size() - activeCount, activeStrength));
+    }
+
+    private Faction getSelectedFaction() {
+        FactionRow row = factionTable.getSelectionModel().getSelectedItem();
+        return row != null ? row.getFaction() : null;
     }
 
     private void addFaction() {
@@ -149,7 +215,7 @@ public class FactionOverviewPanel extends VBox {
     }
 
     private void editSelected() {
-        Faction selected = factionTable.getSelectionModel().getSelectedItem();
+        Faction selected = getSelectedFaction();
         if (selected == null) {
             Alert alert = new Alert(Alert.AlertType.WARNING);
             alert.setTitle("No Selection");
@@ -208,7 +274,7 @@ public class FactionOverviewPanel extends VBox {
 
         dialog.showAndWait().ifPresent(faction -> {
             if (db.updateFaction(faction)) {
-                refreshFactions();
+                applyFactionChanges(List.of(faction));
                 Alert alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("Success");
                 alert.setHeaderText(null);
@@ -219,7 +285,7 @@ public class FactionOverviewPanel extends VBox {
     }
 
     private void markInactive() {
-        Faction selected = factionTable.getSelectionModel().getSelectedItem();
+        Faction selected = getSelectedFaction();
         if (selected == null) {
             showWarning("No Selection", "Please select a faction to mark as inactive.");
             return;
@@ -239,7 +305,7 @@ public class FactionOverviewPanel extends VBox {
             if (response == ButtonType.OK) {
                 selected.setActive(false);
                 if (db.updateFaction(selected)) {
-                    refreshFactions();
+                    applyFactionChanges(List.of(selected));
                     showSuccess("Faction Inactive", selected.getName() + " has been marked as inactive.");
                 }
             }
@@ -247,7 +313,7 @@ public class FactionOverviewPanel extends VBox {
     }
 
     private void reactivateFaction() {
-        Faction selected = factionTable.getSelectionModel().getSelectedItem();
+        Faction selected = getSelectedFaction();
         if (selected == null) {
             showWarning("No Selection", "Please select a faction to reactivate.");
             return;
@@ -267,7 +333,7 @@ public class FactionOverviewPanel extends VBox {
             if (response == ButtonType.OK) {
                 selected.setActive(true);
                 if (db.updateFaction(selected)) {
-                    refreshFactions();
+                    applyFactionChanges(List.of(selected));
                     showSuccess("Faction Reactivated", selected.getName() + " is now active again!");
                 }
             }
@@ -275,7 +341,7 @@ public class FactionOverviewPanel extends VBox {
     }
 
     private void permanentlyDelete() {
-        Faction selected = factionTable.getSelectionModel().getSelectedItem();
+        Faction selected = getSelectedFaction();
         if (selected == null) {
             showWarning("No Selection", "Please select a faction to delete.");
             return;
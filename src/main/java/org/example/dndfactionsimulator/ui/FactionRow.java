@@ -0,0 +1,104 @@
+package org.example.dndfactionsimulator.ui;
+
+import javafx.beans.property.*;
+import org.example.dndfactionsimulator.model.*;
+
+/**
+ * Observable table row for one faction. update() only fires listeners for the
+ * values that actually changed, so only those cells re-render.
+ */
+class FactionRow {
+    private Faction faction;
+    // Values as last shown, which may lag the Faction object while it is being edited
+    private boolean active;
+
+    private final ReadOnlyObjectWrapper<Integer> id = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyStringWrapper name = new ReadOnlyStringWrapper();
+    private final ReadOnlyObjectWrapper<FactionType> type = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyObjectWrapper<Alignment> alignment = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyObjectWrapper<Integer> gold = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyObjectWrapper<Integer> troops = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyObjectWrapper<Integer> magic = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyObjectWrapper<Integer> influence = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyObjectWrapper<Integer> strength = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyStringWrapper status = new ReadOnlyStringWrapper();
+
+    FactionRow(Faction faction) {
+        update(faction);
+    }
+
+    void update(Faction faction) {
+        this.faction = faction;
+        setIfChanged(id, faction.getId());
+        name.set(faction.getName());
+        type.set(faction.getType());
+        alignment.set(faction.getAlignment());
+        setIfChanged(gold, faction.getGold());
+        setIfChanged(troops, faction.getTroops());
+        setIfChanged(magic, faction.getMagic());
+        setIfChanged(influence, faction.getInfluence());
+        setIfChanged(strength, faction.getStrength());
+        active = faction.isActive();
+        status.set(active ? "✅ Active" : "⏸️ Inactive");
+    }
+
+    // Boxed Integers are compared by reference when set, so compare values first
+    private static void setIfChanged(ReadOnlyObjectWrapper<Integer> property, int value) {
+        Integer current = property.get();
+        if (current == null || current != value) {
+            property.set(value);
+        }
+    }
+
+    Faction getFaction() {
+        return faction;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    int getStrength() {
+        return strength.get();
+    }
+
+    ReadOnlyObjectProperty<Integer> idProperty() {
+        return id.getReadOnlyProperty();
+    }
+
+    ReadOnlyStringProperty nameProperty() {
+        return name.getReadOnlyProperty();
+    }
+
+    ReadOnlyObjectProperty<FactionType> typeProperty() {
+        return type.getReadOnlyProperty();
+    }
+
+    ReadOnlyObjectProperty<Alignment> alignmentProperty() {
+        return alignment.getReadOnlyProperty();
+    }
+
+    ReadOnlyObjectProperty<Integer> goldProperty() {
+        return gold.getReadOnlyProperty();
+    }
+
+    ReadOnlyObjectProperty<Integer> troopsProperty() {
+        return troops.getReadOnlyProperty();
+    }
+
+    ReadOnlyObjectProperty<Integer> magicProperty() {
+        return magic.getReadOnlyProperty();
+    }
+
+    ReadOnlyObjectProperty<Integer> influenceProperty() {
+        return influence.getReadOnlyProperty();
+    }
+
+    ReadOnlyObjectProperty<Integer> strengthProperty() {
+        return strength.getReadOnlyProperty();
+    }
+
+    ReadOnlyStringProperty statusProperty() {
+        return status.getReadOnlyProperty();
+    }
+}
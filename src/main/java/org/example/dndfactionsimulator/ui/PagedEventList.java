@@ -0,0 +1,102 @@
+package org.example.dndfactionsimulator.ui;
+
+import javafx.collections.ObservableListBase;
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.model.WorldEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only list of the events in a turn range, newest first, loaded from the
+ * database one page at a time as the ListView asks for rows. Only the most
+ * recently used pages are kept, so memory stays bounded however long the log is.
+ */
+class PagedEventList extends ObservableListBase<WorldEvent> {
+    static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private final DatabaseManager db;
+    private final int minTurn;
+    private final int maxTurn;
+    private int anchorId;
+    private int size;
+
+    private final Map<Integer, List<WorldEvent>> pages = new LinkedHashMap<>(32, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<WorldEvent>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    PagedEventList(DatabaseManager db, int minTurn, int maxTurn) {
+        this.db = db;
+        this.minTurn = minTurn;
+        this.maxTurn = maxTurn;
+        this.anchorId = db.getMaxEventId();
+        this.size = db.countEvents(minTurn, maxTurn, 0, anchorId);
+    }
+
+    boolean hasRange(int minTurn, int maxTurn) {
+        return this.minTurn == minTurn && this.maxTurn == maxTurn;
+    }
+
+    /**
+     * Picks up events written since the list was built and reports them
+     * as an insertion at the top. Returns how many were added.
+     */
+    int appendNewEvents() {
+        int newAnchorId = db.getMaxEventId();
+        if (newAnchorId <= anchorId) {
+            return 0;
+        }
+
+        int added = db.countEvents(minTurn, maxTurn, anchorId + 1, newAnchorId);
+        anchorId = newAnchorId;
+        if (added == 0) {
+            return 0;
+        }
+
+        // Every row moved down, so cached page boundaries no longer line up
+        size += added;
+        pages.clear();
+
+        beginChange();
+        nextAdd(0, added);
+        endChange();
+        return added;
+    }
+
+    @Override
+    public WorldEvent get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        int pageIndex = index / PAGE_SIZE;
+        List<WorldEvent> page = pages.get(pageIndex);
+        if (page == null) {
+            page = loadPage(pageIndex);
+            pages.put(pageIndex, page);
+        }
+
+        int offset = index % PAGE_SIZE;
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private List<WorldEvent> loadPage(int pageIndex) {
+        // Scrolling down: continue from the previous page's last id instead of an OFFSET scan
+        List<WorldEvent> previous = pageIndex > 0 ? pages.get(pageIndex - 1) : null;
+        if (previous != null && previous.size() == PAGE_SIZE) {
+            int lastId = previous.get(PAGE_SIZE - 1).getId();
+            return db.getEventsBefore(minTurn, maxTurn, lastId, PAGE_SIZE);
+        }
+        return db.getEventsPage(minTurn, maxTurn, anchorId, pageIndex * PAGE_SIZE, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.dndfactionsimulator.ui;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.metrics.*;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live performance view: turn phases, turn rate, DB commit latency, heap, GC and
+ * JavaFX pulse time. Samples go into fixed-size ring buffers; the sparklines are
+ * only redrawn while the tab is showing.
+ */
+public class PerformancePanel extends VBox {
+
+    private static final int HISTORY = 120;
+    private static final TurnPhase[] PHASES = TurnPhase.values();
+
+    private DatabaseManager db;
+    private TurnMetrics metrics;
+    private MemoryMXBean memoryBean;
+    private List<GarbageCollectorMXBean> gcBeans;
+
+    private RingBuffer[] phaseHistory;
+    private RingBuffer turnTimeHistory;
+    private RingBuffer turnsPerSecondHistory;
+    private RingBuffer commitHistory;
+    private RingBuffer heapHistory;
+    private RingBuffer gcHistory;
+    private RingBuffer pulseHistory;
+
+    private List<Sparkline> sparklines;
+    private Label summaryLabel;
+    private boolean active;
+
+    private long lastTurnsRecorded;
+    private long lastSampleNanos;
+    private long lastGcMillis;
+    private long pulseStartNanos;
+    private double slowestPulseMillis;
+
+    private Runnable prePulseListener;
+    private Runnable postPulseListener;
+
+    public PerformancePanel(DatabaseManager db, TurnMetrics metrics) {
+        this.db = db;
+        this.metrics = metrics;
+        this.memoryBean = ManagementFactory.getMemoryMXBean();
+        this.gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        this.sparklines = new ArrayList<>();
+
+        setPadding(new Insets(20));
+        setSpacing(15);
+
+        // Header
+        Label header = new Label("⚡ Performance");
+        header.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
+
+        Label subtitle = new Label("Last " + HISTORY + " samples, one per second");
+        subtitle.setStyle("-fx-font-size: 12px; -fx-text-fill: gray;");
+
+        summaryLabel = new Label();
+        summaryLabel.setStyle("-fx-font-weight: bold;");
+
+        // Sparklines
+        phaseHistory = new RingBuffer[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseHistory[i] = new RingBuffer(HISTORY);
+        }
+        turnTimeHistory = new RingBuffer(HISTORY);
+        turnsPerSecondHistory = new RingBuffer(HISTORY);
+        commitHistory = new RingBuffer(HISTORY);
+        heapHistory = new RingBuffer(HISTORY);
+        gcHistory = new RingBuffer(HISTORY);
+        pulseHistory = new RingBuffer(HISTORY);
+
+        GridPane turnGrid = new GridPane();
+        turnGrid.setHgap(10);
+        turnGrid.setVgap(10);
+        addSparkline(turnGrid, 0, 0, new Sparkline("Turn time", "ms", turnTimeHistory, Color.rgb(139, 105, 20)));
+        for (int i = 0; i < PHASES.length; i++) {
+            int cell = i + 1;
+            addSparkline(turnGrid, cell % 3, cell / 3,
+                    new Sparkline(PHASES[i].getDisplayName(), "ms", phaseHistory[i], Color.rgb(52, 152, 219)));
+        }
+
+        GridPane runtimeGrid = new GridPane();
+        runtimeGrid.setHgap(10);
+        runtimeGrid.setVgap(10);
+        addSparkline(runtimeGrid, 0, 0, new Sparkline("Turns per second", "/s", turnsPerSecondHistory, Color.rgb(39, 174, 96)));
+        addSparkline(runtimeGrid, 1, 0, new Sparkline("DB commit", "ms", commitHistory, Color.rgb(155, 89, 182)));
+        addSparkline(runtimeGrid, 2, 0, new Sparkline("FX pulse (slowest)", "ms", pulseHistory, Color.rgb(230, 126, 34)));
+        addSparkline(runtimeGrid, 0, 1, new Sparkline("Heap used", "MB", heapHistory, Color.rgb(52, 73, 94)));
+        addSparkline(runtimeGrid, 1, 1, new Sparkline("GC pauses", "ms/s", gcHistory, Color.rgb(192, 57, 43)));
+
+        Label turnLabel = new Label("Turn phases (per turn)");
+        turnLabel.setStyle("-fx-font-weight: bold;");
+        Label runtimeLabel = new Label("Runtime");
+        runtimeLabel.setStyle("-fx-font-weight: bold;");
+
+        getChildren().addAll(header, subtitle, summaryLabel, turnLabel, turnGrid, runtimeLabel, runtimeGrid);
+
+        // Measure the time JavaFX spends in CSS and layout on each pulse of our scene.
+        // Pulses run up to 60 times a second, so only the slowest one per sample is kept.
+        prePulseListener = () -> pulseStartNanos = System.nanoTime();
+        postPulseListener = () -> {
+            if (pulseStartNanos != 0) {
+                slowestPulseMillis = Math.max(slowestPulseMillis, (System.nanoTime() - pulseStartNanos) / 1e6);
+                pulseStartNanos = 0;
+            }
+        };
+        sceneProperty().addListener((obs, oldScene, newScene) -> attachPulseListeners(oldScene, newScene));
+
+        // One cheap sample per second, whether or not the tab is visible
+        lastSampleNanos = System.nanoTime();
+        lastGcMillis = totalGcMillis();
+        lastTurnsRecorded = metrics.getTurnsRecorded();
+
+        Timeline sampler = new Timeline(new KeyFrame(Duration.seconds(1), e -> sample()));
+        sampler.setCycleCount(Timeline.INDEFINITE);
+        sampler.play();
+    }
+
+    /**
+     * Only redraw while the tab is selected
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+        if (active) {
+            redraw();
+        }
+    }
+
+    private void addSparkline(GridPane grid, int column, int row, Sparkline sparkline) {
+        sparklines.add(sparkline);
+        grid.add(sparkline, column, row);
+    }
+
+    private void attachPulseListeners(Scene oldScene, Scene newScene) {
+        if (oldScene != null) {
+            oldScene.removePreLayoutPulseListener(prePulseListener);
+            oldScene.removePostLayoutPulseListener(postPulseListener);
+        }
+        if (newScene != null) {
+            newScene.addPreLayoutPulseListener(prePulseListener);
+            newScene.addPostLayoutPulseListener(postPulseListener);
+        }
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastSampleNanos) / 1e9;
+        lastSampleNanos = now;
+
+        // Turn metrics only change when a turn completes
+        long turnsRecorded = metrics.getTurnsRecorded();
+        long newTurns = turnsRecorded - lastTurnsRecorded;
+        lastTurnsRecorded = turnsRecorded;
+        turnsPerSecondHistory.add(elapsedSeconds > 0 ? newTurns / elapsedSeconds : 0);
+
+        if (newTurns > 0) {
+            TurnMetricsSnapshot snapshot = metrics.snapshot();
+            for (TurnPhase phase : PHASES) {
+                phaseHistory[phase.ordinal()].add(snapshot.getLastPhaseNanos(phase) / 1e6);
+            }
+            turnTimeHistory.add(snapshot.getLastTurnNanos() / 1e6);
+            commitHistory.add(db.getLastCommitNanos() / 1e6);
+            summaryLabel.setText(String.format("Turn %d | %.2f ms (p50 %.2f, p99 %.2f) | %d DB statements",
+                    snapshot.getLastTurnNumber(), snapshot.getLastTurnNanos() / 1e6,
+                    snapshot.getTurnP50Nanos() / 1e6, snapshot.getTurnP99Nanos() / 1e6,
+                    snapshot.getLastTurnDbStatements()));
+        }
+
+        heapHistory.add(memoryBean.getHeapMemoryUsage().getUsed() / (1024.0 * 1024.0));
+
+        long gcMillis = totalGcMillis();
+        gcHistory.add(elapsedSeconds > 0 ? (gcMillis - lastGcMillis) / elapsedSeconds : 0);
+        lastGcMillis = gcMillis;
+
+        pulseHistory.add(slowestPulseMillis);
+        slowestPulseMillis = 0;
+
+        if (active) {
+            redraw();
+        }
+    }
+
+    private void redraw() {
+        for (Sparkline sparkline : sparklines) {
+            sparkline.redraw();
+        }
+    }
+
+    private long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gcBean : gcBeans) {
+            total += Math.max(0, gcBean.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -3,9 +3,14 @@ package org.example.dndfactionsimulator.ui;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import org.example.dndfactionsimulator.analytics.RelationshipTimeline;
 import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.graph.DiplomaticDistance;
 import org.example.dndfactionsimulator.model.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PlayerInfluencePanel extends VBox {
 
@@ -43,8 +48,9 @@ public class PlayerInfluencePanel extends VBox {
         TitledPane resourcePane = createResourceModificationPane();
         TitledPane eventPane = createEventCreationPane();
         TitledPane relationshipPane = createRelationshipPane();
+        TitledPane plotHookPane = createPlotHookPane();
 
-        Accordion accordion = new Accordion(resourcePane, eventPane, relationshipPane);
+        Accordion accordion = new Accordion(resourcePane, eventPane, relationshipPane, plotHookPane);
         accordion.setExpandedPane(resourcePane);
 
         getChildren().addAll(header, subtitle, selectorBox, accordion);
@@ -230,6 +236,12 @@ public class PlayerInfluencePanel extends VBox {
                 return;
             }
 
+            if (db.getRelationshipGraph().hasRelationship(faction1.getId(), faction2.getId())) {
+                showAlert("Relationship Exists",
+                        faction1.getName() + " and " + faction2.getName() + " already have a relationship.");
+                return;
+            }
+
             Relationship rel = new Relationship(
                     faction1.getId(),
                     faction2.getId(),
@@ -256,6 +268,137 @@ public class PlayerInfluencePanel extends VBox {
         return new TitledPane("Manage Relationships", content);
     }
 
+    private TitledPane createPlotHookPane() {
+        VBox content = new VBox(15);
+        content.setPadding(new Insets(10));
+
+        Label instructionLabel = new Label("Trace diplomatic ties from the selected faction:");
+
+        ComboBox<String> targetFactionCombo = new ComboBox<>();
+        targetFactionCombo.setPrefWidth(250);
+        List<Faction> targets = new ArrayList<>();
+
+        Button refreshTargetBtn = new Button("🔄 Load Targets");
+        refreshTargetBtn.setOnAction(e -> {
+            targets.clear();
+            targets.addAll(db.getActiveFactions());
+            targetFactionCombo.getItems().clear();
+            for (Faction f : targets) {
+                targetFactionCombo.getItems().add(f.getName() + " (ID: " + f.getId() + ")");
+            }
+        });
+
+        HBox targetBox = new HBox(10);
+        targetBox.getChildren().addAll(new Label("Target Faction:"), targetFactionCombo, refreshTargetBtn);
+
+        TextArea resultArea = new TextArea();
+        resultArea.setEditable(false);
+        resultArea.setWrapText(true);
+        resultArea.setPrefHeight(200);
+
+        Button pathBtn = new Button("🧭 Find Diplomatic Path");
+        pathBtn.setOnAction(e -> {
+            Faction from = getSelectedFaction();
+            int targetIndex = targetFactionCombo.getSelectionModel().getSelectedIndex();
+            if (from == null || targetIndex < 0) {
+                showAlert("Invalid Selection", "Please select both factions.");
+                return;
+            }
+            Faction to = targets.get(targetIndex);
+
+            int[] path = db.getDiplomaticDistance().findFriendlyPath(from.getId(), to.getId());
+            if (path.length == 0) {
+                resultArea.setText("No chain of friends or allies links " + from.getName() +
+                        " to " + to.getName() + ".");
+                return;
+            }
+
+            Map<Integer, String> names = factionNames();
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%s is %d handshake%s from %s:\n\n", to.getName(),
+                    path.length - 1, path.length == 2 ? "" : "s", from.getName()));
+            for (int i = 0; i < path.length; i++) {
+                text.append(i == 0 ? "   " : " → ").append(names.getOrDefault(path[i], "#" + path[i]));
+            }
+            resultArea.setText(text.toString());
+        });
+
+        Button threatsBtn = new Button("⚔️ Nearby Threats");
+        threatsBtn.setOnAction(e -> {
+            Faction faction = getSelectedFaction();
+            if (faction == null) {
+                showAlert("No Faction Selected", "Please select a faction first.");
+                return;
+            }
+
+            List<DiplomaticDistance.Threat> threats = db.getDiplomaticDistance().getEnemiesWithinTwoHops(faction.getId());
+            if (threats.isEmpty()) {
+                resultArea.setText(faction.getName() + " has no enemies within two hops.");
+                return;
+            }
+
+            Map<Integer, String> names = factionNames();
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("Enemies within two hops of %s (%d):\n\n", faction.getName(), threats.size()));
+            for (DiplomaticDistance.Threat threat : threats) {
+                text.append("• ").append(names.getOrDefault(threat.factionId(), "#" + threat.factionId()))
+                        .append(" - ").append(threat.type().getDisplayName());
+                if (threat.via() >= 0) {
+                    text.append(" with ally ").append(names.getOrDefault(threat.via(), "#" + threat.via()));
+                }
+                text.append("\n");
+            }
+            resultArea.setText(text.toString());
+        });
+
+        Button historyBtn = new Button("📜 Relationship History");
+        historyBtn.setOnAction(e -> {
+            Faction from = getSelectedFaction();
+            int targetIndex = targetFactionCombo.getSelectionModel().getSelectedIndex();
+            if (from == null || targetIndex < 0) {
+                showAlert("Invalid Selection", "Please select both factions.");
+                return;
+            }
+            Faction to = targets.get(targetIndex);
+
+            Relationship relationship = db.getRelationshipGraph().getRelationship(from.getId(), to.getId());
+            if (relationship == null) {
+                resultArea.setText(from.getName() + " and " + to.getName() + " have never had dealings.");
+                return;
+            }
+
+            RelationshipTimeline timeline = db.getRelationshipTimeline(relationship.getId(), 0, db.getCurrentTurn());
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%s and %s, now %s (%+d):\n\n", from.getName(), to.getName(),
+                    relationship.getType().getDisplayName(), relationship.getStrength()));
+            // Most recent changes only; long campaigns can have hundreds
+            int first = Math.max(0, timeline.size() - 30);
+            if (first > 0) {
+                text.append(String.format("   ... %d earlier changes\n", first));
+            }
+            for (int i = first; i < timeline.size(); i++) {
+                text.append(String.format("Turn %d: %+d (%s)\n", timeline.getTurn(i), timeline.getValue(i),
+                        timeline.getType(i).getDisplayName()));
+            }
+            resultArea.setText(text.toString());
+        });
+
+        HBox buttonBox = new HBox(10);
+        buttonBox.getChildren().addAll(pathBtn, threatsBtn, historyBtn);
+
+        content.getChildren().addAll(instructionLabel, targetBox, buttonBox, resultArea);
+
+        return new TitledPane("Plot Hooks", content);
+    }
+
+    private Map<Integer, String> factionNames() {
+        Map<Integer, String> names = new HashMap<>();
+        for (Faction f : allFactions) {
+            names.put(f.getId(), f.getName());
+        }
+        return names;
+    }
+
     private void modifyResource(String resourceType, int amount) {
         Faction faction = getSelectedFaction();
         if (faction == null) {
@@ -0,0 +1,308 @@
+package org.example.dndfactionsimulator.ui;
+
+import javafx.geometry.Insets;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.*;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.network.RelationshipMatrix;
+import java.util.*;
+import java.util.stream.IntStream;
+
+public class RelationshipMatrixPanel extends VBox {
+
+    private static final int TILE_SIZE = 256;
+    // Rendered tiles kept across pans and zooms (256 tiles = 64 MB)
+    private static final int MAX_CACHED_TILES = 256;
+    // Zoom range in pixels per cell, powers of two
+    private static final int MIN_ZOOM_LEVEL = -12;
+    private static final int MAX_ZOOM_LEVEL = 4;
+
+    private DatabaseManager db;
+    private Canvas canvas;
+    private Label statusLabel;
+    private Label cellInfo;
+
+    private RelationshipMatrix matrix;
+    // Shown instead of the matrix when the world is too large to build one
+    private String refusedMessage;
+    private boolean active;
+    private boolean stale = true;
+
+    // pixels per cell = 2^zoomLevel; origin is the matrix pixel at the canvas top-left
+    private int zoomLevel;
+    private double originX, originY;
+    private double dragX, dragY;
+
+    private final Map<Long, WritableImage> tileCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, WritableImage> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+
+    public RelationshipMatrixPanel(DatabaseManager db) {
+        this.db = db;
+
+        setPadding(new Insets(20));
+        setSpacing(15);
+
+        // Header
+        Label header = new Label("🟩 Relationship Matrix");
+        header.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
+
+        Label subtitle = new Label("Every faction pair, grouped by alliance bloc (drag to pan, scroll to zoom)");
+        subtitle.setStyle("-fx-font-size: 12px; -fx-text-fill: gray;");
+
+        // Controls
+        HBox controls = new HBox(10);
+        controls.setStyle("-fx-alignment: center-left;");
+
+        Button refreshBtn = new Button("🔄 Refresh Matrix");
+        refreshBtn.setOnAction(e -> {
+            stale = true;
+            rebuildMatrix();
+        });
+
+        Button fitBtn = new Button("🔍 Fit to View");
+        fitBtn.setOnAction(e -> {
+            fitToView();
+            render();
+        });
+
+        statusLabel = new Label();
+        statusLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: gray;");
+
+        controls.getChildren().addAll(refreshBtn, fitBtn, statusLabel);
+
+        // Legend
+        HBox legend = new HBox(20);
+        legend.setStyle("-fx-alignment: center-left; -fx-padding: 10; -fx-background-color: #ecf0f1; -fx-border-radius: 5;");
+
+        Label legendTitle = new Label("Legend:");
+        legendTitle.setStyle("-fx-font-weight: bold;");
+
+        Label alliedLabel = new Label("■ Allied (+100)");
+        alliedLabel.setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
+
+        Label neutralLabel = new Label("■ Neutral (0)");
+        neutralLabel.setStyle("-fx-text-fill: #95a5a6;");
+
+        Label warLabel = new Label("■ At War (-100)");
+        warLabel.setStyle("-fx-text-fill: #c0392b; -fx-font-weight: bold;");
+
+        Label noneLabel = new Label("□ No relationship");
+
+        legend.getChildren().addAll(legendTitle, alliedLabel, neutralLabel, warLabel, noneLabel);
+
+        cellInfo = new Label("Hover over a cell to see the relationship");
+        cellInfo.setStyle("-fx-font-size: 12px; -fx-text-fill: gray;");
+
+        // Canvas sized to the space the panel gets
+        canvas = new Canvas(1100, 600);
+
+        Pane canvasHolder = new Pane(canvas);
+        canvasHolder.setPrefSize(1100, 600);
+        canvasHolder.setMinSize(0, 0);
+        canvasHolder.setStyle("-fx-border-color: #34495e; -fx-border-width: 2; -fx-background-color: white;");
+        canvas.widthProperty().bind(canvasHolder.widthProperty());
+        canvas.heightProperty().bind(canvasHolder.heightProperty());
+        canvas.widthProperty().addListener((obs, oldValue, newValue) -> render());
+        canvas.heightProperty().addListener((obs, oldValue, newValue) -> render());
+        VBox.setVgrow(canvasHolder, Priority.ALWAYS);
+
+        canvas.setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        canvas.setOnMouseDragged(e -> {
+            originX -= e.getX() - dragX;
+            originY -= e.getY() - dragY;
+            dragX = e.getX();
+            dragY = e.getY();
+            render();
+        });
+        canvas.setOnScroll(e -> {
+            if (e.getDeltaY() == 0) return;
+            zoomAt(e.getDeltaY() > 0 ? 1 : -1, e.getX(), e.getY());
+            render();
+        });
+        canvas.setOnMouseMoved(e -> describeCell(e.getX(), e.getY()));
+
+        getChildren().addAll(header, subtitle, controls, legend, cellInfo, canvasHolder);
+    }
+
+    /**
+     * Called when the tab is shown or hidden; the matrix is only rebuilt while visible
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+        if (active) {
+            rebuildMatrix();
+        }
+    }
+
+    /**
+     * Marks the matrix out of date after a turn; it is rebuilt now if visible, otherwise
+     * the next time the tab is shown
+     */
+    public void refreshMatrix() {
+        stale = true;
+        if (active) {
+            rebuildMatrix();
+        }
+    }
+
+    private void rebuildMatrix() {
+        if (!stale) return;
+        stale = false;
+
+        List<Faction> factions = db.getActiveFactions();
+        if (!RelationshipMatrix.fits(factions.size())) {
+            // One byte per faction pair; past this the world is better explored in the network view
+            matrix = null;
+            tileCache.clear();
+            refusedMessage = String.format("%,d factions need %,d MB for the matrix, more than this view can hold",
+                    factions.size(), RelationshipMatrix.cellBytes(factions.size()) / (1024 * 1024));
+            System.out.println("⚠️ " + refusedMessage);
+            statusLabel.setText(refusedMessage);
+            render();
+            return;
+        }
+        refusedMessage = null;
+
+        boolean firstBuild = matrix == null;
+        long start = System.nanoTime();
+        matrix = RelationshipMatrix.build(factions, db.getAllRelationships(), db.getAllianceBlocs());
+        double buildMillis = (System.nanoTime() - start) / 1_000_000.0;
+        tileCache.clear();
+        System.out.printf("🟩 Built %dx%d relationship matrix (%d blocs) in %.1f ms%n",
+                matrix.size(), matrix.size(), matrix.getClusterCount(), buildMillis);
+
+        if (firstBuild) {
+            fitToView();
+        }
+        render();
+    }
+
+    private double cellPixels() {
+        return Math.scalb(1.0, zoomLevel);
+    }
+
+    private void fitToView() {
+        if (matrix == null || matrix.size() == 0) return;
+        double available = Math.max(1, Math.min(canvas.getWidth(), canvas.getHeight()));
+        // Largest power of two that fits the whole matrix
+        int level = (int) Math.floor(Math.log(available / matrix.size()) / Math.log(2));
+        zoomLevel = Math.max(MIN_ZOOM_LEVEL, Math.min(MAX_ZOOM_LEVEL, level));
+        originX = 0;
+        originY = 0;
+    }
+
+    private void zoomAt(int steps, double screenX, double screenY) {
+        int level = Math.max(MIN_ZOOM_LEVEL, Math.min(MAX_ZOOM_LEVEL, zoomLevel + steps));
+        double factor = Math.scalb(1.0, level - zoomLevel);
+        // Keep the matrix point under the cursor fixed
+        originX = (originX + screenX) * factor - screenX;
+        originY = (originY + screenY) * factor - screenY;
+        zoomLevel = level;
+    }
+
+    private void render() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (refusedMessage != null) {
+            gc.setFill(Color.GRAY);
+            gc.fillText(refusedMessage, 20, 30);
+            return;
+        }
+        if (matrix == null) return;
+        if (matrix.size() == 0) {
+            gc.setFill(Color.GRAY);
+            gc.fillText("No active factions to display", 20, 30);
+            return;
+        }
+
+        long start = System.nanoTime();
+        double cellPixels = cellPixels();
+        double imageSize = matrix.size() * cellPixels;
+        int lastTile = (int) Math.ceil(imageSize / TILE_SIZE) - 1;
+        int firstTileX = Math.max(0, (int) Math.floor(originX / TILE_SIZE));
+        int firstTileY = Math.max(0, (int) Math.floor(originY / TILE_SIZE));
+        int lastTileX = Math.min(lastTile, (int) Math.floor((originX + canvas.getWidth()) / TILE_SIZE));
+        int lastTileY = Math.min(lastTile, (int) Math.floor((originY + canvas.getHeight()) / TILE_SIZE));
+
+        // Rasterise the visible tiles we don't have yet in parallel, then upload on the FX thread
+        List<long[]> missing = new ArrayList<>();
+        for (int ty = firstTileY; ty <= lastTileY; ty++) {
+            for (int tx = firstTileX; tx <= lastTileX; tx++) {
+                if (!tileCache.containsKey(tileKey(tx, ty))) {
+                    missing.add(new long[]{tx, ty});
+                }
+            }
+        }
+        RelationshipMatrix current = matrix;
+        int[][] buffers = new int[missing.size()][];
+        IntStream.range(0, missing.size()).parallel().forEach(i -> {
+            int[] buffer = new int[TILE_SIZE * TILE_SIZE];
+            current.renderTile(buffer, (int) missing.get(i)[0], (int) missing.get(i)[1], TILE_SIZE, cellPixels);
+            buffers[i] = buffer;
+        });
+        for (int i = 0; i < missing.size(); i++) {
+            WritableImage image = new WritableImage(TILE_SIZE, TILE_SIZE);
+            image.getPixelWriter().setPixels(0, 0, TILE_SIZE, TILE_SIZE,
+                    PixelFormat.getIntArgbInstance(), buffers[i], 0, TILE_SIZE);
+            tileCache.put(tileKey((int) missing.get(i)[0], (int) missing.get(i)[1]), image);
+        }
+
+        gc.setImageSmoothing(false);
+        for (int ty = firstTileY; ty <= lastTileY; ty++) {
+            for (int tx = firstTileX; tx <= lastTileX; tx++) {
+                WritableImage image = tileCache.get(tileKey(tx, ty));
+                gc.drawImage(image, tx * TILE_SIZE - originX, ty * TILE_SIZE - originY);
+            }
+        }
+
+        double frameMillis = (System.nanoTime() - start) / 1_000_000.0;
+        statusLabel.setText(String.format("%,d factions · %d blocs · %s · %d new tiles in %.1f ms",
+                matrix.size(), matrix.getClusterCount(), scaleLabel(cellPixels), missing.size(), frameMillis));
+    }
+
+    private long tileKey(int tileX, int tileY) {
+        return ((long) (zoomLevel - MIN_ZOOM_LEVEL) << 48) | ((long) tileX << 24) | tileY;
+    }
+
+    private static String scaleLabel(double cellPixels) {
+        return cellPixels >= 1
+                ? String.format("%.0f px/cell", cellPixels)
+                : String.format("%.0f cells/px", 1 / cellPixels);
+    }
+
+    private void describeCell(double screenX, double screenY) {
+        if (matrix == null || matrix.size() == 0) return;
+        double cellPixels = cellPixels();
+        int row = (int) Math.floor((originY + screenY) / cellPixels);
+        int column = (int) Math.floor((originX + screenX) / cellPixels);
+        if (row < 0 || column < 0 || row >= matrix.size() || column >= matrix.size()) {
+            cellInfo.setText("Hover over a cell to see the relationship");
+            return;
+        }
+
+        Faction rowFaction = matrix.getFaction(row);
+        Faction columnFaction = matrix.getFaction(column);
+        Integer strength = matrix.getStrength(row, column);
+        if (row == column) {
+            cellInfo.setText(rowFaction.getName());
+        } else if (strength == null) {
+            cellInfo.setText(rowFaction.getName() + " ↔ " + columnFaction.getName() + ": no relationship");
+        } else {
+            cellInfo.setText(rowFaction.getName() + " ↔ " + columnFaction.getName() + ": " + strength);
+        }
+    }
+}
@@ -1,24 +1,68 @@
 package org.example.dndfactionsimulator.ui;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
+import org.example.dndfactionsimulator.analytics.Leaderboard;
+import org.example.dndfactionsimulator.analytics.WorldRollup;
 import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.graph.AllianceBlocs;
 import org.example.dndfactionsimulator.model.*;
+import org.example.dndfactionsimulator.network.*;
+import org.example.dndfactionsimulator.util.IntSet;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class RelationshipNetworkPanel extends VBox {
 
+    private static final double FIT_MARGIN = 60;
+    // Mouse wheel zoom per scroll unit
+    private static final double ZOOM_PER_PIXEL = 1.0015;
+    // How close (in pixels) the mouse must be to pick a node or edge
+    private static final double PICK_PIXELS = 5;
+
     private DatabaseManager db;
     private Canvas canvas;
-    private Map<Integer, NodePosition> nodePositions;
+    private CanvasSurface surface;
+    private Label layoutStatus;
+
+    // Force-directed layout runs off the FX thread and streams positions back
+    private ForceLayoutWorker layoutWorker;
+    private final AtomicReference<LayoutSnapshot> pendingSnapshot = new AtomicReference<>();
+    private LayoutSnapshot layoutSnapshot = LayoutSnapshot.EMPTY;
+    private List<Faction> factions = List.of();
+    private List<Relationship> relationships = List.of();
+    private long relationshipSignature;
+
+    private final NetworkRenderer renderer = new NetworkRenderer();
+    private final Viewport viewport = new Viewport();
+    private NetworkScene scene = NetworkScene.EMPTY;
+    // Follow the layout until the user pans or zooms
+    private boolean autoFit = true;
+    private double dragX, dragY;
+    private boolean dragged;
+
+    // Picking: scene indices under the mouse and the selected faction
+    private final SpatialIndex spatialIndex = new SpatialIndex();
+    private int hoveredNode = -1;
+    private int hoveredEdge = -1;
+    private int selectedFactionId = -1;
+    private int selectedNode = -1;
+    private Tooltip tooltip;
+    private Label selectionInfo;
+
+    // Pending repaint: either everything or the union of dirty rectangles
+    private boolean renderQueued;
+    private boolean fullRepaint;
+    private double dirtyMinX = Double.MAX_VALUE, dirtyMinY = Double.MAX_VALUE;
+    private double dirtyMaxX = -Double.MAX_VALUE, dirtyMaxY = -Double.MAX_VALUE;
+    private double lastFrameMillis;
 
     public RelationshipNetworkPanel(DatabaseManager db) {
         this.db = db;
-        this.nodePositions = new HashMap<>();
+        this.layoutWorker = new ForceLayoutWorker(this::onLayoutSnapshot, 50);
 
         setPadding(new Insets(20));
         setSpacing(15);
@@ -27,7 +71,7 @@ public class RelationshipNetworkPanel extends VBox {
         Label header = new Label("🕸️ Relationship Network");
         header.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
 
-        Label subtitle = new Label("Visual graph of faction relationships");
+        Label subtitle = new Label("Visual graph of faction relationships (drag to pan, scroll to zoom)");
         subtitle.setStyle("-fx-font-size: 12px; -fx-text-fill: gray;");
 
         // Controls
@@ -37,10 +81,20 @@ public class RelationshipNetworkPanel extends VBox {
         Button refreshBtn = new Button("🔄 Refresh Network");
         refreshBtn.setOnAction(e -> drawNetwork());
 
+        Button fitBtn = new Button("🔍 Fit to View");
+        fitBtn.setOnAction(e -> {
+            autoFit = true;
+            fitToView();
+            invalidateAll();
+        });
+
         CheckBox showInactiveCheck = new CheckBox("Show Inactive Factions");
         showInactiveCheck.setOnAction(e -> drawNetwork());
 
-        controls.getChildren().addAll(refreshBtn, showInactiveCheck);
+        layoutStatus = new Label();
+        layoutStatus.setStyle("-fx-font-size: 12px; -fx-text-fill: gray;");
+
+        controls.getChildren().addAll(refreshBtn, fitBtn, showInactiveCheck, layoutStatus);
 
         // Legend
         HBox legend = new HBox(20);
@@ -70,155 +124,390 @@ public class RelationshipNetworkPanel extends VBox {
         legend.getChildren().addAll(legendTitle, alliedLabel, friendlyLabel,
                 neutralLabel, unfriendlyLabel, hostileLabel, warLabel);
 
-        // Canvas for drawing
-        canvas = new Canvas(1100, 600);
-        canvas.setStyle("-fx-border-color: #34495e; -fx-border-width: 2;");
+        selectionInfo = new Label("Click a faction to select it");
+        selectionInfo.setStyle("-fx-font-size: 12px; -fx-text-fill: gray;");
+
+        tooltip = new Tooltip();
+        tooltip.setStyle("-fx-font-size: 12px;");
 
-        ScrollPane scrollPane = new ScrollPane(canvas);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
+        // Canvas for drawing, sized to the space the panel gets
+        canvas = new Canvas(1100, 600);
+        surface = new CanvasSurface(canvas);
+
+        Pane canvasHolder = new Pane(canvas);
+        canvasHolder.setPrefSize(1100, 600);
+        canvasHolder.setMinSize(0, 0);
+        canvasHolder.setStyle("-fx-border-color: #34495e; -fx-border-width: 2; -fx-background-color: white;");
+        canvas.widthProperty().bind(canvasHolder.widthProperty());
+        canvas.heightProperty().bind(canvasHolder.heightProperty());
+        canvas.widthProperty().addListener((obs, oldValue, newValue) -> onCanvasResized());
+        canvas.heightProperty().addListener((obs, oldValue, newValue) -> onCanvasResized());
+        VBox.setVgrow(canvasHolder, Priority.ALWAYS);
+
+        canvas.setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+            dragged = false;
+        });
+        canvas.setOnMouseDragged(e -> {
+            autoFit = false;
+            dragged = true;
+            tooltip.hide();
+            viewport.pan(e.getX() - dragX, e.getY() - dragY);
+            dragX = e.getX();
+            dragY = e.getY();
+            invalidateAll();
+        });
+        canvas.setOnScroll(e -> {
+            autoFit = false;
+            viewport.zoomAt(Math.pow(ZOOM_PER_PIXEL, e.getDeltaY()), e.getX(), e.getY());
+            invalidateAll();
+        });
+        canvas.setOnMouseMoved(e -> onMouseMoved(e.getX(), e.getY(), e.getScreenX(), e.getScreenY()));
+        canvas.setOnMouseExited(e -> {
+            setHover(-1, -1);
+            tooltip.hide();
+        });
+        canvas.setOnMouseClicked(e -> {
+            if (!dragged) {
+                selectFaction(hoveredNode >= 0 ? scene.getId(hoveredNode) : -1);
+            }
+        });
 
-        getChildren().addAll(header, subtitle, controls, legend, scrollPane);
+        getChildren().addAll(header, subtitle, controls, legend, selectionInfo, canvasHolder);
 
         // Initial draw
         drawNetwork();
     }
 
+    /**
+     * Reloads the world and hands it to the layout worker, which warm-starts from
+     * the current positions. Called after every turn.
+     */
+    public void refreshNetwork() {
+        drawNetwork();
+    }
+
     private void drawNetwork() {
-        GraphicsContext gc = canvas.getGraphicsContext2D();
+        List<Faction> previousFactions = factions;
+        factions = db.getActiveFactions();
+        relationships = db.getAllRelationships();
+        long signature = signatureOf(relationships);
+
+        if (sameFactionIds(previousFactions, factions) && signature == relationshipSignature
+                && layoutSnapshot != LayoutSnapshot.EMPTY) {
+            // Nothing moved: repaint only the nodes whose label changed
+            setScene(NetworkScene.build(factions, relationships, layoutSnapshot));
+            invalidateChangedNodes(previousFactions);
+            return;
+        }
 
-        // Clear canvas
-        gc.setFill(Color.WHITE);
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        relationshipSignature = signature;
+        layoutWorker.submit(factions, relationships);
+        setScene(NetworkScene.build(factions, relationships, layoutSnapshot));
+        invalidateAll();
+    }
 
-        List<Faction> factions = db.getActiveFactions();
-        List<Relationship> relationships = db.getAllRelationships();
+    private static boolean sameFactionIds(List<Faction> a, List<Faction> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i).getId() != b.get(i).getId()) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        if (factions.isEmpty()) {
-            gc.setFill(Color.GRAY);
-            gc.fillText("No active factions to display",
-                    canvas.getWidth() / 2 - 80, canvas.getHeight() / 2);
-            return;
+    private static long signatureOf(List<Relationship> relationships) {
+        long hash = relationships.size();
+        for (Relationship r : relationships) {
+            hash = hash * 31 + r.getId();
+            hash = hash * 31 + r.getFaction1Id();
+            hash = hash * 31 + r.getFaction2Id();
+            hash = hash * 31 + r.getType().ordinal();
+            hash = hash * 31 + r.getStrength();
         }
+        return hash;
+    }
 
-        // Calculate positions for factions in a circle
-        calculateNodePositions(factions);
+    private void invalidateChangedNodes(List<Faction> previousFactions) {
+        // Strength and names are only drawn at full detail
+        if (NetworkRenderer.detailFor(viewport) != NetworkRenderer.Detail.LABELS) {
+            return;
+        }
+        int node = 0;
+        for (int i = 0; i < factions.size(); i++) {
+            Faction now = factions.get(i);
+            if (layoutSnapshot.indexOf(now.getId()) < 0) continue;
+
+            Faction before = previousFactions.get(i);
+            if (before.getStrength() != now.getStrength() || before.getAlignment() != now.getAlignment()
+                    || !before.getName().equals(now.getName())) {
+                double[] bounds = NetworkRenderer.nodeBounds(scene, node, viewport);
+                invalidate(bounds[0], bounds[1], bounds[2], bounds[3]);
+            }
+            node++;
+        }
+    }
 
-        // Draw relationships (lines) first so they're behind nodes
-        drawRelationships(gc, relationships, factions);
+    /**
+     * Called on the layout thread; coalesces snapshots so at most one redraw is queued.
+     */
+    private void onLayoutSnapshot(LayoutSnapshot snapshot) {
+        if (pendingSnapshot.getAndSet(snapshot) == null) {
+            Platform.runLater(() -> {
+                layoutSnapshot = pendingSnapshot.getAndSet(null);
+                setScene(NetworkScene.build(factions, relationships, layoutSnapshot));
+                if (autoFit) {
+                    fitToView();
+                }
+                invalidateAll();
+            });
+        }
+    }
 
-        // Draw faction nodes
-        drawFactionNodes(gc, factions);
+    private void setScene(NetworkScene next) {
+        boolean sameGraph = next.getNodeCount() == scene.getNodeCount()
+                && next.getEdgeCount() == scene.getEdgeCount();
+        scene = next;
+        if (!sameGraph) {
+            hoveredNode = -1;
+            hoveredEdge = -1;
+            tooltip.hide();
+        }
+        selectedNode = findNode(selectedFactionId);
+        updateBlocHighlights();
+        updateHighlights();
     }
 
-    private void calculateNodePositions(List<Faction> factions) {
-        nodePositions.clear();
+    // ============== PICKING ==============
+
+    private void onMouseMoved(double x, double y, double screenX, double screenY) {
+        // The index catches up lazily, so layout updates cost nothing while the mouse is elsewhere
+        if (spatialIndex.getScene() != scene) {
+            spatialIndex.update(scene);
+        }
 
-        double centerX = canvas.getWidth() / 2;
-        double centerY = canvas.getHeight() / 2;
-        double radius = Math.min(centerX, centerY) - 100;
+        double layoutX = viewport.toLayoutX(x);
+        double layoutY = viewport.toLayoutY(y);
+        double radius = Math.max(NetworkRenderer.nodePixels(viewport) / 2, PICK_PIXELS) / viewport.getScale();
 
-        int count = factions.size();
-        for (int i = 0; i < count; i++) {
-            double angle = (2 * Math.PI * i) / count - Math.PI / 2;
-            double x = centerX + radius * Math.cos(angle);
-            double y = centerY + radius * Math.sin(angle);
+        int node = spatialIndex.nodeAt(layoutX, layoutY, radius);
+        int edge = node >= 0 ? -1 : spatialIndex.edgeAt(layoutX, layoutY, PICK_PIXELS / viewport.getScale());
+        setHover(node, edge);
 
-            nodePositions.put(factions.get(i).getId(), new NodePosition(x, y));
+        if (node >= 0) {
+            tooltip.setText(describeFaction(node));
+            tooltip.show(canvas, screenX + 14, screenY + 14);
+        } else if (edge >= 0) {
+            tooltip.setText(describeRelationship(edge));
+            tooltip.show(canvas, screenX + 14, screenY + 14);
+        } else {
+            tooltip.hide();
         }
     }
 
-    private void drawRelationships(GraphicsContext gc, List<Relationship> relationships, List<Faction> factions) {
-        Set<Integer> activeFactionIds = new HashSet<>();
-        for (Faction f : factions) {
-            activeFactionIds.add(f.getId());
+    private void setHover(int node, int edge) {
+        if (node == hoveredNode && edge == hoveredEdge) {
+            return;
         }
+        // Repaint only what the highlight covered before and covers now
+        invalidateNode(hoveredNode);
+        invalidateEdge(hoveredEdge);
+        hoveredNode = node;
+        hoveredEdge = edge;
+        invalidateNode(hoveredNode);
+        invalidateEdge(hoveredEdge);
+        updateHighlights();
+    }
 
-        for (Relationship rel : relationships) {
-            // Only draw if both factions are active
-            if (!activeFactionIds.contains(rel.getFaction1Id()) ||
-                    !activeFactionIds.contains(rel.getFaction2Id())) {
-                continue;
-            }
+    private void selectFaction(int factionId) {
+        selectedFactionId = factionId;
+        selectedNode = findNode(factionId);
+        // The bloc rings can be anywhere on screen
+        updateBlocHighlights();
+        updateHighlights();
+        invalidateAll();
+
+        selectionInfo.setText(selectedNode >= 0
+                ? "Selected: " + describeFaction(selectedNode).replace('\n', ' ')
+                : "Click a faction to select it");
+    }
 
-            NodePosition pos1 = nodePositions.get(rel.getFaction1Id());
-            NodePosition pos2 = nodePositions.get(rel.getFaction2Id());
+    /**
+     * Rings every member of the selected faction's alliance bloc
+     */
+    private void updateBlocHighlights() {
+        if (selectedFactionId < 0) {
+            renderer.setBlocHighlights(new int[0]);
+            return;
+        }
+        int[] bloc = db.getAllianceBlocs().getBlocMembers(selectedFactionId);
+        IntSet members = new IntSet(bloc.length);
+        for (int member : bloc) {
+            members.add(member);
+        }
+        int[] nodes = new int[members.size()];
+        int count = 0;
+        for (int i = 0; i < scene.getNodeCount() && count < nodes.length; i++) {
+            if (members.contains(scene.getId(i))) {
+                nodes[count++] = i;
+            }
+        }
+        renderer.setBlocHighlights(Arrays.copyOf(nodes, count));
+    }
 
-            if (pos1 == null || pos2 == null) continue;
+    private int findNode(int factionId) {
+        if (factionId < 0) {
+            return -1;
+        }
+        for (int i = 0; i < scene.getNodeCount(); i++) {
+            if (scene.getId(i) == factionId) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-            // Set color based on relationship type
-            Color lineColor = getRelationshipColor(rel.getType());
-            gc.setStroke(lineColor);
+    private void updateHighlights() {
+        renderer.setHighlights(hoveredNode, selectedNode, hoveredEdge);
+    }
 
-            // Set line width based on strength
-            double lineWidth = Math.abs(rel.getStrength()) / 25.0 + 1;
-            gc.setLineWidth(lineWidth);
+    private void invalidateNode(int node) {
+        if (node >= 0 && node < scene.getNodeCount()) {
+            double[] bounds = NetworkRenderer.nodeBounds(scene, node, viewport);
+            invalidate(bounds[0], bounds[1], bounds[2], bounds[3]);
+        }
+    }
 
-            // Draw line
-            gc.strokeLine(pos1.x, pos1.y, pos2.x, pos2.y);
+    private void invalidateEdge(int edge) {
+        if (edge >= 0 && edge < scene.getEdgeCount()) {
+            double[] bounds = NetworkRenderer.edgeBounds(scene, edge, viewport);
+            invalidate(bounds[0], bounds[1], bounds[2], bounds[3]);
         }
     }
 
-    private void drawFactionNodes(GraphicsContext gc, List<Faction> factions) {
-        for (Faction faction : factions) {
-            NodePosition pos = nodePositions.get(faction.getId());
-            if (pos == null) continue;
+    private String describeFaction(int node) {
+        Faction faction = factions.get(scene.getNodeSource(node));
 
-            double nodeSize = 40;
+        Map<RelationshipType, Integer> counts = new EnumMap<>(RelationshipType.class);
+        for (int i = 0; i < scene.getDegree(node); i++) {
+            Relationship relationship = relationships.get(scene.getEdgeSource(scene.getIncidentEdge(node, i)));
+            counts.merge(relationship.getType(), 1, Integer::sum);
+        }
 
-            // Draw node circle
-            gc.setFill(getFactionColor(faction));
-            gc.fillOval(pos.x - nodeSize/2, pos.y - nodeSize/2, nodeSize, nodeSize);
+        StringBuilder text = new StringBuilder();
+        text.append(faction.getName()).append(" (").append(faction.getType().getDisplayName())
+                .append(", ").append(faction.getAlignment().getDisplayName()).append(")\n");
+        text.append(String.format("Strength: %d | Gold: %d | Troops: %d | Magic: %d | Influence: %d\n",
+                faction.getStrength(), faction.getGold(), faction.getTroops(),
+                faction.getMagic(), faction.getInfluence()));
+        Leaderboard leaderboard = db.getLeaderboard();
+        int rank = leaderboard.getRank(WorldRollup.Measure.STRENGTH, faction.getId());
+        if (rank > 0) {
+            text.append(String.format("Strength rank: %d of %d (stronger than %.0f%%)\n", rank, leaderboard.size(),
+                    leaderboard.getPercentile(WorldRollup.Measure.STRENGTH, faction.getId())));
+        }
+        text.append("Relationships: ").append(scene.getDegree(node));
+        for (Map.Entry<RelationshipType, Integer> entry : counts.entrySet()) {
+            text.append(" | ").append(entry.getKey().getDisplayName()).append(": ").append(entry.getValue());
+        }
 
-            // Draw border
-            gc.setStroke(Color.BLACK);
-            gc.setLineWidth(2);
-            gc.strokeOval(pos.x - nodeSize/2, pos.y - nodeSize/2, nodeSize, nodeSize);
+        AllianceBlocs blocs = db.getAllianceBlocs();
+        int blocSize = blocs.getBlocSize(faction.getId());
+        if (blocSize > 1) {
+            text.append(String.format("\nAlliance bloc: %d factions, combined strength %,d",
+                    blocSize, blocs.getBlocStrength(faction.getId())));
+        }
+        return text.toString();
+    }
 
-            // Draw faction strength inside circle
-            gc.setFill(Color.WHITE);
-            gc.fillText(String.valueOf(faction.getStrength()),
-                    pos.x - 10, pos.y + 5);
+    private String describeRelationship(int edge) {
+        Relationship relationship = relationships.get(scene.getEdgeSource(edge));
+        return scene.getName(scene.getEdgeFrom(edge)) + " ↔ " + scene.getName(scene.getEdgeTo(edge)) + "\n"
+                + relationship.getType().getDisplayName() + " (strength " + relationship.getStrength() + ")";
+    }
 
-            // Draw faction name below
-            gc.setFill(Color.BLACK);
-            String name = faction.getName();
-            if (name.length() > 15) {
-                name = name.substring(0, 12) + "...";
-            }
-            gc.fillText(name, pos.x - 30, pos.y + nodeSize/2 + 15);
+    private void onCanvasResized() {
+        if (autoFit) {
+            fitToView();
         }
+        invalidateAll();
     }
 
-    private Color getRelationshipColor(RelationshipType type) {
-        return switch (type) {
-            case ALLIED -> Color.rgb(39, 174, 96);      // Green
-            case FRIENDLY -> Color.rgb(46, 204, 113);   // Light green
-            case NEUTRAL -> Color.rgb(149, 165, 166);   // Gray
-            case UNFRIENDLY -> Color.rgb(230, 126, 34); // Orange
-            case HOSTILE -> Color.rgb(231, 76, 60);     // Red
-            case AT_WAR -> Color.rgb(192, 57, 43);      // Dark red
-        };
+    private void fitToView() {
+        viewport.fit(layoutSnapshot.getFitMinX(), layoutSnapshot.getFitMinY(),
+                layoutSnapshot.getFitMaxX(), layoutSnapshot.getFitMaxY(),
+                canvas.getWidth(), canvas.getHeight(), FIT_MARGIN);
     }
 
-    private Color getFactionColor(Faction faction) {
-        // Color based on alignment
-        if (faction.getAlignment().name().contains("GOOD")) {
-            return Color.rgb(52, 152, 219); // Blue
-        } else if (faction.getAlignment().name().contains("EVIL")) {
-            return Color.rgb(155, 89, 182); // Purple
-        } else {
-            return Color.rgb(241, 196, 15); // Yellow
+    // ============== REPAINT SCHEDULING ==============
+
+    private void invalidateAll() {
+        fullRepaint = true;
+        scheduleRender();
+    }
+
+    private void invalidate(double x, double y, double w, double h) {
+        dirtyMinX = Math.min(dirtyMinX, x);
+        dirtyMinY = Math.min(dirtyMinY, y);
+        dirtyMaxX = Math.max(dirtyMaxX, x + w);
+        dirtyMaxY = Math.max(dirtyMaxY, y + h);
+        scheduleRender();
+    }
+
+    private void scheduleRender() {
+        if (!renderQueued) {
+            renderQueued = true;
+            Platform.runLater(this::render);
         }
     }
 
-    // Helper class for node positions
-    private static class NodePosition {
-        double x, y;
+    private void render() {
+        renderQueued = false;
+        long start = System.nanoTime();
+
+        double x = 0, y = 0, w = canvas.getWidth(), h = canvas.getHeight();
+        if (!fullRepaint) {
+            if (dirtyMinX > dirtyMaxX) {
+                return;
+            }
+            x = Math.max(0, dirtyMinX);
+            y = Math.max(0, dirtyMinY);
+            w = Math.min(canvas.getWidth(), dirtyMaxX) - x;
+            h = Math.min(canvas.getHeight(), dirtyMaxY) - y;
+        }
+        fullRepaint = false;
+        dirtyMinX = dirtyMinY = Double.MAX_VALUE;
+        dirtyMaxX = dirtyMaxY = -Double.MAX_VALUE;
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        // Clear the region being redrawn
+        surface.clip(x, y, w, h);
+        surface.setFill(0xFFFFFFFF);
+        surface.fillRect(x, y, w, h);
 
-        NodePosition(double x, double y) {
-            this.x = x;
-            this.y = y;
+        if (factions.isEmpty()) {
+            surface.setFill(0xFF808080);
+            surface.fillText("No active factions to display",
+                    canvas.getWidth() / 2 - 80, canvas.getHeight() / 2);
+            surface.restore();
+            layoutStatus.setText("");
+            return;
         }
+
+        renderer.render(surface, scene, viewport, x, y, w, h);
+        surface.restore();
+
+        lastFrameMillis = (System.nanoTime() - start) / 1e6;
+        layoutStatus.setText(String.format("Layout: %d factions, iteration %d%s | drawn %d nodes, %d edges (%s) in %.1f ms",
+                layoutSnapshot.size(), layoutSnapshot.getIteration(),
+                layoutSnapshot.isConverged() ? " (settled)" : " (settling...)",
+                renderer.getNodesDrawn(), renderer.getEdgesDrawn(),
+                renderer.getLastDetail().name().toLowerCase(), lastFrameMillis));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package org.example.dndfactionsimulator.ui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import org.example.dndfactionsimulator.metrics.RingBuffer;
+
+/**
+ * Small line chart of a ring buffer's samples with a title and the latest value.
+ * Drawn straight onto a canvas, so a redraw costs one polyline and no scene graph changes.
+ */
+class Sparkline extends Canvas {
+    private final String title;
+    private final String unit;
+    private final RingBuffer samples;
+    private final Color lineColor;
+
+    Sparkline(String title, String unit, RingBuffer samples, Color lineColor) {
+        super(260, 60);
+        this.title = title;
+        this.unit = unit;
+        this.samples = samples;
+        this.lineColor = lineColor;
+    }
+
+    void redraw() {
+        GraphicsContext gc = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+
+        gc.setFill(Color.rgb(244, 228, 193));
+        gc.fillRect(0, 0, width, height);
+        gc.setStroke(Color.rgb(139, 105, 20));
+        gc.setLineWidth(1);
+        gc.strokeRect(0.5, 0.5, width - 1, height - 1);
+
+        gc.setFill(Color.rgb(61, 40, 23));
+        gc.fillText(title, 6, 14);
+        gc.fillText(String.format("%.2f %s", samples.getLatest(), unit), width - 90, 14);
+
+        int count = samples.size();
+        if (count < 2) {
+            return;
+        }
+
+        double max = samples.max();
+        if (max <= 0) {
+            max = 1;
+        }
+        double top = 20;
+        double plotHeight = height - top - 4;
+        double step = (width - 8) / (samples.capacity() - 1);
+        double x0 = width - 4 - (count - 1) * step;
+
+        gc.setStroke(lineColor);
+        gc.setLineWidth(1.5);
+        gc.beginPath();
+        for (int i = 0; i < count; i++) {
+            double x = x0 + i * step;
+            double y = top + plotHeight - samples.get(i) / max * plotHeight;
+            if (i == 0) {
+                gc.moveTo(x, y);
+            } else {
+                gc.lineTo(x, y);
+            }
+        }
+        gc.stroke();
+    }
+}
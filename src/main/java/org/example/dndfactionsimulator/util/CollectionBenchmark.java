@@ -0,0 +1,235 @@
+package org.example.dndfactionsimulator.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Compares the primitive collections in this package with the boxed JDK collections
+ * they replace, on the access pattern the simulation uses: build an index of faction
+ * ids (or id pairs), then look up ids in random order, a quarter of them missing.
+ *
+ * Memory is the heap allocated to build the collection (for these append-only uses
+ * that is what it retains, plus rehash garbage); throughput is lookups per
+ * microsecond after a warm-up. Run with HeadlessRunner --collections-bench.
+ */
+public class CollectionBenchmark {
+
+    // Enough rounds that small worlds are timed over many milliseconds too
+    private static final int MEASURED_LOOKUPS = 20_000_000;
+
+    private final int size;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final int[] keys;
+    private final int[] probes;
+    private final int rounds;
+    // Sink for results, so the JIT can't drop the work
+    private long checksum;
+
+    public CollectionBenchmark(int size) {
+        this.size = size;
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        Random random = new Random(42L);
+        keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i + 1;
+        }
+        // Faction ids as lookups see them: shuffled, a quarter past the end
+        probes = new int[size * 4];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = 1 + random.nextInt(size + size / 3);
+        }
+        rounds = Math.max(5, MEASURED_LOOKUPS / probes.length);
+    }
+
+    public void run() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%n=== PRIMITIVE COLLECTIONS (%d keys, %d lookups) ===%n", size, probes.length));
+        report.append(String.format("%-28s %14s %14s %12s%n", "Collection", "bytes/key", "lookups/µs", "vs boxed"));
+
+        compare(report, "HashMap<Integer, Integer>", this::boxedMap, "IntIntMap", this::intIntMap);
+        compare(report, "HashMap<Long, Integer>", this::boxedLongMap, "LongIntMap", this::longIntMap);
+        compare(report, "HashSet<Integer>", this::boxedSet, "IntSet", this::intSet);
+        compare(report, "ArrayList<Integer>", this::boxedList, "IntList", this::intList);
+
+        System.out.print(report);
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    private void compare(StringBuilder report, String boxedName, IntUnaryOperator boxed,
+                         String primitiveName, IntUnaryOperator primitive) {
+        double[] boxedResult = measure(boxed);
+        double[] primitiveResult = measure(primitive);
+        report.append(String.format("%-28s %14.1f %14.1f %12s%n", boxedName, boxedResult[0], boxedResult[1], ""));
+        report.append(String.format("%-28s %14.1f %14.1f %11.1fx%n", primitiveName,
+                primitiveResult[0], primitiveResult[1], primitiveResult[1] / boxedResult[1]));
+    }
+
+    /**
+     * Runs a workload (mode 0 builds, mode 1 looks up) and returns bytes per key
+     * allocated by the build and lookups per microsecond
+     */
+    private double[] measure(IntUnaryOperator workload) {
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        checksum += workload.applyAsInt(0);
+        double bytesPerKey = (double) (threadBean.getCurrentThreadAllocatedBytes() - before) / size;
+
+        for (int round = 0; round < rounds; round++) {
+            checksum += workload.applyAsInt(1);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            checksum += workload.applyAsInt(1);
+        }
+        double micros = (System.nanoTime() - start) / 1000.0;
+        return new double[]{bytesPerKey, (double) probes.length * rounds / micros};
+    }
+
+    // ============== WORKLOADS ==============
+
+    private Map<Integer, Integer> boxedMapInstance;
+    private IntIntMap intIntMapInstance;
+    private Map<Long, Integer> boxedLongMapInstance;
+    private LongIntMap longIntMapInstance;
+    private Set<Integer> boxedSetInstance;
+    private IntSet intSetInstance;
+    private List<Integer> boxedListInstance;
+    private IntList intListInstance;
+
+    private int boxedMap(int mode) {
+        if (mode == 0) {
+            boxedMapInstance = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                boxedMapInstance.put(keys[i], i);
+            }
+            return boxedMapInstance.size();
+        }
+        int sum = 0;
+        for (int probe : probes) {
+            Integer value = boxedMapInstance.get(probe);
+            sum += value == null ? -1 : value;
+        }
+        return sum;
+    }
+
+    private int intIntMap(int mode) {
+        if (mode == 0) {
+            intIntMapInstance = new IntIntMap(16);
+            for (int i = 0; i < size; i++) {
+                intIntMapInstance.put(keys[i], i);
+            }
+            return intIntMapInstance.size();
+        }
+        int sum = 0;
+        for (int probe : probes) {
+            sum += intIntMapInstance.get(probe, -1);
+        }
+        return sum;
+    }
+
+    /**
+     * Keys are id pairs packed into a long, as relationship indexes use them
+     */
+    private static long pair(int id) {
+        return ((long) id << 32) | (id + 1);
+    }
+
+    private int boxedLongMap(int mode) {
+        if (mode == 0) {
+            boxedLongMapInstance = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                boxedLongMapInstance.put(pair(keys[i]), i);
+            }
+            return boxedLongMapInstance.size();
+        }
+        int sum = 0;
+        for (int probe : probes) {
+            Integer value = boxedLongMapInstance.get(pair(probe));
+            sum += value == null ? -1 : value;
+        }
+        return sum;
+    }
+
+    private int longIntMap(int mode) {
+        if (mode == 0) {
+            longIntMapInstance = new LongIntMap(16);
+            for (int i = 0; i < size; i++) {
+                longIntMapInstance.put(pair(keys[i]), i);
+            }
+            return longIntMapInstance.size();
+        }
+        int sum = 0;
+        for (int probe : probes) {
+            sum += longIntMapInstance.get(pair(probe), -1);
+        }
+        return sum;
+    }
+
+    private int boxedSet(int mode) {
+        if (mode == 0) {
+            boxedSetInstance = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                boxedSetInstance.add(keys[i]);
+            }
+            return boxedSetInstance.size();
+        }
+        int hits = 0;
+        for (int probe : probes) {
+            if (boxedSetInstance.contains(probe)) hits++;
+        }
+        return hits;
+    }
+
+    private int intSet(int mode) {
+        if (mode == 0) {
+            intSetInstance = new IntSet(16);
+            for (int i = 0; i < size; i++) {
+                intSetInstance.add(keys[i]);
+            }
+            return intSetInstance.size();
+        }
+        int hits = 0;
+        for (int probe : probes) {
+            if (intSetInstance.contains(probe)) hits++;
+        }
+        return hits;
+    }
+
+    private int boxedList(int mode) {
+        if (mode == 0) {
+            boxedListInstance = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                boxedListInstance.add(keys[i]);
+            }
+            return boxedListInstance.size();
+        }
+        int sum = 0;
+        for (int probe : probes) {
+            sum += boxedListInstance.get(probe % size);
+        }
+        return sum;
+    }
+
+    private int intList(int mode) {
+        if (mode == 0) {
+            intListInstance = new IntList();
+            for (int i = 0; i < size; i++) {
+                intListInstance.add(keys[i]);
+            }
+            return intListInstance.size();
+        }
+        int sum = 0;
+        for (int probe : probes) {
+            sum += intListInstance.get(probe % size);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.dndfactionsimulator.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to int values, with no boxing.
+ * Integer.MIN_VALUE is reserved as the empty-slot marker and cannot be used as a key.
+ */
+public class IntIntMap {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int shift;
+
+    public IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The value for key, or missing if there is none
+     */
+    public int get(int key, int missing) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int current = keys[slot];
+            if (current == key) return values[slot];
+            if (current == EMPTY) return missing;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int current = keys[slot];
+            if (current == key) return true;
+            if (current == EMPTY) return false;
+        }
+    }
+
+    public void put(int key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key: " + key);
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                values[slot] = value;
+                rehash(keys.length * 2);
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes the key and returns its value, or missing if there was none
+     */
+    public int remove(int key, int missing) {
+        if (key == EMPTY) return missing;
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) return missing;
+            slot = (slot + 1) & mask;
+        }
+        int value = values[slot];
+        size--;
+
+        // Shift later entries of the probe run back into the gap, so lookups never stop
+        // early at it (an entry may move if the gap lies between its home slot and it)
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        return value;
+    }
+
+    /**
+     * Removes every entry, keeping the table's capacity
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing: sequential ids land evenly spaced over the table
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = slot(oldKeys[i]);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.dndfactionsimulator.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of ints, with no boxing.
+ * Integer.MIN_VALUE is reserved as the empty-slot marker and cannot be added.
+ */
+public class IntSet {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int size;
+    private int mask;
+    private int shift;
+
+    public IntSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int current = keys[slot];
+            if (current == key) return true;
+            if (current == EMPTY) return false;
+        }
+    }
+
+    /**
+     * Adds the key; returns false if it was already present
+     */
+    public boolean add(int key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key: " + key);
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the key; returns false if it wasn't present
+     */
+    public boolean remove(int key) {
+        if (key == EMPTY) return false;
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) return false;
+            slot = (slot + 1) & mask;
+        }
+        size--;
+
+        // Shift later entries of the probe run back into the gap, so lookups never stop
+        // early at it (an entry may move if the gap lies between its home slot and it)
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        return true;
+    }
+
+    /**
+     * Removes every key, keeping the table's capacity
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing: sequential ids land evenly spaced over the table
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        for (int key : oldKeys) {
+            if (key == EMPTY) continue;
+            int slot = slot(key);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.dndfactionsimulator.analytics;
+
+import org.example.dndfactionsimulator.model.Alignment;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.FactionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private static Faction faction(int id, int gold, int troops) {
+        Faction faction = new Faction("Faction " + id, FactionType.GUILD, Alignment.TRUE_NEUTRAL);
+        faction.setId(id);
+        faction.setGold(gold);
+        faction.setTroops(troops);
+        return faction;
+    }
+
+    /**
+     * Active factions sorted the way the leaderboard ranks them: higher gold first, then lower id
+     */
+    private static List<Faction> expectedGoldOrder(List<Faction> factions) {
+        return factions.stream()
+                .filter(Faction::isActive)
+                .sorted(Comparator.comparingInt(Faction::getGold).reversed().thenComparingInt(Faction::getId))
+                .toList();
+    }
+
+    private static void assertMatches(Leaderboard leaderboard, List<Faction> factions) {
+        List<Faction> expected = expectedGoldOrder(factions);
+        assertEquals(expected.size(), leaderboard.size());
+        for (int rank = 1; rank <= expected.size(); rank++) {
+            int id = expected.get(rank - 1).getId();
+            assertEquals(rank, leaderboard.getRank(WorldRollup.Measure.GOLD, id), "rank of " + id);
+            assertEquals(id, leaderboard.getFactionAtRank(WorldRollup.Measure.GOLD, rank), "faction at " + rank);
+        }
+        int[] top = leaderboard.getTop(WorldRollup.Measure.GOLD, 10);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals(expected.get(i).getId(), top[i]);
+        }
+    }
+
+    @Test
+    void ranksByValueThenId() {
+        List<Faction> factions = List.of(faction(1, 50, 0), faction(2, 80, 0), faction(3, 50, 0), faction(4, 10, 0));
+        Leaderboard leaderboard = new Leaderboard(factions);
+
+        assertArrayEquals(new int[]{2, 1, 3, 4}, leaderboard.getTop(WorldRollup.Measure.GOLD, 10));
+        assertEquals(1, leaderboard.getRank(WorldRollup.Measure.GOLD, 2));
+        assertEquals(4, leaderboard.getFactionAtRank(WorldRollup.Measure.GOLD, 4));
+        assertEquals(100.0, leaderboard.getPercentile(WorldRollup.Measure.GOLD, 2));
+        assertEquals(0.0, leaderboard.getPercentile(WorldRollup.Measure.GOLD, 4));
+        assertEquals(-1, leaderboard.getFactionAtRank(WorldRollup.Measure.GOLD, 0));
+        assertEquals(-1, leaderboard.getFactionAtRank(WorldRollup.Measure.GOLD, 5));
+        assertEquals(-1, leaderboard.getRank(WorldRollup.Measure.GOLD, 99));
+    }
+
+    @Test
+    void measuresAreRankedIndependently() {
+        List<Faction> factions = List.of(faction(1, 100, 5), faction(2, 5, 100));
+        Leaderboard leaderboard = new Leaderboard(factions);
+
+        assertEquals(1, leaderboard.getFactionAtRank(WorldRollup.Measure.GOLD, 1));
+        assertEquals(2, leaderboard.getFactionAtRank(WorldRollup.Measure.TROOPS, 1));
+    }
+
+    @Test
+    void rankAndSelectFollowUpdatesAndDeletes() {
+        Random random = new Random(11L);
+        List<Faction> factions = new ArrayList<>();
+        for (int id = 1; id <= 300; id++) {
+            factions.add(faction(id, random.nextInt(1000), random.nextInt(1000)));
+        }
+        Leaderboard leaderboard = new Leaderboard(factions);
+        assertMatches(leaderboard, factions);
+
+        for (int round = 0; round < 50; round++) {
+            List<Faction> changed = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Faction faction = factions.get(random.nextInt(factions.size()));
+                // Narrow range so ties are common
+                faction.setGold(random.nextInt(200));
+                changed.add(faction);
+            }
+            Faction toggled = factions.get(random.nextInt(factions.size()));
+            toggled.setActive(!toggled.isActive());
+            changed.add(toggled);
+            leaderboard.factionsChanged(changed);
+
+            if (round % 10 == 9) {
+                Faction deleted = factions.remove(random.nextInt(factions.size()));
+                leaderboard.factionDeleted(deleted.getId());
+                assertEquals(-1, leaderboard.getRank(WorldRollup.Measure.GOLD, deleted.getId()));
+            }
+            assertMatches(leaderboard, factions);
+        }
+
+        // Ids past the current capacity are added too
+        Faction late = faction(5000, 10_000, 0);
+        factions.add(late);
+        leaderboard.factionsChanged(List.of(late));
+        assertEquals(1, leaderboard.getRank(WorldRollup.Measure.GOLD, 5000));
+        assertMatches(leaderboard, factions);
+    }
+}
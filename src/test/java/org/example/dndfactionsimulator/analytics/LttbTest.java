@@ -0,0 +1,84 @@
+package org.example.dndfactionsimulator.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LttbTest {
+
+    private static TimeSeries series(int[] values) {
+        int[] turns = new int[values.length];
+        for (int i = 0; i < turns.length; i++) {
+            turns[i] = i + 1;
+        }
+        return new TimeSeries(turns, values, values.length);
+    }
+
+    private static TimeSeries randomWalk(int size, Random random) {
+        int[] values = new int[size];
+        for (int i = 1; i < size; i++) {
+            values[i] = values[i - 1] + random.nextInt(11) - 5;
+        }
+        return series(values);
+    }
+
+    @Test
+    void keepsThresholdSamplesIncludingBothEnds() {
+        Random random = new Random(3L);
+        for (int size : new int[]{4, 10, 257, 5000}) {
+            TimeSeries series = randomWalk(size, random);
+            for (int threshold : new int[]{3, 4, 50, size - 1}) {
+                if (threshold >= size) {
+                    continue;
+                }
+                TimeSeries sampled = Lttb.downsample(series, threshold);
+
+                assertEquals(threshold, sampled.size(), size + " -> " + threshold);
+                assertEquals(series.getTurn(0), sampled.getTurn(0));
+                assertEquals(series.getValue(0), sampled.getValue(0));
+                assertEquals(series.getTurn(size - 1), sampled.getTurn(threshold - 1));
+                assertEquals(series.getValue(size - 1), sampled.getValue(threshold - 1));
+                for (int i = 1; i < threshold; i++) {
+                    // Every kept sample is an original one, in turn order
+                    assertTrue(sampled.getTurn(i) > sampled.getTurn(i - 1));
+                    assertEquals(series.getValue(sampled.getTurn(i) - 1), sampled.getValue(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void keepsAnExtremePeak() {
+        int[] values = new int[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7;
+        }
+        values[613] = 10_000;
+        values[200] = -10_000;
+
+        TimeSeries sampled = Lttb.downsample(series(values), 20);
+
+        boolean peak = false;
+        boolean trough = false;
+        for (int i = 0; i < sampled.size(); i++) {
+            peak |= sampled.getTurn(i) == 614 && sampled.getValue(i) == 10_000;
+            trough |= sampled.getTurn(i) == 201 && sampled.getValue(i) == -10_000;
+        }
+        assertTrue(peak, "peak dropped");
+        assertTrue(trough, "trough dropped");
+    }
+
+    @Test
+    void shortSeriesAndSmallThresholdsPassThrough() {
+        TimeSeries series = randomWalk(50, new Random(9L));
+
+        assertSame(series, Lttb.downsample(series, 50));
+        assertSame(series, Lttb.downsample(series, 80));
+        assertSame(series, Lttb.downsample(series, 2));
+        assertSame(series, Lttb.downsample(series, 0));
+        TimeSeries empty = series(new int[0]);
+        assertSame(empty, Lttb.downsample(empty, 10));
+    }
+}
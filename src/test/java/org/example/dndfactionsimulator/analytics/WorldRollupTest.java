@@ -0,0 +1,161 @@
+package org.example.dndfactionsimulator.analytics;
+
+import org.example.dndfactionsimulator.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldRollupTest {
+
+    private static final FactionType[] TYPES = FactionType.values();
+    private static final Alignment[] ALIGNMENTS = Alignment.values();
+    private static final RelationshipType[] RELATIONSHIP_TYPES = RelationshipType.values();
+
+    private static Faction faction(int id, Random random) {
+        Faction faction = new Faction("Faction " + id,
+                TYPES[random.nextInt(TYPES.length)], ALIGNMENTS[random.nextInt(ALIGNMENTS.length)]);
+        faction.setId(id);
+        faction.setGold(random.nextInt(1000));
+        faction.setTroops(random.nextInt(500));
+        faction.setMagic(random.nextInt(100));
+        faction.setInfluence(random.nextInt(100));
+        return faction;
+    }
+
+    private static Relationship relationship(int id, Random random) {
+        Relationship relationship = new Relationship(id, id + 1,
+                RELATIONSHIP_TYPES[random.nextInt(RELATIONSHIP_TYPES.length)], 0);
+        relationship.setId(id);
+        return relationship;
+    }
+
+    private static long measure(Faction faction, WorldRollup.Measure measure) {
+        return switch (measure) {
+            case GOLD -> faction.getGold();
+            case TROOPS -> faction.getTroops();
+            case MAGIC -> faction.getMagic();
+            case INFLUENCE -> faction.getInfluence();
+            case STRENGTH -> faction.getStrength();
+        };
+    }
+
+    /**
+     * Recounts every cell of the rollup from the factions and relationships as they are now
+     */
+    private static void assertMatchesRecount(WorldRollup rollup, Map<Integer, Faction> factions,
+                                             Map<Integer, Relationship> relationships) {
+        assertEquals(factions.size(), rollup.getTotalFactions());
+        for (boolean active : new boolean[]{true, false}) {
+            int total = 0;
+            for (FactionType type : TYPES) {
+                for (Alignment alignment : ALIGNMENTS) {
+                    int count = 0;
+                    long[] sums = new long[WorldRollup.Measure.values().length];
+                    for (Faction faction : factions.values()) {
+                        if (faction.getType() == type && faction.getAlignment() == alignment && faction.isActive() == active) {
+                            count++;
+                            for (WorldRollup.Measure measure : WorldRollup.Measure.values()) {
+                                sums[measure.ordinal()] += measure(faction, measure);
+                            }
+                        }
+                    }
+                    total += count;
+                    assertEquals(count, rollup.getCount(type, alignment, active), type + " " + alignment + " " + active);
+                    for (WorldRollup.Measure measure : WorldRollup.Measure.values()) {
+                        assertEquals(sums[measure.ordinal()], rollup.getSum(type, alignment, active, measure),
+                                measure + " of " + type + " " + alignment + " " + active);
+                    }
+                }
+            }
+            assertEquals(total, rollup.getCount(active));
+            for (FactionType type : TYPES) {
+                long count = factions.values().stream().filter(f -> f.getType() == type && f.isActive() == active).count();
+                assertEquals(count, rollup.getCount(type, active));
+                assertEquals(count, (long) rollup.getTypeCounts(active).getOrDefault(type, 0));
+            }
+            for (Alignment alignment : ALIGNMENTS) {
+                long count = factions.values().stream().filter(f -> f.getAlignment() == alignment && f.isActive() == active).count();
+                assertEquals(count, rollup.getCount(alignment, active));
+                assertEquals(count, (long) rollup.getAlignmentCounts(active).getOrDefault(alignment, 0));
+            }
+            for (WorldRollup.Measure measure : WorldRollup.Measure.values()) {
+                long sum = factions.values().stream().filter(f -> f.isActive() == active).mapToLong(f -> measure(f, measure)).sum();
+                assertEquals(sum, rollup.getSum(active, measure));
+            }
+        }
+
+        assertEquals(relationships.size(), rollup.getTotalRelationships());
+        for (RelationshipType type : RELATIONSHIP_TYPES) {
+            long count = relationships.values().stream().filter(r -> r.getType() == type).count();
+            assertEquals(count, rollup.getRelationshipCount(type), type.name());
+        }
+    }
+
+    @Test
+    void countsFollowCreateUpdateDeactivateAndDelete() {
+        Random random = new Random(5L);
+        Map<Integer, Faction> factions = new LinkedHashMap<>();
+        Map<Integer, Relationship> relationships = new LinkedHashMap<>();
+        for (int id = 1; id <= 100; id++) {
+            factions.put(id, faction(id, random));
+            relationships.put(id, relationship(id, random));
+        }
+        WorldRollup rollup = new WorldRollup(new ArrayList<>(factions.values()), new ArrayList<>(relationships.values()));
+        assertMatchesRecount(rollup, factions, relationships);
+
+        int nextId = 101;
+        for (int round = 0; round < 200; round++) {
+            List<Faction> changed = new ArrayList<>();
+            List<Faction> existing = new ArrayList<>(factions.values());
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    Faction created = faction(nextId++, random);
+                    factions.put(created.getId(), created);
+                    changed.add(created);
+                }
+                case 1 -> {
+                    for (int i = 0; i < 5; i++) {
+                        Faction faction = existing.get(random.nextInt(existing.size()));
+                        faction.setGold(random.nextInt(1000));
+                        faction.setTroops(random.nextInt(500));
+                        faction.setType(TYPES[random.nextInt(TYPES.length)]);
+                        // The same faction may appear twice in one notification
+                        changed.add(faction);
+                        changed.add(faction);
+                    }
+                }
+                case 2 -> {
+                    Faction faction = existing.get(random.nextInt(existing.size()));
+                    faction.setActive(!faction.isActive());
+                    changed.add(faction);
+                }
+                case 3 -> {
+                    Faction deleted = factions.remove(existing.get(random.nextInt(existing.size())).getId());
+                    rollup.factionDeleted(deleted.getId());
+                    // Deleting twice, or an unknown id, changes nothing
+                    rollup.factionDeleted(deleted.getId());
+                }
+                default -> {
+                    List<Relationship> changedRelationships = new ArrayList<>();
+                    for (int i = 0; i < 5; i++) {
+                        Relationship relationship = random.nextBoolean()
+                                ? relationships.get(1 + random.nextInt(relationships.size()))
+                                : relationship(relationships.size() + 1, random);
+                        relationship.setType(RELATIONSHIP_TYPES[random.nextInt(RELATIONSHIP_TYPES.length)]);
+                        relationships.put(relationship.getId(), relationship);
+                        changedRelationships.add(relationship);
+                    }
+                    rollup.relationshipsChanged(changedRelationships);
+                }
+            }
+            rollup.factionsChanged(changed);
+            assertMatchesRecount(rollup, factions, relationships);
+        }
+    }
+}
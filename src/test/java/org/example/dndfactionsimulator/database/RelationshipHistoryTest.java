@@ -0,0 +1,165 @@
+package org.example.dndfactionsimulator.database;
+
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelationshipHistoryTest {
+
+    private static Relationship relationship(int id, int factionA, int factionB, int strength) {
+        Relationship relationship = new Relationship(factionA, factionB, RelationshipType.fromStrength(strength), strength);
+        relationship.setId(id);
+        return relationship;
+    }
+
+    /**
+     * Applies one history row to a decoded state: id -> {strength, type, faction1, faction2}
+     */
+    private static void apply(Map<Integer, int[]> state, byte[] row) {
+        RelationshipHistory.Reader reader = new RelationshipHistory.Reader(row);
+        while (reader.next()) {
+            if (reader.isNew) {
+                state.put(reader.relationshipId, new int[]{
+                        reader.strengthDelta, reader.type.ordinal(), reader.faction1Id, reader.faction2Id});
+                continue;
+            }
+            int[] record = state.get(reader.relationshipId);
+            assertNotNull(record, "change to unknown relationship " + reader.relationshipId);
+            record[0] += reader.strengthDelta;
+            if (reader.type != null) {
+                record[1] = reader.type.ordinal();
+            }
+        }
+    }
+
+    private static Map<Integer, int[]> decode(byte[]... rows) {
+        Map<Integer, int[]> state = new TreeMap<>();
+        for (byte[] row : rows) {
+            if (row != null) {
+                apply(state, row);
+            }
+        }
+        return state;
+    }
+
+    private static void assertState(List<Relationship> expected, Map<Integer, int[]> state) {
+        assertEquals(expected.size(), state.size());
+        for (Relationship relationship : expected) {
+            int[] record = state.get(relationship.getId());
+            assertNotNull(record, "missing relationship " + relationship.getId());
+            assertEquals(relationship.getStrength(), record[0], "strength of " + relationship.getId());
+            assertEquals(relationship.getType().ordinal(), record[1], "type of " + relationship.getId());
+            assertEquals(relationship.getFaction1Id(), record[2]);
+            assertEquals(relationship.getFaction2Id(), record[3]);
+        }
+    }
+
+    @Test
+    void unchangedRelationshipsRecordNothing() {
+        List<Relationship> relationships = List.of(relationship(1, 1, 2, 10), relationship(2, 2, 3, -40));
+        RelationshipHistory history = new RelationshipHistory(relationships, 0);
+
+        assertNull(history.recordChanges(relationships));
+    }
+
+    @Test
+    void changesRoundTripAcrossKeyframe() {
+        Random random = new Random(7L);
+        List<Relationship> relationships = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            relationships.add(relationship(id * 3, id, id + 1 + random.nextInt(50), random.nextInt(201) - 100));
+        }
+        RelationshipHistory history = new RelationshipHistory(relationships, 0);
+        byte[] firstKeyframe = history.keyframe(0);
+        assertState(relationships, decode(firstKeyframe));
+
+        List<byte[]> rows = new ArrayList<>();
+        byte[] secondKeyframe = null;
+        List<byte[]> rowsAfterSecond = new ArrayList<>();
+        int nextId = 1000;
+        for (int turn = 1; turn <= RelationshipHistory.KEYFRAME_INTERVAL + 10; turn++) {
+            List<Relationship> changed = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                Relationship relationship = relationships.get(random.nextInt(relationships.size()));
+                int strength = Math.max(-100, Math.min(100, relationship.getStrength() + random.nextInt(21) - 10));
+                relationship.setStrength(strength);
+                relationship.setType(RelationshipType.fromStrength(strength));
+                // Repeats are allowed and must collapse into one record
+                changed.add(relationship);
+                changed.add(relationship);
+            }
+            if (turn % 5 == 0) {
+                Relationship added = relationship(nextId++, 500 + turn, 600 + turn, random.nextInt(201) - 100);
+                relationships.add(added);
+                changed.add(added);
+            }
+
+            byte[] row = history.recordChanges(changed);
+            if (turn == RelationshipHistory.KEYFRAME_INTERVAL) {
+                rows.add(row);
+                secondKeyframe = history.keyframe(turn);
+                assertEquals(turn, history.getLastKeyframeTurn());
+            } else if (secondKeyframe != null) {
+                rowsAfterSecond.add(row);
+            } else {
+                rows.add(row);
+            }
+        }
+
+        // Replaying every row from the first keyframe reaches the second keyframe's state...
+        List<byte[]> all = new ArrayList<>();
+        all.add(firstKeyframe);
+        all.addAll(rows);
+        Map<Integer, int[]> fromFirst = decode(all.toArray(new byte[0][]));
+        Map<Integer, int[]> atSecond = decode(secondKeyframe);
+        assertEquals(fromFirst.keySet(), atSecond.keySet());
+        fromFirst.forEach((id, record) -> assertArrayEquals(record, atSecond.get(id), "relationship " + id));
+
+        // ...and the second keyframe plus the rows after it reaches the current state
+        all.clear();
+        all.add(secondKeyframe);
+        all.addAll(rowsAfterSecond);
+        assertState(relationships, decode(all.toArray(new byte[0][])));
+    }
+
+    @Test
+    void outOfRangeStrengthsAreClampedBeforeTheyAreStored() {
+        // Stored as one byte, so anything past -128..127 would wrap if it got through
+        Relationship relationship = relationship(1, 1, 2, 300);
+        Relationship enemy = relationship(2, 1, 3, -200);
+        assertEquals(100, relationship.getStrength());
+        assertEquals(-100, enemy.getStrength());
+
+        RelationshipHistory history = new RelationshipHistory(List.of(relationship, enemy), 0);
+        Map<Integer, int[]> state = decode(history.keyframe(0));
+        assertEquals(100, state.get(1)[0]);
+        assertEquals(-100, state.get(2)[0]);
+        assertNull(history.recordChanges(List.of(relationship, enemy)));
+    }
+
+    @Test
+    void negativeAndLargeDeltasSurviveVarintEncoding() {
+        Relationship relationship = relationship(70_000, 1, 2, 100);
+        RelationshipHistory history = new RelationshipHistory(List.of(relationship), 0);
+
+        relationship.setStrength(-100);
+        relationship.setType(RelationshipType.fromStrength(-100));
+        byte[] row = history.recordChanges(List.of(relationship));
+
+        RelationshipHistory.Reader reader = new RelationshipHistory.Reader(row);
+        assertTrue(reader.next());
+        assertEquals(70_000, reader.relationshipId);
+        assertEquals(-200, reader.strengthDelta);
+        assertEquals(RelationshipType.fromStrength(-100), reader.type);
+        assertFalse(reader.isNew);
+        assertFalse(reader.next());
+    }
+}
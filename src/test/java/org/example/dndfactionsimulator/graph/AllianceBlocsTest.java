@@ -0,0 +1,188 @@
+package org.example.dndfactionsimulator.graph;
+
+import org.example.dndfactionsimulator.model.Alignment;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.FactionType;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllianceBlocsTest {
+
+    private static final int FACTIONS = 120;
+    private static final RelationshipType[] FRIENDLY = {RelationshipType.ALLIED, RelationshipType.FRIENDLY};
+    private static final RelationshipType[] UNFRIENDLY = {
+            RelationshipType.NEUTRAL, RelationshipType.UNFRIENDLY, RelationshipType.HOSTILE, RelationshipType.AT_WAR};
+
+    private static Faction faction(int id, Random random) {
+        Faction faction = new Faction("Faction " + id, FactionType.GUILD, Alignment.TRUE_NEUTRAL);
+        faction.setId(id);
+        faction.setGold(random.nextInt(1000));
+        return faction;
+    }
+
+    private static Relationship relationship(int id, int factionA, int factionB, RelationshipType type) {
+        Relationship relationship = new Relationship(factionA, factionB, type, 0);
+        relationship.setId(id);
+        return relationship;
+    }
+
+    private static boolean isFriendly(RelationshipType type) {
+        return type == RelationshipType.ALLIED || type == RelationshipType.FRIENDLY;
+    }
+
+    /**
+     * Connected components of the active factions over friendly relationships, found
+     * from scratch with a flood fill; every inactive faction is a bloc of its own
+     */
+    private static Map<Integer, Set<Integer>> components(Map<Integer, Faction> factions, List<Relationship> relationships) {
+        Map<Integer, List<Integer>> adjacency = new HashMap<>();
+        for (Relationship relationship : relationships) {
+            if (!isFriendly(relationship.getType())) continue;
+            adjacency.computeIfAbsent(relationship.getFaction1Id(), id -> new ArrayList<>()).add(relationship.getFaction2Id());
+            adjacency.computeIfAbsent(relationship.getFaction2Id(), id -> new ArrayList<>()).add(relationship.getFaction1Id());
+        }
+        Map<Integer, Set<Integer>> componentOf = new HashMap<>();
+        for (Faction faction : factions.values()) {
+            int start = faction.getId();
+            if (componentOf.containsKey(start)) continue;
+            Set<Integer> component = new HashSet<>();
+            component.add(start);
+            if (faction.isActive()) {
+                List<Integer> stack = new ArrayList<>(List.of(start));
+                while (!stack.isEmpty()) {
+                    int id = stack.remove(stack.size() - 1);
+                    for (int neighbor : adjacency.getOrDefault(id, List.of())) {
+                        Faction other = factions.get(neighbor);
+                        if (other != null && other.isActive() && component.add(neighbor)) {
+                            stack.add(neighbor);
+                        }
+                    }
+                }
+            }
+            for (int member : component) {
+                componentOf.put(member, component);
+            }
+        }
+        return componentOf;
+    }
+
+    private static long strengthOf(Set<Integer> component, Map<Integer, Faction> factions) {
+        return component.stream().map(factions::get).filter(Faction::isActive).mapToLong(Faction::getStrength).sum();
+    }
+
+    private static void assertMatchesComponents(AllianceBlocs blocs, Map<Integer, Faction> factions,
+                                                List<Relationship> relationships) {
+        Map<Integer, Set<Integer>> componentOf = components(factions, relationships);
+        for (Faction faction : factions.values()) {
+            int id = faction.getId();
+            Set<Integer> component = componentOf.get(id);
+
+            int[] members = blocs.getBlocMembers(id);
+            Arrays.sort(members);
+            assertArrayEquals(component.stream().mapToInt(Integer::intValue).sorted().toArray(), members, "bloc of " + id);
+            assertEquals(component.size(), blocs.getBlocSize(id));
+            assertEquals(strengthOf(component, factions), blocs.getBlocStrength(id), "strength of bloc of " + id);
+            for (int member : component) {
+                assertTrue(blocs.sameBloc(id, member));
+            }
+        }
+
+        List<Set<Integer>> expected = componentOf.values().stream()
+                .distinct()
+                .filter(component -> component.size() >= 2)
+                .toList();
+        List<AllianceBlocs.Bloc> actual = blocs.getBlocs(2);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            AllianceBlocs.Bloc bloc = actual.get(i);
+            Set<Integer> component = componentOf.get(bloc.id());
+            assertEquals(component.size(), bloc.size());
+            assertEquals(strengthOf(component, factions), bloc.strength());
+            if (i > 0) {
+                assertTrue(actual.get(i - 1).strength() >= bloc.strength(), "strongest first");
+            }
+        }
+    }
+
+    @Test
+    void blocsMatchConnectedComponentsAfterRandomChanges() {
+        Random random = new Random(23L);
+        Map<Integer, Faction> factions = new HashMap<>();
+        for (int id = 1; id <= FACTIONS; id++) {
+            factions.put(id, faction(id, random));
+        }
+        List<Relationship> relationships = new ArrayList<>();
+        Set<Long> pairs = new HashSet<>();
+        while (relationships.size() < FACTIONS) {
+            int a = 1 + random.nextInt(FACTIONS);
+            int b = 1 + random.nextInt(FACTIONS);
+            if (a != b && pairs.add(RelationshipGraph.pairKey(a, b))) {
+                RelationshipType[] types = random.nextInt(3) == 0 ? FRIENDLY : UNFRIENDLY;
+                relationships.add(relationship(relationships.size() + 1, a, b, types[random.nextInt(types.length)]));
+            }
+        }
+
+        RelationshipGraph graph = new RelationshipGraph(relationships);
+        AllianceBlocs blocs = new AllianceBlocs(graph, factions.values(), relationships);
+        assertMatchesComponents(blocs, factions, relationships);
+
+        for (int round = 0; round < 400; round++) {
+            switch (random.nextInt(5)) {
+                case 0, 1 -> {
+                    // Strengthen or weaken a few relationships, sometimes adding a new one
+                    List<Relationship> changed = new ArrayList<>();
+                    for (int i = 0; i < 1 + random.nextInt(4); i++) {
+                        Relationship relationship;
+                        int a = 1 + random.nextInt(FACTIONS);
+                        int b = 1 + random.nextInt(FACTIONS);
+                        if (random.nextInt(4) == 0 && a != b && pairs.add(RelationshipGraph.pairKey(a, b))) {
+                            relationship = relationship(relationships.size() + 1, a, b, RelationshipType.NEUTRAL);
+                            relationships.add(relationship);
+                        } else {
+                            relationship = relationships.get(random.nextInt(relationships.size()));
+                        }
+                        RelationshipType[] types = random.nextBoolean() ? FRIENDLY : UNFRIENDLY;
+                        relationship.setType(types[random.nextInt(types.length)]);
+                        changed.add(relationship);
+                    }
+                    // The graph registers first, as it does with the database
+                    graph.relationshipsChanged(changed);
+                    blocs.relationshipsChanged(changed);
+                }
+                case 2 -> {
+                    Faction faction = factions.get(1 + random.nextInt(FACTIONS));
+                    faction.setActive(!faction.isActive());
+                    blocs.factionsChanged(List.of(faction));
+                }
+                case 3 -> {
+                    List<Faction> changed = new ArrayList<>();
+                    for (int i = 0; i < 5; i++) {
+                        Faction faction = factions.get(1 + random.nextInt(FACTIONS));
+                        faction.setGold(random.nextInt(1000));
+                        changed.add(faction);
+                    }
+                    blocs.factionsChanged(changed);
+                }
+                default -> {
+                    // A deleted faction drops out of its bloc like a destroyed one
+                    Faction faction = factions.get(1 + random.nextInt(FACTIONS));
+                    faction.setActive(false);
+                    blocs.factionDeleted(faction.getId());
+                }
+            }
+            assertMatchesComponents(blocs, factions, relationships);
+        }
+    }
+}
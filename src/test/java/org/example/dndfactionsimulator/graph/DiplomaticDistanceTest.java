@@ -0,0 +1,240 @@
+package org.example.dndfactionsimulator.graph;
+
+import org.example.dndfactionsimulator.model.Alignment;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.FactionType;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiplomaticDistanceTest {
+
+    private static final int FACTIONS = 200;
+    private static final RelationshipType[] TYPES = RelationshipType.values();
+
+    private static Faction faction(int id) {
+        Faction faction = new Faction("Faction " + id, FactionType.GUILD, Alignment.TRUE_NEUTRAL);
+        faction.setId(id);
+        return faction;
+    }
+
+    private static Relationship relationship(int id, int factionA, int factionB, RelationshipType type) {
+        Relationship relationship = new Relationship(factionA, factionB, type, 0);
+        relationship.setId(id);
+        return relationship;
+    }
+
+    private static boolean isFriendly(RelationshipType type) {
+        return type == RelationshipType.ALLIED || type == RelationshipType.FRIENDLY;
+    }
+
+    private static boolean isHostile(RelationshipType type) {
+        return type == RelationshipType.HOSTILE || type == RelationshipType.AT_WAR;
+    }
+
+    /**
+     * The world as the test sees it: which factions are active and the type of every pair
+     */
+    private static class World {
+        final Map<Integer, Faction> factions = new HashMap<>();
+        final List<Relationship> relationships = new ArrayList<>();
+        final Map<Long, Relationship> byPair = new HashMap<>();
+
+        boolean isActive(int id) {
+            Faction faction = factions.get(id);
+            return faction != null && faction.isActive();
+        }
+
+        RelationshipType typeOf(int a, int b) {
+            Relationship relationship = byPair.get(RelationshipGraph.pairKey(a, b));
+            return relationship == null ? null : relationship.getType();
+        }
+
+        List<Integer> neighbors(int id, boolean friendly) {
+            List<Integer> result = new ArrayList<>();
+            for (Relationship relationship : relationships) {
+                boolean matches = friendly ? isFriendly(relationship.getType()) : isHostile(relationship.getType());
+                if (!matches) continue;
+                if (relationship.getFaction1Id() == id) result.add(relationship.getFaction2Id());
+                if (relationship.getFaction2Id() == id) result.add(relationship.getFaction1Id());
+            }
+            return result;
+        }
+
+        /**
+         * Friendly handshakes from one active faction to another by plain breadth-first search, or -1
+         */
+        int distance(int from, int to) {
+            if (!isActive(from) || !isActive(to)) return -1;
+            Map<Integer, Integer> depth = new HashMap<>();
+            depth.put(from, 0);
+            ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(from));
+            while (!queue.isEmpty()) {
+                int current = queue.poll();
+                if (current == to) return depth.get(current);
+                for (int neighbor : neighbors(current, true)) {
+                    if (isActive(neighbor) && !depth.containsKey(neighbor)) {
+                        depth.put(neighbor, depth.get(current) + 1);
+                        queue.add(neighbor);
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static void assertPath(World world, DiplomaticDistance distance, int from, int to) {
+        int expected = world.distance(from, to);
+        int[] path = distance.findFriendlyPath(from, to);
+        assertEquals(expected, path.length - 1, "handshakes from " + from + " to " + to);
+        assertEquals(expected, distance.getHandshakes(from, to));
+        if (expected < 0) return;
+
+        assertEquals(from, path[0]);
+        assertEquals(to, path[path.length - 1]);
+        for (int i = 0; i < path.length; i++) {
+            assertTrue(world.isActive(path[i]), "inactive faction " + path[i] + " on path");
+            if (i > 0) {
+                RelationshipType type = world.typeOf(path[i - 1], path[i]);
+                assertTrue(type != null && isFriendly(type), path[i - 1] + " -> " + path[i] + " is " + type);
+            }
+        }
+    }
+
+    private static void assertThreats(World world, DiplomaticDistance distance, int factionId) {
+        List<DiplomaticDistance.Threat> threats = distance.getEnemiesWithinTwoHops(factionId);
+        if (!world.isActive(factionId)) {
+            assertTrue(threats.isEmpty());
+            return;
+        }
+
+        Set<Integer> direct = new HashSet<>();
+        for (int enemy : world.neighbors(factionId, false)) {
+            if (world.isActive(enemy)) direct.add(enemy);
+        }
+        Set<Integer> friends = new HashSet<>(world.neighbors(factionId, true));
+        Set<Integer> secondHop = new HashSet<>();
+        for (int friend : friends) {
+            if (!world.isActive(friend)) continue;
+            for (int enemy : world.neighbors(friend, false)) {
+                if (world.isActive(enemy) && enemy != factionId && !friends.contains(enemy) && !direct.contains(enemy)) {
+                    secondHop.add(enemy);
+                }
+            }
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        Set<Integer> foundDirect = new HashSet<>();
+        Set<Integer> foundSecondHop = new HashSet<>();
+        for (DiplomaticDistance.Threat threat : threats) {
+            assertTrue(seen.add(threat.factionId()), "enemy " + threat.factionId() + " listed twice");
+            if (threat.via() < 0) {
+                foundDirect.add(threat.factionId());
+                assertEquals(world.typeOf(factionId, threat.factionId()), threat.type());
+            } else {
+                foundSecondHop.add(threat.factionId());
+                assertTrue(friends.contains(threat.via()) && world.isActive(threat.via()));
+                assertEquals(world.typeOf(threat.via(), threat.factionId()), threat.type());
+            }
+        }
+        assertEquals(direct, foundDirect, "direct enemies of " + factionId);
+        assertEquals(secondHop, foundSecondHop, "enemies of friends of " + factionId);
+    }
+
+    @Test
+    void pathsAndThreatsMatchPlainSearchAfterChanges() {
+        Random random = new Random(13L);
+        World world = new World();
+        for (int id = 1; id <= FACTIONS; id++) {
+            world.factions.put(id, faction(id));
+        }
+        while (world.relationships.size() < FACTIONS * 3) {
+            int a = 1 + random.nextInt(FACTIONS);
+            int b = 1 + random.nextInt(FACTIONS);
+            long key = RelationshipGraph.pairKey(a, b);
+            if (a != b && !world.byPair.containsKey(key)) {
+                Relationship relationship = relationship(world.relationships.size() + 1, a, b,
+                        TYPES[random.nextInt(TYPES.length)]);
+                world.relationships.add(relationship);
+                world.byPair.put(key, relationship);
+            }
+        }
+
+        DiplomaticDistance distance = new DiplomaticDistance(world.factions.values(), world.relationships);
+        for (int round = 0; round < 60; round++) {
+            for (int query = 0; query < 40; query++) {
+                int from = 1 + random.nextInt(FACTIONS);
+                int to = 1 + random.nextInt(FACTIONS);
+                assertPath(world, distance, from, to);
+                // The reverse question comes out of the cache
+                assertPath(world, distance, to, from);
+            }
+            for (int query = 0; query < 10; query++) {
+                assertThreats(world, distance, 1 + random.nextInt(FACTIONS));
+            }
+
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    List<Relationship> changed = new ArrayList<>();
+                    for (int i = 0; i < 10; i++) {
+                        Relationship relationship = world.relationships.get(random.nextInt(world.relationships.size()));
+                        relationship.setType(TYPES[random.nextInt(TYPES.length)]);
+                        changed.add(relationship);
+                    }
+                    distance.relationshipsChanged(changed);
+                }
+                case 1 -> {
+                    Faction faction = world.factions.get(1 + random.nextInt(FACTIONS));
+                    faction.setActive(!faction.isActive());
+                    distance.factionsChanged(List.of(faction));
+                }
+                default -> {
+                    Faction faction = world.factions.get(1 + random.nextInt(FACTIONS));
+                    faction.setActive(false);
+                    distance.factionDeleted(faction.getId());
+                }
+            }
+        }
+        assertTrue(distance.getCacheHits() > 0);
+        assertTrue(distance.getSearches() > 0);
+    }
+
+    @Test
+    void enemyReachedThroughSeveralFriendsIsListedOnce() {
+        List<Faction> factions = new ArrayList<>();
+        for (int id = 1; id <= 6; id++) {
+            factions.add(faction(id));
+        }
+        DiplomaticDistance distance = new DiplomaticDistance(factions, List.of(
+                relationship(1, 1, 2, RelationshipType.ALLIED),
+                relationship(2, 1, 3, RelationshipType.FRIENDLY),
+                relationship(3, 1, 4, RelationshipType.FRIENDLY),
+                // 5 is an enemy of all three friends, and of 1 itself
+                relationship(4, 2, 5, RelationshipType.AT_WAR),
+                relationship(5, 3, 5, RelationshipType.HOSTILE),
+                relationship(6, 4, 5, RelationshipType.HOSTILE),
+                relationship(7, 1, 5, RelationshipType.HOSTILE),
+                // 6 is an enemy of two friends only; 3 is an enemy of friend 4 but a friend of 1
+                relationship(8, 2, 6, RelationshipType.HOSTILE),
+                relationship(9, 3, 6, RelationshipType.AT_WAR),
+                relationship(10, 4, 3, RelationshipType.HOSTILE)));
+
+        List<DiplomaticDistance.Threat> threats = distance.getEnemiesWithinTwoHops(1);
+
+        assertEquals(2, threats.size(), threats.toString());
+        assertEquals(new DiplomaticDistance.Threat(5, -1, RelationshipType.HOSTILE), threats.get(0));
+        assertEquals(6, threats.get(1).factionId());
+        assertTrue(threats.get(1).via() == 2 || threats.get(1).via() == 3);
+    }
+}
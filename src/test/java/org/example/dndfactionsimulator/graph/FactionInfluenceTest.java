@@ -0,0 +1,170 @@
+package org.example.dndfactionsimulator.graph;
+
+import org.example.dndfactionsimulator.model.Alignment;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.FactionType;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FactionInfluenceTest {
+
+    private static final int FACTIONS = 300;
+    // Warm runs stop once an iteration moves the scores less than 1e-6 in total
+    private static final double SCORE_TOLERANCE = 1e-5;
+
+    private static Faction faction(int id) {
+        Faction faction = new Faction("Faction " + id, FactionType.GUILD, Alignment.TRUE_NEUTRAL);
+        faction.setId(id);
+        return faction;
+    }
+
+    private static Relationship relationship(int id, int factionA, int factionB, int strength) {
+        Relationship relationship = new Relationship(factionA, factionB, RelationshipType.NEUTRAL, strength);
+        relationship.setId(id);
+        return relationship;
+    }
+
+    /**
+     * Weighted PageRank of the active factions from a uniform start, iterated until it
+     * stops moving; index is faction id
+     */
+    private static double[] coldPageRank(List<Faction> factions, List<Relationship> relationships) {
+        int[] rowById = new int[FACTIONS + 1];
+        int n = 0;
+        for (Faction faction : factions) {
+            rowById[faction.getId()] = faction.isActive() ? n++ : -1;
+        }
+        double[] outWeight = new double[n];
+        for (Relationship relationship : relationships) {
+            int a = rowById[relationship.getFaction1Id()];
+            int b = rowById[relationship.getFaction2Id()];
+            if (a >= 0 && b >= 0) {
+                double weight = (Math.abs(relationship.getStrength()) + 10) / 110.0;
+                outWeight[a] += weight;
+                outWeight[b] += weight;
+            }
+        }
+
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int iteration = 0; iteration < 10_000; iteration++) {
+            double dangling = 0;
+            for (int row = 0; row < n; row++) {
+                if (outWeight[row] == 0) dangling += rank[row];
+            }
+            double[] next = new double[n];
+            Arrays.fill(next, (1 - 0.85) / n + 0.85 * dangling / n);
+            for (Relationship relationship : relationships) {
+                int a = rowById[relationship.getFaction1Id()];
+                int b = rowById[relationship.getFaction2Id()];
+                if (a < 0 || b < 0) continue;
+                double weight = (Math.abs(relationship.getStrength()) + 10) / 110.0;
+                next[a] += 0.85 * weight * rank[b] / outWeight[b];
+                next[b] += 0.85 * weight * rank[a] / outWeight[a];
+            }
+            double change = 0;
+            for (int row = 0; row < n; row++) {
+                change += Math.abs(next[row] - rank[row]);
+            }
+            rank = next;
+            if (change < 1e-13) break;
+        }
+
+        double[] scoreById = new double[FACTIONS + 1];
+        for (Faction faction : factions) {
+            if (rowById[faction.getId()] >= 0) {
+                scoreById[faction.getId()] = rank[rowById[faction.getId()]];
+            }
+        }
+        return scoreById;
+    }
+
+    private static void assertMatchesColdRun(FactionInfluence influence, List<Faction> factions,
+                                             List<Relationship> relationships) {
+        double[] expected = coldPageRank(factions, relationships);
+        int active = (int) factions.stream().filter(Faction::isActive).count();
+        double totalError = 0;
+        for (Faction faction : factions) {
+            double score = influence.getInfluence(faction.getId()) / active;
+            if (!faction.isActive()) {
+                assertEquals(0, influence.getInfluence(faction.getId()), "inactive " + faction.getId());
+            }
+            totalError += Math.abs(score - expected[faction.getId()]);
+        }
+        assertTrue(totalError < SCORE_TOLERANCE, "scores off by " + totalError + " in total");
+
+        // The top of the ranking agrees wherever the scores are clearly apart
+        int[] top = influence.getTopFactions(10);
+        for (int i = 1; i < top.length; i++) {
+            assertTrue(expected[top[i - 1]] >= expected[top[i]] - SCORE_TOLERANCE, "rank " + i);
+        }
+    }
+
+    @Test
+    void warmStartedScoresMatchAColdRunAfterChanges() {
+        Random random = new Random(31L);
+        List<Faction> factions = new ArrayList<>();
+        for (int id = 1; id <= FACTIONS; id++) {
+            factions.add(faction(id));
+        }
+        List<Relationship> relationships = new ArrayList<>();
+        Set<Long> pairs = new HashSet<>();
+        while (relationships.size() < FACTIONS * 3) {
+            int a = 1 + random.nextInt(FACTIONS);
+            // A few hubs so the ranking isn't flat
+            int b = random.nextInt(4) == 0 ? 1 + random.nextInt(10) : 1 + random.nextInt(FACTIONS);
+            if (a != b && pairs.add(RelationshipGraph.pairKey(a, b))) {
+                relationships.add(relationship(relationships.size() + 1, a, b, random.nextInt(201) - 100));
+            }
+        }
+        // Factions 291..300 have no ties at all
+        relationships.removeIf(r -> r.getFaction1Id() > 290 || r.getFaction2Id() > 290);
+
+        RelationshipGraph graph = new RelationshipGraph(relationships);
+        FactionInfluence influence = new FactionInfluence(graph, factions);
+        assertMatchesColdRun(influence, factions, relationships);
+
+        int warmIterations = 0;
+        int coldIterations = 0;
+        for (int round = 0; round < 20; round++) {
+            if (round % 4 == 3) {
+                Faction faction = factions.get(random.nextInt(FACTIONS));
+                faction.setActive(!faction.isActive());
+                influence.factionsChanged(List.of(faction));
+            } else {
+                // A turn of diplomacy: a handful of ties drift
+                List<Relationship> changed = new ArrayList<>();
+                for (int i = 0; i < 15; i++) {
+                    Relationship relationship = relationships.get(random.nextInt(relationships.size()));
+                    relationship.setStrength(Math.max(-100, Math.min(100,
+                            relationship.getStrength() + random.nextInt(41) - 20)));
+                    changed.add(relationship);
+                }
+                graph.relationshipsChanged(changed);
+                influence.relationshipsChanged(changed);
+            }
+            assertMatchesColdRun(influence, factions, relationships);
+
+            warmIterations += influence.getLastIterations();
+            coldIterations += new FactionInfluence(graph, factions).getLastIterations();
+        }
+        assertTrue(warmIterations < coldIterations,
+                "warm starts took " + warmIterations + " iterations, cold " + coldIterations);
+
+        // Deleting a faction takes it out of the ranking
+        Faction deleted = factions.get(0);
+        influence.factionDeleted(deleted.getId());
+        deleted.setActive(false);
+        assertMatchesColdRun(influence, factions, relationships);
+    }
+}
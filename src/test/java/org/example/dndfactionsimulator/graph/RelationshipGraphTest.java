@@ -0,0 +1,85 @@
+package org.example.dndfactionsimulator.graph;
+
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelationshipGraphTest {
+
+    private static Relationship relationship(int id, int factionA, int factionB, int strength) {
+        Relationship relationship = new Relationship(factionA, factionB, RelationshipType.NEUTRAL, strength);
+        relationship.setId(id);
+        return relationship;
+    }
+
+    @Test
+    void pairLookupIgnoresOrder() {
+        Relationship ab = relationship(1, 3, 7, 40);
+        RelationshipGraph graph = new RelationshipGraph(List.of(ab));
+
+        assertSame(ab, graph.getRelationship(3, 7));
+        assertSame(ab, graph.getRelationship(7, 3));
+        assertTrue(graph.hasRelationship(7, 3));
+        assertFalse(graph.hasRelationship(3, 8));
+        assertNull(graph.getRelationship(3, 8));
+        assertEquals(RelationshipGraph.pairKey(3, 7), RelationshipGraph.pairKey(7, 3));
+    }
+
+    @Test
+    void neighboursAndDegree() {
+        RelationshipGraph graph = new RelationshipGraph(List.of(
+                relationship(1, 1, 2, 10),
+                relationship(2, 1, 3, -20),
+                relationship(3, 4, 1, 0),
+                relationship(4, 2, 3, 50)));
+
+        int[] neighbours = graph.getNeighbors(1);
+        Arrays.sort(neighbours);
+        assertArrayEquals(new int[]{2, 3, 4}, neighbours);
+        assertEquals(3, graph.getDegree(1));
+        assertEquals(2, graph.getDegree(2));
+        assertEquals(1, graph.getDegree(4));
+        assertEquals(0, graph.getDegree(99));
+        assertEquals(0, graph.getDegree(-1));
+        assertEquals(4, graph.getRelationshipCount());
+    }
+
+    @Test
+    void changedRelationshipReplacesExistingEdge() {
+        RelationshipGraph graph = new RelationshipGraph(List.of(relationship(1, 1, 2, 10)));
+        Relationship updated = relationship(1, 2, 1, -60);
+
+        graph.relationshipsChanged(List.of(updated));
+
+        assertSame(updated, graph.getRelationship(1, 2));
+        assertEquals(1, graph.getRelationshipCount());
+        assertEquals(1, graph.getDegree(1));
+        assertEquals(1, graph.getDegree(2));
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        RelationshipGraph graph = new RelationshipGraph(List.of());
+        Relationship[] added = new Relationship[500];
+        for (int i = 0; i < added.length; i++) {
+            // A hub with many neighbours plus a chain, so both edge and adjacency arrays grow
+            added[i] = i % 2 == 0 ? relationship(i + 1, 0, 1000 + i, i % 100) : relationship(i + 1, i, i + 1, -(i % 100));
+        }
+        graph.relationshipsChanged(List.of(added));
+
+        assertEquals(added.length, graph.getRelationshipCount());
+        assertEquals(added.length / 2, graph.getDegree(0));
+        for (Relationship relationship : added) {
+            assertSame(relationship, graph.getRelationship(relationship.getFaction2Id(), relationship.getFaction1Id()));
+        }
+        for (int i = 0; i < graph.getDegree(0); i++) {
+            assertSame(graph.getIncidentRelationship(0, i),
+                    graph.getRelationship(0, graph.getNeighbor(0, i)));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.dndfactionsimulator.network;
+
+import org.example.dndfactionsimulator.model.Alignment;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.FactionType;
+import org.example.dndfactionsimulator.model.Relationship;
+import org.example.dndfactionsimulator.model.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialIndexTest {
+
+    private static final int FACTIONS = 400;
+    private static final double NODE_RADIUS = 12;
+    private static final double EDGE_TOLERANCE = 5;
+
+    private static List<Faction> factions() {
+        List<Faction> factions = new ArrayList<>();
+        for (int id = 1; id <= FACTIONS; id++) {
+            Faction faction = new Faction("Faction " + id, FactionType.GUILD, Alignment.TRUE_NEUTRAL);
+            faction.setId(id);
+            factions.add(faction);
+        }
+        return factions;
+    }
+
+    private static List<Relationship> relationships(Random random) {
+        List<Relationship> relationships = new ArrayList<>();
+        for (int i = 0; i < FACTIONS * 2; i++) {
+            int a = 1 + random.nextInt(FACTIONS);
+            int b = 1 + random.nextInt(FACTIONS);
+            if (a != b) {
+                relationships.add(new Relationship(a, b, RelationshipType.NEUTRAL, 0));
+            }
+        }
+        return relationships;
+    }
+
+    private static NetworkScene scene(List<Faction> factions, List<Relationship> relationships, double[] x, double[] y) {
+        int[] ids = new int[FACTIONS];
+        for (int i = 0; i < FACTIONS; i++) {
+            ids[i] = i + 1;
+        }
+        LayoutSnapshot snapshot = new LayoutSnapshot(ids, x.clone(), y.clone(), 0, false);
+        return NetworkScene.build(factions, relationships, snapshot);
+    }
+
+    private static double nodeDistanceSq(NetworkScene scene, int node, double px, double py) {
+        double dx = scene.getX(node) - px;
+        double dy = scene.getY(node) - py;
+        return dx * dx + dy * dy;
+    }
+
+    private static double edgeDistanceSq(NetworkScene scene, int edge, double px, double py) {
+        double x1 = scene.getX(scene.getEdgeFrom(edge));
+        double y1 = scene.getY(scene.getEdgeFrom(edge));
+        double x2 = scene.getX(scene.getEdgeTo(edge));
+        double y2 = scene.getY(scene.getEdgeTo(edge));
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, ((px - x1) * dx + (py - y1) * dy) / lengthSq));
+        double nx = x1 + t * dx - px;
+        double ny = y1 + t * dy - py;
+        return nx * nx + ny * ny;
+    }
+
+    /**
+     * Compares picks at random points, and points right next to nodes and edges, with a linear scan.
+     * Ties may resolve to a different node or edge, so those are compared by distance.
+     */
+    private static void assertMatchesScan(SpatialIndex index, Random random) {
+        NetworkScene scene = index.getScene();
+        for (int probe = 0; probe < 2000; probe++) {
+            double px;
+            double py;
+            switch (probe % 3) {
+                case 0 -> {
+                    px = random.nextDouble() * 1200 - 600;
+                    py = random.nextDouble() * 1200 - 600;
+                }
+                case 1 -> {
+                    int node = random.nextInt(scene.getNodeCount());
+                    px = scene.getX(node) + random.nextGaussian() * NODE_RADIUS;
+                    py = scene.getY(node) + random.nextGaussian() * NODE_RADIUS;
+                }
+                default -> {
+                    int edge = random.nextInt(scene.getEdgeCount());
+                    double t = random.nextDouble();
+                    px = scene.getX(scene.getEdgeFrom(edge)) * (1 - t) + scene.getX(scene.getEdgeTo(edge)) * t
+                            + random.nextGaussian() * EDGE_TOLERANCE;
+                    py = scene.getY(scene.getEdgeFrom(edge)) * (1 - t) + scene.getY(scene.getEdgeTo(edge)) * t
+                            + random.nextGaussian() * EDGE_TOLERANCE;
+                }
+            }
+
+            int expectedNode = -1;
+            double bestNode = NODE_RADIUS * NODE_RADIUS;
+            for (int node = 0; node < scene.getNodeCount(); node++) {
+                double distSq = nodeDistanceSq(scene, node, px, py);
+                if (distSq <= bestNode) {
+                    bestNode = distSq;
+                    expectedNode = node;
+                }
+            }
+            int node = index.nodeAt(px, py, NODE_RADIUS);
+            if (node != expectedNode) {
+                assertTrue(node >= 0 && expectedNode >= 0, "node at " + px + "," + py);
+                assertEquals(bestNode, nodeDistanceSq(scene, node, px, py));
+            }
+
+            int expectedEdge = -1;
+            double bestEdge = EDGE_TOLERANCE * EDGE_TOLERANCE;
+            for (int edge = 0; edge < scene.getEdgeCount(); edge++) {
+                double distSq = edgeDistanceSq(scene, edge, px, py);
+                if (distSq <= bestEdge) {
+                    bestEdge = distSq;
+                    expectedEdge = edge;
+                }
+            }
+            int edge = index.edgeAt(px, py, EDGE_TOLERANCE);
+            if (edge != expectedEdge) {
+                assertTrue(edge >= 0 && expectedEdge >= 0, "edge at " + px + "," + py);
+                assertEquals(bestEdge, edgeDistanceSq(scene, edge, px, py));
+            }
+        }
+    }
+
+    @Test
+    void picksMatchLinearScanAfterRebuildAndIncrementalUpdates() {
+        Random random = new Random(17L);
+        List<Faction> factions = factions();
+        List<Relationship> relationships = relationships(random);
+        double[] x = new double[FACTIONS];
+        double[] y = new double[FACTIONS];
+        for (int i = 0; i < FACTIONS; i++) {
+            x[i] = random.nextDouble() * 1000 - 500;
+            y[i] = random.nextDouble() * 1000 - 500;
+        }
+
+        SpatialIndex index = new SpatialIndex();
+        assertFalse(index.update(scene(factions, relationships, x, y)));
+        assertMatchesScan(index, random);
+
+        int nodeMoves = 0;
+        int edgeMoves = 0;
+        for (int step = 0; step < 30; step++) {
+            for (int i = 0; i < FACTIONS; i++) {
+                // Mostly layout-sized nudges, sometimes a long jump
+                double reach = random.nextInt(20) == 0 ? 200 : 6;
+                x[i] += random.nextGaussian() * reach;
+                y[i] += random.nextGaussian() * reach;
+            }
+            assertTrue(index.update(scene(factions, relationships, x, y)));
+            nodeMoves += index.getLastNodeMoves();
+            edgeMoves += index.getLastEdgeMoves();
+            assertMatchesScan(index, random);
+        }
+        assertTrue(nodeMoves > 0);
+        assertTrue(edgeMoves > 0 && edgeMoves < 30 * relationships.size(), "edges re-registered: " + edgeMoves);
+
+        // A different graph is rebuilt from scratch
+        assertFalse(index.update(scene(factions, relationships.subList(0, relationships.size() / 2), x, y)));
+        assertMatchesScan(index, random);
+    }
+}
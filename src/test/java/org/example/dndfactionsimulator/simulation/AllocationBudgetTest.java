@@ -0,0 +1,80 @@
+package org.example.dndfactionsimulator.simulation;
+
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.metrics.AllocationTracker;
+import org.example.dndfactionsimulator.metrics.TurnMetrics;
+import org.example.dndfactionsimulator.metrics.TurnPhase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures heap allocation of the turn loop on a warmed-up synthetic world and
+ * compares it with the budget recorded in allocation-budget.properties.
+ * Budgets are bytes per faction per turn, so they hold for any world size.
+ */
+class AllocationBudgetTest {
+    private static final String BUDGET_RESOURCE = "/org/example/dndfactionsimulator/allocation-budget.properties";
+    private static final int FACTIONS = 1000;
+    private static final int WARMUP_TURNS = 50;
+    private static final int MEASURED_TURNS = 20;
+
+    @Test
+    void turnStaysWithinAllocationBudget() throws IOException {
+        Properties budget = loadBudget();
+
+        DatabaseManager db = SyntheticWorld.create(FACTIONS, 4, 42L);
+        SimulationEngine engine = new SimulationEngine(db, new TurnMetrics());
+        for (int i = 0; i < WARMUP_TURNS; i++) {
+            engine.runTurn();
+        }
+
+        AllocationTracker tracker = new AllocationTracker();
+        engine.setAllocationTracker(tracker);
+        for (int i = 0; i < MEASURED_TURNS; i++) {
+            engine.runTurn();
+        }
+        engine.setAllocationTracker(null);
+        db.close();
+
+        boolean withinBudget = true;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%n=== ALLOCATION BUDGET (%d factions, %d measured turns) ===%n",
+                FACTIONS, MEASURED_TURNS));
+        report.append(String.format("%-16s %14s %14s %14s  %s%n",
+                "Phase", "bytes/turn", "bytes/faction", "budget", "status"));
+        for (TurnPhase phase : TurnPhase.values()) {
+            withinBudget &= appendLine(report, phase.getDisplayName(), tracker.getBytes(phase) / MEASURED_TURNS,
+                    budget.getProperty("phase." + phase.name() + ".bytesPerFaction"));
+        }
+        withinBudget &= appendLine(report, "Whole turn", tracker.getTotalBytes() / MEASURED_TURNS,
+                budget.getProperty("turn.bytesPerFaction"));
+        System.out.println(report);
+
+        assertTrue(withinBudget, "Allocation over budget:" + report);
+    }
+
+    private static boolean appendLine(StringBuilder report, String label, long bytesPerTurn, String budgetValue) {
+        assertNotNull(budgetValue, "No budget for " + label);
+        long perFaction = bytesPerTurn / FACTIONS;
+        long limit = Long.parseLong(budgetValue.trim());
+        boolean ok = perFaction <= limit;
+        report.append(String.format("%-16s %14d %14d %14d  %s%n",
+                label, bytesPerTurn, perFaction, limit, ok ? "OK" : "OVER"));
+        return ok;
+    }
+
+    private static Properties loadBudget() throws IOException {
+        Properties budget = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream(BUDGET_RESOURCE)) {
+            assertNotNull(in, "Missing " + BUDGET_RESOURCE);
+            budget.load(in);
+        }
+        return budget;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.dndfactionsimulator.simulation;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Every registered engine mode must reproduce the reference engine turn for turn.
+ */
+class GoldenRunHarnessTest {
+    private static final int FACTIONS = 300;
+    private static final int TURNS = 10;
+    private static final long SEED = 42L;
+
+    @TestFactory
+    List<DynamicTest> registeredModesMatchReference() {
+        GoldenRunHarness harness = new GoldenRunHarness(FACTIONS, TURNS, SEED);
+        harness.addRegisteredModes();
+        assertFalse(harness.getModes().isEmpty());
+
+        GoldenTrace reference = harness.record(GoldenRunHarness.REFERENCE, GoldenRunHarness.referenceMode());
+        return harness.getModes().entrySet().stream()
+                .map(mode -> DynamicTest.dynamicTest(mode.getKey(), () -> {
+                    GoldenTrace trace = harness.record(mode.getKey(), mode.getValue());
+                    assertNull(GoldenRunHarness.compare(reference, trace), mode.getKey() + " diverged");
+                }))
+                .toList();
+    }
+
+    @Test
+    void differentSeedIsReportedAsDivergence() {
+        GoldenTrace reference = new GoldenRunHarness(FACTIONS, TURNS, SEED)
+                .record(GoldenRunHarness.REFERENCE, GoldenRunHarness.referenceMode());
+        GoldenTrace other = new GoldenRunHarness(FACTIONS, TURNS, SEED + 1)
+                .record(GoldenRunHarness.REFERENCE, GoldenRunHarness.referenceMode());
+
+        assertNotNull(GoldenRunHarness.compare(reference, other));
+    }
+}
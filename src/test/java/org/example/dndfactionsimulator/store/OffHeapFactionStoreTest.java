@@ -0,0 +1,192 @@
+package org.example.dndfactionsimulator.store;
+
+import org.example.dndfactionsimulator.database.DatabaseManager;
+import org.example.dndfactionsimulator.metrics.TurnMetrics;
+import org.example.dndfactionsimulator.model.Alignment;
+import org.example.dndfactionsimulator.model.Faction;
+import org.example.dndfactionsimulator.model.FactionType;
+import org.example.dndfactionsimulator.simulation.SimulationEngine;
+import org.example.dndfactionsimulator.simulation.SyntheticWorld;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapFactionStoreTest {
+
+    private static Faction faction(int id, String name, int gold) {
+        Faction faction = new Faction(name, FactionType.CULT, Alignment.CHAOTIC_EVIL);
+        faction.setId(id);
+        faction.setGold(gold);
+        return faction;
+    }
+
+    @Test
+    void viewsReadAndWriteTheRecord() {
+        OffHeapFactionStore store = OffHeapFactionStore.load(List.of(faction(3, "Ashen Hand", 500), faction(9, "Ashen Hand", 40)));
+        Faction view = store.getFaction(3);
+
+        assertEquals("Ashen Hand", view.getName());
+        assertEquals(500, view.getGold());
+        assertEquals(FactionType.CULT, view.getType());
+        assertEquals(Alignment.CHAOTIC_EVIL, view.getAlignment());
+        assertEquals(1, store.getNameCount());
+        assertEquals(2, store.size());
+
+        view.addTroops(-1000);
+        assertEquals(0, view.getTroops());
+        assertEquals(Faction.strengthOf(500, 0, view.getMagic(), view.getInfluence()), view.getStrength());
+        view.setActive(false);
+        assertEquals(List.of(store.getFaction(9)), store.getActiveFactions());
+        assertNull(store.getFaction(4));
+    }
+
+    @Test
+    void viewsOfTheSameFactionAreEqual() {
+        OffHeapFactionStore store = OffHeapFactionStore.load(List.of(faction(1, "A", 1), faction(2, "B", 2)));
+
+        List<Faction> first = store.getActiveFactions();
+        List<Faction> second = store.getAllFactions();
+        assertEquals(first, second);
+        assertEquals(first.get(1), store.getFaction(2));
+        assertEquals(first.get(1).hashCode(), store.getFaction(2).hashCode());
+        assertNotEquals(first.get(0), first.get(1));
+
+        // A change through one view shows through every other
+        first.get(0).addGold(10);
+        assertEquals(11, second.get(0).getGold());
+
+        OffHeapFactionStore other = OffHeapFactionStore.load(List.of(faction(1, "A", 1)));
+        assertNotEquals(other.getFaction(1), store.getFaction(1));
+    }
+
+    @Test
+    void retainedHeapDoesNotGrowWithFactionCount() {
+        long baseline = usedHeapAfterTouchingViews(1_000);
+        long large = usedHeapAfterTouchingViews(200_000);
+
+        // A view kept per faction would hold on to ~10 MB here
+        assertTrue(large - baseline < 2 * 1024 * 1024,
+                "store of 200k factions retains " + (large - baseline) / 1024 + " KB more heap");
+    }
+
+    /**
+     * Heap in use, after a collection, with a store of the given size loaded and every
+     * one of its factions viewed once
+     */
+    private static long usedHeapAfterTouchingViews(int factions) {
+        OffHeapFactionStore store = load(factions);
+        long gold = 0;
+        for (Faction view : store.getAllFactions()) {
+            gold += view.getGold();
+        }
+        assertTrue(gold > 0);
+
+        long used = usedHeap();
+        assertEquals(factions, store.size());
+        return used;
+    }
+
+    private static OffHeapFactionStore load(int factions) {
+        List<Faction> loaded = new ArrayList<>(factions);
+        for (int id = 1; id <= factions; id++) {
+            loaded.add(faction(id, "Faction " + id % 50, id));
+        }
+        return OffHeapFactionStore.load(loaded);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    @Test
+    void onlyActualChangesMarkTheRecordUnsaved() {
+        OffHeapFactionStore store = OffHeapFactionStore.load(List.of(faction(1, "A", 100)));
+        Faction view = store.getFaction(1);
+        assertFalse(view.hasUnsavedChanges());
+
+        view.setGold(100);
+        view.setActive(true);
+        assertFalse(view.hasUnsavedChanges());
+
+        view.addGold(5);
+        assertTrue(view.hasUnsavedChanges());
+        view.markSaved();
+        assertFalse(view.hasUnsavedChanges());
+        assertEquals(105, view.getGold());
+    }
+
+    @Test
+    void nameTypeAndAlignmentMarkTheRecordUnsavedOnlyWhenChanged() {
+        OffHeapFactionStore store = OffHeapFactionStore.load(List.of(faction(1, "A", 100)));
+        Faction view = store.getFaction(1);
+
+        view.setName("A");
+        view.setType(FactionType.CULT);
+        view.setAlignment(Alignment.CHAOTIC_EVIL);
+        assertFalse(view.hasUnsavedChanges());
+
+        view.setName("B");
+        assertTrue(view.hasUnsavedChanges());
+        assertEquals("B", view.getName());
+        view.markSaved();
+
+        view.setType(FactionType.GUILD);
+        assertTrue(view.hasUnsavedChanges());
+        assertEquals(FactionType.GUILD, view.getType());
+        view.markSaved();
+
+        view.setAlignment(Alignment.LAWFUL_GOOD);
+        assertTrue(view.hasUnsavedChanges());
+        assertEquals(Alignment.LAWFUL_GOOD, view.getAlignment());
+    }
+
+    @Test
+    void setIdMovesTheRecord() {
+        OffHeapFactionStore store = OffHeapFactionStore.load(List.of(faction(1, "A", 10), faction(2, "B", 20)));
+        Faction view = store.getFaction(1);
+
+        view.setId(5000);
+        assertEquals(5000, view.getId());
+        assertFalse(store.contains(1));
+        assertEquals(view, store.getFaction(5000));
+        assertEquals("A", view.getName());
+        assertEquals(10, view.getGold());
+        assertEquals(2, store.size());
+
+        assertThrows(IllegalArgumentException.class, () -> view.setId(2));
+        assertEquals(5000, view.getId());
+    }
+
+    @Test
+    void turnsOnTheStoreAreSavedToTheDatabase() {
+        DatabaseManager db = SyntheticWorld.create(200, 4, 42L);
+        OffHeapFactionStore store = OffHeapFactionStore.load(db.getAllFactions());
+        SimulationEngine engine = new SimulationEngine(db, new TurnMetrics(), 42L);
+        engine.setFactionStore(store);
+        for (int i = 0; i < 5; i++) {
+            engine.runTurn();
+        }
+
+        List<Faction> saved = db.getAllFactions();
+        assertEquals(store.size(), saved.size());
+        for (Faction faction : saved) {
+            Faction stored = store.getFaction(faction.getId());
+            assertEquals(stored.getGold(), faction.getGold());
+            assertEquals(stored.getTroops(), faction.getTroops());
+            assertEquals(stored.getMagic(), faction.getMagic());
+            assertEquals(stored.getInfluence(), faction.getInfluence());
+            assertEquals(stored.isActive(), faction.isActive());
+            assertFalse(stored.hasUnsavedChanges());
+        }
+        db.close();
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.dndfactionsimulator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+
+    @Test
+    void putGetAndOverwrite() {
+        IntIntMap map = new IntIntMap(4);
+        map.put(7, 70);
+        map.put(-3, 30);
+        map.put(7, 71);
+
+        assertEquals(2, map.size());
+        assertEquals(71, map.get(7, -1));
+        assertEquals(30, map.get(-3, -1));
+        assertEquals(-1, map.get(8, -1));
+        assertTrue(map.containsKey(-3));
+        assertFalse(map.containsKey(8));
+        assertThrows(IllegalArgumentException.class, () -> map.put(Integer.MIN_VALUE, 1));
+    }
+
+    @Test
+    void removeKeepsProbeRunsReachable() {
+        IntIntMap map = new IntIntMap(4);
+        for (int key = 0; key < 1000; key++) {
+            map.put(key, key * 2);
+        }
+        // Remove every other key, so most probe runs get holes in the middle
+        for (int key = 0; key < 1000; key += 2) {
+            assertEquals(key * 2, map.remove(key, -1));
+        }
+        assertEquals(500, map.size());
+        for (int key = 0; key < 1000; key++) {
+            assertEquals(key % 2 == 0 ? -1 : key * 2, map.get(key, -1), "key " + key);
+        }
+        assertEquals(-1, map.remove(0, -1));
+        assertEquals(-1, map.remove(Integer.MIN_VALUE, -1));
+    }
+
+    @Test
+    void matchesHashMapThroughGrowthAndRemoval() {
+        Random random = new Random(3L);
+        IntIntMap map = new IntIntMap(1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            // Small key range so puts, overwrites and removes hit the same keys
+            int key = random.nextInt(4000) - 1000;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -1000; key < 3000; key++) {
+            assertEquals(expected.getOrDefault(key, -1), map.get(key, -1), "key " + key);
+        }
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(expected.keySet().iterator().next()));
+    }
+}
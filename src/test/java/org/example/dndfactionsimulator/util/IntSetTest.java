@@ -0,0 +1,68 @@
+package org.example.dndfactionsimulator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntSetTest {
+
+    @Test
+    void addReportsDuplicates() {
+        IntSet set = new IntSet(4);
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(-5));
+
+        assertEquals(2, set.size());
+        assertTrue(set.contains(-5));
+        assertFalse(set.contains(6));
+        assertThrows(IllegalArgumentException.class, () -> set.add(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void removeKeepsProbeRunsReachable() {
+        IntSet set = new IntSet(4);
+        for (int key = 0; key < 1000; key++) {
+            set.add(key);
+        }
+        for (int key = 0; key < 1000; key += 2) {
+            assertTrue(set.remove(key));
+        }
+        assertEquals(500, set.size());
+        for (int key = 0; key < 1000; key++) {
+            assertEquals(key % 2 != 0, set.contains(key), "key " + key);
+        }
+        assertFalse(set.remove(0));
+        assertFalse(set.remove(Integer.MIN_VALUE));
+        // Removed keys can be added again
+        assertTrue(set.add(0));
+        assertTrue(set.contains(0));
+    }
+
+    @Test
+    void matchesHashSetThroughGrowthAndRemoval() {
+        Random random = new Random(9L);
+        IntSet set = new IntSet(1);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(4000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), set.remove(key));
+            } else {
+                assertEquals(expected.add(key), set.add(key));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int key = -1000; key < 3000; key++) {
+            assertEquals(expected.contains(key), set.contains(key), "key " + key);
+        }
+
+        set.clear();
+        assertEquals(0, set.size());
+        assertTrue(set.add(expected.iterator().next()));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.dndfactionsimulator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntMapTest {
+
+    private static long pair(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    @Test
+    void putGetAndOverwrite() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(pair(1, 2), 12);
+        map.put(pair(2, 1), 21);
+        map.put(pair(1, 2), 13);
+
+        assertEquals(2, map.size());
+        assertEquals(13, map.get(pair(1, 2), -1));
+        assertEquals(21, map.get(pair(2, 1), -1));
+        assertEquals(-1, map.get(pair(1, 3), -1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+    }
+
+    @Test
+    void removeKeepsProbeRunsReachable() {
+        LongIntMap map = new LongIntMap(4);
+        for (int i = 0; i < 1000; i++) {
+            map.put(pair(i, i + 1), i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, map.remove(pair(i, i + 1), -1));
+        }
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, map.get(pair(i, i + 1), -1), "pair " + i);
+        }
+        assertEquals(-1, map.remove(pair(0, 1), -1));
+        assertEquals(-1, map.remove(Long.MIN_VALUE, -1));
+    }
+
+    @Test
+    void matchesHashMapThroughGrowthAndRemoval() {
+        Random random = new Random(5L);
+        LongIntMap map = new LongIntMap(1);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = pair(random.nextInt(60), random.nextInt(60));
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int a = 0; a < 60; a++) {
+            for (int b = 0; b < 60; b++) {
+                assertEquals(expected.getOrDefault(pair(a, b), -1), map.get(pair(a, b), -1));
+            }
+        }
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(expected.keySet().iterator().next(), -1));
+    }
+}